@@ -85,6 +85,7 @@ public class ArangoDBConfiguration {
     private String password = "vivo@123";
 
     private String domainsCollection = "domains";
+    private String schemaPropagationCollection = "schema_propagation";
 
     /**
      * @return the databaseName
@@ -268,6 +269,20 @@ public class ArangoDBConfiguration {
         this.domainsCollection = domainsCollection;
     }
 
+    /**
+     * @return the schemaPropagationCollection
+     */
+    public String getSchemaPropagationCollection() {
+        return schemaPropagationCollection;
+    }
+
+    /**
+     * @param schemaPropagationCollection the schemaPropagationCollection to set
+     */
+    public void setSchemaPropagationCollection(String schemaPropagationCollection) {
+        this.schemaPropagationCollection = schemaPropagationCollection;
+    }
+
     /**
      * @return the circuitsSufix
      */
@@ -28,6 +28,9 @@ import com.arangodb.ArangoDBException;
 import com.arangodb.ArangoDatabase;
 import com.arangodb.entity.CollectionType;
 import com.arangodb.model.CollectionCreateOptions;
+import com.osstelecom.db.inventory.manager.resources.model.ResourceSchemaModel;
+import com.osstelecom.db.inventory.manager.schema.SchemaReferenceCodec;
+import com.osstelecom.db.inventory.manager.schema.SchemaRegistry;
 
 /**
  *
@@ -68,18 +71,28 @@ public class ArangoDBStartup {
     private Logger logger = LoggerFactory.getLogger(ArangoDBStartup.class);
 
     @Bean
-    public ArangoDatabase arangoDatabase(ConfigurationManager configurationManager) {
+    public ArangoDatabase arangoDatabase(ConfigurationManager configurationManager, SchemaRegistry schemaRegistry) {
 
         InventoryConfiguration inventoryConfiguration = configurationManager.loadConfiguration();
         ArangoDBConfiguration arangoDbConfiguration = inventoryConfiguration.getGraphDbConfiguration();
 
-        ArangoDB graphDb = new ArangoDB.Builder()
+        //
+        // A leitura sempre entende os dois formatos de schemaModel, a escrita
+        // segue o schemaStorageMode
+        //
+        SchemaReferenceCodec schemaCodec = new SchemaReferenceCodec(schemaRegistry);
+        ArangoDB.Builder builder = new ArangoDB.Builder()
                 .host(arangoDbConfiguration.getHost(), arangoDbConfiguration.getPort())
                 .user(arangoDbConfiguration.getUser())
                 .password(arangoDbConfiguration.getPassword())
                 .maxConnections(32)
                 .connectionTtl(300L)
-                .build();
+                .registerDeserializer(ResourceSchemaModel.class, schemaCodec.deserializer());
+        if (SchemaReferenceCodec.MODE_REFERENCE.equalsIgnoreCase(inventoryConfiguration.getSchemaStorageMode())) {
+            builder.registerSerializer(ResourceSchemaModel.class, schemaCodec.referenceSerializer());
+            logger.info("Schema Models Stored as References");
+        }
+        ArangoDB graphDb = builder.build();
         ArangoDatabase database = graphDb.db(arangoDbConfiguration.getDatabaseName());
 
         if (!database.exists()) {
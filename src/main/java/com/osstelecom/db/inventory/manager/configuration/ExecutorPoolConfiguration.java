@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.manager.configuration;
+
+/**
+ * Configuração de um pool do ManagedExecutorService
+ *
+ * <p>
+ * Configurações:
+ * <ul>
+ * <li>threads: quantidade máxima de threads do pool.</li>
+ * <li>queueSize: tamanho máximo da fila de tarefas pendentes, ignorado no
+ * scheduler que é agendado.</li>
+ * <li>rejectionPolicy: o que fazer com a fila cheia, ABORT, CALLER_RUNS,
+ * DISCARD ou DISCARD_OLDEST.</li>
+ * </ul>
+ * </p>
+ *
+ * @author Lucas Nishimura
+ * @created 19.10.2026
+ */
+public class ExecutorPoolConfiguration {
+
+    private Integer threads = 2;
+    private Integer queueSize = 1000;
+    private String rejectionPolicy = "ABORT";
+
+    public ExecutorPoolConfiguration() {
+    }
+
+    public ExecutorPoolConfiguration(Integer threads, Integer queueSize, String rejectionPolicy) {
+        this.threads = threads;
+        this.queueSize = queueSize;
+        this.rejectionPolicy = rejectionPolicy;
+    }
+
+    /**
+     * @return the threads
+     */
+    public Integer getThreads() {
+        return threads;
+    }
+
+    /**
+     * @param threads the threads to set
+     */
+    public void setThreads(Integer threads) {
+        this.threads = threads;
+    }
+
+    /**
+     * @return the queueSize
+     */
+    public Integer getQueueSize() {
+        return queueSize;
+    }
+
+    /**
+     * @param queueSize the queueSize to set
+     */
+    public void setQueueSize(Integer queueSize) {
+        this.queueSize = queueSize;
+    }
+
+    /**
+     * @return the rejectionPolicy
+     */
+    public String getRejectionPolicy() {
+        return rejectionPolicy;
+    }
+
+    /**
+     * @param rejectionPolicy the rejectionPolicy to set
+     */
+    public void setRejectionPolicy(String rejectionPolicy) {
+        this.rejectionPolicy = rejectionPolicy;
+    }
+}
@@ -17,6 +17,9 @@
  */
 package com.osstelecom.db.inventory.manager.configuration;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
  * Representa a configuração do microserviço
  *
@@ -44,6 +47,131 @@ public class InventoryConfiguration {
      */
     private Integer schemaCacheTTL = 300;
     private boolean trackTimers = true;
+    /**
+     * Quantidade de IDs reservados por vez no documento do domain (hi/lo), cada
+     * instância distribui o bloco localmente sem escrever no banco a cada ID
+     */
+    private Long atomicIdBlockSize = 1000L;
+    /**
+     * Executa requisições, eventos e fan-outs de DAO em virtual threads,
+     * necessita Java 21+, em runtimes anteriores é ignorado
+     */
+    private Boolean virtualThreadsEnabled = false;
+    /**
+     * Mede espera e posse dos locks por call site e mantém a tabela de
+     * holders/waiters exposta no endpoint de actuator "locks"
+     */
+    private Boolean lockProfilingEnabled = true;
+    /**
+     * Quantidade de stripes do lock das conexões no createCircuitPath, mais
+     * stripes significam menos falso compartilhamento entre conexões
+     */
+    private Integer circuitPathLockStripes = 4096;
+    /**
+     * Tempo máximo (segundos) para obter todos os locks de um circuit path
+     */
+    private Long circuitPathLockTimeout = 60L;
+    /**
+     * Pools do ManagedExecutorService por classe de carga (topology, stats,
+     * events, maintenance, scheduler, propagation, rules)
+     */
+    private Map<String, ExecutorPoolConfiguration> executorPools = defaultExecutorPools();
+    /**
+     * Tempo (segundos) que o shutdown espera as tarefas em curso antes de
+     * interromper os pools
+     */
+    private Long executorShutdownTimeout = 30L;
+    /**
+     * Observa o schemaDir e recarrega os schemas alterados em background
+     */
+    private Boolean schemaWatchEnabled = true;
+    /**
+     * Intervalo (ms) entre as leituras dos eventos do schemaDir, alterações
+     * no mesmo intervalo viram um único reload
+     */
+    private Long schemaWatchInterval = 1000L;
+    /**
+     * Como o schemaModel é gravado nos documentos: EMBEDDED grava o modelo
+     * inteiro, REFERENCE grava só o nome e a revisão e reidrata pelo
+     * SchemaRegistry na leitura
+     */
+    private String schemaStorageMode = "EMBEDDED";
+    /**
+     * Documentos por lote na job que remove os schemaModels embutidos
+     */
+    private Integer schemaMigrationBatchSize = 500;
+    /**
+     * Documentos por lote na propagação de um schema alterado
+     */
+    private Integer schemaPropagationBatchSize = 500;
+    /**
+     * Limite de documentos por segundo gravados pela propagação de schemas,
+     * somando todas as threads. Zero ou negativo desliga o limite
+     */
+    private Double schemaPropagationRateLimit = 2000D;
+    /**
+     * Intervalo mínimo em ms entre duas verificações do mtime de uma regra
+     * groovy já compilada, e da ausência de regra para uma classe
+     */
+    private Long ruleRecheckInterval = 5000L;
+    /**
+     * Limites das regras groovy por caminho da regra (location/City.groovy),
+     * as que não estão no mapa usam a política "default"
+     */
+    private Map<String, RulePolicyConfiguration> rulePolicies = defaultRulePolicies();
+    /**
+     * Mantém em memória a topologia de cada domain, atualizada pelos eventos,
+     * para as verificações de integridade dos circuitos
+     */
+    private Boolean liveTopologyEnabled = true;
+    /**
+     * Monta as topologias de todos os domains no startup, desligado cada uma é
+     * montada no primeiro uso
+     */
+    private Boolean liveTopologyWarmUp = false;
+    /**
+     * Tempo máximo (segundos) do warm-up, os domains que ficarem de fora são
+     * montados no primeiro uso
+     */
+    private Long liveTopologyWarmUpTimeout = 300L;
+    /**
+     * Orçamento (bytes) da soma das topologias em memória, as menos usadas são
+     * descartadas ao passar do limite. Zero ou negativo desliga o limite
+     */
+    private Long liveTopologyMaxBytes = 268435456L;
+    /**
+     * Quantidade de jobs de topologia guardadas, as mais antigas saem primeiro
+     */
+    private Integer topologyJobCacheSize = 256;
+    /**
+     * Tempo (segundos) que uma job de topologia e o seu resultado ficam
+     * disponíveis e são reaproveitados para a mesma entrada
+     */
+    private Long topologyJobCacheTTL = 600L;
+    /**
+     * Acima desta quantidade de nós ativos a centralidade do domain é
+     * estimada por amostragem, se o pedido não informar samples
+     */
+    private Integer centralityMaxExactNodes = 20000;
+    /**
+     * Origens sorteadas na centralidade por amostragem
+     */
+    private Integer centralitySamples = 1024;
+    /**
+     * Tempo (segundos) que o modelo de simulação de falhas de um domain é
+     * reaproveitado. Eventos de circuito, serviço e conexão do domain descartam o
+     * modelo antes disso; remoções de circuito e serviço não geram evento
+     */
+    private Long simulationModelTTL = 300L;
+    /**
+     * Cenários aceitos em uma simulação de falhas
+     */
+    private Integer simulationMaxScenarios = 1000;
+    /**
+     * Threads do pool fork/join das buscas paralelas de topologia (alcance,
+     * centralidade, simulação de falhas), null usa a quantidade de CPUs
+     */
+    private Integer topologyForkJoinThreads;
 
     /**
      * @return the mongoDbConfiguration
@@ -191,4 +319,387 @@ public class InventoryConfiguration {
     public void setConsumableMetricsEnabled(Boolean consumableMetricsEnabled) {
         this.consumableMetricsEnabled = consumableMetricsEnabled;
     }
+
+    /**
+     * @return the atomicIdBlockSize
+     */
+    public Long getAtomicIdBlockSize() {
+        return atomicIdBlockSize;
+    }
+
+    /**
+     * @param atomicIdBlockSize the atomicIdBlockSize to set
+     */
+    public void setAtomicIdBlockSize(Long atomicIdBlockSize) {
+        this.atomicIdBlockSize = atomicIdBlockSize;
+    }
+
+    /**
+     * @return the virtualThreadsEnabled
+     */
+    public Boolean getVirtualThreadsEnabled() {
+        return virtualThreadsEnabled;
+    }
+
+    /**
+     * @param virtualThreadsEnabled the virtualThreadsEnabled to set
+     */
+    public void setVirtualThreadsEnabled(Boolean virtualThreadsEnabled) {
+        this.virtualThreadsEnabled = virtualThreadsEnabled;
+    }
+
+    /**
+     * @return the lockProfilingEnabled
+     */
+    public Boolean getLockProfilingEnabled() {
+        return lockProfilingEnabled;
+    }
+
+    /**
+     * @param lockProfilingEnabled the lockProfilingEnabled to set
+     */
+    public void setLockProfilingEnabled(Boolean lockProfilingEnabled) {
+        this.lockProfilingEnabled = lockProfilingEnabled;
+    }
+
+    /**
+     * @return the circuitPathLockStripes
+     */
+    public Integer getCircuitPathLockStripes() {
+        return circuitPathLockStripes;
+    }
+
+    /**
+     * @param circuitPathLockStripes the circuitPathLockStripes to set
+     */
+    public void setCircuitPathLockStripes(Integer circuitPathLockStripes) {
+        this.circuitPathLockStripes = circuitPathLockStripes;
+    }
+
+    /**
+     * @return the circuitPathLockTimeout
+     */
+    public Long getCircuitPathLockTimeout() {
+        return circuitPathLockTimeout;
+    }
+
+    /**
+     * @param circuitPathLockTimeout the circuitPathLockTimeout to set
+     */
+    public void setCircuitPathLockTimeout(Long circuitPathLockTimeout) {
+        this.circuitPathLockTimeout = circuitPathLockTimeout;
+    }
+
+    /**
+     * @return the executorPools
+     */
+    public Map<String, ExecutorPoolConfiguration> getExecutorPools() {
+        return executorPools;
+    }
+
+    /**
+     * @param executorPools the executorPools to set
+     */
+    public void setExecutorPools(Map<String, ExecutorPoolConfiguration> executorPools) {
+        this.executorPools = executorPools;
+    }
+
+    /**
+     * @return the executorShutdownTimeout
+     */
+    public Long getExecutorShutdownTimeout() {
+        return executorShutdownTimeout;
+    }
+
+    /**
+     * @param executorShutdownTimeout the executorShutdownTimeout to set
+     */
+    public void setExecutorShutdownTimeout(Long executorShutdownTimeout) {
+        this.executorShutdownTimeout = executorShutdownTimeout;
+    }
+
+    /**
+     * @return the schemaWatchEnabled
+     */
+    public Boolean getSchemaWatchEnabled() {
+        return schemaWatchEnabled;
+    }
+
+    /**
+     * @param schemaWatchEnabled the schemaWatchEnabled to set
+     */
+    public void setSchemaWatchEnabled(Boolean schemaWatchEnabled) {
+        this.schemaWatchEnabled = schemaWatchEnabled;
+    }
+
+    /**
+     * @return the schemaWatchInterval
+     */
+    public Long getSchemaWatchInterval() {
+        return schemaWatchInterval;
+    }
+
+    /**
+     * @param schemaWatchInterval the schemaWatchInterval to set
+     */
+    public void setSchemaWatchInterval(Long schemaWatchInterval) {
+        this.schemaWatchInterval = schemaWatchInterval;
+    }
+
+    /**
+     * @return the schemaStorageMode
+     */
+    public String getSchemaStorageMode() {
+        return schemaStorageMode;
+    }
+
+    /**
+     * @param schemaStorageMode the schemaStorageMode to set
+     */
+    public void setSchemaStorageMode(String schemaStorageMode) {
+        this.schemaStorageMode = schemaStorageMode;
+    }
+
+    /**
+     * @return the schemaMigrationBatchSize
+     */
+    public Integer getSchemaMigrationBatchSize() {
+        return schemaMigrationBatchSize;
+    }
+
+    /**
+     * @param schemaMigrationBatchSize the schemaMigrationBatchSize to set
+     */
+    public void setSchemaMigrationBatchSize(Integer schemaMigrationBatchSize) {
+        this.schemaMigrationBatchSize = schemaMigrationBatchSize;
+    }
+
+    /**
+     * @return the schemaPropagationBatchSize
+     */
+    public Integer getSchemaPropagationBatchSize() {
+        return schemaPropagationBatchSize;
+    }
+
+    /**
+     * @param schemaPropagationBatchSize the schemaPropagationBatchSize to set
+     */
+    public void setSchemaPropagationBatchSize(Integer schemaPropagationBatchSize) {
+        this.schemaPropagationBatchSize = schemaPropagationBatchSize;
+    }
+
+    /**
+     * @return the schemaPropagationRateLimit
+     */
+    public Double getSchemaPropagationRateLimit() {
+        return schemaPropagationRateLimit;
+    }
+
+    /**
+     * @param schemaPropagationRateLimit the schemaPropagationRateLimit to set
+     */
+    public void setSchemaPropagationRateLimit(Double schemaPropagationRateLimit) {
+        this.schemaPropagationRateLimit = schemaPropagationRateLimit;
+    }
+
+    /**
+     * @return the ruleRecheckInterval
+     */
+    public Long getRuleRecheckInterval() {
+        return ruleRecheckInterval;
+    }
+
+    /**
+     * @param ruleRecheckInterval the ruleRecheckInterval to set
+     */
+    public void setRuleRecheckInterval(Long ruleRecheckInterval) {
+        this.ruleRecheckInterval = ruleRecheckInterval;
+    }
+
+    /**
+     * @return the rulePolicies
+     */
+    public Map<String, RulePolicyConfiguration> getRulePolicies() {
+        return rulePolicies;
+    }
+
+    /**
+     * @param rulePolicies the rulePolicies to set
+     */
+    public void setRulePolicies(Map<String, RulePolicyConfiguration> rulePolicies) {
+        this.rulePolicies = rulePolicies;
+    }
+
+    /**
+     * @return the liveTopologyEnabled
+     */
+    public Boolean getLiveTopologyEnabled() {
+        return liveTopologyEnabled;
+    }
+
+    /**
+     * @param liveTopologyEnabled the liveTopologyEnabled to set
+     */
+    public void setLiveTopologyEnabled(Boolean liveTopologyEnabled) {
+        this.liveTopologyEnabled = liveTopologyEnabled;
+    }
+
+    /**
+     * @return the liveTopologyWarmUp
+     */
+    public Boolean getLiveTopologyWarmUp() {
+        return liveTopologyWarmUp;
+    }
+
+    /**
+     * @param liveTopologyWarmUp the liveTopologyWarmUp to set
+     */
+    public void setLiveTopologyWarmUp(Boolean liveTopologyWarmUp) {
+        this.liveTopologyWarmUp = liveTopologyWarmUp;
+    }
+
+    /**
+     * @return the liveTopologyWarmUpTimeout
+     */
+    public Long getLiveTopologyWarmUpTimeout() {
+        return liveTopologyWarmUpTimeout;
+    }
+
+    /**
+     * @param liveTopologyWarmUpTimeout the liveTopologyWarmUpTimeout to set
+     */
+    public void setLiveTopologyWarmUpTimeout(Long liveTopologyWarmUpTimeout) {
+        this.liveTopologyWarmUpTimeout = liveTopologyWarmUpTimeout;
+    }
+
+    /**
+     * @return the liveTopologyMaxBytes
+     */
+    public Long getLiveTopologyMaxBytes() {
+        return liveTopologyMaxBytes;
+    }
+
+    /**
+     * @param liveTopologyMaxBytes the liveTopologyMaxBytes to set
+     */
+    public void setLiveTopologyMaxBytes(Long liveTopologyMaxBytes) {
+        this.liveTopologyMaxBytes = liveTopologyMaxBytes;
+    }
+
+    /**
+     * @return the topologyJobCacheSize
+     */
+    public Integer getTopologyJobCacheSize() {
+        return topologyJobCacheSize;
+    }
+
+    /**
+     * @param topologyJobCacheSize the topologyJobCacheSize to set
+     */
+    public void setTopologyJobCacheSize(Integer topologyJobCacheSize) {
+        this.topologyJobCacheSize = topologyJobCacheSize;
+    }
+
+    /**
+     * @return the topologyJobCacheTTL
+     */
+    public Long getTopologyJobCacheTTL() {
+        return topologyJobCacheTTL;
+    }
+
+    /**
+     * @param topologyJobCacheTTL the topologyJobCacheTTL to set
+     */
+    public void setTopologyJobCacheTTL(Long topologyJobCacheTTL) {
+        this.topologyJobCacheTTL = topologyJobCacheTTL;
+    }
+
+    /**
+     * @return the centralityMaxExactNodes
+     */
+    public Integer getCentralityMaxExactNodes() {
+        return centralityMaxExactNodes;
+    }
+
+    /**
+     * @param centralityMaxExactNodes the centralityMaxExactNodes to set
+     */
+    public void setCentralityMaxExactNodes(Integer centralityMaxExactNodes) {
+        this.centralityMaxExactNodes = centralityMaxExactNodes;
+    }
+
+    /**
+     * @return the centralitySamples
+     */
+    public Integer getCentralitySamples() {
+        return centralitySamples;
+    }
+
+    /**
+     * @param centralitySamples the centralitySamples to set
+     */
+    public void setCentralitySamples(Integer centralitySamples) {
+        this.centralitySamples = centralitySamples;
+    }
+
+    /**
+     * @return the simulationModelTTL
+     */
+    public Long getSimulationModelTTL() {
+        return simulationModelTTL;
+    }
+
+    /**
+     * @param simulationModelTTL the simulationModelTTL to set
+     */
+    public void setSimulationModelTTL(Long simulationModelTTL) {
+        this.simulationModelTTL = simulationModelTTL;
+    }
+
+    /**
+     * @return the simulationMaxScenarios
+     */
+    public Integer getSimulationMaxScenarios() {
+        return simulationMaxScenarios;
+    }
+
+    /**
+     * @param simulationMaxScenarios the simulationMaxScenarios to set
+     */
+    public void setSimulationMaxScenarios(Integer simulationMaxScenarios) {
+        this.simulationMaxScenarios = simulationMaxScenarios;
+    }
+
+    /**
+     * @return the topologyForkJoinThreads
+     */
+    public Integer getTopologyForkJoinThreads() {
+        return topologyForkJoinThreads;
+    }
+
+    /**
+     * @param topologyForkJoinThreads the topologyForkJoinThreads to set
+     */
+    public void setTopologyForkJoinThreads(Integer topologyForkJoinThreads) {
+        this.topologyForkJoinThreads = topologyForkJoinThreads;
+    }
+
+    private static Map<String, ExecutorPoolConfiguration> defaultExecutorPools() {
+        int cpus = Runtime.getRuntime().availableProcessors();
+        Map<String, ExecutorPoolConfiguration> pools = new LinkedHashMap<>();
+        pools.put("topology", new ExecutorPoolConfiguration(Math.max(2, cpus), 10000, "CALLER_RUNS"));
+        pools.put("stats", new ExecutorPoolConfiguration(2, 100, "ABORT"));
+        pools.put("events", new ExecutorPoolConfiguration(1, 10, "ABORT"));
+        pools.put("maintenance", new ExecutorPoolConfiguration(4, 100, "ABORT"));
+        pools.put("scheduler", new ExecutorPoolConfiguration(2, 0, "ABORT"));
+        pools.put("propagation", new ExecutorPoolConfiguration(2, 1000, "ABORT"));
+        pools.put("rules", new ExecutorPoolConfiguration(Math.max(2, cpus), 1000, "CALLER_RUNS"));
+        return pools;
+    }
+
+    private static Map<String, RulePolicyConfiguration> defaultRulePolicies() {
+        Map<String, RulePolicyConfiguration> policies = new LinkedHashMap<>();
+        policies.put("default", new RulePolicyConfiguration(2000L, 5, 60000L, "SKIP"));
+        return policies;
+    }
 }
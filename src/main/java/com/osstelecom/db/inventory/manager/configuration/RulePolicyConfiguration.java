@@ -0,0 +1,155 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.manager.configuration;
+
+/**
+ * Limites de execução de uma regra groovy
+ *
+ * <p>
+ * Configurações:
+ * <ul>
+ * <li>timeout: tempo máximo (ms) de uma execução, compilado na regra com
+ * TimedInterrupt. Zero desliga.</li>
+ * <li>maxLoopIterations: máximo de iterações de laços e chamadas de closures
+ * por execução. Zero desliga.</li>
+ * <li>maxAllocatedBytes: máximo de bytes alocados pela thread durante a
+ * execução. Zero desliga.</li>
+ * <li>failureThreshold: falhas seguidas (timeout, budget ou erro inesperado)
+ * que abrem o circuit breaker da regra. Uma ScriptRuleException lançada pela
+ * regra é recusa do recurso e não conta. Zero desliga.</li>
+ * <li>openInterval: tempo (ms) que o breaker fica aberto antes de deixar uma
+ * execução de teste passar.</li>
+ * <li>whenOpen: REJECT (default) falha a transação, SKIP não executa a regra
+ * e deixa a transação seguir sem validação.</li>
+ * </ul>
+ * </p>
+ *
+ * @author Lucas Nishimura
+ * @created 19.10.2026
+ */
+public class RulePolicyConfiguration {
+
+    private Long timeout = 2000L;
+    private Long maxLoopIterations = 0L;
+    private Long maxAllocatedBytes = 0L;
+    private Integer failureThreshold = 5;
+    private Long openInterval = 60000L;
+    private String whenOpen = "REJECT";
+
+    public RulePolicyConfiguration() {
+    }
+
+    public RulePolicyConfiguration(Long timeout, Integer failureThreshold, Long openInterval, String whenOpen) {
+        this.timeout = timeout;
+        this.failureThreshold = failureThreshold;
+        this.openInterval = openInterval;
+        this.whenOpen = whenOpen;
+    }
+
+    /**
+     * @return os limites que entram na compilação da regra, se mudarem a
+     * regra precisa ser recompilada
+     */
+    public String compileSignature() {
+        return this.timeout + ":" + this.maxLoopIterations + ":" + this.maxAllocatedBytes;
+    }
+
+    /**
+     * @return the timeout
+     */
+    public Long getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * @param timeout the timeout to set
+     */
+    public void setTimeout(Long timeout) {
+        this.timeout = timeout;
+    }
+
+    /**
+     * @return the maxLoopIterations
+     */
+    public Long getMaxLoopIterations() {
+        return maxLoopIterations;
+    }
+
+    /**
+     * @param maxLoopIterations the maxLoopIterations to set
+     */
+    public void setMaxLoopIterations(Long maxLoopIterations) {
+        this.maxLoopIterations = maxLoopIterations;
+    }
+
+    /**
+     * @return the maxAllocatedBytes
+     */
+    public Long getMaxAllocatedBytes() {
+        return maxAllocatedBytes;
+    }
+
+    /**
+     * @param maxAllocatedBytes the maxAllocatedBytes to set
+     */
+    public void setMaxAllocatedBytes(Long maxAllocatedBytes) {
+        this.maxAllocatedBytes = maxAllocatedBytes;
+    }
+
+    /**
+     * @return the failureThreshold
+     */
+    public Integer getFailureThreshold() {
+        return failureThreshold;
+    }
+
+    /**
+     * @param failureThreshold the failureThreshold to set
+     */
+    public void setFailureThreshold(Integer failureThreshold) {
+        this.failureThreshold = failureThreshold;
+    }
+
+    /**
+     * @return the openInterval
+     */
+    public Long getOpenInterval() {
+        return openInterval;
+    }
+
+    /**
+     * @param openInterval the openInterval to set
+     */
+    public void setOpenInterval(Long openInterval) {
+        this.openInterval = openInterval;
+    }
+
+    /**
+     * @return the whenOpen
+     */
+    public String getWhenOpen() {
+        return whenOpen;
+    }
+
+    /**
+     * @param whenOpen the whenOpen to set
+     */
+    public void setWhenOpen(String whenOpen) {
+        this.whenOpen = whenOpen;
+    }
+}
@@ -54,6 +54,16 @@ public class SecurityConfiguration {
                 .hasAuthority("SCOPE_write")
                 .antMatchers(HttpMethod.DELETE, "/topology/v1/**")
                 .hasAuthority("SCOPE_write")
+                //
+                // Actuator: só o health é aberto, métricas e a tabela de locks
+                // expõem nomes de threads, requisições e stacks
+                //
+                .antMatchers(HttpMethod.GET, "/actuator", "/actuator/health", "/actuator/health/**")
+                .permitAll()
+                .antMatchers(HttpMethod.POST, "/actuator/rules/**", "/actuator/topology/**")
+                .hasAuthority("SCOPE_write")
+                .antMatchers("/actuator/**")
+                .hasAuthority("SCOPE_read")
                 .anyRequest()
                 .anonymous()
                 .and()
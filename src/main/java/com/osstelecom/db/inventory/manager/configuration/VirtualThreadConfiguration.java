@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.manager.configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.web.embedded.undertow.UndertowDeploymentInfoCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Modo de execução em Virtual Threads (Java 21+).
+ * <p>
+ * Quando {@code virtualThreadsEnabled} está ligado na configuração e o runtime
+ * suporta, as requisições HTTP deixam de rodar nos workers do Undertow e as
+ * threads dos pools do ManagedExecutorService passam a ser virtuais. Assim
+ * uma chamada bloqueante no driver do Arango não prende uma thread de
+ * plataforma. O projeto compila para Java 11, então a API de virtual threads
+ * é acessada por reflexão e, se não existir, tudo continua em threads de
+ * plataforma.
+ *
+ * @author Lucas Nishimura
+ * @created 19.10.2026
+ */
+@Configuration
+public class VirtualThreadConfiguration {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadConfiguration.class);
+
+    private final boolean enabled;
+
+    public VirtualThreadConfiguration(ConfigurationManager configurationManager) {
+        Boolean configured = configurationManager.loadConfiguration().getVirtualThreadsEnabled();
+        if (Boolean.TRUE.equals(configured) && !isSupported()) {
+            logger.warn("Virtual Threads Requested but Runtime:[{}] Does not Support it, Using Platform Threads", Runtime.version());
+        }
+        this.enabled = Boolean.TRUE.equals(configured) && isSupported();
+        logger.info("Virtual Threads Enabled:[{}]", this.enabled);
+    }
+
+    /**
+     * Despacha as requisições dos servlets em virtual threads, o Undertow
+     * continua usando as threads de IO apenas para o protocolo
+     *
+     * @return
+     */
+    @Bean
+    public UndertowDeploymentInfoCustomizer virtualThreadDeploymentInfoCustomizer() {
+        return deploymentInfo -> {
+            if (this.enabled) {
+                deploymentInfo.setExecutor(newExecutor("http-vt-"));
+                logger.info("Undertow Requests Dispatched on Virtual Threads");
+            }
+        };
+    }
+
+    /**
+     * @return true se o modo virtual thread está ativo
+     */
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    /**
+     * Fábrica de threads nomeadas prefix-N, virtuais se habilitado, daemon em
+     * threads de plataforma. Quem limita a quantidade é o pool que a usa.
+     *
+     * @param namePrefix
+     * @return
+     */
+    public ThreadFactory newThreadFactory(String namePrefix) {
+        if (this.enabled) {
+            return virtualThreadFactory(namePrefix);
+        }
+        AtomicInteger counter = new AtomicInteger();
+        return task -> {
+            Thread thread = new Thread(task, namePrefix + counter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Verifica se o runtime possui Thread.ofVirtual()
+     *
+     * @return
+     */
+    public static boolean isSupported() {
+        try {
+            Thread.class.getMethod("ofVirtual");
+            Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            return true;
+        } catch (NoSuchMethodException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Executor de uma virtual thread por tarefa
+     *
+     * @param namePrefix
+     * @return
+     */
+    public static ExecutorService newExecutor(String namePrefix) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, virtualThreadFactory(namePrefix));
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException("Virtual Threads not Available", ex);
+        }
+    }
+
+    /**
+     * Thread.ofVirtual().name(prefix, 0).factory()
+     *
+     * @param namePrefix
+     * @return
+     */
+    private static ThreadFactory virtualThreadFactory(String namePrefix) {
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 0L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException("Virtual Threads not Available", ex);
+        }
+    }
+}
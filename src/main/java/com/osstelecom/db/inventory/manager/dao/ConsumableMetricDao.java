@@ -42,6 +42,7 @@ import com.osstelecom.db.inventory.manager.exception.ArangoDaoException;
 import com.osstelecom.db.inventory.manager.exception.InvalidRequestException;
 import com.osstelecom.db.inventory.manager.exception.ResourceNotFoundException;
 import com.osstelecom.db.inventory.manager.operation.GraphTraverser;
+import com.osstelecom.db.inventory.manager.operation.ManagedExecutorService;
 import com.osstelecom.db.inventory.manager.resources.BasicResource;
 import com.osstelecom.db.inventory.manager.resources.ConsumableMetric;
 import com.osstelecom.db.inventory.manager.resources.Domain;
@@ -60,6 +61,9 @@ public class ConsumableMetricDao {
     @Autowired
     private ArangoDatabase arangoDatabase;
 
+    @Autowired
+    private ManagedExecutorService managedExecutorService;
+
     protected Logger logger = LoggerFactory.getLogger(ConsumableMetricDao.class);
 
     public ConsumableMetric findConsumableMetric(ConsumableMetric consumableMetric)
@@ -237,7 +241,7 @@ public class ConsumableMetricDao {
         aql += "RETURN distinct v ";
 
         try {
-            GraphTraverser tr = new GraphTraverser(arangoDatabase);
+            GraphTraverser tr = new GraphTraverser(arangoDatabase, managedExecutorService.getExecutor(ManagedExecutorService.Pool.TOPOLOGY));
             tr.findAllPaths(from, null, 16, p -> p.getConsumableMetric() != null, "INBOUND");
         } catch (Exception ex) {
             logger.error("Fail Graph Traverser", ex);
@@ -256,7 +260,7 @@ public class ConsumableMetricDao {
             /**
              * Está aqui para testar
              */
-            GraphTraverser tr = new GraphTraverser(arangoDatabase);
+            GraphTraverser tr = new GraphTraverser(arangoDatabase, managedExecutorService.getExecutor(ManagedExecutorService.Pool.TOPOLOGY));
             tr.findAllPaths(to, null, 16, p -> p.getConsumableMetric() != null, "OUTBOUND");
         } catch (Exception ex) {
             logger.error("Fail Graph Traverser", ex);
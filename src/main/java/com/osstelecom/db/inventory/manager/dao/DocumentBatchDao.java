@@ -0,0 +1,277 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.manager.dao;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.arangodb.ArangoCollection;
+import com.arangodb.ArangoCursor;
+import com.arangodb.ArangoDatabase;
+import com.arangodb.entity.DocumentUpdateEntity;
+import com.arangodb.entity.MultiDocumentEntity;
+import com.arangodb.model.DocumentReplaceOptions;
+import com.osstelecom.db.inventory.manager.dto.FilterDTO;
+import com.osstelecom.db.inventory.manager.exception.ArangoDaoException;
+
+/**
+ * Leitura e escrita de documentos crus (Map) em lotes, para as jobs de
+ * manutenção que varrem collections inteiras.
+ * <p>
+ * A paginação é por chave (_key > última chave), usa o índice primário e
+ * permite retomar de onde parou.
+ *
+ * @author Lucas Nishimura
+ * @created 19.10.2026
+ */
+@Component
+public class DocumentBatchDao {
+
+    @Autowired
+    private ArangoDatabase arangoDatabase;
+
+    protected Logger logger = LoggerFactory.getLogger(DocumentBatchDao.class);
+
+    public boolean collectionExists(String collectionName) {
+        return this.arangoDatabase.collection(collectionName).exists();
+    }
+
+    public Long count(String collectionName) {
+        return this.arangoDatabase.collection(collectionName).count().getCount();
+    }
+
+    /**
+     * Próximo lote de documentos com _key maior que lastKey
+     *
+     * @param collectionName
+     * @param lastKey chave do último documento processado, null no início
+     * @param batchSize
+     * @return
+     * @throws ArangoDaoException
+     */
+    @SuppressWarnings("rawtypes")
+    public List<Map> findBatchAfter(String collectionName, String lastKey, int batchSize) throws ArangoDaoException {
+        String aql = "FOR doc IN @@collection FILTER doc._key > @lastKey SORT doc._key LIMIT @batchSize RETURN doc";
+        Map<String, Object> bindVars = new HashMap<>();
+        bindVars.put("@collection", collectionName);
+        bindVars.put("lastKey", lastKey != null ? lastKey : "");
+        bindVars.put("batchSize", batchSize);
+        try (ArangoCursor<Map> cursor = this.arangoDatabase.query(aql, bindVars, Map.class)) {
+            return cursor.asListRemaining();
+        } catch (Exception ex) {
+            throw new ArangoDaoException(ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Próximo lote de documentos do schema com _key maior que lastKey
+     *
+     * @param <T>
+     * @param collectionName
+     * @param schemaName
+     * @param filter filtro adicional sobre doc, null para todos
+     * @param lastKey chave do último documento processado, null no início
+     * @param batchSize
+     * @param type
+     * @return
+     * @throws ArangoDaoException
+     */
+    public <T> List<T> findBySchemaAfter(String collectionName, String schemaName, FilterDTO filter, String lastKey,
+            int batchSize, Class<T> type) throws ArangoDaoException {
+        String aql = "FOR doc IN @@collection FILTER doc._key > @lastKey AND doc.attributeSchemaName == @schemaName"
+                + this.extraFilter(filter) + " SORT doc._key LIMIT @batchSize RETURN doc";
+        Map<String, Object> bindVars = this.bindings(filter);
+        bindVars.put("@collection", collectionName);
+        bindVars.put("schemaName", schemaName);
+        bindVars.put("lastKey", lastKey != null ? lastKey : "");
+        bindVars.put("batchSize", batchSize);
+        try (ArangoCursor<T> cursor = this.arangoDatabase.query(aql, bindVars, type)) {
+            return cursor.asListRemaining();
+        } catch (Exception ex) {
+            throw new ArangoDaoException(ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Quantidade de documentos do schema com _key maior que lastKey
+     *
+     * @param collectionName
+     * @param schemaName
+     * @param filter filtro adicional sobre doc, null para todos
+     * @param lastKey
+     * @return
+     * @throws ArangoDaoException
+     */
+    public Long countBySchemaAfter(String collectionName, String schemaName, FilterDTO filter, String lastKey)
+            throws ArangoDaoException {
+        String aql = "FOR doc IN @@collection FILTER doc._key > @lastKey AND doc.attributeSchemaName == @schemaName"
+                + this.extraFilter(filter) + " COLLECT WITH COUNT INTO total RETURN total";
+        Map<String, Object> bindVars = this.bindings(filter);
+        bindVars.put("@collection", collectionName);
+        bindVars.put("schemaName", schemaName);
+        bindVars.put("lastKey", lastKey != null ? lastKey : "");
+        try (ArangoCursor<Long> cursor = this.arangoDatabase.query(aql, bindVars, Long.class)) {
+            return cursor.hasNext() ? cursor.next() : 0L;
+        } catch (Exception ex) {
+            throw new ArangoDaoException(ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Filtro dos documentos do schema que não têm algum dos atributos de
+     * defaults ou que têm algum dos atributos removidos
+     *
+     * @param defaults
+     * @param removed
+     * @return
+     */
+    public FilterDTO missingOrRemovedAttributesFilter(Map<String, Object> defaults, List<String> removed) {
+        FilterDTO filter = new FilterDTO("LENGTH(MINUS(@defaultNames, ATTRIBUTES(doc.attributes || {}))) > 0"
+                + " OR LENGTH(INTERSECTION(@removedNames, ATTRIBUTES(doc.attributes || {}))) > 0");
+        filter.addBinding("defaultNames", new ArrayList<>(defaults.keySet()));
+        filter.addBinding("removedNames", removed);
+        return filter;
+    }
+
+    /**
+     * Filtro dos documentos que têm algum atributo de present, não têm algum
+     * de missing ou têm algum atributo de discovery de discovery
+     *
+     * @param present
+     * @param missing
+     * @param discovery
+     * @return
+     */
+    public FilterDTO attributePresenceFilter(List<String> present, List<String> missing, List<String> discovery) {
+        FilterDTO filter = new FilterDTO("LENGTH(INTERSECTION(@presentNames, ATTRIBUTES(doc.attributes || {}))) > 0"
+                + " OR LENGTH(MINUS(@missingNames, ATTRIBUTES(doc.attributes || {}))) > 0"
+                + " OR LENGTH(INTERSECTION(@discoveryNames, ATTRIBUTES(doc.discoveryAttributes || {}))) > 0");
+        filter.addBinding("presentNames", present);
+        filter.addBinding("missingNames", missing);
+        filter.addBinding("discoveryNames", discovery);
+        return filter;
+    }
+
+    /**
+     * Preenche os defaults que faltam e remove os atributos do próximo lote,
+     * tudo no servidor, sem trazer os documentos. O schemaModel gravado é
+     * atualizado mantendo o isValid de cada documento.
+     *
+     * @param collectionName
+     * @param schemaName
+     * @param defaults atributo -> valor, só gravado onde o atributo não existe
+     * @param removed
+     * @param schemaModel
+     * @param lastKey
+     * @param batchSize
+     * @return as chaves alteradas, em ordem
+     * @throws ArangoDaoException
+     */
+    public List<String> mergeAttributesAfter(String collectionName, String schemaName, Map<String, Object> defaults,
+            List<String> removed, Object schemaModel, String lastKey, int batchSize) throws ArangoDaoException {
+        FilterDTO filter = this.missingOrRemovedAttributesFilter(defaults, removed);
+        String aql = "FOR doc IN @@collection FILTER doc._key > @lastKey AND doc.attributeSchemaName == @schemaName"
+                + this.extraFilter(filter) + " SORT doc._key LIMIT @batchSize"
+                + " UPDATE doc WITH {attributes: MERGE(@defaults, UNSET(doc.attributes || {}, @removedNames)),"
+                + " schemaModel: MERGE(@schemaModel, {isValid: doc.schemaModel.isValid != false})}"
+                + " IN @@collection OPTIONS {mergeObjects: false, keepNull: false} RETURN NEW._key";
+        Map<String, Object> bindVars = this.bindings(filter);
+        bindVars.put("@collection", collectionName);
+        bindVars.put("schemaName", schemaName);
+        bindVars.put("lastKey", lastKey != null ? lastKey : "");
+        bindVars.put("batchSize", batchSize);
+        bindVars.put("defaults", defaults);
+        bindVars.put("schemaModel", schemaModel);
+        try (ArangoCursor<String> cursor = this.arangoDatabase.query(aql, bindVars, String.class)) {
+            return cursor.asListRemaining();
+        } catch (Exception ex) {
+            throw new ArangoDaoException(ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Aplica os patches com um único UPDATE no servidor. Cada patch é
+     * {key, rev, data}; o _rev vai na chave, então um documento alterado por
+     * outra thread depois da leitura é ignorado.
+     *
+     * @param collectionName
+     * @param patches
+     * @return quantidade de documentos gravados
+     * @throws ArangoDaoException
+     */
+    public int updateDocuments(String collectionName, List<Map<String, Object>> patches) throws ArangoDaoException {
+        if (patches.isEmpty()) {
+            return 0;
+        }
+        String aql = "FOR p IN @patches UPDATE {_key: p.key, _rev: p.rev} WITH p.data IN @@collection"
+                + " OPTIONS {ignoreRevs: false, ignoreErrors: true, mergeObjects: false, keepNull: false}"
+                + " RETURN NEW._key";
+        Map<String, Object> bindVars = new HashMap<>();
+        bindVars.put("@collection", collectionName);
+        bindVars.put("patches", patches);
+        try (ArangoCursor<String> cursor = this.arangoDatabase.query(aql, bindVars, String.class)) {
+            return (int) cursor.asListRemaining().stream().filter(Objects::nonNull).count();
+        } catch (Exception ex) {
+            throw new ArangoDaoException(ex.getMessage(), ex);
+        }
+    }
+
+    private String extraFilter(FilterDTO filter) {
+        return filter != null && filter.getAqlFilter() != null ? " AND (" + filter.getAqlFilter() + ")" : "";
+    }
+
+    private Map<String, Object> bindings(FilterDTO filter) {
+        return filter != null ? new HashMap<>(filter.getBindings()) : new HashMap<>();
+    }
+
+    /**
+     * Substitui os documentos verificando o _rev, um documento alterado por
+     * outra thread depois da leitura não é sobrescrito e conta como erro
+     *
+     * @param collectionName
+     * @param documents
+     * @return quantidade de documentos que não foram gravados
+     * @throws ArangoDaoException
+     */
+    @SuppressWarnings("rawtypes")
+    public int replaceDocuments(String collectionName, List<Map> documents) throws ArangoDaoException {
+        if (documents.isEmpty()) {
+            return 0;
+        }
+        try {
+            ArangoCollection collection = this.arangoDatabase.collection(collectionName);
+            MultiDocumentEntity<DocumentUpdateEntity<Map>> result = collection.replaceDocuments(documents,
+                    new DocumentReplaceOptions().ignoreRevs(false).waitForSync(false));
+            if (!result.getErrors().isEmpty()) {
+                logger.warn("Collection:[{}] [{}] Documents not Replaced, First Error:[{}]", collectionName,
+                        result.getErrors().size(), result.getErrors().iterator().next().getErrorMessage());
+            }
+            return result.getErrors().size();
+        } catch (Exception ex) {
+            throw new ArangoDaoException(ex.getMessage(), ex);
+        }
+    }
+}
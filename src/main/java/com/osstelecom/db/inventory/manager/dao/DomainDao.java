@@ -19,7 +19,9 @@ package com.osstelecom.db.inventory.manager.dao;
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -275,6 +277,38 @@ public class DomainDao {
         return result;
     }
 
+    /**
+     * Reserva atomicamente um bloco de IDs no documento do domain. O UPDATE é
+     * executado no servidor com lock exclusivo na collection de domains, então
+     * duas instâncias nunca recebem o mesmo intervalo.
+     *
+     * @param domainName
+     * @param blockSize
+     * @return o novo topo do bloco, o intervalo reservado é [topo - blockSize,
+     * topo)
+     * @throws ArangoDaoException
+     */
+    public Long reserveAtomicIdBlock(String domainName, Long blockSize) throws ArangoDaoException {
+        String aql = "FOR d IN @@domains FILTER d._key == @domainName "
+                + "UPDATE d WITH { atomicId: (d.atomicId == null ? 0 : d.atomicId) + @blockSize } IN @@domains "
+                + "OPTIONS { exclusive: true } "
+                + "RETURN NEW.atomicId";
+        Map<String, Object> bindVars = new HashMap<>();
+        bindVars.put("@domains", this.domainsCollection.name());
+        bindVars.put("domainName", domainName);
+        bindVars.put("blockSize", blockSize);
+        try (ArangoCursor<Long> cursor = arangoDatabase.query(aql, bindVars, Long.class)) {
+            if (!cursor.hasNext()) {
+                throw new ArangoDaoException("Domain with name:[" + domainName + "] not found");
+            }
+            Long newHigh = cursor.next();
+            logger.debug("Domain: [{}] Reserved Atomic ID Block: [{} - {})", domainName, newHigh - blockSize, newHigh);
+            return newHigh;
+        } catch (IOException ex) {
+            throw new ArangoDaoException(ex);
+        }
+    }
+
     /**
      * Cria um Graph
      *
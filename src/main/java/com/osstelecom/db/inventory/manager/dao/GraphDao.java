@@ -23,6 +23,7 @@ import com.arangodb.model.AqlQueryOptions;
 import com.osstelecom.db.inventory.manager.exception.InvalidRequestException;
 import com.osstelecom.db.inventory.manager.exception.ResourceNotFoundException;
 import com.osstelecom.db.inventory.manager.resources.CircuitResource;
+import com.osstelecom.db.inventory.manager.resources.Domain;
 import com.osstelecom.db.inventory.manager.resources.GraphList;
 import com.osstelecom.db.inventory.manager.resources.ManagedResource;
 import com.osstelecom.db.inventory.manager.resources.ResourceConnection;
@@ -106,6 +107,23 @@ public class GraphDao {
         }
     }
 
+    /**
+     * Todas as conexões do domínio que fazem parte de algum circuito, numa
+     * consulta só, para a análise em lote dos circuitos
+     *
+     * @param domain
+     * @return
+     */
+    public GraphList<ResourceConnection> findCircuitConnections(Domain domain) {
+        String aql = " for doc in `" + domain.getConnections() + "`"
+                + "  filter length(doc.circuits) > 0 "
+                + " return doc";
+        logger.info("(query) - [{}] - RUNNING: AQL:[{}]", "N/A", aql);
+        ArangoCursor<ResourceConnection> cursor = this.arangoDatabase.query(aql, new HashMap<>(),
+                new AqlQueryOptions().fullCount(true).count(true).batchSize(5000), ResourceConnection.class);
+        return new GraphList<>(cursor);
+    }
+
     /**
      * Expand um Nó, avaliar se aqui é o melhor lugar
      *
@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.manager.dao;
+
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.arangodb.ArangoCollection;
+import com.arangodb.ArangoCursor;
+import com.arangodb.ArangoDatabase;
+import com.arangodb.entity.CollectionType;
+import com.arangodb.model.CollectionCreateOptions;
+import com.arangodb.model.DocumentCreateOptions;
+import com.arangodb.model.OverwriteMode;
+import com.osstelecom.db.inventory.manager.configuration.ConfigurationManager;
+import com.osstelecom.db.inventory.manager.exception.ArangoDaoException;
+import com.osstelecom.db.inventory.manager.jobs.SchemaPropagationCheckpoint;
+
+/**
+ * Persistência dos checkpoints da propagação de schemas
+ *
+ * @author Lucas Nishimura
+ * @created 19.10.2026
+ */
+@Component
+public class SchemaPropagationCheckpointDao {
+
+    protected Logger logger = LoggerFactory.getLogger(SchemaPropagationCheckpointDao.class);
+
+    @Autowired
+    private ArangoDatabase arangoDatabase;
+
+    @Autowired
+    private ConfigurationManager configurationManager;
+
+    private ArangoCollection checkpointCollection;
+
+    @PostConstruct
+    private void start() {
+        this.checkpointCollection = this.arangoDatabase.collection(this.configurationManager.loadConfiguration()
+                .getGraphDbConfiguration().getSchemaPropagationCollection());
+        if (!this.checkpointCollection.exists()) {
+            this.checkpointCollection.create(new CollectionCreateOptions().type(CollectionType.DOCUMENT));
+        }
+    }
+
+    /**
+     * Grava o checkpoint inteiro, substituindo o anterior do mesmo schema
+     *
+     * @param checkpoint
+     * @throws ArangoDaoException
+     */
+    public void save(SchemaPropagationCheckpoint checkpoint) throws ArangoDaoException {
+        try {
+            this.checkpointCollection.insertDocument(checkpoint,
+                    new DocumentCreateOptions().overwriteMode(OverwriteMode.replace).waitForSync(false));
+        } catch (Exception ex) {
+            throw new ArangoDaoException(ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * @param schemaName
+     * @return o estado da propagação do schema, null se nunca foi propagado
+     * @throws ArangoDaoException
+     */
+    public SchemaPropagationCheckpoint find(String schemaName) throws ArangoDaoException {
+        try {
+            return this.checkpointCollection.getDocument(schemaName, SchemaPropagationCheckpoint.class);
+        } catch (Exception ex) {
+            throw new ArangoDaoException(ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Propagações que não terminaram
+     *
+     * @return
+     * @throws ArangoDaoException
+     */
+    public List<SchemaPropagationCheckpoint> findPending() throws ArangoDaoException {
+        try (ArangoCursor<SchemaPropagationCheckpoint> cursor = this.arangoDatabase.query(
+                "FOR doc IN @@collection FILTER doc.completed != true RETURN doc",
+                Map.of("@collection", this.checkpointCollection.name()), SchemaPropagationCheckpoint.class)) {
+            return cursor.asListRemaining();
+        } catch (Exception ex) {
+            throw new ArangoDaoException(ex.getMessage(), ex);
+        }
+    }
+
+    public void delete(String schemaName) throws ArangoDaoException {
+        try {
+            if (Boolean.TRUE.equals(this.checkpointCollection.documentExists(schemaName))) {
+                this.checkpointCollection.deleteDocument(schemaName);
+            }
+        } catch (Exception ex) {
+            throw new ArangoDaoException(ex.getMessage(), ex);
+        }
+    }
+}
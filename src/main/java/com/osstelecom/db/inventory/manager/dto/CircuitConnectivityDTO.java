@@ -0,0 +1,166 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.manager.dto;
+
+import com.osstelecom.db.inventory.manager.resources.CircuitResource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Quantidade de caminhos disjuntos entre o aPoint e o zPoint de um circuito e
+ * o menor conjunto de conexões ou nós que separa os dois
+ *
+ * @author Lucas Nishimura
+ * @created 19.10.2026
+ */
+public class CircuitConnectivityDTO {
+
+    private String circuitId;
+    private String aPoint;
+    private String zPoint;
+    private Integer connectionCount = 0;
+    private Integer edgeConnectivity = 0;
+    private Integer vertexConnectivity = 0;
+    private List<String> cutConnections = new ArrayList<>();
+    private List<String> cutNodes = new ArrayList<>();
+
+    public CircuitConnectivityDTO() {
+    }
+
+    public CircuitConnectivityDTO(CircuitResource circuit) {
+        this.circuitId = circuit.getId();
+        if (circuit.getaPoint() != null) {
+            this.aPoint = circuit.getaPoint().getId();
+        }
+        if (circuit.getzPoint() != null) {
+            this.zPoint = circuit.getzPoint().getId();
+        }
+    }
+
+    /**
+     * @return the circuitId
+     */
+    public String getCircuitId() {
+        return circuitId;
+    }
+
+    /**
+     * @param circuitId the circuitId to set
+     */
+    public void setCircuitId(String circuitId) {
+        this.circuitId = circuitId;
+    }
+
+    /**
+     * @return the aPoint
+     */
+    public String getaPoint() {
+        return aPoint;
+    }
+
+    /**
+     * @param aPoint the aPoint to set
+     */
+    public void setaPoint(String aPoint) {
+        this.aPoint = aPoint;
+    }
+
+    /**
+     * @return the zPoint
+     */
+    public String getzPoint() {
+        return zPoint;
+    }
+
+    /**
+     * @param zPoint the zPoint to set
+     */
+    public void setzPoint(String zPoint) {
+        this.zPoint = zPoint;
+    }
+
+    /**
+     * @return the connectionCount
+     */
+    public Integer getConnectionCount() {
+        return connectionCount;
+    }
+
+    /**
+     * @param connectionCount the connectionCount to set
+     */
+    public void setConnectionCount(Integer connectionCount) {
+        this.connectionCount = connectionCount;
+    }
+
+    /**
+     * @return caminhos disjuntos em conexões
+     */
+    public Integer getEdgeConnectivity() {
+        return edgeConnectivity;
+    }
+
+    /**
+     * @param edgeConnectivity the edgeConnectivity to set
+     */
+    public void setEdgeConnectivity(Integer edgeConnectivity) {
+        this.edgeConnectivity = edgeConnectivity;
+    }
+
+    /**
+     * @return caminhos disjuntos em nós
+     */
+    public Integer getVertexConnectivity() {
+        return vertexConnectivity;
+    }
+
+    /**
+     * @param vertexConnectivity the vertexConnectivity to set
+     */
+    public void setVertexConnectivity(Integer vertexConnectivity) {
+        this.vertexConnectivity = vertexConnectivity;
+    }
+
+    /**
+     * @return ids das conexões do corte mínimo por conexões
+     */
+    public List<String> getCutConnections() {
+        return cutConnections;
+    }
+
+    /**
+     * @param cutConnections the cutConnections to set
+     */
+    public void setCutConnections(List<String> cutConnections) {
+        this.cutConnections = cutConnections;
+    }
+
+    /**
+     * @return ids dos nós do corte mínimo por nós
+     */
+    public List<String> getCutNodes() {
+        return cutNodes;
+    }
+
+    /**
+     * @param cutNodes the cutNodes to set
+     */
+    public void setCutNodes(List<String> cutNodes) {
+        this.cutNodes = cutNodes;
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.manager.dto;
+
+/**
+ * Parâmetros da centralidade de um domain: quantidade de origens sorteadas
+ * (nulo para decidir pelo tamanho do domain, 0 para o cálculo exato), a
+ * semente do sorteio e quantos nós e conexões voltam em cada ranking
+ *
+ * @author Lucas Nishimura
+ * @created 19.10.2026
+ */
+public class TopologyCentralityDTO {
+
+    private Integer samples;
+    private Long seed = 0L;
+    private Integer topK = 50;
+
+    /**
+     * @return the samples
+     */
+    public Integer getSamples() {
+        return samples;
+    }
+
+    /**
+     * @param samples the samples to set
+     */
+    public void setSamples(Integer samples) {
+        this.samples = samples;
+    }
+
+    /**
+     * @return the seed
+     */
+    public Long getSeed() {
+        return seed;
+    }
+
+    /**
+     * @param seed the seed to set
+     */
+    public void setSeed(Long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * @return the topK
+     */
+    public Integer getTopK() {
+        return topK;
+    }
+
+    /**
+     * @param topK the topK to set
+     */
+    public void setTopK(Integer topK) {
+        this.topK = topK;
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.manager.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pontos de articulação, pontes e componentes biconexos de uma topologia
+ *
+ * @author Lucas Nishimura
+ * @created 19.10.2026
+ */
+public class TopologyCutsDTO {
+
+    private Integer nodeCount = 0;
+    private Integer connectionCount = 0;
+    private Integer componentCount = 0;
+    private List<String> articulationPoints = new ArrayList<>();
+    private List<String> bridges = new ArrayList<>();
+    private List<List<String>> components = new ArrayList<>();
+
+    /**
+     * @return the nodeCount
+     */
+    public Integer getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * @param nodeCount the nodeCount to set
+     */
+    public void setNodeCount(Integer nodeCount) {
+        this.nodeCount = nodeCount;
+    }
+
+    /**
+     * @return the connectionCount
+     */
+    public Integer getConnectionCount() {
+        return connectionCount;
+    }
+
+    /**
+     * @param connectionCount the connectionCount to set
+     */
+    public void setConnectionCount(Integer connectionCount) {
+        this.connectionCount = connectionCount;
+    }
+
+    /**
+     * @return the componentCount
+     */
+    public Integer getComponentCount() {
+        return componentCount;
+    }
+
+    /**
+     * @param componentCount the componentCount to set
+     */
+    public void setComponentCount(Integer componentCount) {
+        this.componentCount = componentCount;
+    }
+
+    /**
+     * @return os ids dos nós cuja queda desconecta a topologia
+     */
+    public List<String> getArticulationPoints() {
+        return articulationPoints;
+    }
+
+    /**
+     * @param articulationPoints the articulationPoints to set
+     */
+    public void setArticulationPoints(List<String> articulationPoints) {
+        this.articulationPoints = articulationPoints;
+    }
+
+    /**
+     * @return os ids das conexões cuja queda desconecta a topologia
+     */
+    public List<String> getBridges() {
+        return bridges;
+    }
+
+    /**
+     * @param bridges the bridges to set
+     */
+    public void setBridges(List<String> bridges) {
+        this.bridges = bridges;
+    }
+
+    /**
+     * @return os ids das conexões de cada componente biconexo
+     */
+    public List<List<String>> getComponents() {
+        return components;
+    }
+
+    /**
+     * @param components the components to set
+     */
+    public void setComponents(List<List<String>> components) {
+        this.components = components;
+    }
+}
@@ -0,0 +1,259 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.manager.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Estado de uma job de topologia. Os itens só vêm na consulta do resultado,
+ * paginados por offset e limit
+ *
+ * @author Lucas Nishimura
+ * @created 19.10.2026
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TopologyJobDTO {
+
+    private String jobId;
+    private String type;
+    private String status;
+    private String stage;
+    private Long done;
+    private Long total;
+    private Date submitted;
+    private Date started;
+    private Date ended;
+    private String error;
+    private Boolean cacheHit;
+    private Integer resultSize;
+    private Integer offset;
+    private Integer limit;
+    private List<TopologyJobItemDTO> items;
+
+    /**
+     * @return the jobId
+     */
+    public String getJobId() {
+        return jobId;
+    }
+
+    /**
+     * @param jobId the jobId to set
+     */
+    public void setJobId(String jobId) {
+        this.jobId = jobId;
+    }
+
+    /**
+     * @return the type
+     */
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * @param type the type to set
+     */
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    /**
+     * @return the status
+     */
+    public String getStatus() {
+        return status;
+    }
+
+    /**
+     * @param status the status to set
+     */
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    /**
+     * @return the stage
+     */
+    public String getStage() {
+        return stage;
+    }
+
+    /**
+     * @param stage the stage to set
+     */
+    public void setStage(String stage) {
+        this.stage = stage;
+    }
+
+    /**
+     * @return the done
+     */
+    public Long getDone() {
+        return done;
+    }
+
+    /**
+     * @param done the done to set
+     */
+    public void setDone(Long done) {
+        this.done = done;
+    }
+
+    /**
+     * @return the total
+     */
+    public Long getTotal() {
+        return total;
+    }
+
+    /**
+     * @param total the total to set
+     */
+    public void setTotal(Long total) {
+        this.total = total;
+    }
+
+    /**
+     * @return the submitted
+     */
+    public Date getSubmitted() {
+        return submitted;
+    }
+
+    /**
+     * @param submitted the submitted to set
+     */
+    public void setSubmitted(Date submitted) {
+        this.submitted = submitted;
+    }
+
+    /**
+     * @return the started
+     */
+    public Date getStarted() {
+        return started;
+    }
+
+    /**
+     * @param started the started to set
+     */
+    public void setStarted(Date started) {
+        this.started = started;
+    }
+
+    /**
+     * @return the ended
+     */
+    public Date getEnded() {
+        return ended;
+    }
+
+    /**
+     * @param ended the ended to set
+     */
+    public void setEnded(Date ended) {
+        this.ended = ended;
+    }
+
+    /**
+     * @return the error
+     */
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * @param error the error to set
+     */
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    /**
+     * @return the cacheHit
+     */
+    public Boolean getCacheHit() {
+        return cacheHit;
+    }
+
+    /**
+     * @param cacheHit the cacheHit to set
+     */
+    public void setCacheHit(Boolean cacheHit) {
+        this.cacheHit = cacheHit;
+    }
+
+    /**
+     * @return the resultSize
+     */
+    public Integer getResultSize() {
+        return resultSize;
+    }
+
+    /**
+     * @param resultSize the resultSize to set
+     */
+    public void setResultSize(Integer resultSize) {
+        this.resultSize = resultSize;
+    }
+
+    /**
+     * @return the offset
+     */
+    public Integer getOffset() {
+        return offset;
+    }
+
+    /**
+     * @param offset the offset to set
+     */
+    public void setOffset(Integer offset) {
+        this.offset = offset;
+    }
+
+    /**
+     * @return the limit
+     */
+    public Integer getLimit() {
+        return limit;
+    }
+
+    /**
+     * @param limit the limit to set
+     */
+    public void setLimit(Integer limit) {
+        this.limit = limit;
+    }
+
+    /**
+     * @return the items
+     */
+    public List<TopologyJobItemDTO> getItems() {
+        return items;
+    }
+
+    /**
+     * @param items the items to set
+     */
+    public void setItems(List<TopologyJobItemDTO> items) {
+        this.items = items;
+    }
+}
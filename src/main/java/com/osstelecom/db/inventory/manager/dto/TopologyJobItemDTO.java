@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.manager.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.List;
+
+/**
+ * Uma linha do resultado de uma job de topologia: um nó ou conexão e o que
+ * ele é no resultado (unreachable, weakNode, articulationPoint, bridge,
+ * component, ou um ranking de centralidade com o valor em score). Na
+ * simulação de falhas o nome é o do cenário e members os ids afetados
+ *
+ * @author Lucas Nishimura
+ * @created 19.10.2026
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TopologyJobItemDTO {
+
+    private String kind;
+    private String name;
+    private List<String> members;
+    private Double score;
+
+    public TopologyJobItemDTO() {
+    }
+
+    public TopologyJobItemDTO(String kind, String name) {
+        this.kind = kind;
+        this.name = name;
+    }
+
+    public TopologyJobItemDTO(String kind, String name, List<String> members) {
+        this.kind = kind;
+        this.name = name;
+        this.members = members;
+    }
+
+    public TopologyJobItemDTO(String kind, String name, Double score) {
+        this.kind = kind;
+        this.name = name;
+        this.score = score;
+    }
+
+    /**
+     * @return the kind
+     */
+    public String getKind() {
+        return kind;
+    }
+
+    /**
+     * @param kind the kind to set
+     */
+    public void setKind(String kind) {
+        this.kind = kind;
+    }
+
+    /**
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @param name the name to set
+     */
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    /**
+     * @return the members
+     */
+    public List<String> getMembers() {
+        return members;
+    }
+
+    /**
+     * @param members the members to set
+     */
+    public void setMembers(List<String> members) {
+        this.members = members;
+    }
+
+    /**
+     * @return the score
+     */
+    public Double getScore() {
+        return score;
+    }
+
+    /**
+     * @param score the score to set
+     */
+    public void setScore(Double score) {
+        this.score = score;
+    }
+}
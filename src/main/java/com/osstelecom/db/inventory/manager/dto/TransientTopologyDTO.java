@@ -29,6 +29,13 @@ import java.util.List;
 public class TransientTopologyDTO {
 
     private String dotTopology;
+    //
+    // Formatos alternativos ao DOT, ver TransientGraph. Lista de conexões
+    // [["a","b"]] com os nós isolados em nodes, ou o binário em base64
+    //
+    private List<String> nodes;
+    private List<List<String>> edges;
+    private String binaryTopology;
     private Boolean computeWeakNodes = false;
     private Boolean dfsCache = false;
     private Integer minConnections = 1;
@@ -37,6 +44,9 @@ public class TransientTopologyDTO {
     private List<String> disabledObjects = new ArrayList<>();
     private List<String> weakNodes = new ArrayList<>();
     private List<String> unreacheableNodes = new ArrayList<>();
+    private List<String> articulationPoints = new ArrayList<>();
+    private List<String> bridges = new ArrayList<>();
+    private Boolean cacheHit = false;
     
 
     /**
@@ -165,4 +175,87 @@ public class TransientTopologyDTO {
         this.dfsCache = dfsCache;
     }
 
+    /**
+     * @return the articulationPoints
+     */
+    public List<String> getArticulationPoints() {
+        return articulationPoints;
+    }
+
+    /**
+     * @param articulationPoints the articulationPoints to set
+     */
+    public void setArticulationPoints(List<String> articulationPoints) {
+        this.articulationPoints = articulationPoints;
+    }
+
+    /**
+     * @return the bridges
+     */
+    public List<String> getBridges() {
+        return bridges;
+    }
+
+    /**
+     * @param bridges the bridges to set
+     */
+    public void setBridges(List<String> bridges) {
+        this.bridges = bridges;
+    }
+
+    /**
+     * @return se o resultado veio da memória, sem recalcular
+     */
+    public Boolean getCacheHit() {
+        return cacheHit;
+    }
+
+    /**
+     * @param cacheHit the cacheHit to set
+     */
+    public void setCacheHit(Boolean cacheHit) {
+        this.cacheHit = cacheHit;
+    }
+
+    /**
+     * @return the nodes
+     */
+    public List<String> getNodes() {
+        return nodes;
+    }
+
+    /**
+     * @param nodes the nodes to set
+     */
+    public void setNodes(List<String> nodes) {
+        this.nodes = nodes;
+    }
+
+    /**
+     * @return the edges
+     */
+    public List<List<String>> getEdges() {
+        return edges;
+    }
+
+    /**
+     * @param edges the edges to set
+     */
+    public void setEdges(List<List<String>> edges) {
+        this.edges = edges;
+    }
+
+    /**
+     * @return the binaryTopology
+     */
+    public String getBinaryTopology() {
+        return binaryTopology;
+    }
+
+    /**
+     * @param binaryTopology the binaryTopology to set
+     */
+    public void setBinaryTopology(String binaryTopology) {
+        this.binaryTopology = binaryTopology;
+    }
 }
@@ -26,9 +26,22 @@ import com.osstelecom.db.inventory.manager.resources.model.ResourceSchemaModel;
  */
 public class ResourceSchemaUpdatedEvent extends BasicEvent<ResourceSchemaModel> {
 
+    /**
+     * Revalida todos os recursos do schema em vez de migrar só a diferença
+     */
+    private final boolean fullRevalidation;
+
     public ResourceSchemaUpdatedEvent(ResourceSchemaModel model) {
+        this(model, false);
+    }
+
+    public ResourceSchemaUpdatedEvent(ResourceSchemaModel model, boolean fullRevalidation) {
         super(model);
+        this.fullRevalidation = fullRevalidation;
+    }
 
+    public boolean isFullRevalidation() {
+        return fullRevalidation;
     }
 
 }
@@ -37,6 +37,7 @@ public class DbJobStage {
     private Long totalRecords = 0L;
     private Long doneRecords = 0L;
     private Long totalErrors = 0L;
+    private Date estimatedDoneDate;
 
     public DbJobStage() {
         this.jobStageId = UUID.randomUUID().toString();
@@ -107,10 +108,43 @@ public class DbJobStage {
 
     }
 
+    /**
+     * Atualiza o progresso e estima o fim pela taxa média desde o início do
+     * estágio
+     *
+     * @param doneRecords
+     */
+    public void updateProgress(Long doneRecords) {
+        this.doneRecords = doneRecords;
+        if (this.totalRecords == null || this.totalRecords <= 0L || doneRecords <= 0L) {
+            return;
+        }
+        this.percDone = Math.min(100D, (doneRecords * 100D) / this.totalRecords);
+        if (this.startDate != null) {
+            long elapsed = System.currentTimeMillis() - this.startDate.getTime();
+            long remaining = Math.max(0L, this.totalRecords - doneRecords);
+            this.estimatedDoneDate = new Date(System.currentTimeMillis() + (long) (elapsed * ((double) remaining / doneRecords)));
+        }
+    }
+
     public Long incrementErrors() {
         return this.totalErrors++;
     }
 
+    /**
+     * @return the estimatedDoneDate
+     */
+    public Date getEstimatedDoneDate() {
+        return estimatedDoneDate;
+    }
+
+    /**
+     * @return the totalErrors
+     */
+    public Long getTotalErrors() {
+        return totalErrors;
+    }
+
     /**
      * @return the doneRecords
      */
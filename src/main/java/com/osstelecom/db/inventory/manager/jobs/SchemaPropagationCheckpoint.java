@@ -0,0 +1,232 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.manager.jobs;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.arangodb.entity.DocumentField;
+import com.osstelecom.db.inventory.manager.resources.model.ResourceAttributeModel;
+import com.osstelecom.db.inventory.manager.schema.SchemaMigrationPlan;
+
+/**
+ * Estado persistido da propagação de um schema, um documento por schema.
+ * <p>
+ * Durante a propagação guarda o plano de migração, a última _key gravada em
+ * cada collection e as collections já concluídas. Se a aplicação parar no
+ * meio, a propagação é retomada destas chaves, desde que a revisão do schema
+ * não tenha mudado. Concluída, o documento fica com os atributos da revisão
+ * aplicada, que são a base do diff da próxima alteração.
+ *
+ * @author Lucas Nishimura
+ * @created 19.10.2026
+ */
+public class SchemaPropagationCheckpoint {
+
+    @DocumentField(DocumentField.Type.KEY)
+    private String schemaName;
+    private String revision;
+    private String jobId;
+    private Date startDate;
+    private Date lastUpdate;
+    private Map<String, String> lastKeys = new ConcurrentHashMap<>();
+    private Map<String, Boolean> completedCollections = new ConcurrentHashMap<>();
+    private SchemaMigrationPlan plan;
+    private Boolean completed = false;
+    private Boolean allowAll;
+    private HashMap<String, ResourceAttributeModel> attributes;
+
+    public SchemaPropagationCheckpoint() {
+    }
+
+    public SchemaPropagationCheckpoint(String schemaName, String revision) {
+        this.schemaName = schemaName;
+        this.revision = revision;
+        this.startDate = new Date();
+    }
+
+    /**
+     * Última chave gravada na collection, null se ainda não começou
+     *
+     * @param collectionName
+     * @return
+     */
+    public String lastKeyOf(String collectionName) {
+        return this.lastKeys.get(collectionName);
+    }
+
+    public boolean isCompleted(String collectionName) {
+        return Boolean.TRUE.equals(this.completedCollections.get(collectionName));
+    }
+
+    /**
+     * @return the plan
+     */
+    public SchemaMigrationPlan getPlan() {
+        return plan;
+    }
+
+    /**
+     * @param plan the plan to set
+     */
+    public void setPlan(SchemaMigrationPlan plan) {
+        this.plan = plan;
+    }
+
+    /**
+     * @return the completed
+     */
+    public Boolean getCompleted() {
+        return completed;
+    }
+
+    /**
+     * @param completed the completed to set
+     */
+    public void setCompleted(Boolean completed) {
+        this.completed = completed;
+    }
+
+    /**
+     * @return the allowAll
+     */
+    public Boolean getAllowAll() {
+        return allowAll;
+    }
+
+    /**
+     * @param allowAll the allowAll to set
+     */
+    public void setAllowAll(Boolean allowAll) {
+        this.allowAll = allowAll;
+    }
+
+    /**
+     * @return the attributes
+     */
+    public HashMap<String, ResourceAttributeModel> getAttributes() {
+        return attributes;
+    }
+
+    /**
+     * @param attributes the attributes to set
+     */
+    public void setAttributes(HashMap<String, ResourceAttributeModel> attributes) {
+        this.attributes = attributes;
+    }
+
+    /**
+     * @return the schemaName
+     */
+    public String getSchemaName() {
+        return schemaName;
+    }
+
+    /**
+     * @param schemaName the schemaName to set
+     */
+    public void setSchemaName(String schemaName) {
+        this.schemaName = schemaName;
+    }
+
+    /**
+     * @return the revision
+     */
+    public String getRevision() {
+        return revision;
+    }
+
+    /**
+     * @param revision the revision to set
+     */
+    public void setRevision(String revision) {
+        this.revision = revision;
+    }
+
+    /**
+     * @return the jobId
+     */
+    public String getJobId() {
+        return jobId;
+    }
+
+    /**
+     * @param jobId the jobId to set
+     */
+    public void setJobId(String jobId) {
+        this.jobId = jobId;
+    }
+
+    /**
+     * @return the startDate
+     */
+    public Date getStartDate() {
+        return startDate;
+    }
+
+    /**
+     * @param startDate the startDate to set
+     */
+    public void setStartDate(Date startDate) {
+        this.startDate = startDate;
+    }
+
+    /**
+     * @return the lastUpdate
+     */
+    public Date getLastUpdate() {
+        return lastUpdate;
+    }
+
+    /**
+     * @param lastUpdate the lastUpdate to set
+     */
+    public void setLastUpdate(Date lastUpdate) {
+        this.lastUpdate = lastUpdate;
+    }
+
+    /**
+     * @return the lastKeys
+     */
+    public Map<String, String> getLastKeys() {
+        return lastKeys;
+    }
+
+    /**
+     * @param lastKeys the lastKeys to set
+     */
+    public void setLastKeys(Map<String, String> lastKeys) {
+        this.lastKeys = lastKeys != null ? new ConcurrentHashMap<>(lastKeys) : new ConcurrentHashMap<>();
+    }
+
+    /**
+     * @return the completedCollections
+     */
+    public Map<String, Boolean> getCompletedCollections() {
+        return completedCollections;
+    }
+
+    /**
+     * @param completedCollections the completedCollections to set
+     */
+    public void setCompletedCollections(Map<String, Boolean> completedCollections) {
+        this.completedCollections = completedCollections != null ? new ConcurrentHashMap<>(completedCollections) : new ConcurrentHashMap<>();
+    }
+}
@@ -18,6 +18,10 @@
 package com.osstelecom.db.inventory.manager.listeners;
 
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 
 import org.slf4j.Logger;
 import org.springframework.stereotype.Service;
@@ -31,10 +35,12 @@ import com.osstelecom.db.inventory.manager.events.BasicUpdateEvent;
 import com.osstelecom.db.inventory.manager.events.IEvent;
 import com.osstelecom.db.inventory.manager.jobs.DBJobInstance;
 import com.osstelecom.db.inventory.manager.operation.DbJobManager;
+import com.osstelecom.db.inventory.manager.operation.ManagedExecutorService;
+import com.osstelecom.db.inventory.manager.operation.ManagedExecutorService.Pool;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
-import java.util.logging.Level;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -62,46 +68,66 @@ public class EventManagerListener implements SubscriberExceptionHandler, Runnabl
     @Autowired
     private DbJobManager jobManager;
 
+    @Autowired
+    private ManagedExecutorService managedExecutorService;
+
+    private ScheduledFuture<?> statsTask;
+
+    /**
+     * Serializa a criação da job e o enfileiramento, ReentrantLock no lugar de
+     * synchronized para não prender a carrier thread em modo virtual thread
+     */
+    private final ReentrantLock notifyLock = new ReentrantLock();
+
     private boolean running = false;
 
     public EventManagerListener() {
+        this.eventBus.register(this);
+    }
+
+    /**
+     * Inicia o processamento da fila no pool de eventos
+     */
+    @PostConstruct
+    private void startProcessing() {
         if (!running) {
-            Thread thread = new Thread(this);
             this.running = true;
-            thread.setName("EventManagerSession_THREAD");
-            thread.start();
+            managedExecutorService.execute(Pool.EVENTS, this);
 
             /**
-             * Vamos criar um simples Stats Thread..penso que isso deveria estar
-             * no job manager
+             * Vamos criar um simples Stats..penso que isso deveria estar no
+             * job manager
              */
-            new Thread(() -> {
-                while (running) {
-                    if (eventQueue.size() > 950) {
-                        logger.warn("Event Queue Size:[{}]", eventQueue.size());
-                    } else {
-                        if (!eventQueue.isEmpty()) {
-                            logger.debug("Event Queue Size:[{}]", eventQueue.size());
-                        }
+            this.statsTask = managedExecutorService.scheduleAtFixedRate(() -> {
+                if (eventQueue.size() > 950) {
+                    logger.warn("Event Queue Size:[{}]", eventQueue.size());
+                } else {
+                    if (!eventQueue.isEmpty()) {
+                        logger.debug("Event Queue Size:[{}]", eventQueue.size());
                     }
-                    if (jobManager != null) {
-                        List<DBJobInstance> runningJobs = jobManager.getRunningJobs();
-                        if (!runningJobs.isEmpty()) {
-                            runningJobs.forEach(r -> {
-                                logger.debug("Job:[{}] Running Since: {}", r.getJobId(), r.getJobStarted());
-                            });
-                        }
-                    }
-                    try {
-                        Thread.sleep(10000); // 10 segundos
-                    } catch (InterruptedException ex) {
-                        java.util.logging.Logger.getLogger(EventManagerListener.class.getName()).log(Level.SEVERE, null, ex);
+                }
+                if (jobManager != null) {
+                    List<DBJobInstance> runningJobs = jobManager.getRunningJobs();
+                    if (!runningJobs.isEmpty()) {
+                        runningJobs.forEach(r -> {
+                            logger.debug("Job:[{}] Running Since: {}", r.getJobId(), r.getJobStarted());
+                        });
                     }
                 }
-            }).start();
+            }, 10, 10, TimeUnit.SECONDS); // 10 segundos
 
         }
-        this.eventBus.register(this);
+    }
+
+    /**
+     * Para o loop de processamento, a fila é verificada a cada 5 segundos
+     */
+    @PreDestroy
+    private void stopProcessing() {
+        this.running = false;
+        if (this.statsTask != null) {
+            this.statsTask.cancel(false);
+        }
     }
 
     @Override
@@ -117,15 +143,20 @@ public class EventManagerListener implements SubscriberExceptionHandler, Runnabl
      * @return
      */
     @Override
-    public synchronized boolean notifyResourceEvent(BasicResourceEvent event) {
+    public boolean notifyResourceEvent(BasicResourceEvent event) {
 
         //
         // the queue is limited to 1000 Events, after that will be blocking...
         //
-        DBJobInstance job = jobManager.createJobInstance(event.getClass().getName());
-        event.setMdcId(MDC.get("x-netcompass-requestId"));
-        event.setRelatedJob(job);
-        return eventQueue.offer(event);
+        notifyLock.lock();
+        try {
+            DBJobInstance job = jobManager.createJobInstance(event.getClass().getName());
+            event.setMdcId(MDC.get("x-netcompass-requestId"));
+            event.setRelatedJob(job);
+            return eventQueue.offer(event);
+        } finally {
+            notifyLock.unlock();
+        }
     }
 
     /**
@@ -136,11 +167,16 @@ public class EventManagerListener implements SubscriberExceptionHandler, Runnabl
      * @return
      */
     @Override
-    public synchronized boolean notifyGenericEvent(BasicEvent genericEvent) {
-        DBJobInstance job = jobManager.createJobInstance("GenericEvent");
-        genericEvent.setMdcId(MDC.get("x-netcompass-requestId"));
-        genericEvent.setRelatedJob(job);
-        return eventQueue.offer(genericEvent);
+    public boolean notifyGenericEvent(BasicEvent genericEvent) {
+        notifyLock.lock();
+        try {
+            DBJobInstance job = jobManager.createJobInstance("GenericEvent");
+            genericEvent.setMdcId(MDC.get("x-netcompass-requestId"));
+            genericEvent.setRelatedJob(job);
+            return eventQueue.offer(genericEvent);
+        } finally {
+            notifyLock.unlock();
+        }
     }
 
     /**
@@ -152,11 +188,16 @@ public class EventManagerListener implements SubscriberExceptionHandler, Runnabl
      * @return
      */
     @Override
-    public synchronized boolean notifyGenericEvent(BasicUpdateEvent updateEvent) {
-        DBJobInstance job = jobManager.createJobInstance(updateEvent.getClass().getName());
-        updateEvent.setMdcId(MDC.get("x-netcompass-requestId"));
-        updateEvent.setRelatedJob(job);
-        return eventQueue.offer(updateEvent);
+    public boolean notifyGenericEvent(BasicUpdateEvent updateEvent) {
+        notifyLock.lock();
+        try {
+            DBJobInstance job = jobManager.createJobInstance(updateEvent.getClass().getName());
+            updateEvent.setMdcId(MDC.get("x-netcompass-requestId"));
+            updateEvent.setRelatedJob(job);
+            return eventQueue.offer(updateEvent);
+        } finally {
+            notifyLock.unlock();
+        }
     }
 
     /**
@@ -17,6 +17,7 @@ import com.google.common.eventbus.Subscribe;
 import com.osstelecom.db.inventory.manager.dao.CircuitResourceDao;
 import com.osstelecom.db.inventory.manager.dao.GraphDao;
 import com.osstelecom.db.inventory.manager.dao.ResourceConnectionDao;
+import com.osstelecom.db.inventory.manager.dto.CircuitConnectivityDTO;
 import com.osstelecom.db.inventory.manager.dto.FilterDTO;
 import com.osstelecom.db.inventory.manager.events.CircuitPathUpdatedEvent;
 import com.osstelecom.db.inventory.manager.events.CircuitResourceCreatedEvent;
@@ -40,9 +41,14 @@ import com.osstelecom.db.inventory.manager.resources.exception.AttributeConstrai
 import com.osstelecom.db.inventory.manager.resources.model.ResourceSchemaModel;
 import com.osstelecom.db.inventory.manager.session.DynamicRuleSession;
 import com.osstelecom.db.inventory.manager.session.SchemaSession;
+import com.osstelecom.db.inventory.topology.TopologyExecutors;
+import com.osstelecom.db.inventory.topology.csr.CsrGraph;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 @Service
 public class CircuitResourceManager extends Manager {
@@ -71,6 +77,12 @@ public class CircuitResourceManager extends Manager {
     @Autowired
     private GraphDao graphDao;
 
+    @Autowired
+    private GraphManager graphManager;
+
+    @Autowired
+    private LiveTopologyManager liveTopologyManager;
+
     private Logger logger = LoggerFactory.getLogger(CircuitResourceManager.class);
 
     public GraphList<CircuitResource> findAll(Domain domain) throws ArangoDaoException, ResourceNotFoundException, InvalidRequestException {
@@ -111,7 +123,7 @@ public class CircuitResourceManager extends Manager {
                 useUpsert = true;
             }
 
-            circuit.setAtomId(domain.addAndGetId());
+            circuit.setAtomId(domainManager.addAndGetId(domain));
             ResourceSchemaModel schemaModel = schemaSession.loadSchema(circuit.getAttributeSchemaName());            
             circuit.setSchemaModel(schemaModel);
             
@@ -259,6 +271,53 @@ public class CircuitResourceManager extends Manager {
         }
     }
 
+    /**
+     * Caminhos disjuntos e corte mínimo entre as pontas do circuito, no lugar
+     * de enumerar os k_paths da travessia
+     *
+     * @param circuit
+     * @return
+     */
+    public CircuitConnectivityDTO computeCircuitConnectivity(CircuitResource circuit) {
+        String timerId = startTimer("computeCircuitConnectivity");
+        try {
+            CsrGraph graph = this.graphManager.buildGraph(this.findCircuitPaths(circuit, false));
+            return this.graphManager.computeCircuitConnectivity(circuit, graph);
+        } finally {
+            endTimer(timerId);
+        }
+    }
+
+    /**
+     * Conectividade de todos os circuitos do domínio. As conexões vêm numa
+     * consulta só e cada circuito é calculado em paralelo no executor de
+     * topologia
+     *
+     * @param domain
+     * @return
+     * @throws ArangoDaoException
+     * @throws InvalidRequestException
+     */
+    public List<CircuitConnectivityDTO> computeCircuitConnectivity(Domain domain) throws ArangoDaoException, InvalidRequestException {
+        String timerId = startTimer("computeCircuitConnectivity:domain[" + domain.getDomainName() + "]");
+        try {
+            GraphList<CircuitResource> circuits;
+            try {
+                circuits = this.findAll(domain);
+            } catch (ResourceNotFoundException ex) {
+                return new ArrayList<>();
+            }
+            Map<String, CsrGraph> graphs = this.graphManager.buildCircuitGraphs(this.graphDao.findCircuitConnections(domain));
+            List<CompletableFuture<CircuitConnectivityDTO>> jobs = new ArrayList<>();
+            circuits.forEach(circuit -> jobs.add(CompletableFuture.supplyAsync(
+                    () -> this.graphManager.computeCircuitConnectivity(circuit, graphs.get(circuit.getId())),
+                    TopologyExecutors.getExecutor())));
+            return jobs.stream().map(CompletableFuture::join).collect(Collectors.toList());
+        } finally {
+            endTimer(timerId);
+        }
+    }
+
     public GraphList<CircuitResource> findCircuitsByFilter(FilterDTO filter, Domain domain) throws ArangoDaoException, ResourceNotFoundException, InvalidRequestException {
         String timerId = startTimer("findCircuitsByFilter");
         try {
@@ -316,6 +375,11 @@ public class CircuitResourceManager extends Manager {
                         // Trasicionou o estado da conexão.
                         //
                         logger.debug("Connection:[{}] carries:[{}] circuits", newConnection.getId(), newConnection.getCircuits().size());
+                        //
+                        // Garante que a topologia em memória já viu esta
+                        // atualização, a ordem entre os listeners não é fixa
+                        //
+                        this.liveTopologyManager.apply(List.of(newConnection));
                         for (String circuitId : newConnection.getCircuits()) {
                             try {
                                 CircuitResource circuit = this.findCircuitResource(new CircuitResource(newConnection.getDomain(), circuitId));
@@ -416,28 +480,49 @@ public class CircuitResourceManager extends Manager {
                 logger.debug("Starting Circuit Computing on:[{}]", circuit.getId());
             }
             boolean stateChanged = false;
-            /**
-             * Não precisa ser uma travessia!, nos conhecemos o caminhos podemos
-             * usar uma simples query!
-             */
-            List<ResourceConnection> connections = this.findCircuitPaths(circuit, false).toList();
             boolean degratedFlag = false;
-            /**
-             * Varre as conexões para ver se tem alguma down, se tiver já é
-             * degradado
-             */
-            for (ResourceConnection connection : connections) {
-                logger.debug("Connection [{}] Status:[{}]", connection.getId(), connection.getOperationalStatus());
+            int connectionCount;
+            List<String> brokenNodes;
+            CsrGraph liveGraph = this.liveTopologyManager.circuitGraph(circuit);
+            if (liveGraph != null) {
                 //
-                // get current node status
+                // Topologia do domain em memória, sem consulta ao banco
                 //
-                if (!connection.getOperationalStatus().equalsIgnoreCase("UP")) {
+                for (int edge = 0; edge < liveGraph.edgeCount(); edge++) {
+                    if (!liveGraph.isEdgeActive(edge)) {
+                        degratedFlag = true;
+                    }
+                }
+                brokenNodes = this.graphManager.unreachableNodes(liveGraph);
+                connectionCount = liveGraph.edgeCount();
+            } else {
+                /**
+                 * Não precisa ser uma travessia!, nos conhecemos o caminhos
+                 * podemos usar uma simples query!
+                 */
+                List<ResourceConnection> connections = this.findCircuitPaths(circuit, false).toList();
+                /**
+                 * Varre as conexões para ver se tem alguma down, se tiver já é
+                 * degradado
+                 */
+                for (ResourceConnection connection : connections) {
+                    logger.debug("Connection [{}] Status:[{}]", connection.getId(), connection.getOperationalStatus());
                     //
-                    // Transitou de normal para degradado
+                    // get current node status
                     //
-                    degratedFlag = true;
-                }
+                    if (!connection.getOperationalStatus().equalsIgnoreCase("UP")) {
+                        //
+                        // Transitou de normal para degradado
+                        //
+                        degratedFlag = true;
+                    }
 
+                }
+                //
+                // Checks the current state of the circuit
+                //
+                brokenNodes = this.domainManager.checkBrokenGraph(connections, circuit.getaPoint());
+                connectionCount = connections.size();
             }
 
             if (circuit.getDegrated()) {
@@ -458,11 +543,6 @@ public class CircuitResourceManager extends Manager {
                 }
             }
 
-            //
-            // Checks the current state of the circuit
-            //
-            List<String> brokenNodes = this.domainManager.checkBrokenGraph(connections, circuit.getaPoint());
-
             //
             //
             //
@@ -516,10 +596,10 @@ public class CircuitResourceManager extends Manager {
             Long took = end - start;
             if (circuit.getBrokenResources() != null) {
                 logger.debug("Check Circuit Integrity for [{}] Took: {} ms State Changed: {} Broken Count:[{}] Total Connections:[{}]",
-                        circuit.getId(), took, stateChanged, circuit.getBrokenResources().size(), connections.size());
+                        circuit.getId(), took, stateChanged, circuit.getBrokenResources().size(), connectionCount);
             } else {
                 logger.debug("Check Circuit Integrity for [{}] Took: {} ms State Changed: {}  Total Connections:[{}]",
-                        circuit.getId(), took, stateChanged, connections.size());
+                        circuit.getId(), took, stateChanged, connectionCount);
             }
             if (stateChanged) {
                 this.updateCircuitResource(circuit);
@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.manager.operation;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.osstelecom.db.inventory.manager.configuration.ConfigurationManager;
+import com.osstelecom.db.inventory.manager.dao.DomainDao;
+import com.osstelecom.db.inventory.manager.exception.ArangoDaoException;
+import com.osstelecom.db.inventory.manager.resources.Domain;
+
+/**
+ * Distribui os atomicIds dos domains no modelo hi/lo.
+ * <p>
+ * Cada instância reserva blocos de IDs com um único UPDATE atômico no
+ * documento do domain e distribui os IDs do bloco localmente com um
+ * {@link AtomicLong}. O caminho comum é um getAndIncrement sem lock, o banco só
+ * é acessado quando o bloco se esgota. IDs não usados de um bloco são perdidos
+ * quando a instância para, então a sequência é única mas pode ter buracos.
+ *
+ * @author Lucas Nishimura
+ * @created 19.10.2026
+ */
+@Service
+public class DomainIdAllocator {
+
+    @Autowired
+    private DomainDao domainDao;
+
+    @Autowired
+    private ConfigurationManager configurationManager;
+
+    private final Map<String, DomainIdRange> ranges = new ConcurrentHashMap<>();
+
+    /**
+     * Retorna o próximo ID do domain, reservando um novo bloco no banco se o
+     * bloco local acabou
+     *
+     * @param domain
+     * @return
+     * @throws ArangoDaoException
+     */
+    public Long nextId(Domain domain) throws ArangoDaoException {
+        DomainIdRange range = this.ranges.computeIfAbsent(domain.getDomainName(), DomainIdRange::new);
+        while (true) {
+            IdBlock block = range.current.get();
+            long id = block.next.getAndIncrement();
+            if (id < block.limit) {
+                return id;
+            }
+            range.lease(block);
+        }
+    }
+
+    /**
+     * Descarta o bloco local do domain, usado quando o domain é removido
+     *
+     * @param domainName
+     */
+    public void release(String domainName) {
+        this.ranges.remove(domainName);
+    }
+
+    /**
+     * Intervalo [next, limit) já reservado no banco
+     */
+    private static class IdBlock {
+
+        private final AtomicLong next;
+        private final long limit;
+
+        private IdBlock(long start, long limit) {
+            this.next = new AtomicLong(start);
+            this.limit = limit;
+        }
+    }
+
+    /**
+     * Estado de alocação de um domain, o bloco corrente é trocado inteiro para
+     * que nenhuma thread veja um next de um bloco com o limit de outro
+     */
+    private class DomainIdRange {
+
+        private final String domainName;
+        private final AtomicReference<IdBlock> current = new AtomicReference<>(new IdBlock(0L, 0L));
+        private final ReentrantLock leaseLock = new ReentrantLock();
+
+        private DomainIdRange(String domainName) {
+            this.domainName = domainName;
+        }
+
+        /**
+         * Só a primeira thread que encontrar o bloco esgotado vai ao banco, as
+         * demais esperam e tentam de novo no bloco novo
+         *
+         * @param exhausted
+         */
+        private void lease(IdBlock exhausted) throws ArangoDaoException {
+            leaseLock.lock();
+            try {
+                if (this.current.get() != exhausted) {
+                    return;
+                }
+                Long blockSize = configurationManager.loadConfiguration().getAtomicIdBlockSize();
+                if (blockSize == null || blockSize < 1L) {
+                    blockSize = 1L;
+                }
+                Long high = domainDao.reserveAtomicIdBlock(this.domainName, blockSize);
+                this.current.set(new IdBlock(high - blockSize, high));
+            } finally {
+                leaseLock.unlock();
+            }
+        }
+    }
+}
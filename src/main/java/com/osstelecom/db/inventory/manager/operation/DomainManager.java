@@ -21,6 +21,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -87,6 +88,9 @@ public class DomainManager extends Manager {
     @Autowired
     private DomainDao domainDao;
 
+    @Autowired
+    private DomainIdAllocator domainIdAllocator;
+
     @Autowired
     private ManagedResourceDao managedResourceDao;
 
@@ -99,6 +103,9 @@ public class DomainManager extends Manager {
     @Autowired
     private CircuitResourceDao circuitResourceDao;
 
+    @Autowired
+    private ManagedExecutorService managedExecutorService;
+
     private final Map<String, Domain> updatingDomains = new ConcurrentHashMap<>();
 
     private Logger logger = LoggerFactory.getLogger(DomainManager.class);
@@ -149,7 +156,8 @@ public class DomainManager extends Manager {
     }
 
     /**
-     * Update the persistence layer with the current atomic id in the domain
+     * Update the persistence layer with the current domain stats, the atomic id
+     * is kept by the DomainIdAllocator and is not written here
      */
     @PreDestroy
     private void onShutDown() {
@@ -200,6 +208,7 @@ public class DomainManager extends Manager {
             lockManager.lock();
             domain = this.getDomain(domain.getDomainName());
             this.domains.remove(domain.getDomainName());
+            this.domainIdAllocator.release(domain.getDomainName());
             return this.domainDao.deleteDomain(domain);
         } finally {
             if (lockManager.isLocked()) {
@@ -273,7 +282,7 @@ public class DomainManager extends Manager {
                     if (!this.updatingDomains.containsKey(domain.getDomainName())) {
                         this.updatingDomains.put(domain.getDomainName(), domain);
 
-                        Thread t = new Thread(() -> {
+                        Runnable statsTask = () -> {
                             Long start = System.currentTimeMillis();
 
                             try {
@@ -298,9 +307,16 @@ public class DomainManager extends Manager {
                                 logger.debug("Stats for domain: [{}] Last Date: [{}] Has Just Updated and Took: [{}] ms", domain.getDomainName(), domain.getLastStatsCalc(), took);
 
                             }
-                        });
-                        t.setName(domain.getDomainName() + "-stats-thread");
-                        t.start();
+                        };
+                        try {
+                            managedExecutorService.execute(ManagedExecutorService.Pool.STATS, statsTask);
+                        } catch (RejectedExecutionException ex) {
+                            //
+                            // Pool de stats cheio, tenta de novo na próxima leitura
+                            //
+                            this.updatingDomains.remove(domain.getDomainName());
+                            logger.warn("Stats Pool Busy, Skipping Stats for Domain:[{}]", domain.getDomainName());
+                        }
                     } else {
                         logger.warn("Already Processing Stats for Domain:[{}]", domain.getDomainName());
                     }
@@ -344,6 +360,17 @@ public class DomainManager extends Manager {
         return result.getNew();
     }
 
+    /**
+     * Obtem o próximo atomicId do domain, único entre todas as instâncias
+     *
+     * @param domain
+     * @return
+     * @throws ArangoDaoException
+     */
+    public Long addAndGetId(Domain domain) throws ArangoDaoException {
+        return this.domainIdAllocator.nextId(domain);
+    }
+
     /**
      * Called When a New Domain is Created
      *
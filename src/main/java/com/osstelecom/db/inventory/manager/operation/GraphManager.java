@@ -18,19 +18,21 @@
 package com.osstelecom.db.inventory.manager.operation;
 
 import com.osstelecom.db.inventory.manager.dao.GraphDao;
+import com.osstelecom.db.inventory.manager.dto.CircuitConnectivityDTO;
 import com.osstelecom.db.inventory.manager.exception.InvalidRequestException;
 import com.osstelecom.db.inventory.manager.exception.ResourceNotFoundException;
+import com.osstelecom.db.inventory.manager.resources.CircuitResource;
 import com.osstelecom.db.inventory.manager.resources.GraphList;
 import com.osstelecom.db.inventory.manager.resources.ManagedResource;
 import com.osstelecom.db.inventory.manager.resources.ResourceConnection;
-import com.osstelecom.db.inventory.topology.DefaultTopology;
-import com.osstelecom.db.inventory.topology.ITopology;
-import com.osstelecom.db.inventory.topology.impact.WeakNodesImpactManager;
-import com.osstelecom.db.inventory.topology.node.DefaultNode;
-import com.osstelecom.db.inventory.topology.node.INetworkNode;
+import com.osstelecom.db.inventory.topology.csr.CsrAlgorithms;
+import com.osstelecom.db.inventory.topology.csr.CsrGraph;
+import com.osstelecom.db.inventory.topology.csr.MinCut;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -66,83 +68,131 @@ public class GraphManager {
     public List<String> checkBrokenGraph(List<ResourceConnection> connections, ManagedResource aPoint) {
         List<String> result = new ArrayList<>();
         if (!connections.isEmpty()) {
-            //
-            // @Todo:Testar memória...
-            //
             Long startTime = System.currentTimeMillis();
-            DefaultTopology topology = new DefaultTopology(new WeakNodesImpactManager());
-            AtomicLong localId = new AtomicLong(0L);
-            INetworkNode target = createNode(aPoint.getId(), localId.incrementAndGet(), topology);
+            CsrGraph.Builder builder = CsrGraph.builder();
             //
             // this is the A Point from the circuit, will mark as endPoint. meaning all
             // nodes must reach this one
             //
-            target.setEndPoint(true);
-
-            connections.forEach(connection -> {
-                INetworkNode from = topology.getNodeByName(connection.getFrom().getId());
-                INetworkNode to = topology.getNodeByName(connection.getTo().getId());
-
-                if (from == null) {
-                    from = createNode(connection.getFrom().getId(), localId.incrementAndGet(), topology);
-                }
-
-                if (to == null) {
-                    to = createNode(connection.getTo().getId(), localId.incrementAndGet(), topology);
-                }
-
-                if (connection.getOperationalStatus().equalsIgnoreCase("UP")) {
-                    connection.setOperationalStatus("Up");
-                    topology.addConnection(from, to, "Connection: " + connection.getId());
-                    logger.debug("Connection from:[{}] To:[{}] is Up", connection.getFrom().getNodeAddress(), connection.getTo().getNodeAddress());
-
-                } else if (connection.getOperationalStatus().equalsIgnoreCase("DOWN")) {
-                    logger.debug("Connection from:[{}] To:[{}] is Down", connection.getFrom().getNodeAddress(), connection.getTo().getNodeAddress());
-                }
-
-                // topology.addConnection(to, from, connection.getId() + ".A");
-            });
+            builder.endPoint(builder.node(aPoint.getId()));
+            connections.forEach(connection -> this.addConnection(builder, connection));
+            CsrGraph graph = builder.build();
 
             logger.debug("-------------------------------------------------------------");
             logger.debug("Topology Loaded! ");
             logger.debug("Topology Size:");
-            logger.debug("         Nodes:{}", topology.getNodes().size());
-            logger.debug("   Connections:{}", topology.getConnections().size());
-            logger.debug("     EndPoints:{}", topology.getEndPoints().size());
-            for (INetworkNode node : topology.getEndPoints()) {
-                logger.debug("       {}", node.getName());
-            }
+            logger.debug("         Nodes:{}", graph.nodeCount());
+            logger.debug("   Connections:{}", graph.edgeCount());
+            logger.debug("   Graph Bytes:{}", graph.sizeInBytes());
 
-            List<INetworkNode> weak = topology.getImpactManager().getUnreacheableNodes();
+            result.addAll(this.unreachableNodes(graph));
             Long endTime = System.currentTimeMillis();
             Long tookTime = endTime - startTime;
-            logger.debug("Found [{}] Unrecheable Nodes IN: {} ms", weak.size(), tookTime);
+            logger.debug("Found [{}] Unrecheable Nodes IN: {} ms", result.size(), tookTime);
+        }
+        return result;
+    }
 
-            if (!weak.isEmpty()) {
-                weak.forEach(node -> {
-                    if (!result.contains(node.getName())) {
-                        result.add(node.getName());
-                    }
-                });
-            }
-            //
-            // Try to free the memory
-            //
-            topology.destroyTopology();
+    /**
+     * Nós que não alcançam nenhum endpoint ativo
+     *
+     * @param graph
+     * @return nomes dos nós
+     */
+    public List<String> unreachableNodes(CsrGraph graph) {
+        List<String> result = new ArrayList<>();
+        BitSet reached = CsrAlgorithms.reachable(graph);
+        for (int node = reached.nextClearBit(0); node < graph.nodeCount(); node = reached.nextClearBit(node + 1)) {
+            result.add(graph.name(node));
         }
         return result;
     }
 
     /**
-     * Remove from here!
+     * Monta o grafo compacto direto do cursor do DAO, sem materializar a lista
+     * de conexões nem os objetos de topologia. O cursor é fechado ao final.
      *
-     * @param name
-     * @param id
-     * @param topology
+     * @param connections
+     * @param endPoints
      * @return
      */
-    private INetworkNode createNode(String name, Long id, ITopology topology) {
-        INetworkNode node = new DefaultNode(name, id.intValue(), topology);
-        return node;
+    public CsrGraph buildGraph(GraphList<ResourceConnection> connections, ManagedResource... endPoints) {
+        CsrGraph.Builder builder = CsrGraph.builder();
+        for (ManagedResource endPoint : endPoints) {
+            builder.endPoint(builder.node(endPoint.getId()));
+        }
+        connections.forEach(connection -> this.addConnection(builder, connection));
+        return builder.build();
+    }
+
+    /**
+     * Um grafo por circuito, montado numa passada só pelo cursor com as
+     * conexões de todos os circuitos do domínio
+     *
+     * @param connections
+     * @return grafos indexados pelo id do circuito
+     */
+    public Map<String, CsrGraph> buildCircuitGraphs(GraphList<ResourceConnection> connections) {
+        Map<String, CsrGraph.Builder> builders = new HashMap<>();
+        connections.forEach(connection -> {
+            if (connection.getCircuits() != null) {
+                for (String circuitId : connection.getCircuits()) {
+                    this.addConnection(builders.computeIfAbsent(circuitId, k -> CsrGraph.builder()), connection);
+                }
+            }
+        });
+        Map<String, CsrGraph> result = new HashMap<>(builders.size());
+        builders.forEach((circuitId, builder) -> result.put(circuitId, builder.build()));
+        return result;
+    }
+
+    /**
+     * Caminhos disjuntos e corte mínimo entre o aPoint e o zPoint do
+     * circuito, só pelas conexões UP
+     *
+     * @param circuit
+     * @param graph grafo das conexões do circuito, pode ser nulo
+     * @return
+     */
+    public CircuitConnectivityDTO computeCircuitConnectivity(CircuitResource circuit, CsrGraph graph) {
+        CircuitConnectivityDTO result = new CircuitConnectivityDTO(circuit);
+        if (graph == null || result.getaPoint() == null || result.getzPoint() == null) {
+            return result;
+        }
+        int aPoint = graph.indexOf(result.getaPoint());
+        int zPoint = graph.indexOf(result.getzPoint());
+        MinCut edges = MinCut.edges(graph, aPoint, zPoint);
+        MinCut nodes = MinCut.nodes(graph, aPoint, zPoint);
+        result.setConnectionCount(graph.edgeCount());
+        result.setEdgeConnectivity(edges.size());
+        result.setVertexConnectivity(nodes.size());
+        BitSet cutEdges = edges.cutEdges();
+        for (int e = cutEdges.nextSetBit(0); e >= 0; e = cutEdges.nextSetBit(e + 1)) {
+            result.getCutConnections().add(graph.edgeName(e));
+        }
+        BitSet cutNodes = nodes.cutNodes();
+        for (int v = cutNodes.nextSetBit(0); v >= 0; v = cutNodes.nextSetBit(v + 1)) {
+            result.getCutNodes().add(graph.name(v));
+        }
+        return result;
+    }
+
+    /**
+     * Só as conexões UP passam tráfego, as demais entram inativas
+     *
+     * @param builder
+     * @param connection
+     */
+    private void addConnection(CsrGraph.Builder builder, ResourceConnection connection) {
+        int from = builder.node(connection.getFrom().getId());
+        int to = builder.node(connection.getTo().getId());
+        if ("UP".equalsIgnoreCase(connection.getOperationalStatus())) {
+            connection.setOperationalStatus("Up");
+            builder.addEdge(from, to, true, connection.getId());
+            logger.debug("Connection from:[{}] To:[{}] is Up", connection.getFrom().getNodeAddress(), connection.getTo().getNodeAddress());
+        } else {
+            builder.addEdge(from, to, false, connection.getId());
+            logger.debug("Connection from:[{}] To:[{}] is Down", connection.getFrom().getNodeAddress(), connection.getTo().getNodeAddress());
+        }
     }
 }
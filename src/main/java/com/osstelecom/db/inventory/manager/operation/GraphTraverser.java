@@ -32,7 +32,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Predicate;
@@ -48,7 +47,7 @@ import org.slf4j.LoggerFactory;
  */
 public class GraphTraverser {
     
-    private ExecutorService executorService;
+    private final ExecutorService executorService;
     private final ConcurrentLinkedQueue<List<PathElement>> allPaths;
     private final AtomicLong activeThreads = new AtomicLong(0L);
     private final Semaphore semaphore = new Semaphore(0);
@@ -56,10 +55,18 @@ public class GraphTraverser {
     private final ArangoDatabase arangoDb;
     private Logger logger = LoggerFactory.getLogger(GraphTraverser.class);
     
-    public GraphTraverser(ArangoDatabase arangoDb) {
+    /**
+     * As queries de adjacência rodam no executor compartilhado (pool de
+     * topologia do ManagedExecutorService), que não é finalizado aqui
+     *
+     * @param arangoDb
+     * @param executorService
+     */
+    public GraphTraverser(ArangoDatabase arangoDb, ExecutorService executorService) {
         
         this.allPaths = new ConcurrentLinkedQueue<>();
         this.arangoDb = arangoDb;
+        this.executorService = executorService;
     }
 
     /**
@@ -80,7 +87,6 @@ public class GraphTraverser {
         TraversalResult result = null;
         Long start = System.currentTimeMillis();
         try {
-            this.executorService = Executors.newFixedThreadPool(2);
             this.activeThreads.set(0L);
             this.interationCounter.set(0L);
             List<PathElement> initialPath = new ArrayList<>();
@@ -91,8 +97,6 @@ public class GraphTraverser {
             while (activeThreads.get() > 0 || semaphore.availablePermits() > 0) {
                 semaphore.acquire();
             }
-            executorService.shutdown();
-            
             Long end = System.currentTimeMillis();
             Long took = end - start;
             result = new TraversalResult(new ArrayList<>(allPaths), interationCounter.get(), took);
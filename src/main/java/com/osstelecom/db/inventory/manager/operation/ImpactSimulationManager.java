@@ -0,0 +1,223 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.manager.operation;
+
+import com.google.common.eventbus.Subscribe;
+import com.osstelecom.db.inventory.manager.configuration.ConfigurationManager;
+import com.osstelecom.db.inventory.manager.dao.CircuitResourceDao;
+import com.osstelecom.db.inventory.manager.dao.ServiceResourceDao;
+import com.osstelecom.db.inventory.manager.events.CircuitPathUpdatedEvent;
+import com.osstelecom.db.inventory.manager.events.CircuitResourceCreatedEvent;
+import com.osstelecom.db.inventory.manager.events.CircuitResourceUpdatedEvent;
+import com.osstelecom.db.inventory.manager.events.ManagedResourceDeletedEvent;
+import com.osstelecom.db.inventory.manager.events.ResourceConnectionCreatedEvent;
+import com.osstelecom.db.inventory.manager.events.ResourceConnectionDeletedEvent;
+import com.osstelecom.db.inventory.manager.events.ResourceConnectionUpdatedEvent;
+import com.osstelecom.db.inventory.manager.events.ServiceResourceCreatedEvent;
+import com.osstelecom.db.inventory.manager.events.ServiceResourceUpdatedEvent;
+import com.osstelecom.db.inventory.manager.exception.ArangoDaoException;
+import com.osstelecom.db.inventory.manager.exception.InvalidRequestException;
+import com.osstelecom.db.inventory.manager.exception.ResourceNotFoundException;
+import com.osstelecom.db.inventory.manager.listeners.EventManagerListener;
+import com.osstelecom.db.inventory.manager.resources.BasicResource;
+import com.osstelecom.db.inventory.manager.resources.Domain;
+import com.osstelecom.db.inventory.topology.TopologyProgress;
+import com.osstelecom.db.inventory.topology.csr.CsrGraph;
+import com.osstelecom.db.inventory.topology.simulation.ImpactModel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Modelos de simulação de falhas por domain. O modelo junta o grafo do
+ * LiveTopologyManager (residente ou lido na hora) com os circuitos e
+ * serviços do banco, e fica guardado enquanto a versão da topologia não
+ * muda, nenhum evento de circuito, serviço ou conexão do domain chega e o
+ * simulationModelTTL não vence.
+ *
+ * @author Lucas Nishimura
+ * @created 19.10.2026
+ */
+@Service
+public class ImpactSimulationManager {
+
+    @Autowired
+    private LiveTopologyManager liveTopologyManager;
+
+    @Autowired
+    private CircuitResourceDao circuitResourceDao;
+
+    @Autowired
+    private ServiceResourceDao serviceResourceDao;
+
+    @Autowired
+    private EventManagerListener eventManager;
+
+    @Autowired
+    private ConfigurationManager configurationManager;
+
+    private final Map<String, CachedModel> models = new ConcurrentHashMap<>();
+
+    /**
+     * Contador de invalidações por domain, para não guardar um modelo
+     * montado enquanto chegava um evento
+     */
+    private final Map<String, Long> generations = new ConcurrentHashMap<>();
+
+    private Logger logger = LoggerFactory.getLogger(ImpactSimulationManager.class);
+
+    @EventListener(ApplicationReadyEvent.class)
+    private void onStartUp() {
+        this.eventManager.registerListener(this);
+    }
+
+    /**
+     * Modelo do domain, montando de novo se o guardado não vale mais
+     *
+     * @param domain
+     * @return
+     * @throws ArangoDaoException
+     * @throws InvalidRequestException
+     */
+    public ImpactModel getModel(Domain domain) throws ArangoDaoException, InvalidRequestException {
+        Long version = this.liveTopologyManager.getVersion(domain);
+        Long ttl = this.configurationManager.loadConfiguration().getSimulationModelTTL();
+        CachedModel cached = this.models.get(domain.getDomainName());
+        if (cached != null && Objects.equals(cached.version, version)
+                && System.currentTimeMillis() - cached.createdAt < ttl * 1000L) {
+            return cached.model;
+        }
+        Long generation = this.generations.get(domain.getDomainName());
+        TopologyProgress.current().stage("model", 0L);
+        Long start = System.currentTimeMillis();
+        CsrGraph graph = this.liveTopologyManager.snapshot(domain);
+        ImpactModel.Builder builder = ImpactModel.builder(graph);
+        try {
+            this.circuitResourceDao.findAll(domain).forEach(circuit -> builder.circuit(circuit.getId(),
+                    circuit.getaPoint() == null ? null : circuit.getaPoint().getId(),
+                    circuit.getzPoint() == null ? null : circuit.getzPoint().getId(), circuit.getCircuitPath()));
+        } catch (ResourceNotFoundException ex) {
+            //
+            // Domain sem circuitos
+            //
+        }
+        TopologyProgress.current().checkCancelled();
+        try {
+            this.serviceResourceDao.findAll(domain).forEach(service -> builder.service(service.getId(),
+                    ids(service.getCircuits()), ids(service.getDependencies())));
+        } catch (ResourceNotFoundException ex) {
+            //
+            // Domain sem serviços
+            //
+        }
+        ImpactModel model = builder.build();
+        if (Objects.equals(generation, this.generations.get(domain.getDomainName()))) {
+            this.models.put(domain.getDomainName(), new CachedModel(model, version));
+        }
+        logger.debug("Impact Model for Domain:[{}] Nodes:[{}] Circuits:[{}] Services:[{}] Built in [{}] ms", domain.getDomainName(),
+                graph.nodeCount(), model.circuitCount(), model.serviceCount(), System.currentTimeMillis() - start);
+        return model;
+    }
+
+    private static List<String> ids(List<? extends BasicResource> resources) {
+        List<String> ids = new ArrayList<>();
+        if (resources != null) {
+            resources.forEach(resource -> ids.add(resource.getId()));
+        }
+        return ids;
+    }
+
+    /**
+     * Descarta o modelo do domain
+     *
+     * @param domainName
+     */
+    public void invalidate(String domainName) {
+        if (domainName != null) {
+            this.generations.merge(domainName, 1L, Long::sum);
+            this.models.remove(domainName);
+        }
+    }
+
+    @Subscribe
+    public void onCircuitResourceCreatedEvent(CircuitResourceCreatedEvent event) {
+        this.invalidate(event.getNewResource().getDomainName());
+    }
+
+    @Subscribe
+    public void onCircuitResourceUpdatedEvent(CircuitResourceUpdatedEvent event) {
+        this.invalidate(event.getNewResource().getDomainName());
+    }
+
+    @Subscribe
+    public void onCircuitPathUpdatedEvent(CircuitPathUpdatedEvent event) {
+        this.invalidate(event.getNewResource().getDomainName());
+    }
+
+    @Subscribe
+    public void onServiceResourceCreatedEvent(ServiceResourceCreatedEvent event) {
+        this.invalidate(event.getNewResource().getDomainName());
+    }
+
+    @Subscribe
+    public void onServiceResourceUpdatedEvent(ServiceResourceUpdatedEvent event) {
+        this.invalidate(event.getNewResource().getDomainName());
+    }
+
+    @Subscribe
+    public void onResourceConnectionCreatedEvent(ResourceConnectionCreatedEvent event) {
+        this.invalidate(event.getNewResource().getDomainName());
+    }
+
+    @Subscribe
+    public void onResourceConnectionUpdatedEvent(ResourceConnectionUpdatedEvent event) {
+        this.invalidate(event.getNewResource().getDomainName());
+    }
+
+    @Subscribe
+    public void onResourceConnectionDeletedEvent(ResourceConnectionDeletedEvent event) {
+        if (event.getOldResource() != null) {
+            this.invalidate(event.getOldResource().getDomainName());
+        }
+    }
+
+    @Subscribe
+    public void onManagedResourceDeletedEvent(ManagedResourceDeletedEvent event) {
+        this.invalidate(event.getOldResource().getDomainName());
+    }
+
+    private static final class CachedModel {
+
+        private final ImpactModel model;
+        private final Long version;
+        private final long createdAt = System.currentTimeMillis();
+
+        private CachedModel(ImpactModel model, Long version) {
+            this.model = model;
+            this.version = version;
+        }
+    }
+}
@@ -0,0 +1,364 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.manager.operation;
+
+import com.google.common.eventbus.Subscribe;
+import com.osstelecom.db.inventory.manager.configuration.ConfigurationManager;
+import com.osstelecom.db.inventory.manager.configuration.InventoryConfiguration;
+import com.osstelecom.db.inventory.manager.dao.ResourceConnectionDao;
+import com.osstelecom.db.inventory.manager.events.ManagedResourceDeletedEvent;
+import com.osstelecom.db.inventory.manager.events.ResourceConnectionCreatedEvent;
+import com.osstelecom.db.inventory.manager.events.ResourceConnectionDeletedEvent;
+import com.osstelecom.db.inventory.manager.events.ResourceConnectionUpdatedEvent;
+import com.osstelecom.db.inventory.manager.exception.ArangoDaoException;
+import com.osstelecom.db.inventory.manager.exception.InvalidRequestException;
+import com.osstelecom.db.inventory.manager.exception.ResourceNotFoundException;
+import com.osstelecom.db.inventory.manager.listeners.EventManagerListener;
+import com.osstelecom.db.inventory.manager.operation.ManagedExecutorService.Pool;
+import com.osstelecom.db.inventory.manager.resources.CircuitResource;
+import com.osstelecom.db.inventory.manager.resources.Domain;
+import com.osstelecom.db.inventory.manager.resources.ResourceConnection;
+import com.osstelecom.db.inventory.topology.csr.CsrGraph;
+import com.osstelecom.db.inventory.topology.live.LiveTopology;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Mantém uma LiveTopology por domain. A topologia é montada no startup (se o
+ * warm-up estiver habilitado) ou no primeiro uso, e depois segue os eventos
+ * de conexões e recursos. Se a soma das topologias passar do orçamento de
+ * memória as menos usadas são descartadas e voltam a ser montadas no próximo
+ * uso. Quem consulta recebe null quando a topologia não está pronta e deve
+ * usar o caminho pelo banco.
+ *
+ * @author Lucas Nishimura
+ * @created 19.10.2026
+ */
+@Service
+public class LiveTopologyManager {
+
+    @Autowired
+    private ResourceConnectionDao resourceConnectionDao;
+
+    @Autowired
+    private DomainManager domainManager;
+
+    @Autowired
+    private EventManagerListener eventManager;
+
+    @Autowired
+    private ConfigurationManager configurationManager;
+
+    @Autowired
+    private ManagedExecutorService managedExecutorService;
+
+    private final Map<String, LiveTopology> topologies = new ConcurrentHashMap<>();
+
+    /**
+     * Domains que sozinhos passam do orçamento e ficam sempre no banco
+     */
+    private final Map<String, Long> overBudget = new ConcurrentHashMap<>();
+
+    private Long warmUpMillis;
+
+    private Integer warmedDomains;
+
+    private Logger logger = LoggerFactory.getLogger(LiveTopologyManager.class);
+
+    @EventListener(ApplicationReadyEvent.class)
+    private void onStartUp() {
+        this.eventManager.registerListener(this);
+        InventoryConfiguration configuration = this.configurationManager.loadConfiguration();
+        if (configuration.getLiveTopologyEnabled() && configuration.getLiveTopologyWarmUp()) {
+            this.managedExecutorService.execute(Pool.MAINTENANCE, this::warmUp);
+        }
+    }
+
+    /**
+     * Monta as topologias de todos os domains até o limite de tempo do
+     * warm-up, os que ficarem de fora são montados no primeiro uso
+     */
+    private void warmUp() {
+        Long timeout = this.configurationManager.loadConfiguration().getLiveTopologyWarmUpTimeout() * 1000L;
+        Long start = System.currentTimeMillis();
+        int count = 0;
+        for (Domain domain : this.domainManager.getAllDomains()) {
+            if (System.currentTimeMillis() - start > timeout) {
+                logger.warn("Live Topology Warm Up Timeout after [{}] Domains, remaining will load on first use", count);
+                break;
+            }
+            if (this.load(domain) != null) {
+                count++;
+            }
+        }
+        this.warmUpMillis = System.currentTimeMillis() - start;
+        this.warmedDomains = count;
+        logger.info("Live Topology Warm Up: [{}] Domains in [{}] ms", count, this.warmUpMillis);
+    }
+
+    /**
+     * Topologia pronta do domain, montando no primeiro uso
+     *
+     * @param domain
+     * @return null se desabilitado, em carga, ou acima do orçamento
+     */
+    public LiveTopology getTopology(Domain domain) {
+        if (!this.configurationManager.loadConfiguration().getLiveTopologyEnabled()
+                || this.overBudget.containsKey(domain.getDomainName())) {
+            return null;
+        }
+        LiveTopology topology = this.topologies.get(domain.getDomainName());
+        if (topology == null) {
+            topology = this.load(domain);
+        }
+        return topology != null && topology.isReady() ? topology : null;
+    }
+
+    /**
+     * Versão da topologia do domain, sem disparar a carga
+     *
+     * @param domain
+     * @return null se a topologia não está pronta em memória
+     */
+    public Long getVersion(Domain domain) {
+        LiveTopology topology = this.topologies.get(domain.getDomainName());
+        return topology != null && topology.isReady() ? topology.getVersion() : null;
+    }
+
+    /**
+     * Grafo do circuito a partir da memória
+     *
+     * @param circuit
+     * @return null se a topologia do domain não está disponível
+     */
+    public CsrGraph circuitGraph(CircuitResource circuit) {
+        LiveTopology topology = this.getTopology(circuit.getDomain());
+        if (topology == null) {
+            return null;
+        }
+        return topology.circuitGraph(circuit.getId(), circuit.getaPoint().getId());
+    }
+
+    /**
+     * Grafo do domain inteiro: o da memória quando a topologia está pronta,
+     * senão lido do banco numa topologia avulsa, que não entra no mapa nem no
+     * orçamento e é descartada depois do uso
+     *
+     * @param domain
+     * @return
+     * @throws ArangoDaoException
+     * @throws InvalidRequestException
+     */
+    public CsrGraph snapshot(Domain domain) throws ArangoDaoException, InvalidRequestException {
+        LiveTopology topology = this.getTopology(domain);
+        if (topology != null) {
+            CsrGraph graph = topology.snapshot();
+            if (graph != null) {
+                return graph;
+            }
+        }
+        LiveTopology detached = new LiveTopology(domain.getDomainName());
+        detached.beginLoad();
+        Long start = System.currentTimeMillis();
+        try {
+            this.resourceConnectionDao.findAll(domain).forEach(connection -> detached.load(connection.getId(),
+                    connection.getFrom().getId(), connection.getTo().getId(), this.isUp(connection), connection.getCircuits()));
+        } catch (ResourceNotFoundException ex) {
+            //
+            // Domain sem conexões
+            //
+        }
+        detached.finishLoad(System.currentTimeMillis() - start);
+        return detached.snapshot();
+    }
+
+    /**
+     * Descarta a topologia do domain e monta de novo a partir do banco
+     *
+     * @param domain
+     * @return a nova topologia, null se não coube no orçamento
+     */
+    public LiveTopology rebuild(Domain domain) {
+        this.topologies.remove(domain.getDomainName());
+        this.overBudget.remove(domain.getDomainName());
+        return this.load(domain);
+    }
+
+    /**
+     * Lê as conexões do domain pelo cursor. A topologia entra no mapa antes
+     * da leitura para receber os eventos que chegarem durante a carga. Só uma
+     * thread carrega cada domain, as outras recebem null até terminar
+     *
+     * @param domain
+     * @return
+     */
+    private LiveTopology load(Domain domain) {
+        LiveTopology topology = new LiveTopology(domain.getDomainName());
+        topology.beginLoad();
+        if (this.topologies.putIfAbsent(domain.getDomainName(), topology) != null) {
+            return null;
+        }
+        Long start = System.currentTimeMillis();
+        try {
+            this.resourceConnectionDao.findAll(domain).forEach(connection -> topology.load(connection.getId(),
+                    connection.getFrom().getId(), connection.getTo().getId(), this.isUp(connection), connection.getCircuits()));
+        } catch (ResourceNotFoundException ex) {
+            //
+            // Domain sem conexões
+            //
+        } catch (ArangoDaoException | InvalidRequestException | RuntimeException ex) {
+            logger.error("Failed to Load Live Topology for Domain:[{}]", domain.getDomainName(), ex);
+            this.topologies.remove(domain.getDomainName(), topology);
+            return null;
+        }
+        topology.finishLoad(System.currentTimeMillis() - start);
+        logger.debug("Live Topology Loaded for Domain:[{}] in [{}] ms", domain.getDomainName(), System.currentTimeMillis() - start);
+        this.enforceBudget(topology);
+        return this.topologies.get(domain.getDomainName()) == topology ? topology : null;
+    }
+
+    /**
+     * Descarta as topologias menos usadas até a soma caber no orçamento. Se
+     * a topologia informada sozinha não cabe ela também é descartada e o
+     * domain passa a usar sempre o banco, até um rebuild
+     *
+     * @param current
+     */
+    private void enforceBudget(LiveTopology current) {
+        Long maxBytes = this.configurationManager.loadConfiguration().getLiveTopologyMaxBytes();
+        if (maxBytes == null || maxBytes <= 0) {
+            return;
+        }
+        long currentBytes = current.estimatedBytes();
+        if (currentBytes > maxBytes) {
+            logger.warn("Live Topology for Domain:[{}] Needs [{}] Bytes, over the budget of [{}] Bytes", current.getDomainName(), currentBytes, maxBytes);
+            this.topologies.remove(current.getDomainName(), current);
+            this.overBudget.put(current.getDomainName(), currentBytes);
+            return;
+        }
+        List<LiveTopology> candidates = new ArrayList<>(this.topologies.values());
+        long total = candidates.stream().mapToLong(LiveTopology::estimatedBytes).sum();
+        candidates.sort(Comparator.comparingLong(LiveTopology::getLastUsed));
+        for (LiveTopology candidate : candidates) {
+            if (total <= maxBytes) {
+                break;
+            }
+            if (candidate != current) {
+                total -= candidate.estimatedBytes();
+                this.topologies.remove(candidate.getDomainName(), candidate);
+                logger.debug("Live Topology for Domain:[{}] Evicted", candidate.getDomainName());
+            }
+        }
+    }
+
+    /**
+     * Aplica o estado atual das conexões, usado também pelos caminhos que
+     * gravam em lote sem emitir eventos. Alterações sem efeito não mudam a
+     * versão
+     *
+     * @param connections
+     */
+    public void apply(Collection<ResourceConnection> connections) {
+        for (ResourceConnection connection : connections) {
+            LiveTopology topology = this.topologies.get(connection.getDomainName());
+            if (topology != null) {
+                topology.putLink(connection.getId(), connection.getFrom().getId(), connection.getTo().getId(),
+                        this.isUp(connection), connection.getCircuits());
+            }
+        }
+    }
+
+    private boolean isUp(ResourceConnection connection) {
+        return "UP".equalsIgnoreCase(connection.getOperationalStatus());
+    }
+
+    @Subscribe
+    public void onResourceConnectionCreatedEvent(ResourceConnectionCreatedEvent event) {
+        this.apply(List.of(event.getNewResource()));
+    }
+
+    @Subscribe
+    public void onResourceConnectionUpdatedEvent(ResourceConnectionUpdatedEvent event) {
+        this.apply(List.of(event.getNewResource()));
+    }
+
+    @Subscribe
+    public void onResourceConnectionDeletedEvent(ResourceConnectionDeletedEvent event) {
+        ResourceConnection connection = event.getOldResource();
+        if (connection == null) {
+            return;
+        }
+        LiveTopology topology = this.topologies.get(connection.getDomainName());
+        if (topology != null) {
+            topology.removeLink(connection.getId());
+        }
+    }
+
+    /**
+     * Criar ou atualizar um recurso não muda o grafo de conexões, só a
+     * remoção, que leva junto as conexões do recurso
+     *
+     * @param event
+     */
+    @Subscribe
+    public void onManagedResourceDeletedEvent(ManagedResourceDeletedEvent event) {
+        LiveTopology topology = this.topologies.get(event.getOldResource().getDomainName());
+        if (topology != null) {
+            topology.removeNode(event.getOldResource().getId());
+        }
+    }
+
+    /**
+     * Configuração, warm-up e o estado de cada topologia, para o endpoint
+     * de actuator
+     *
+     * @return
+     */
+    public Map<String, Object> dumpStats() {
+        InventoryConfiguration configuration = this.configurationManager.loadConfiguration();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", configuration.getLiveTopologyEnabled());
+        result.put("warmUp", configuration.getLiveTopologyWarmUp());
+        result.put("warmUpTimeout", configuration.getLiveTopologyWarmUpTimeout());
+        result.put("warmUpMillis", this.warmUpMillis);
+        result.put("warmedDomains", this.warmedDomains);
+        result.put("maxBytes", configuration.getLiveTopologyMaxBytes());
+        List<Map<String, Object>> domains = new ArrayList<>();
+        long total = 0L;
+        for (LiveTopology topology : this.topologies.values()) {
+            Map<String, Object> stats = topology.stats();
+            total += (Long) stats.get("estimatedBytes");
+            domains.add(stats);
+        }
+        result.put("estimatedBytes", total);
+        result.put("domains", domains);
+        result.put("overBudget", new LinkedHashMap<>(this.overBudget));
+        return result;
+    }
+}
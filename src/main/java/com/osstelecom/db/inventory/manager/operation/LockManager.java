@@ -22,6 +22,8 @@ import java.util.concurrent.locks.ReentrantLock;
 import org.springframework.stereotype.Service;
 
 /**
+ * Lock global das operações de escrita, instrumentado pelo
+ * {@link LockProfiler}
  *
  * @author Lucas Nishimura
  * @created 06.09.2022
@@ -29,7 +31,11 @@ import org.springframework.stereotype.Service;
 @Service
 public class LockManager {
 
-    private final ReentrantLock lockManager = new ReentrantLock();
+    private final ProfiledLock lockManager;
+
+    public LockManager(LockProfiler lockProfiler) {
+        this.lockManager = new ProfiledLock(new ReentrantLock(), "LockManager", "LockManager", lockProfiler);
+    }
 
     public void lock() {
         lockManager.lock();
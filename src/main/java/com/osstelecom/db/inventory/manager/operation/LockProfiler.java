@@ -0,0 +1,323 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.manager.operation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.osstelecom.db.inventory.manager.configuration.ConfigurationManager;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Instrumentação dos locks da aplicação (LockManager e stripes do
+ * CircuitSession).
+ * <p>
+ * Para cada call site registra histogramas de espera e de posse
+ * ({@code netcompass.lock.wait} / {@code netcompass.lock.hold}) e um contador
+ * de timeouts ({@code netcompass.lock.timeouts}) no Micrometer. Também mantém a
+ * tabela viva de quem está segurando e quem está esperando cada lock, com o
+ * request id do MDC, exposta pelo endpoint de actuator {@code locks}.
+ *
+ * @author Lucas Nishimura
+ * @created 19.10.2026
+ */
+@Service
+public class LockProfiler {
+
+    private static final String REQUEST_ID = "x-netcompass-requestId";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ConfigurationManager configurationManager;
+
+    private final Map<String, LockState> lockTable = new ConcurrentHashMap<>();
+
+    private final Map<String, SiteMeters> siteMeters = new ConcurrentHashMap<>();
+
+    private final StackWalker stackWalker = StackWalker.getInstance();
+
+    private Logger logger = LoggerFactory.getLogger(LockProfiler.class);
+
+    /**
+     * Registra que a thread corrente vai esperar pelo lock, retorna null se o
+     * profiling estiver desligado
+     *
+     * @param lockName nome lógico do lock, usado como tag da métrica
+     * @param lockId identificação da instância do lock (ex: a stripe)
+     * @param resource o recurso que motivou o lock, pode ser null
+     * @return
+     */
+    public LockTicket beginWait(String lockName, String lockId, String resource) {
+        if (!this.isEnabled()) {
+            return null;
+        }
+        LockTicket ticket = new LockTicket(lockName, lockId, resource, this.findCallSite(), MDC.get(REQUEST_ID));
+        this.lockTable.computeIfAbsent(lockId, k -> new LockState(lockName)).waiters.put(ticket.thread.getId(), ticket);
+        return ticket;
+    }
+
+    /**
+     * O lock foi obtido
+     *
+     * @param ticket
+     */
+    public void acquired(LockTicket ticket) {
+        if (ticket == null) {
+            return;
+        }
+        ticket.acquiredNanos = System.nanoTime();
+        ticket.holdingSince = new Date();
+        LockState state = this.lockTable.computeIfAbsent(ticket.lockId, k -> new LockState(ticket.lockName));
+        state.waiters.remove(ticket.thread.getId());
+        state.holder = ticket;
+        this.getSiteMeters(ticket).waitTimer.record(ticket.acquiredNanos - ticket.waitStartNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * A espera estourou o timeout (ou foi interrompida)
+     *
+     * @param ticket
+     */
+    public void timedOut(LockTicket ticket) {
+        if (ticket == null) {
+            return;
+        }
+        long waited = System.nanoTime() - ticket.waitStartNanos;
+        this.removeWaiter(ticket);
+        SiteMeters meters = this.getSiteMeters(ticket);
+        meters.waitTimer.record(waited, TimeUnit.NANOSECONDS);
+        meters.timeouts.increment();
+        logger.warn("Lock Wait Timeout on:[{}] Resource:[{}] Site:[{}] Request:[{}] After:[{}] ms Holder:[{}]",
+                ticket.lockId, ticket.resource, ticket.site, ticket.requestId,
+                TimeUnit.NANOSECONDS.toMillis(waited), this.describeHolder(ticket.lockId));
+    }
+
+    /**
+     * A fatia de espera acabou mas quem pediu o lock ainda vai tentar de novo,
+     * registra a espera sem contar timeout
+     *
+     * @param ticket
+     */
+    public void retrying(LockTicket ticket) {
+        if (ticket == null) {
+            return;
+        }
+        long waited = System.nanoTime() - ticket.waitStartNanos;
+        this.removeWaiter(ticket);
+        this.getSiteMeters(ticket).waitTimer.record(waited, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * O lock foi liberado pelo holder
+     *
+     * @param ticket
+     */
+    public void released(LockTicket ticket) {
+        if (ticket == null || ticket.acquiredNanos == 0L) {
+            return;
+        }
+        LockState state = this.lockTable.get(ticket.lockId);
+        if (state != null && state.holder == ticket) {
+            state.holder = null;
+        }
+        this.getSiteMeters(ticket).holdTimer.record(System.nanoTime() - ticket.acquiredNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Tabela viva dos locks: holder e waiters com stack e request id, mais o
+     * resumo por call site
+     *
+     * @return
+     */
+    public Map<String, Object> dumpLockTable() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", this.isEnabled());
+        List<Map<String, Object>> locks = new ArrayList<>();
+        this.lockTable.forEach((lockId, state) -> {
+            LockTicket holder = state.holder;
+            if (holder == null && state.waiters.isEmpty()) {
+                return;
+            }
+            Map<String, Object> lock = new LinkedHashMap<>();
+            lock.put("lockId", lockId);
+            lock.put("lockName", state.lockName);
+            lock.put("holder", holder != null ? holder.toMap(true) : null);
+            lock.put("waiters", state.waiters.values().stream()
+                    .map(w -> w.toMap(false))
+                    .collect(Collectors.toList()));
+            locks.add(lock);
+        });
+        result.put("locks", locks);
+
+        List<Map<String, Object>> sites = new ArrayList<>();
+        this.siteMeters.forEach((key, meters) -> {
+            Map<String, Object> site = new LinkedHashMap<>();
+            site.put("lockName", meters.lockName);
+            site.put("site", meters.site);
+            site.put("acquisitions", meters.waitTimer.count());
+            site.put("waitMeanMs", meters.waitTimer.mean(TimeUnit.MILLISECONDS));
+            site.put("waitMaxMs", meters.waitTimer.max(TimeUnit.MILLISECONDS));
+            site.put("holdMeanMs", meters.holdTimer.mean(TimeUnit.MILLISECONDS));
+            site.put("holdMaxMs", meters.holdTimer.max(TimeUnit.MILLISECONDS));
+            site.put("timeouts", (long) meters.timeouts.count());
+            sites.add(site);
+        });
+        result.put("sites", sites);
+        return result;
+    }
+
+    private boolean isEnabled() {
+        return Boolean.TRUE.equals(this.configurationManager.loadConfiguration().getLockProfilingEnabled());
+    }
+
+    private void removeWaiter(LockTicket ticket) {
+        LockState state = this.lockTable.get(ticket.lockId);
+        if (state != null) {
+            state.waiters.remove(ticket.thread.getId());
+        }
+    }
+
+    private String describeHolder(String lockId) {
+        LockState state = this.lockTable.get(lockId);
+        if (state == null || state.holder == null) {
+            return "N/A";
+        }
+        return state.holder.thread.getName() + "/" + state.holder.site + "/" + state.holder.requestId;
+    }
+
+    private SiteMeters getSiteMeters(LockTicket ticket) {
+        return this.siteMeters.computeIfAbsent(ticket.lockName + "@" + ticket.site,
+                k -> new SiteMeters(ticket.lockName, ticket.site, this.meterRegistry));
+    }
+
+    /**
+     * Primeiro frame fora da infraestrutura de lock e dos proxies do spring
+     *
+     * @return
+     */
+    private String findCallSite() {
+        Optional<StackWalker.StackFrame> frame = this.stackWalker.walk(frames -> frames
+                .filter(f -> !f.getClassName().equals(LockProfiler.class.getName())
+                && !f.getClassName().equals(ProfiledLock.class.getName())
+                && !f.getClassName().equals(LockManager.class.getName())
+                && !f.getClassName().contains("$$"))
+                .findFirst());
+        return frame.map(f -> {
+            String className = f.getClassName();
+            return className.substring(className.lastIndexOf('.') + 1) + "." + f.getMethodName();
+        }).orElse("unknown");
+    }
+
+    /**
+     * Uma tentativa de obter um lock, do início da espera até a liberação
+     */
+    public static class LockTicket {
+
+        private final String lockName;
+        private final String lockId;
+        private final String resource;
+        private final String site;
+        private final String requestId;
+        private final Thread thread = Thread.currentThread();
+        private final long waitStartNanos = System.nanoTime();
+        private final Date waitingSince = new Date();
+        private volatile long acquiredNanos = 0L;
+        private volatile Date holdingSince;
+
+        private LockTicket(String lockName, String lockId, String resource, String site, String requestId) {
+            this.lockName = lockName;
+            this.lockId = lockId;
+            this.resource = resource;
+            this.site = site;
+            this.requestId = requestId;
+        }
+
+        private Map<String, Object> toMap(boolean holding) {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("thread", this.thread.getName());
+            result.put("requestId", this.requestId);
+            result.put("site", this.site);
+            result.put("resource", this.resource);
+            if (holding) {
+                result.put("holdingSince", this.holdingSince);
+                result.put("heldMs", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - this.acquiredNanos));
+            } else {
+                result.put("waitingSince", this.waitingSince);
+                result.put("waitingMs", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - this.waitStartNanos));
+            }
+            result.put("stack", Arrays.stream(this.thread.getStackTrace())
+                    .map(StackTraceElement::toString)
+                    .collect(Collectors.toList()));
+            return result;
+        }
+    }
+
+    private static class LockState {
+
+        private final String lockName;
+        private volatile LockTicket holder;
+        private final Map<Long, LockTicket> waiters = new ConcurrentHashMap<>();
+
+        private LockState(String lockName) {
+            this.lockName = lockName;
+        }
+    }
+
+    private static class SiteMeters {
+
+        private final String lockName;
+        private final String site;
+        private final Timer waitTimer;
+        private final Timer holdTimer;
+        private final Counter timeouts;
+
+        private SiteMeters(String lockName, String site, MeterRegistry registry) {
+            this.lockName = lockName;
+            this.site = site;
+            this.waitTimer = Timer.builder("netcompass.lock.wait")
+                    .tags("lock", lockName, "site", site)
+                    .publishPercentileHistogram()
+                    .register(registry);
+            this.holdTimer = Timer.builder("netcompass.lock.hold")
+                    .tags("lock", lockName, "site", site)
+                    .publishPercentileHistogram()
+                    .register(registry);
+            this.timeouts = Counter.builder("netcompass.lock.timeouts")
+                    .tags("lock", lockName, "site", site)
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,323 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.manager.operation;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.osstelecom.db.inventory.manager.configuration.ConfigurationManager;
+import com.osstelecom.db.inventory.manager.configuration.ExecutorPoolConfiguration;
+import com.osstelecom.db.inventory.manager.configuration.InventoryConfiguration;
+import com.osstelecom.db.inventory.manager.configuration.VirtualThreadConfiguration;
+import com.osstelecom.db.inventory.topology.TopologyExecutors;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+/**
+ * Todas as threads de trabalho em segundo plano saem daqui.
+ * <p>
+ * Um pool nomeado e limitado por classe de carga, com fila limitada e política
+ * de rejeição configuráveis em {@code executorPools}. O total de threads da
+ * aplicação fica limitado à soma dos pools, independente da carga. Cada pool
+ * publica as métricas do Micrometer com o prefixo {@code netcompass} e a tag
+ * {@code name}, mais o contador {@code netcompass.executor.rejected}. O pool
+ * fork/join dos algoritmos de topologia também nasce aqui, com
+ * {@code topologyForkJoinThreads} threads e métricas com o nome
+ * {@code forkjoin}. No shutdown os pools param de aceitar tarefas e esperam as
+ * em curso até {@code executorShutdownTimeout} segundos.
+ *
+ * @author Lucas Nishimura
+ * @created 19.10.2026
+ */
+@Service
+public class ManagedExecutorService {
+
+    /**
+     * Classes de carga
+     */
+    public enum Pool {
+        /**
+         * Algoritmos de topologia e travessias
+         */
+        TOPOLOGY,
+        /**
+         * Cálculo de estatísticas dos domains
+         */
+        STATS,
+        /**
+         * Processamento da fila de eventos
+         */
+        EVENTS,
+        /**
+         * Jobs longos de manutenção: propagação e migração de schemas,
+         * reconciliação e warm-up das topologias
+         */
+        MAINTENANCE,
+        /**
+         * Tarefas periódicas curtas (watch do schemaDir, estatísticas da
+         * fila), separadas dos jobs longos para não ficarem sem thread
+         */
+        SCHEDULER,
+        /**
+         * Lotes da propagação de schemas, as threads definem quantas
+         * collections são atualizadas ao mesmo tempo
+         */
+        PROPAGATION,
+        /**
+         * Avaliação paralela das regras groovy em lote
+         */
+        RULES;
+
+        public String poolName() {
+            return this.name().toLowerCase();
+        }
+    }
+
+    private enum RejectionPolicy {
+        ABORT, CALLER_RUNS, DISCARD, DISCARD_OLDEST
+    }
+
+    @Autowired
+    private ConfigurationManager configurationManager;
+
+    @Autowired
+    private VirtualThreadConfiguration virtualThreadConfiguration;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<Pool, ThreadPoolExecutor> pools = new EnumMap<>(Pool.class);
+
+    private ForkJoinPool forkJoinPool;
+
+    private Logger logger = LoggerFactory.getLogger(ManagedExecutorService.class);
+
+    @PostConstruct
+    private void createPools() {
+        InventoryConfiguration configuration = this.configurationManager.loadConfiguration();
+        for (Pool pool : Pool.values()) {
+            ExecutorPoolConfiguration poolConfiguration = configuration.getExecutorPools() != null
+                    ? configuration.getExecutorPools().get(pool.poolName())
+                    : null;
+            if (poolConfiguration == null) {
+                poolConfiguration = new ExecutorPoolConfiguration();
+            }
+            ThreadPoolExecutor executor = this.createPool(pool, poolConfiguration);
+            new ExecutorServiceMetrics(executor, pool.poolName(), "netcompass", Tags.empty()).bindTo(this.meterRegistry);
+            this.pools.put(pool, executor);
+            logger.info("Executor Pool:[{}] Threads:[{}] Queue:[{}] Rejection:[{}]", pool.poolName(),
+                    poolConfiguration.getThreads(), poolConfiguration.getQueueSize(), poolConfiguration.getRejectionPolicy());
+        }
+        TopologyExecutors.setExecutor(this.pools.get(Pool.TOPOLOGY));
+
+        Integer forkJoinThreads = configuration.getTopologyForkJoinThreads();
+        int parallelism = Math.max(1, forkJoinThreads != null ? forkJoinThreads : Runtime.getRuntime().availableProcessors());
+        this.forkJoinPool = new ForkJoinPool(parallelism, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("forkjoin-" + thread.getPoolIndex());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+        new ExecutorServiceMetrics(this.forkJoinPool, "forkjoin", "netcompass", Tags.empty()).bindTo(this.meterRegistry);
+        TopologyExecutors.setForkJoinPool(this.forkJoinPool);
+        logger.info("Fork/Join Pool:[forkjoin] Parallelism:[{}]", parallelism);
+    }
+
+    private ThreadPoolExecutor createPool(Pool pool, ExecutorPoolConfiguration poolConfiguration) {
+        int threads = Math.max(1, poolConfiguration.getThreads() != null ? poolConfiguration.getThreads() : 1);
+        RejectedExecutionHandler handler = this.countingHandler(pool, poolConfiguration.getRejectionPolicy());
+        if (pool == Pool.SCHEDULER) {
+            //
+            // Pool agendado, a fila de um ScheduledThreadPoolExecutor não é
+            // limitada
+            //
+            ScheduledThreadPoolExecutor scheduled = new ScheduledThreadPoolExecutor(threads,
+                    this.virtualThreadConfiguration.newThreadFactory(pool.poolName() + "-"), handler);
+            scheduled.setRemoveOnCancelPolicy(true);
+            return scheduled;
+        }
+        int queueSize = poolConfiguration.getQueueSize() != null ? poolConfiguration.getQueueSize() : 0;
+        BlockingQueue<Runnable> queue = queueSize > 0 ? new ArrayBlockingQueue<>(queueSize) : new SynchronousQueue<>();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS, queue,
+                this.virtualThreadConfiguration.newThreadFactory(pool.poolName() + "-"), handler);
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Conta a rejeição e aplica a política configurada
+     *
+     * @param pool
+     * @param policyName
+     * @return
+     */
+    private RejectedExecutionHandler countingHandler(Pool pool, String policyName) {
+        RejectionPolicy policy;
+        try {
+            policy = RejectionPolicy.valueOf(policyName != null ? policyName.toUpperCase() : "ABORT");
+        } catch (IllegalArgumentException ex) {
+            logger.warn("Invalid Rejection Policy:[{}] for Pool:[{}] Using ABORT", policyName, pool.poolName());
+            policy = RejectionPolicy.ABORT;
+        }
+        RejectedExecutionHandler delegate;
+        switch (policy) {
+            case CALLER_RUNS:
+                delegate = new ThreadPoolExecutor.CallerRunsPolicy();
+                break;
+            case DISCARD:
+                delegate = new ThreadPoolExecutor.DiscardPolicy();
+                break;
+            case DISCARD_OLDEST:
+                delegate = new ThreadPoolExecutor.DiscardOldestPolicy();
+                break;
+            default:
+                delegate = new ThreadPoolExecutor.AbortPolicy();
+        }
+        Counter rejected = Counter.builder("netcompass.executor.rejected")
+                .tags("name", pool.poolName(), "policy", policy.name())
+                .register(this.meterRegistry);
+        return (task, executor) -> {
+            rejected.increment();
+            delegate.rejectedExecution(task, executor);
+        };
+    }
+
+    /**
+     * @param pool
+     * @return o executor do pool, não deve ser finalizado por quem usa
+     */
+    public ExecutorService getExecutor(Pool pool) {
+        return this.pools.get(pool);
+    }
+
+    /**
+     * @param pool
+     * @return quantidade de threads do pool
+     */
+    public int getPoolSize(Pool pool) {
+        return this.pools.get(pool).getMaximumPoolSize();
+    }
+
+    /**
+     * @return o pool fork/join dos algoritmos de topologia, não deve ser
+     * finalizado por quem usa
+     */
+    public ForkJoinPool getForkJoinPool() {
+        return this.forkJoinPool;
+    }
+
+    /**
+     * Executa a tarefa no pool
+     *
+     * @param pool
+     * @param task
+     * @throws RejectedExecutionException se a fila estiver cheia e a política
+     * for ABORT
+     */
+    public void execute(Pool pool, Runnable task) {
+        this.pools.get(pool).execute(task);
+    }
+
+    /**
+     * Submete a tarefa no pool
+     *
+     * @param <T>
+     * @param pool
+     * @param task
+     * @return
+     */
+    public <T> Future<T> submit(Pool pool, Callable<T> task) {
+        return this.pools.get(pool).submit(task);
+    }
+
+    /**
+     * Agenda uma tarefa periódica no scheduler, a tarefa deve ser curta
+     *
+     * @param task
+     * @param initialDelay
+     * @param period
+     * @param unit
+     * @return
+     */
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable task, long initialDelay, long period, TimeUnit unit) {
+        return ((ScheduledThreadPoolExecutor) this.pools.get(Pool.SCHEDULER))
+                .scheduleAtFixedRate(task, initialDelay, period, unit);
+    }
+
+    /**
+     * Shutdown gracioso, para de aceitar tarefas, espera as em curso e só
+     * então interrompe
+     */
+    @PreDestroy
+    private void shutdown() {
+        Long timeout = this.configurationManager.loadConfiguration().getExecutorShutdownTimeout();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeout != null ? timeout : 30L);
+        this.pools.values().forEach(ThreadPoolExecutor::shutdown);
+        this.forkJoinPool.shutdown();
+        for (Map.Entry<Pool, ThreadPoolExecutor> entry : this.pools.entrySet()) {
+            try {
+                long remaining = deadline - System.nanoTime();
+                if (!entry.getValue().awaitTermination(Math.max(0L, remaining), TimeUnit.NANOSECONDS)) {
+                    logger.warn("Executor Pool:[{}] Did not Finish in Time, Interrupting [{}] Tasks", entry.getKey().poolName(),
+                            entry.getValue().getActiveCount());
+                    entry.getValue().shutdownNow();
+                }
+            } catch (InterruptedException ex) {
+                entry.getValue().shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+        try {
+            long remaining = deadline - System.nanoTime();
+            if (!this.forkJoinPool.awaitTermination(Math.max(0L, remaining), TimeUnit.NANOSECONDS)) {
+                logger.warn("Fork/Join Pool Did not Finish in Time, Interrupting [{}] Tasks", this.forkJoinPool.getActiveThreadCount());
+                this.forkJoinPool.shutdownNow();
+            }
+        } catch (InterruptedException ex) {
+            this.forkJoinPool.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        TopologyExecutors.setExecutor(null);
+        TopologyExecutors.setForkJoinPool(null);
+        logger.info("Executor Pools Stopped");
+    }
+}
@@ -200,7 +200,7 @@ public class ManagedResourceManager extends Manager {
                 }
             }
 
-            resource.setAtomId(resource.getDomain().addAndGetId());
+            resource.setAtomId(domainManager.addAndGetId(resource.getDomain()));
             ResourceSchemaModel schemaModel = schemaSession.loadSchema(resource.getAttributeSchemaName());
             resource.setSchemaModel(schemaModel);
             //
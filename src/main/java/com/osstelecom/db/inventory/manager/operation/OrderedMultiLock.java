@@ -0,0 +1,214 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.manager.operation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.osstelecom.db.inventory.manager.exception.LockWaitTimeOutException;
+
+/**
+ * Lock striped de várias chaves de uma vez, tudo ou nada.
+ * <p>
+ * As chaves são mapeadas para stripes e as stripes são obtidas sempre em ordem
+ * crescente de índice, então duas threads que precisam de conjuntos
+ * sobrepostos nunca se esperam em ciclo. Chaves que caem na mesma stripe levam
+ * um único lock. Se uma stripe não é obtida dentro da fatia de espera, todas as
+ * já obtidas são liberadas e a tentativa é refeita após um backoff exponencial
+ * com jitter, até o timeout total.
+ *
+ * @author Lucas Nishimura
+ * @created 19.10.2026
+ */
+public class OrderedMultiLock {
+
+    private static final long MIN_BACKOFF_MS = 1L;
+    private static final long MAX_BACKOFF_MS = 200L;
+    private static final long ATTEMPT_SLICE_NANOS = TimeUnit.MILLISECONDS.toNanos(500L);
+
+    private final Lock[] stripes;
+
+    /**
+     * Stripes sem instrumentação
+     *
+     * @param stripeCount
+     */
+    public OrderedMultiLock(int stripeCount) {
+        this(stripeCount, null, null);
+    }
+
+    /**
+     * Stripes instrumentadas pelo {@link LockProfiler}
+     *
+     * @param stripeCount
+     * @param lockName
+     * @param lockProfiler
+     */
+    public OrderedMultiLock(int stripeCount, String lockName, LockProfiler lockProfiler) {
+        if (stripeCount < 1) {
+            throw new IllegalArgumentException("Stripe count must be positive:[" + stripeCount + "]");
+        }
+        this.stripes = new Lock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            ReentrantLock lock = new ReentrantLock();
+            this.stripes[i] = lockProfiler != null
+                    ? new ProfiledLock(lock, lockName, lockName + "-" + i, lockProfiler)
+                    : lock;
+        }
+    }
+
+    public int getStripeCount() {
+        return this.stripes.length;
+    }
+
+    /**
+     * Índice da stripe de uma chave, o hash é espalhado para que chaves com
+     * prefixo comum não se concentrem
+     *
+     * @param key
+     * @return
+     */
+    public int stripeOf(String key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        h *= 0x85ebca6b;
+        h ^= (h >>> 13);
+        return Math.floorMod(h, this.stripes.length);
+    }
+
+    /**
+     * Obtém os locks de todas as chaves ou nenhum. O {@link LockSet} retornado
+     * deve ser fechado num finally (ou try-with-resources).
+     *
+     * @param keys
+     * @param timeout tempo total máximo de espera
+     * @param unit
+     * @return
+     * @throws LockWaitTimeOutException se não conseguiu todos no prazo ou se a
+     * thread foi interrompida
+     */
+    public LockSet lockAll(Collection<String> keys, long timeout, TimeUnit unit) throws LockWaitTimeOutException {
+        //
+        // Ordem canônica: índice de stripe, guardando uma chave de exemplo
+        // para a tabela de locks
+        //
+        TreeMap<Integer, String> ordered = new TreeMap<>();
+        for (String key : keys) {
+            ordered.putIfAbsent(this.stripeOf(key), key);
+        }
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        long backoff = MIN_BACKOFF_MS;
+        int attempts = 0;
+        while (true) {
+            attempts++;
+            List<Lock> held = new ArrayList<>(ordered.size());
+            boolean complete = true;
+            try {
+                for (Map.Entry<Integer, String> entry : ordered.entrySet()) {
+                    //
+                    // Só a fatia que chega ao prazo conta como timeout no
+                    // profiler, as outras são contenção normal
+                    //
+                    long remaining = deadline - System.nanoTime();
+                    long slice = Math.max(0L, Math.min(remaining, ATTEMPT_SLICE_NANOS));
+                    if (this.tryLock(this.stripes[entry.getKey()], slice, entry.getValue(), remaining <= ATTEMPT_SLICE_NANOS)) {
+                        held.add(this.stripes[entry.getKey()]);
+                    } else {
+                        complete = false;
+                        break;
+                    }
+                }
+            } catch (InterruptedException ex) {
+                release(held);
+                Thread.currentThread().interrupt();
+                throw new LockWaitTimeOutException("Interrupted while waiting for locks", ex)
+                        .addDetails("keys", keys.size());
+            } catch (RuntimeException ex) {
+                release(held);
+                throw ex;
+            }
+            if (complete) {
+                return new LockSet(held);
+            }
+            release(held);
+            if (System.nanoTime() >= deadline) {
+                throw new LockWaitTimeOutException("Timed out waiting for locks on:[" + keys.size() + "] keys")
+                        .addDetails("keys", keys.size())
+                        .addDetails("attempts", attempts);
+            }
+            //
+            // Backoff com jitter, limitado pelo que resta do prazo
+            //
+            long sleep = Math.min(ThreadLocalRandom.current().nextLong(backoff) + 1,
+                    TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()));
+            try {
+                if (sleep > 0) {
+                    Thread.sleep(sleep);
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new LockWaitTimeOutException("Interrupted while waiting for locks", ex)
+                        .addDetails("keys", keys.size());
+            }
+            backoff = Math.min(backoff * 2, MAX_BACKOFF_MS);
+        }
+    }
+
+    private boolean tryLock(Lock lock, long nanos, String resource, boolean lastAttempt) throws InterruptedException {
+        if (lock instanceof ProfiledLock) {
+            return ((ProfiledLock) lock).tryLock(nanos, TimeUnit.NANOSECONDS, resource, lastAttempt);
+        }
+        return lock.tryLock(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static void release(List<Lock> held) {
+        for (int i = held.size() - 1; i >= 0; i--) {
+            held.get(i).unlock();
+        }
+        held.clear();
+    }
+
+    /**
+     * Conjunto de stripes obtido por {@link #lockAll}, liberado em ordem
+     * inversa
+     */
+    public static class LockSet implements AutoCloseable {
+
+        private final List<Lock> held;
+
+        private LockSet(List<Lock> held) {
+            this.held = held;
+        }
+
+        public int size() {
+            return this.held.size();
+        }
+
+        @Override
+        public void close() {
+            release(this.held);
+        }
+    }
+}
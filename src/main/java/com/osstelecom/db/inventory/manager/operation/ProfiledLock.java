@@ -0,0 +1,166 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.manager.operation;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.osstelecom.db.inventory.manager.operation.LockProfiler.LockTicket;
+
+/**
+ * ReentrantLock instrumentado pelo {@link LockProfiler}. Só a aquisição mais
+ * externa de cada thread é registrada, as reentradas vão direto para o lock.
+ *
+ * @author Lucas Nishimura
+ * @created 19.10.2026
+ */
+public class ProfiledLock implements Lock {
+
+    private final ReentrantLock delegate;
+    private final String lockName;
+    private final String lockId;
+    private final LockProfiler lockProfiler;
+    private volatile LockTicket holder;
+
+    public ProfiledLock(ReentrantLock delegate, String lockName, String lockId, LockProfiler lockProfiler) {
+        this.delegate = delegate;
+        this.lockName = lockName;
+        this.lockId = lockId;
+        this.lockProfiler = lockProfiler;
+    }
+
+    @Override
+    public void lock() {
+        if (this.delegate.isHeldByCurrentThread()) {
+            this.delegate.lock();
+            return;
+        }
+        LockTicket ticket = this.lockProfiler.beginWait(this.lockName, this.lockId, null);
+        this.delegate.lock();
+        this.onAcquired(ticket);
+    }
+
+    @Override
+    public void lockInterruptibly() throws InterruptedException {
+        if (this.delegate.isHeldByCurrentThread()) {
+            this.delegate.lockInterruptibly();
+            return;
+        }
+        LockTicket ticket = this.lockProfiler.beginWait(this.lockName, this.lockId, null);
+        try {
+            this.delegate.lockInterruptibly();
+        } catch (InterruptedException ex) {
+            this.lockProfiler.timedOut(ticket);
+            throw ex;
+        }
+        this.onAcquired(ticket);
+    }
+
+    @Override
+    public boolean tryLock() {
+        return this.delegate.tryLock();
+    }
+
+    @Override
+    public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+        return this.tryLock(time, unit, null);
+    }
+
+    /**
+     * tryLock informando o recurso que motivou o lock, aparece na tabela de
+     * locks
+     *
+     * @param time
+     * @param unit
+     * @param resource
+     * @return
+     * @throws InterruptedException
+     */
+    public boolean tryLock(long time, TimeUnit unit, String resource) throws InterruptedException {
+        return this.tryLock(time, unit, resource, true);
+    }
+
+    /**
+     * tryLock de uma fatia da espera: só conta timeout na última, as
+     * anteriores serão refeitas por quem chamou
+     *
+     * @param time
+     * @param unit
+     * @param resource
+     * @param lastAttempt
+     * @return
+     * @throws InterruptedException
+     */
+    public boolean tryLock(long time, TimeUnit unit, String resource, boolean lastAttempt) throws InterruptedException {
+        if (this.delegate.isHeldByCurrentThread()) {
+            return this.delegate.tryLock(time, unit);
+        }
+        LockTicket ticket = this.lockProfiler.beginWait(this.lockName, this.lockId, resource);
+        boolean acquired;
+        try {
+            acquired = this.delegate.tryLock(time, unit);
+        } catch (InterruptedException ex) {
+            this.lockProfiler.timedOut(ticket);
+            throw ex;
+        }
+        if (acquired) {
+            this.onAcquired(ticket);
+        } else if (lastAttempt) {
+            this.lockProfiler.timedOut(ticket);
+        } else {
+            this.lockProfiler.retrying(ticket);
+        }
+        return acquired;
+    }
+
+    @Override
+    public void unlock() {
+        if (this.delegate.isHeldByCurrentThread() && this.delegate.getHoldCount() == 1) {
+            LockTicket ticket = this.holder;
+            this.holder = null;
+            this.delegate.unlock();
+            this.lockProfiler.released(ticket);
+        } else {
+            this.delegate.unlock();
+        }
+    }
+
+    @Override
+    public Condition newCondition() {
+        return this.delegate.newCondition();
+    }
+
+    public boolean isLocked() {
+        return this.delegate.isLocked();
+    }
+
+    public boolean isHeldByCurrentThread() {
+        return this.delegate.isHeldByCurrentThread();
+    }
+
+    public String getLockId() {
+        return this.lockId;
+    }
+
+    private void onAcquired(LockTicket ticket) {
+        this.holder = ticket;
+        this.lockProfiler.acquired(ticket);
+    }
+}
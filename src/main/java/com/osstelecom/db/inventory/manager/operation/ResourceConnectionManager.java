@@ -73,6 +73,9 @@ public class ResourceConnectionManager extends Manager {
     @Autowired
     private ServiceManager serviceManager;
 
+    @Autowired
+    private LiveTopologyManager liveTopologyManager;
+
     private Logger logger = LoggerFactory.getLogger(ResourceConnectionManager.class);
 
     @EventListener(ApplicationReadyEvent.class)
@@ -320,7 +323,7 @@ public class ResourceConnectionManager extends Manager {
             connection.setTo(to);
 
             // connection.setAtomId(this.getAtomId());
-            connection.setAtomId(connection.getDomain().addAndGetId());
+            connection.setAtomId(domainManager.addAndGetId(connection.getDomain()));
             //
             // Notifica o Elemento Origem para Computar o Consumo de recursos se necessário
             //
@@ -421,6 +424,11 @@ public class ResourceConnectionManager extends Manager {
                 //
                 resultDocs.add(connection.getNew());
             });
+            //
+            // O update em lote não emite eventos, a topologia em memória é
+            // atualizada aqui
+            //
+            this.liveTopologyManager.apply(resultDocs);
             return resultDocs;
         } finally {
             if (lockManager.isLocked()) {
@@ -63,7 +63,7 @@ public class ResourceLocationManager extends Manager {
             } else {
                 useUpsert = true;
             }
-            resource.setAtomId(resource.getDomain().addAndGetId());
+            resource.setAtomId(domainManager.addAndGetId(resource.getDomain()));
 
             ResourceSchemaModel schemaModel = schemaSession.loadSchema(resource.getAttributeSchemaName());
             resource.setSchemaModel(schemaModel);
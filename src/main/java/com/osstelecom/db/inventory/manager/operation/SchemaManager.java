@@ -18,31 +18,12 @@
 package com.osstelecom.db.inventory.manager.operation;
 
 import com.google.common.eventbus.Subscribe;
-import com.osstelecom.db.inventory.manager.dao.AbstractArangoDao;
-import com.osstelecom.db.inventory.manager.dao.CircuitResourceDao;
-import com.osstelecom.db.inventory.manager.dao.ManagedResourceDao;
-import com.osstelecom.db.inventory.manager.dao.ResourceConnectionDao;
-import com.osstelecom.db.inventory.manager.dao.ServiceResourceDao;
 import com.osstelecom.db.inventory.manager.events.ResourceSchemaUpdatedEvent;
-import com.osstelecom.db.inventory.manager.exception.ArangoDaoException;
 import com.osstelecom.db.inventory.manager.exception.GenericException;
-import com.osstelecom.db.inventory.manager.exception.InvalidRequestException;
-import com.osstelecom.db.inventory.manager.exception.ResourceNotFoundException;
 import com.osstelecom.db.inventory.manager.exception.SchemaNotFoundException;
-import com.osstelecom.db.inventory.manager.jobs.DbJobStage;
+import com.osstelecom.db.inventory.manager.jobs.DBJobInstance;
 import com.osstelecom.db.inventory.manager.listeners.EventManagerListener;
-import com.osstelecom.db.inventory.manager.resources.BasicResource;
-import com.osstelecom.db.inventory.manager.resources.CircuitResource;
-import com.osstelecom.db.inventory.manager.resources.Domain;
-import com.osstelecom.db.inventory.manager.resources.GraphList;
-import com.osstelecom.db.inventory.manager.resources.ManagedResource;
-import com.osstelecom.db.inventory.manager.resources.ResourceConnection;
-import com.osstelecom.db.inventory.manager.resources.ServiceResource;
-import com.osstelecom.db.inventory.manager.resources.exception.AttributeConstraintViolationException;
-import com.osstelecom.db.inventory.manager.resources.model.ResourceSchemaModel;
 import com.osstelecom.db.inventory.manager.session.SchemaSession;
-import java.io.IOException;
-import java.util.concurrent.atomic.AtomicLong;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -62,20 +43,9 @@ public class SchemaManager extends Manager {
 
     @Autowired
     private SchemaSession schemaSession;
-    @Autowired
-    private DomainManager domainManager;
-
-    @Autowired
-    private ManagedResourceDao managedResourceDao;
-
-    @Autowired
-    private ResourceConnectionDao resourceConnectionDao;
 
     @Autowired
-    private CircuitResourceDao circuitResourceDao;
-
-    @Autowired
-    private ServiceResourceDao serviceResourceDao;
+    private SchemaPropagationManager schemaPropagationManager;
 
     @Autowired
     private EventManagerListener eventManager;
@@ -106,155 +76,30 @@ public class SchemaManager extends Manager {
     }
 
     /**
-     * Process the schema update Event, this is very heavy for the system, avoid
-     * this use case.
+     * Process the schema update Event.
      * <p>
-     * Once a schema is updates, all referenced objects must be updated and all
-     * rules has to be rechecked.
+     * Once a schema is updated, all referenced objects must be updated and all
+     * rules has to be rechecked. Schemas are shared between all domains, the
+     * work is done in background by the {@link SchemaPropagationManager}, in
+     * batches and with checkpoints, touching only what the schema diff
+     * requires.
      *
      * @param update
      */
     public void processSchemaUpdatedEvent(ResourceSchemaUpdatedEvent update) {
-        /**
-         * Here we need to find all resources that are using the schema, update
-         * ip, check validations and save it back to the database. Schemas are
-         * shared between all domains so we need to check all Domains..
-         */
-
-        for (Domain domain : domainManager.getAllDomains()) {
+        String schemaName = update.getEventData().getSchemaName();
+        try {
             //
-            // Update the schema on each domain
+            // Relê o schema do disco antes de propagar
             //
-            logger.debug("Updating Schema[{}] On Domain:[{}]", update.getEventData().getSchemaName(), domain.getDomainName());
-
-            try {
-
-                ResourceSchemaModel model = this.schemaSession.loadSchema(update.getEventData().getSchemaName(), false);
-
-                logger.debug("Schema:[{}] New Model Fields:", update.getEventData().getSchemaName());
-                model.getAttributes().forEach((k, v) -> {
-                    logger.debug("  Field: [{}] Type: [{}]", k, v.getVariableType());
-                });
-
-                String schemaName = update.getEventData().getSchemaName();
-
-                //
-                // Recursos
-                //
-                try {
-
-                    //
-                    // Vamos criar o Job Stage para indicar o inicio do processamento
-                    //
-                    DbJobStage currentStage = update.getRelatedJob().createJobStage("Update Resource Schema", "Update Resource Schema Definition on [" + domain.getDomainName() + "]");
-                    GraphList<ManagedResource> resourcesToUpdate = this.managedResourceDao.findResourcesBySchemaName(schemaName, domain);
-                    currentStage.setTotalRecords(resourcesToUpdate.size());
-
-                    if (!resourcesToUpdate.isEmpty()) {
-                        logger.debug("Found {} Resources to Update On Domain:[{}]", resourcesToUpdate.size(), domain.getDomainName());
-                        this.processGraphListUpdate(resourcesToUpdate, model, this.managedResourceDao, currentStage);
-                    }
-                } catch (ResourceNotFoundException ex) {
-                    logger.debug("No Resources to Update On Domain:[{}]", domain.getDomainName());
-                }
-
-                //
-                // Connections
-                //
-                try {
-                    DbJobStage currentStage = update.getRelatedJob().createJobStage("Update Connections Schema", "Update Connections Schema Definition on [" + domain.getDomainName() + "]");
-                    GraphList<ResourceConnection> connectionsToUpdate = this.resourceConnectionDao.findResourcesBySchemaName(schemaName, domain);
-                    currentStage.setTotalRecords(connectionsToUpdate.size());
-                    if (!connectionsToUpdate.isEmpty()) {
-                        logger.debug("Found {} Connections to Update On Domain:[{}]", connectionsToUpdate.size(), domain.getDomainName());
-                        this.processGraphListUpdate(connectionsToUpdate, model, this.resourceConnectionDao, currentStage);
-                    }
-                } catch (ResourceNotFoundException ex) {
-                    logger.debug("No Connections to Update On Domain:[{}]", domain.getDomainName());
-                }
-
-                //
-                // Circuits
-                //
-                try {
-                    DbJobStage currentStage = update.getRelatedJob().createJobStage("Update Connections Schema", "Update Connections Schema Definition on [" + domain.getDomainName() + "]");
-                    GraphList<CircuitResource> circuitsToUpdate = this.circuitResourceDao.findResourcesBySchemaName(schemaName, domain);
-                    currentStage.setTotalRecords(circuitsToUpdate.size());
-                    if (!circuitsToUpdate.isEmpty()) {
-                        logger.debug("Found {} Circuits to Update On Domain:[{}]", circuitsToUpdate.size(), domain.getDomainName());
-                        this.processGraphListUpdate(circuitsToUpdate, model, this.circuitResourceDao, currentStage);
-                    }
-                } catch (ResourceNotFoundException ex) {
-                    logger.debug("No Circuits to Update On Domain:[{}]", domain.getDomainName());
-                }
-
-                //
-                // Services
-                //
-                try {
-                    DbJobStage currentStage = update.getRelatedJob().createJobStage("Update Connections Schema", "Update Connections Schema Definition on [" + domain.getDomainName() + "]");
-                    GraphList<ServiceResource> servicesToUpdate = this.serviceResourceDao.findResourcesBySchemaName(schemaName, domain);
-                    currentStage.setTotalRecords(servicesToUpdate.size());
-
-                    if (!servicesToUpdate.isEmpty()) {
-                        logger.debug("Found {} Services to Update On Domain:[{}]", servicesToUpdate.size(), domain.getDomainName());
-                        this.processGraphListUpdate(servicesToUpdate, model, this.serviceResourceDao, currentStage);
-                    }
-
-                } catch (ResourceNotFoundException ex) {
-                    logger.debug("No Services to Update On Domain:[{}]", domain.getDomainName());
-                }
-
-            } catch (IOException | IllegalStateException | GenericException | SchemaNotFoundException | InvalidRequestException | ArangoDaoException ex) {
-                logger.error("Failed to update Resource Schema Model", ex);
+            this.schemaSession.loadSchema(schemaName, false);
+            DBJobInstance job = this.schemaPropagationManager.propagate(schemaName, update.isFullRevalidation());
+            if (job != null) {
+                logger.debug("Schema:[{}] Propagation Job:[{}]", schemaName, job.getJobId());
             }
-
-            logger.debug("Updating Schema[{}] On Domain:[{}] DONE", update.getEventData().getSchemaName(), domain.getDomainName());
+        } catch (GenericException | SchemaNotFoundException ex) {
+            logger.error("Failed to update Resource Schema Model", ex);
         }
     }
 
-    private void processGraphListUpdate(GraphList<? extends BasicResource> resourcesToUpdate, ResourceSchemaModel newModel, AbstractArangoDao resourceDao, DbJobStage stage) throws IOException {
-        //
-        // We need to make this processing multithread.
-        //
-        AtomicLong resourcesProcessed = new AtomicLong(0L);
-        resourcesToUpdate.forEachParallel(resource -> {
-
-            try {
-
-                resource.setSchemaModel(newModel);
-
-                //
-                //
-                //
-                schemaSession.validateResourceSchema(resource);
-
-            } catch (AttributeConstraintViolationException ex) {
-                //
-                // resource is invalid model.
-                //
-
-                logger.error("Failed to Validate Attributes", ex);
-                //
-                // Mark the resource schema model as invalid
-                //      
-                resource.getSchemaModel().setIsValid(false);
-            }
-            try {
-                resourceDao.updateResource(resource);
-            } catch (ArangoDaoException | ResourceNotFoundException | InvalidRequestException ex) {
-                logger.error("Failed to Update resource:[{}]", resource.getKey(), ex);
-            }
-            //
-            // Atualiza o Processo da JOB
-            //
-            stage.setDoneRecords(resourcesProcessed.get());
-
-            if (resourcesProcessed.incrementAndGet() % 1000 == 0) {
-                logger.debug("Updated Resource {} Records of / {}", resourcesProcessed.get(), resourcesToUpdate.size());
-            }
-
-        });
-    }
-
 }
@@ -0,0 +1,577 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.manager.operation;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.google.common.util.concurrent.RateLimiter;
+import com.osstelecom.db.inventory.manager.configuration.ConfigurationManager;
+import com.osstelecom.db.inventory.manager.configuration.InventoryConfiguration;
+import com.osstelecom.db.inventory.manager.dao.DocumentBatchDao;
+import com.osstelecom.db.inventory.manager.dao.SchemaPropagationCheckpointDao;
+import com.osstelecom.db.inventory.manager.dto.FilterDTO;
+import com.osstelecom.db.inventory.manager.exception.ArangoDaoException;
+import com.osstelecom.db.inventory.manager.exception.GenericException;
+import com.osstelecom.db.inventory.manager.exception.SchemaNotFoundException;
+import com.osstelecom.db.inventory.manager.jobs.DBJobInstance;
+import com.osstelecom.db.inventory.manager.jobs.DbJobStage;
+import com.osstelecom.db.inventory.manager.jobs.SchemaPropagationCheckpoint;
+import com.osstelecom.db.inventory.manager.operation.ManagedExecutorService.Pool;
+import com.osstelecom.db.inventory.manager.resources.BasicResource;
+import com.osstelecom.db.inventory.manager.resources.CircuitResource;
+import com.osstelecom.db.inventory.manager.resources.Domain;
+import com.osstelecom.db.inventory.manager.resources.ManagedResource;
+import com.osstelecom.db.inventory.manager.resources.ResourceConnection;
+import com.osstelecom.db.inventory.manager.resources.ServiceResource;
+import com.osstelecom.db.inventory.manager.resources.exception.AttributeConstraintViolationException;
+import com.osstelecom.db.inventory.manager.resources.model.ResourceSchemaModel;
+import com.osstelecom.db.inventory.manager.schema.CompiledSchemaValidator;
+import com.osstelecom.db.inventory.manager.schema.SchemaDiff;
+import com.osstelecom.db.inventory.manager.schema.SchemaMigrationPlan;
+import com.osstelecom.db.inventory.manager.schema.SchemaReferenceCodec;
+import com.osstelecom.db.inventory.manager.schema.SchemaRegistry;
+import com.osstelecom.db.inventory.manager.schema.SchemaValidatorCompiler;
+
+/**
+ * Propaga um schema alterado para os documentos que o usam.
+ * <p>
+ * O trabalho é só o que o {@link SchemaDiff} entre a revisão já aplicada e a
+ * nova exige: defaults e remoções são gravados direto no servidor e só os
+ * documentos afetados são revalidados. Uma mudança que não altera nenhum
+ * fingerprint de atributo não toca nos documentos. No modo EMBEDDED o
+ * schemaModel embutido nos documentos não tocados fica com a revisão antiga
+ * até a próxima escrita de cada um.
+ * <p>
+ * Cada collection de cada domain é percorrida em lotes paginados por _key, os
+ * recursos são revalidados com o validador compilado e o lote inteiro é
+ * gravado com um único UPDATE no servidor, conferindo o _rev. As collections
+ * rodam em paralelo no pool {@code propagation} (as threads do pool são a
+ * concorrência) e a escrita é limitada por {@code schemaPropagationRateLimit}
+ * documentos por segundo.
+ * <p>
+ * A última chave gravada de cada collection fica num checkpoint no banco. No
+ * startup as propagações pendentes são retomadas de onde pararam, ou
+ * reiniciadas se o schema mudou de revisão nesse meio tempo. Uma nova
+ * alteração do mesmo schema cancela a propagação em curso e começa outra.
+ *
+ * @author Lucas Nishimura
+ * @created 19.10.2026
+ */
+@Service
+public class SchemaPropagationManager extends Manager {
+
+    private final Logger logger = LoggerFactory.getLogger(SchemaPropagationManager.class);
+
+    @Autowired
+    private DomainManager domainManager;
+
+    @Autowired
+    private DocumentBatchDao documentBatchDao;
+
+    @Autowired
+    private SchemaPropagationCheckpointDao checkpointDao;
+
+    @Autowired
+    private SchemaRegistry schemaRegistry;
+
+    @Autowired
+    private SchemaValidatorCompiler schemaValidatorCompiler;
+
+    @Autowired
+    private DbJobManager dbJobManager;
+
+    @Autowired
+    private ManagedExecutorService managedExecutorService;
+
+    @Autowired
+    private ConfigurationManager configurationManager;
+
+    private final Map<String, PropagationRun> runs = new ConcurrentHashMap<>();
+
+    /**
+     * Prefixo das chaves do checkpoint da fase de defaults e remoções
+     */
+    private static final String MERGE_PHASE = "merge:";
+
+    private final RateLimiter rateLimiter = RateLimiter.create(Double.MAX_VALUE);
+
+    @EventListener(ApplicationReadyEvent.class)
+    private void resumePending() {
+        try {
+            for (SchemaPropagationCheckpoint checkpoint : this.checkpointDao.findPending()) {
+                logger.info("Resuming Schema Propagation:[{}] Started at:[{}]", checkpoint.getSchemaName(), checkpoint.getStartDate());
+                try {
+                    this.start(checkpoint.getSchemaName(), checkpoint, false);
+                } catch (SchemaNotFoundException ex) {
+                    logger.warn("Schema:[{}] no Longer Exists, Dropping Propagation Checkpoint", checkpoint.getSchemaName());
+                    this.checkpointDao.delete(checkpoint.getSchemaName());
+                } catch (GenericException ex) {
+                    logger.error("Failed to Resume Schema Propagation:[{}]", checkpoint.getSchemaName(), ex);
+                }
+            }
+        } catch (ArangoDaoException ex) {
+            logger.error("Failed to Load Schema Propagation Checkpoints", ex);
+        }
+    }
+
+    /**
+     * Para as propagações entre um lote e outro, os checkpoints ficam e elas
+     * são retomadas no próximo startup
+     */
+    @PreDestroy
+    private void stopAll() {
+        this.runs.values().forEach(PropagationRun::cancel);
+    }
+
+    /**
+     * Inicia a propagação do schema em background. Só o que mudou desde a
+     * última revisão aplicada é migrado, ver {@link SchemaDiff}.
+     *
+     * @param schemaName
+     * @param fullRevalidation revalida todos os documentos, sem diff
+     * @return a job da propagação, null se não há nada a fazer
+     * @throws SchemaNotFoundException
+     * @throws GenericException
+     */
+    public DBJobInstance propagate(String schemaName, boolean fullRevalidation) throws SchemaNotFoundException, GenericException {
+        return this.start(schemaName, null, fullRevalidation);
+    }
+
+    private DBJobInstance start(String schemaName, SchemaPropagationCheckpoint resumed, boolean fullRevalidation)
+            throws SchemaNotFoundException, GenericException {
+        ResourceSchemaModel model = this.schemaRegistry.get(schemaName);
+        String revision = this.schemaRegistry.getRevision(model);
+        PropagationRun run;
+        PropagationRun previous;
+        synchronized (this.runs) {
+            previous = this.runs.get(schemaName);
+            boolean running = previous != null && !previous.cancelled;
+            if (running && revision.equals(previous.checkpoint.getRevision())
+                    && (!fullRevalidation || Boolean.TRUE.equals(previous.checkpoint.getPlan().getFull()))) {
+                //
+                // Notificação repetida da mesma revisão, a que está rodando
+                // já resolve
+                //
+                logger.debug("Schema:[{}] Revision:[{}] Already Propagating", schemaName, revision);
+                return previous.job;
+            }
+            SchemaPropagationCheckpoint state = resumed != null ? resumed : this.findState(schemaName);
+            SchemaPropagationCheckpoint checkpoint = null;
+            SchemaMigrationPlan plan;
+            if (fullRevalidation || running) {
+                //
+                // Com outra propagação no meio os documentos estão em revisões
+                // diferentes, o diff não vale
+                //
+                plan = SchemaMigrationPlan.fullRevalidation();
+            } else if (state != null && !Boolean.TRUE.equals(state.getCompleted())) {
+                if (revision.equals(state.getRevision()) && state.getPlan() != null) {
+                    checkpoint = state;
+                    plan = state.getPlan();
+                } else {
+                    plan = SchemaMigrationPlan.fullRevalidation();
+                }
+            } else if (state != null) {
+                if (revision.equals(state.getRevision())) {
+                    logger.debug("Schema:[{}] Revision:[{}] Already Propagated", schemaName, revision);
+                    return null;
+                }
+                plan = SchemaDiff.between(this.modelOf(state), model, this.schemaValidatorCompiler.compile(model));
+            } else {
+                plan = SchemaDiff.between(this.schemaRegistry.getPrevious(schemaName), model,
+                        this.schemaValidatorCompiler.compile(model));
+            }
+            if (checkpoint == null) {
+                checkpoint = new SchemaPropagationCheckpoint(schemaName, revision);
+                checkpoint.setPlan(plan);
+                checkpoint.setAllowAll(model.getAllowAll());
+                checkpoint.setAttributes(model.getAttributes());
+            }
+            if (plan.isNoop()) {
+                logger.info("Schema:[{}] Revision:[{}] Needs no Document Migration", schemaName, revision);
+                this.complete(checkpoint);
+                return null;
+            }
+            logger.info("Schema:[{}] Revision:[{}] Migration Plan: {}", schemaName, revision, plan);
+            DBJobInstance job = this.dbJobManager.createJobInstance("Schema Propagation");
+            job.setName("Schema Propagation [" + schemaName + "]");
+            checkpoint.setJobId(job.getJobId());
+            run = new PropagationRun(model, checkpoint, job);
+            this.runs.put(schemaName, run);
+            this.schemaRegistry.propagationStarted(schemaName, revision);
+            this.saveCheckpoint(run);
+        }
+        if (previous != null) {
+            logger.info("Schema:[{}] Changed Again, Cancelling Propagation Job:[{}]", schemaName, previous.job.getJobId());
+            previous.cancel();
+        }
+        try {
+            this.managedExecutorService.execute(Pool.MAINTENANCE, () -> this.runPropagation(run, previous));
+        } catch (RejectedExecutionException ex) {
+            //
+            // O checkpoint já está salvo, a propagação é retomada no próximo
+            // startup
+            //
+            logger.error("Maintenance Pool is Busy, Schema Propagation:[{}] Deferred to Next Startup", schemaName);
+            this.runs.remove(schemaName, run);
+            run.done.countDown();
+        }
+        return run.job;
+    }
+
+    private void runPropagation(PropagationRun run, PropagationRun previous) {
+        String schemaName = run.model.getSchemaName();
+        run.job.startJob();
+        this.dbJobManager.notifyJobStart(run.job);
+        boolean failed = false;
+        try {
+            if (previous != null) {
+                previous.done.await();
+            }
+            InventoryConfiguration configuration = this.configurationManager.loadConfiguration();
+            int batchSize = configuration.getSchemaPropagationBatchSize() != null && configuration.getSchemaPropagationBatchSize() > 0
+                    ? configuration.getSchemaPropagationBatchSize() : 500;
+            Double rateLimit = configuration.getSchemaPropagationRateLimit();
+            if (rateLimit != null && rateLimit > 0D) {
+                this.rateLimiter.setRate(rateLimit);
+            }
+            CompiledSchemaValidator validator = this.schemaValidatorCompiler.compile(run.model);
+
+            Semaphore permits = new Semaphore(this.managedExecutorService.getPoolSize(Pool.PROPAGATION));
+            List<Future<Boolean>> units = new ArrayList<>();
+            for (Domain domain : this.domainManager.getAllDomains()) {
+                for (Map.Entry<String, Class<? extends BasicResource>> unit : this.collectionsOf(domain).entrySet()) {
+                    if (run.cancelled) {
+                        break;
+                    }
+                    if (run.checkpoint.isCompleted(unit.getKey())) {
+                        continue;
+                    }
+                    permits.acquire();
+                    try {
+                        units.add(this.managedExecutorService.submit(Pool.PROPAGATION, () -> {
+                            try {
+                                return this.propagateCollection(run, validator, unit.getKey(), unit.getValue(), batchSize, rateLimit);
+                            } finally {
+                                permits.release();
+                            }
+                        }));
+                    } catch (RejectedExecutionException ex) {
+                        permits.release();
+                        throw ex;
+                    }
+                }
+            }
+            for (Future<Boolean> unit : units) {
+                try {
+                    failed |= !unit.get();
+                } catch (ExecutionException ex) {
+                    logger.error("Schema Propagation:[{}] Failed", schemaName, ex.getCause());
+                    failed = true;
+                }
+            }
+            if (!run.cancelled && !failed) {
+                synchronized (this.runs) {
+                    if (this.runs.get(schemaName) == run) {
+                        this.complete(run.checkpoint);
+                    }
+                }
+                logger.info("Schema Propagation:[{}] Done", schemaName);
+            } else if (failed) {
+                logger.warn("Schema Propagation:[{}] Incomplete, It Will be Resumed on Next Startup", schemaName);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException ex) {
+            logger.error("Schema Propagation:[{}] Failed", schemaName, ex);
+        } finally {
+            run.job.endJob();
+            this.dbJobManager.notifyJobEnd(run.job);
+            this.runs.remove(schemaName, run);
+            run.done.countDown();
+        }
+    }
+
+    /**
+     * Aplica o plano numa collection: primeiro os defaults e remoções no
+     * servidor, depois a revalidação dos documentos que precisam
+     *
+     * @return false se algum lote falhou
+     */
+    private <T extends BasicResource> boolean propagateCollection(PropagationRun run, CompiledSchemaValidator validator,
+            String collectionName, Class<T> type, int batchSize, Double rateLimit) throws ArangoDaoException {
+        if (!this.documentBatchDao.collectionExists(collectionName)) {
+            return true;
+        }
+        SchemaMigrationPlan plan = run.checkpoint.getPlan();
+        boolean success = true;
+        if (plan.hasAttributeChanges() && !Boolean.TRUE.equals(plan.getFull())) {
+            success = this.mergeAttributes(run, collectionName, batchSize, rateLimit);
+        }
+        if (success && plan.needsRevalidation()) {
+            FilterDTO filter = Boolean.TRUE.equals(plan.getFull()) ? null
+                    : this.documentBatchDao.attributePresenceFilter(plan.getRevalidatePresent(), plan.getRevalidateMissing(),
+                            plan.getRevalidateDiscovery());
+            success = this.revalidate(run, validator, collectionName, type, filter, batchSize, rateLimit);
+        }
+        if (success && !run.cancelled) {
+            run.checkpoint.getCompletedCollections().put(collectionName, true);
+            this.saveCheckpoint(run);
+        }
+        return success;
+    }
+
+    /**
+     * Defaults e remoções direto no servidor, lote a lote
+     */
+    private boolean mergeAttributes(PropagationRun run, String collectionName, int batchSize, Double rateLimit) throws ArangoDaoException {
+        SchemaMigrationPlan plan = run.checkpoint.getPlan();
+        String schemaName = run.model.getSchemaName();
+        String phase = MERGE_PHASE + collectionName;
+        String lastKey = run.checkpoint.lastKeyOf(phase);
+        DbJobStage stage = run.job.createJobStage("Schema Propagation",
+                "Merge Attributes of [" + schemaName + "] on [" + collectionName + "]");
+        run.job.setCurrentJobStage(stage);
+        stage.setTotalRecords(this.documentBatchDao.countBySchemaAfter(collectionName, schemaName,
+                this.documentBatchDao.missingOrRemovedAttributesFilter(plan.getDefaults(), plan.getRemoved()), lastKey));
+        long doneRecords = 0L;
+        try {
+            while (!run.cancelled) {
+                if (rateLimit != null && rateLimit > 0D) {
+                    this.rateLimiter.acquire(batchSize);
+                }
+                List<String> keys = this.documentBatchDao.mergeAttributesAfter(collectionName, schemaName, plan.getDefaults(),
+                        plan.getRemoved(), run.model, lastKey, batchSize);
+                if (keys.isEmpty()) {
+                    break;
+                }
+                lastKey = keys.get(keys.size() - 1);
+                doneRecords += keys.size();
+                stage.updateProgress(doneRecords);
+                run.checkpoint.getLastKeys().put(phase, lastKey);
+                this.saveCheckpoint(run);
+                if (keys.size() < batchSize) {
+                    break;
+                }
+            }
+            logger.debug("Schema:[{}] Attributes Merged on [{}] Documents of [{}]", schemaName, doneRecords, collectionName);
+            return true;
+        } catch (ArangoDaoException ex) {
+            logger.error("Schema Propagation:[{}] Failed on Collection:[{}] After Key:[{}]", schemaName, collectionName, lastKey, ex);
+            return false;
+        } finally {
+            run.job.endJobStage(stage);
+        }
+    }
+
+    /**
+     * Revalida em Java os documentos do filtro e grava lote a lote
+     */
+    private <T extends BasicResource> boolean revalidate(PropagationRun run, CompiledSchemaValidator validator,
+            String collectionName, Class<T> type, FilterDTO filter, int batchSize, Double rateLimit) throws ArangoDaoException {
+        String schemaName = run.model.getSchemaName();
+        String lastKey = run.checkpoint.lastKeyOf(collectionName);
+        DbJobStage stage = run.job.createJobStage("Schema Propagation",
+                "Update Schema [" + schemaName + "] on [" + collectionName + "]");
+        run.job.setCurrentJobStage(stage);
+        stage.setTotalRecords(this.documentBatchDao.countBySchemaAfter(collectionName, schemaName, filter, lastKey));
+        long doneRecords = 0L;
+        try {
+            while (!run.cancelled) {
+                List<T> batch = this.documentBatchDao.findBySchemaAfter(collectionName, schemaName, filter, lastKey, batchSize, type);
+                if (batch.isEmpty()) {
+                    break;
+                }
+                List<Map<String, Object>> patches = new ArrayList<>(batch.size());
+                for (T resource : batch) {
+                    patches.add(this.revalidate(resource, run.model, validator));
+                    lastKey = resource.getKey();
+                }
+                if (rateLimit != null && rateLimit > 0D) {
+                    this.rateLimiter.acquire(batch.size());
+                }
+                int written = this.documentBatchDao.updateDocuments(collectionName, patches);
+                for (int i = written; i < batch.size(); i++) {
+                    //
+                    // Alterado por outra thread depois da leitura, quem alterou
+                    // já validou com o schema novo
+                    //
+                    stage.incrementErrors();
+                }
+                doneRecords += batch.size();
+                stage.updateProgress(doneRecords);
+                run.checkpoint.getLastKeys().put(collectionName, lastKey);
+                this.saveCheckpoint(run);
+                if (batch.size() < batchSize) {
+                    break;
+                }
+            }
+            if (!run.cancelled) {
+                logger.debug("Schema:[{}] Propagated to [{}] Documents on [{}]", schemaName, doneRecords, collectionName);
+            }
+            return true;
+        } catch (ArangoDaoException ex) {
+            logger.error("Schema Propagation:[{}] Failed on Collection:[{}] After Key:[{}]", schemaName, collectionName, lastKey, ex);
+            return false;
+        } finally {
+            run.job.endJobStage(stage);
+        }
+    }
+
+    /**
+     * Revalida o recurso com o modelo novo e monta o patch do UPDATE
+     *
+     * @param resource
+     * @param model
+     * @param validator
+     * @return {key, rev, data}
+     */
+    private Map<String, Object> revalidate(BasicResource resource, ResourceSchemaModel model, CompiledSchemaValidator validator) {
+        resource.setSchemaModel(SchemaReferenceCodec.sharedCopy(model));
+        try {
+            validator.validate(resource);
+        } catch (AttributeConstraintViolationException ex) {
+            logger.debug("Resource:[{}] Invalid on Schema:[{}]: {}", resource.getKey(), model.getSchemaName(), ex.getMessage());
+        }
+        Map<String, Object> data = new HashMap<>();
+        data.put("attributes", resource.getAttributes());
+        data.put("discoveryAttributes", resource.getDiscoveryAttributes());
+        data.put("schemaModel", resource.getSchemaModel());
+        Map<String, Object> patch = new HashMap<>();
+        patch.put("key", resource.getKey());
+        patch.put("rev", resource.getRevisionId());
+        patch.put("data", data);
+        return patch;
+    }
+
+    /**
+     * Só a propagação corrente do schema grava o checkpoint
+     *
+     * @param run
+     */
+    private void saveCheckpoint(PropagationRun run) {
+        synchronized (this.runs) {
+            if (this.runs.get(run.model.getSchemaName()) != run) {
+                return;
+            }
+            run.checkpoint.setLastUpdate(new Date());
+            try {
+                this.checkpointDao.save(run.checkpoint);
+            } catch (ArangoDaoException ex) {
+                logger.warn("Failed to Save Schema Propagation Checkpoint:[{}]", run.model.getSchemaName(), ex);
+            }
+        }
+    }
+
+    /**
+     * Marca a revisão como aplicada, os atributos dela passam a ser a base do
+     * próximo diff. Chamado com o lock de runs.
+     *
+     * @param checkpoint
+     */
+    private void complete(SchemaPropagationCheckpoint checkpoint) {
+        this.schemaRegistry.propagationCompleted(checkpoint.getSchemaName(), checkpoint.getRevision());
+        checkpoint.setCompleted(true);
+        checkpoint.setPlan(null);
+        checkpoint.getLastKeys().clear();
+        checkpoint.getCompletedCollections().clear();
+        checkpoint.setLastUpdate(new Date());
+        try {
+            this.checkpointDao.save(checkpoint);
+        } catch (ArangoDaoException ex) {
+            logger.warn("Failed to Save Schema Propagation State:[{}]", checkpoint.getSchemaName(), ex);
+        }
+    }
+
+    private SchemaPropagationCheckpoint findState(String schemaName) {
+        try {
+            return this.checkpointDao.find(schemaName);
+        } catch (ArangoDaoException ex) {
+            logger.warn("Failed to Load Schema Propagation State:[{}]", schemaName, ex);
+            return null;
+        }
+    }
+
+    /**
+     * A revisão aplicada, só com o que importa para o diff
+     *
+     * @param state
+     * @return
+     */
+    private ResourceSchemaModel modelOf(SchemaPropagationCheckpoint state) {
+        if (state.getAttributes() == null) {
+            return null;
+        }
+        ResourceSchemaModel model = new ResourceSchemaModel();
+        model.setSchemaName(state.getSchemaName());
+        model.setAllowAll(state.getAllowAll());
+        model.setAttributes(state.getAttributes());
+        return model;
+    }
+
+    private Map<String, Class<? extends BasicResource>> collectionsOf(Domain domain) {
+        Map<String, Class<? extends BasicResource>> collections = new LinkedHashMap<>();
+        collections.put(domain.getNodes(), ManagedResource.class);
+        collections.put(domain.getConnections(), ResourceConnection.class);
+        collections.put(domain.getCircuits(), CircuitResource.class);
+        collections.put(domain.getServices(), ServiceResource.class);
+        return collections;
+    }
+
+    /**
+     * Uma execução da propagação de um schema
+     */
+    private static class PropagationRun {
+
+        private final ResourceSchemaModel model;
+        private final SchemaPropagationCheckpoint checkpoint;
+        private final DBJobInstance job;
+        private final CountDownLatch done = new CountDownLatch(1);
+        private volatile boolean cancelled = false;
+
+        private PropagationRun(ResourceSchemaModel model, SchemaPropagationCheckpoint checkpoint, DBJobInstance job) {
+            this.model = model;
+            this.checkpoint = checkpoint;
+            this.job = job;
+        }
+
+        private void cancel() {
+            this.cancelled = true;
+        }
+    }
+}
@@ -0,0 +1,251 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.manager.operation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.osstelecom.db.inventory.manager.configuration.ConfigurationManager;
+import com.osstelecom.db.inventory.manager.configuration.InventoryConfiguration;
+import com.osstelecom.db.inventory.manager.dao.DocumentBatchDao;
+import com.osstelecom.db.inventory.manager.exception.ArangoDaoException;
+import com.osstelecom.db.inventory.manager.exception.InvalidRequestException;
+import com.osstelecom.db.inventory.manager.jobs.DBJobInstance;
+import com.osstelecom.db.inventory.manager.jobs.DbJobStage;
+import com.osstelecom.db.inventory.manager.operation.ManagedExecutorService.Pool;
+import com.osstelecom.db.inventory.manager.resources.Domain;
+import com.osstelecom.db.inventory.manager.resources.model.ResourceAttributeModel;
+import com.osstelecom.db.inventory.manager.resources.model.ResourceSchemaModel;
+import com.osstelecom.db.inventory.manager.schema.SchemaReferenceCodec;
+import com.osstelecom.db.inventory.manager.schema.SchemaRevision;
+
+/**
+ * Job que troca os schemaModels embutidos nos documentos existentes pela
+ * referência {schemaName, revision, isValid}.
+ * <p>
+ * Percorre todas as collections de todos os domains, inclusive as de
+ * histórico, em lotes paginados por _key. Os recursos embutidos (fromResource,
+ * toResource, aPoint, circuitos de serviços...) são tratados também, qualquer
+ * objeto "schemaModel" com atributos vira referência. A gravação confere o
+ * _rev, então um documento alterado durante a job não é sobrescrito. Rodar de
+ * novo termina o que faltou.
+ *
+ * @author Lucas Nishimura
+ * @created 19.10.2026
+ */
+@Service
+public class SchemaStorageMigrationManager extends Manager {
+
+    private final Logger logger = LoggerFactory.getLogger(SchemaStorageMigrationManager.class);
+
+    private static final String SCHEMA_MODEL = "schemaModel";
+
+    @Autowired
+    private DomainManager domainManager;
+
+    @Autowired
+    private DocumentBatchDao documentBatchDao;
+
+    @Autowired
+    private DbJobManager dbJobManager;
+
+    @Autowired
+    private ManagedExecutorService managedExecutorService;
+
+    @Autowired
+    private ConfigurationManager configurationManager;
+
+    private final AtomicReference<DBJobInstance> runningJob = new AtomicReference<>();
+
+    /**
+     * Inicia a job em background no pool de manutenção
+     *
+     * @return a job criada
+     * @throws InvalidRequestException se o modo não for REFERENCE ou se já
+     * existir uma migração rodando
+     */
+    public DBJobInstance startMigration() throws InvalidRequestException {
+        InventoryConfiguration configuration = this.configurationManager.loadConfiguration();
+        if (!SchemaReferenceCodec.MODE_REFERENCE.equalsIgnoreCase(configuration.getSchemaStorageMode())) {
+            //
+            // No modo EMBEDDED a próxima escrita embutiria o modelo de novo
+            //
+            throw new InvalidRequestException("Schema Storage Mode must be ["
+                    + SchemaReferenceCodec.MODE_REFERENCE + "] to Strip Embedded Schema Models");
+        }
+        DBJobInstance job = this.dbJobManager.createJobInstance("Strip Embedded Schema Models");
+        job.setName("Strip Embedded Schema Models");
+        if (!this.runningJob.compareAndSet(null, job)) {
+            throw new InvalidRequestException("Schema Storage Migration Already Running: ["
+                    + this.runningJob.get().getJobId() + "]");
+        }
+        try {
+            this.managedExecutorService.execute(Pool.MAINTENANCE, () -> this.runMigration(job));
+        } catch (RejectedExecutionException ex) {
+            this.runningJob.set(null);
+            throw new InvalidRequestException("Maintenance Pool is Busy, Try Again Later");
+        }
+        return job;
+    }
+
+    private void runMigration(DBJobInstance job) {
+        int batchSize = this.batchSize();
+        job.startJob();
+        this.dbJobManager.notifyJobStart(job);
+        try {
+            for (Domain domain : this.domainManager.getAllDomains()) {
+                for (String collectionName : this.collectionsOf(domain)) {
+                    if (this.documentBatchDao.collectionExists(collectionName)) {
+                        this.migrateCollection(job, collectionName, batchSize);
+                    }
+                }
+            }
+        } catch (Exception ex) {
+            logger.error("Schema Storage Migration Failed", ex);
+        } finally {
+            job.endJob();
+            this.dbJobManager.notifyJobEnd(job);
+            this.runningJob.set(null);
+        }
+    }
+
+    @SuppressWarnings("rawtypes")
+    private void migrateCollection(DBJobInstance job, String collectionName, int batchSize) throws ArangoDaoException {
+        DbJobStage stage = job.createJobStage("Strip Schema Models", "Strip Embedded Schema Models on [" + collectionName + "]");
+        job.setCurrentJobStage(stage);
+        stage.setTotalRecords(this.documentBatchDao.count(collectionName));
+        String lastKey = null;
+        long changedRecords = 0L;
+        while (true) {
+            List<Map> batch = this.documentBatchDao.findBatchAfter(collectionName, lastKey, batchSize);
+            if (batch.isEmpty()) {
+                break;
+            }
+            List<Map> changed = new ArrayList<>();
+            for (Map document : batch) {
+                if (this.stripEmbeddedModels(document)) {
+                    changed.add(document);
+                }
+                stage.incrementDoneRecords();
+                lastKey = (String) document.get("_key");
+            }
+            int errors = this.documentBatchDao.replaceDocuments(collectionName, changed);
+            for (int i = 0; i < errors; i++) {
+                stage.incrementErrors();
+            }
+            changedRecords += changed.size() - errors;
+            if (batch.size() < batchSize) {
+                break;
+            }
+        }
+        logger.info("Collection:[{}] [{}] Documents Migrated to Schema References", collectionName, changedRecords);
+        job.endJobStage(stage);
+    }
+
+    /**
+     * Troca, recursivamente, todo schemaModel embutido pela referência
+     *
+     * @param node
+     * @return true se algo foi alterado
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    boolean stripEmbeddedModels(Object node) {
+        boolean changed = false;
+        if (node instanceof Map) {
+            Map map = (Map) node;
+            for (Object entryObject : map.entrySet()) {
+                Map.Entry entry = (Map.Entry) entryObject;
+                Object value = entry.getValue();
+                if (SCHEMA_MODEL.equals(entry.getKey()) && value instanceof Map && ((Map) value).containsKey("attributes")) {
+                    entry.setValue(this.referenceOf((Map) value));
+                    changed = true;
+                } else if (value instanceof Map || value instanceof List) {
+                    changed |= this.stripEmbeddedModels(value);
+                }
+            }
+        } else if (node instanceof List) {
+            for (Object item : (List) node) {
+                changed |= this.stripEmbeddedModels(item);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * A revisão é a do modelo embutido, ou seja a que o documento realmente
+     * usou na última validação
+     *
+     * @param embedded
+     * @return
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private Map<String, Object> referenceOf(Map embedded) {
+        ResourceSchemaModel model = new ResourceSchemaModel();
+        model.setSchemaName((String) embedded.get("schemaName"));
+        model.setAllowAll((Boolean) embedded.get("allowAll"));
+        HashMap<String, ResourceAttributeModel> attributes = new HashMap<>();
+        Object embeddedAttributes = embedded.get("attributes");
+        if (embeddedAttributes instanceof Map) {
+            ((Map<String, Object>) embeddedAttributes).forEach((name, value) -> {
+                if (value instanceof Map) {
+                    Map attribute = (Map) value;
+                    ResourceAttributeModel attributeModel = new ResourceAttributeModel();
+                    attributeModel.setName((String) attribute.get("name"));
+                    attributeModel.setVariableType((String) attribute.get("variableType"));
+                    attributeModel.setIsList((Boolean) attribute.get("isList"));
+                    attributeModel.setRequired((Boolean) attribute.get("required"));
+                    attributeModel.setValidate((Boolean) attribute.get("validate"));
+                    attributeModel.setIsDiscovery((Boolean) attribute.get("isDiscovery"));
+                    attributeModel.setValidationRegex((String) attribute.get("validationRegex"));
+                    attributeModel.setDefaultValue((String) attribute.get("defaultValue"));
+                    attributeModel.setAllowedValues((List<String>) attribute.get("allowedValues"));
+                    attributes.put(name, attributeModel);
+                }
+            });
+        }
+        model.setAttributes(attributes);
+        Map<String, Object> reference = new LinkedHashMap<>();
+        reference.put("schemaName", model.getSchemaName());
+        reference.put("revision", SchemaRevision.of(model));
+        reference.put("isValid", embedded.get("isValid") != null ? embedded.get("isValid") : Boolean.TRUE);
+        return reference;
+    }
+
+    private List<String> collectionsOf(Domain domain) {
+        return Arrays.asList(domain.getNodes(), domain.getConnections(), domain.getCircuits(),
+                domain.getServices(), domain.getServiceConnections(),
+                domain.getNodes() + "_hist", domain.getConnections() + "_hist",
+                domain.getCircuits() + "_hist", domain.getServices() + "_hist");
+    }
+
+    private int batchSize() {
+        Integer batchSize = this.configurationManager.loadConfiguration().getSchemaMigrationBatchSize();
+        return batchSize != null && batchSize > 0 ? batchSize : 500;
+    }
+}
@@ -192,7 +192,7 @@ public class ServiceManager extends Manager {
                 service.setOperationalStatus("Up");
             }
             
-            service.setAtomId(service.getDomain().addAndGetId());
+            service.setAtomId(domainManager.addAndGetId(service.getDomain()));
             
             ResourceSchemaModel schemaModel = schemaSession.loadSchema(service.getAttributeSchemaName());
             service.setSchemaModel(schemaModel);
@@ -18,6 +18,7 @@
 package com.osstelecom.db.inventory.manager.resources;
 
 import com.arangodb.entity.DocumentField;
+import com.arangodb.velocypack.annotations.Expose;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import io.swagger.v3.oas.annotations.media.Schema;
 import java.io.Serializable;
@@ -55,7 +56,14 @@ public class Domain implements Serializable{
     private Long circuitCount;
     @Schema(example = "0")
     private Long serviceCount;
+    /**
+     * Topo do último bloco de IDs reservado no banco, mantido exclusivamente
+     * pelo {@code DomainDao.reserveAtomicIdBlock}. Não é serializado nas
+     * escritas do documento para que um update não sobrescreva blocos já
+     * reservados por outras instâncias.
+     */
     @Schema(example = "0")
+    @Expose(serialize = false)
     private Long atomicId;
     @Schema(example = "2023-04-18T23:20:00.000Z")
     private Date lastStatsCalc;
@@ -218,13 +226,6 @@ public class Domain implements Serializable{
         this.circuitsLayer = circuitsLayer;
     }
 
-    public Long addAndGetId() {
-        if (this.atomicId == null) {
-            this.atomicId = 0L;
-        }
-        return this.atomicId++;
-    }
-
     /**
      * @return the resourceCount
      */
@@ -66,6 +66,42 @@ public class ResourceAttributeModel {
     //
     private Boolean isUserAttribute = true;
 
+    public ResourceAttributeModel() {
+    }
+
+    /**
+     * Cópia rasa, usada para herdar o atributo de um schema pai sem alterar
+     * a instância dele
+     *
+     * @param other
+     */
+    public ResourceAttributeModel(ResourceAttributeModel other) {
+        this._id = other._id;
+        this.name = other.name;
+        this.displayName = other.displayName;
+        this.displayable = other.displayable;
+        this.readOnly = other.readOnly;
+        this.variableType = other.variableType;
+        this.description = other.description;
+        this.defaultValue = other.defaultValue;
+        this.allowedValues = other.allowedValues;
+        this.required = other.required;
+        this.isList = other.isList;
+        this.trackChanges = other.trackChanges;
+        this.minOccurrences = other.minOccurrences;
+        this.maxOccurrences = other.maxOccurrences;
+        this.validationRegex = other.validationRegex;
+        this.validationScript = other.validationScript;
+        this.validationPluginClass = other.validationPluginClass;
+        this.validate = other.validate;
+        this.itemHash = other.itemHash;
+        this.doRemove = other.doRemove;
+        this.creationDate = other.creationDate;
+        this.lastUpdate = other.lastUpdate;
+        this.isDiscovery = other.isDiscovery;
+        this.isUserAttribute = other.isUserAttribute;
+    }
+
     public String getVariableType() {
         return variableType;
     }
@@ -55,6 +55,16 @@ public class ResourceSchemaModel {
      * Schemas que tem relação com este schema
      */
     private List<String> relatedSchemas = new ArrayList<>();
+    /**
+     * Revisão do schema com que o isValid foi calculado, não é gravada com o
+     * modelo embutido
+     */
+    private transient String revision;
+    /**
+     * Lido de um documento validado com outra revisão enquanto a propagação
+     * do schema ainda não terminou, o isValid pode estar desatualizado
+     */
+    private transient Boolean revalidationPending;
 
     /**
      * @return the schemaName
@@ -209,6 +219,34 @@ public class ResourceSchemaModel {
         this.lastUpdate = lastUpdate;
     }
 
+    /**
+     * @return the revision
+     */
+    public String getRevision() {
+        return revision;
+    }
+
+    /**
+     * @param revision the revision to set
+     */
+    public void setRevision(String revision) {
+        this.revision = revision;
+    }
+
+    /**
+     * @return the revalidationPending
+     */
+    public Boolean getRevalidationPending() {
+        return revalidationPending;
+    }
+
+    /**
+     * @param revalidationPending the revalidationPending to set
+     */
+    public void setRevalidationPending(Boolean revalidationPending) {
+        this.revalidationPending = revalidationPending;
+    }
+
     /**
      * @return the graphItemColor
      */
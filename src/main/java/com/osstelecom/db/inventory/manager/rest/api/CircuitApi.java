@@ -32,6 +32,7 @@ import com.osstelecom.db.inventory.manager.request.DeleteCircuitPathRequest;
 import com.osstelecom.db.inventory.manager.request.DeleteCircuitRequest;
 import com.osstelecom.db.inventory.manager.request.FilterRequest;
 import com.osstelecom.db.inventory.manager.request.GetCircuitPathRequest;
+import com.osstelecom.db.inventory.manager.request.GetCircuitRequest;
 import com.osstelecom.db.inventory.manager.request.PatchCircuitResourceRequest;
 import com.osstelecom.db.inventory.manager.resources.CircuitResource;
 import com.osstelecom.db.inventory.manager.resources.ResourceConnection;
@@ -40,8 +41,10 @@ import com.osstelecom.db.inventory.manager.response.CreateCircuitPathResponse;
 import com.osstelecom.db.inventory.manager.response.CreateCircuitResponse;
 import com.osstelecom.db.inventory.manager.response.DeleteCircuitResponse;
 import com.osstelecom.db.inventory.manager.response.FilterResponse;
+import com.osstelecom.db.inventory.manager.response.GetCircuitConnectivityResponse;
 import com.osstelecom.db.inventory.manager.response.GetCircuitPathResponse;
 import com.osstelecom.db.inventory.manager.response.GetCircuitResponse;
+import com.osstelecom.db.inventory.manager.response.GetDomainCircuitConnectivityResponse;
 import com.osstelecom.db.inventory.manager.response.PatchCircuitResourceResponse;
 import com.osstelecom.db.inventory.manager.security.model.AuthenticatedCall;
 import com.osstelecom.db.inventory.manager.session.CircuitSession;
@@ -209,6 +212,50 @@ public class CircuitApi extends BaseApi {
         return circuitSession.findCircuitPathById(req);
     }
 
+    /**
+     * Caminhos disjuntos e corte mínimo entre o aPoint e o zPoint do circuito
+     *
+     * @param domain
+     * @param id
+     * @param httpRequest
+     * @return
+     * @throws ArangoDaoException
+     * @throws ResourceNotFoundException
+     * @throws DomainNotFoundException
+     * @throws InvalidRequestException
+     */
+    @AuthenticatedCall(role = {"user"})
+    @GetMapping(path = "/{domain}/circuit/{id}/connectivity", produces = "application/json")
+    public GetCircuitConnectivityResponse getCircuitConnectivityById(
+            @PathVariable("domain") String domain, @PathVariable("id") String id, HttpServletRequest httpRequest) throws ArangoDaoException, ResourceNotFoundException, DomainNotFoundException, InvalidRequestException {
+        GetCircuitPathRequest req = new GetCircuitPathRequest(id, domain);
+        this.setUserDetails(req);
+        req.setRequestDomain(domain);
+        httpRequest.setAttribute("request", req);
+        return circuitSession.computeCircuitConnectivity(req);
+    }
+
+    /**
+     * Conectividade de todos os circuitos do domínio
+     *
+     * @param domain
+     * @param httpRequest
+     * @return
+     * @throws ArangoDaoException
+     * @throws DomainNotFoundException
+     * @throws InvalidRequestException
+     */
+    @AuthenticatedCall(role = {"user"})
+    @GetMapping(path = "/{domain}/circuit/connectivity", produces = "application/json")
+    public GetDomainCircuitConnectivityResponse getDomainCircuitConnectivity(
+            @PathVariable("domain") String domain, HttpServletRequest httpRequest) throws ArangoDaoException, DomainNotFoundException, InvalidRequestException {
+        GetCircuitRequest req = new GetCircuitRequest();
+        this.setUserDetails(req);
+        req.setRequestDomain(domain);
+        httpRequest.setAttribute("request", req);
+        return circuitSession.computeDomainCircuitConnectivity(req);
+    }
+
     @AuthenticatedCall(role = {"user"})
     @GetMapping(path = "/{domain}/circuit/{id}", produces = "application/json")
     public GetCircuitResponse getCircuitById(@PathVariable("domain") String domain,
@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.manager.rest.api;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import com.osstelecom.db.inventory.manager.exception.ArangoDaoException;
+import com.osstelecom.db.inventory.manager.exception.DomainNotFoundException;
+import com.osstelecom.db.inventory.manager.operation.DomainManager;
+import com.osstelecom.db.inventory.manager.operation.LiveTopologyManager;
+import com.osstelecom.db.inventory.topology.live.LiveTopology;
+
+/**
+ * Endpoint de actuator (/actuator/topology) com o orçamento de memória, o
+ * tempo de warm-up e versão, tamanho e tempo de carga da topologia em memória
+ * de cada domain. O POST em /actuator/topology/{domain} descarta a topologia
+ * do domain e monta de novo a partir do banco, exige SCOPE_write
+ *
+ * @author Lucas Nishimura
+ * @created 19.10.2026
+ */
+@Component
+@Endpoint(id = "topology")
+public class LiveTopologyEndpoint {
+
+    @Autowired
+    private LiveTopologyManager liveTopologyManager;
+
+    @Autowired
+    private DomainManager domainManager;
+
+    @ReadOperation
+    public Map<String, Object> topologyStats() {
+        return this.liveTopologyManager.dumpStats();
+    }
+
+    @WriteOperation
+    public Map<String, Object> rebuild(@Selector String domain) throws DomainNotFoundException, ArangoDaoException {
+        LiveTopology topology = this.liveTopologyManager.rebuild(this.domainManager.getDomain(domain));
+        if (topology != null) {
+            return topology.stats();
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("domain", domain);
+        result.put("ready", false);
+        return result;
+    }
+}
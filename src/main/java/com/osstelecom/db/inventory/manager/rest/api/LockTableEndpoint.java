@@ -0,0 +1,47 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.manager.rest.api;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import com.osstelecom.db.inventory.manager.operation.LockProfiler;
+
+/**
+ * Endpoint de actuator (/actuator/locks) com a tabela viva dos locks: quem
+ * segura, quem espera, stack e request id, mais as estatísticas por call site
+ *
+ * @author Lucas Nishimura
+ * @created 19.10.2026
+ */
+@Component
+@Endpoint(id = "locks")
+public class LockTableEndpoint {
+
+    @Autowired
+    private LockProfiler lockProfiler;
+
+    @ReadOperation
+    public Map<String, Object> lockTable() {
+        return this.lockProfiler.dumpLockTable();
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.manager.rest.api;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import com.osstelecom.db.inventory.manager.rules.RuleGovernor;
+
+/**
+ * Endpoint de actuator (/actuator/rules) com as estatísticas de cada regra
+ * groovy: execuções, latência, falhas por tipo e estado do circuit breaker. O
+ * POST em /actuator/rules/{rule} fecha o breaker da regra, o caminho usa ":"
+ * no lugar de "/" (location:City.groovy) e exige SCOPE_write
+ *
+ * @author Lucas Nishimura
+ * @created 19.10.2026
+ */
+@Component
+@Endpoint(id = "rules")
+public class RuleStatsEndpoint {
+
+    @Autowired
+    private RuleGovernor ruleGovernor;
+
+    @ReadOperation
+    public Map<String, Object> ruleStats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("rules", this.ruleGovernor.dumpStats());
+        return result;
+    }
+
+    @WriteOperation
+    public Map<String, Object> resetRule(@Selector String rule) {
+        String scriptPath = rule.replace(":", "/");
+        this.ruleGovernor.reset(scriptPath);
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("rule", scriptPath);
+        result.put("circuit", "CLOSED");
+        return result;
+    }
+}
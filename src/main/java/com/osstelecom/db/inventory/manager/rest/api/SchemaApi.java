@@ -32,11 +32,13 @@ import com.osstelecom.db.inventory.manager.exception.SchemaNotFoundException;
 import com.osstelecom.db.inventory.manager.request.CreateResourceSchemaModelRequest;
 import com.osstelecom.db.inventory.manager.request.PatchResourceSchemaModelRequest;
 import com.osstelecom.db.inventory.manager.response.CreateResourceSchemaModelResponse;
+import com.osstelecom.db.inventory.manager.response.DbJobResponse;
 import com.osstelecom.db.inventory.manager.response.EmptyOkResponse;
 import com.osstelecom.db.inventory.manager.response.GetSchemasResponse;
 import com.osstelecom.db.inventory.manager.response.ListSchemasResponse;
 import com.osstelecom.db.inventory.manager.response.PatchResourceSchemaModelResponse;
 import com.osstelecom.db.inventory.manager.response.ResourceSchemaResponse;
+import com.osstelecom.db.inventory.manager.response.SchemaLineageResponse;
 import com.osstelecom.db.inventory.manager.response.TypedListResponse;
 import com.osstelecom.db.inventory.manager.response.TypedMapResponse;
 import com.osstelecom.db.inventory.manager.security.model.AuthenticatedCall;
@@ -148,6 +150,66 @@ public class SchemaApi extends BaseApi {
         return schemaSession.getSchemaByFilter(filter);
     }
 
+    @AuthenticatedCall(role = {"user"})
+    @GetMapping(path = "/catalog/list", produces = "application/json")
+    @Operation(
+            summary = "Lista paginada de esquemas por prefixo e trecho do nome",
+            description = "<p>Usa o catálogo em memória, já ordenado por schemaName, fromSchema, author, owner, creationDate e lastUpdate.</p>")
+    public ListSchemasResponse listCatalog(
+            @RequestParam(value = "prefix", required = false) String prefix,
+            @RequestParam(value = "contains", required = false) String contains,
+            @RequestParam(value = "page", required = false, defaultValue = "0") int page,
+            @RequestParam(value = "size", required = false, defaultValue = "10") int size,
+            @RequestParam(value = "sort", required = false, defaultValue = "schemaName") String sort,
+            @RequestParam(value = "direction", required = false, defaultValue = "asc") String sortDirection) {
+        return schemaSession.listSchemas(prefix, contains, page, size, sort, sortDirection);
+    }
+
+    @AuthenticatedCall(role = {"user"})
+    @GetMapping(path = "/catalog/names", produces = "application/json")
+    @Operation(summary = "Autocomplete de nomes de esquema por prefixo")
+    public GetSchemasResponse autocompleteSchemas(
+            @RequestParam(value = "prefix", required = false, defaultValue = "") String prefix,
+            @RequestParam(value = "limit", required = false, defaultValue = "20") int limit) {
+        return schemaSession.autocompleteSchemas(prefix, limit);
+    }
+
+    @AuthenticatedCall(role = {"user"})
+    @GetMapping(path = "/catalog/{schema}/children", produces = "application/json")
+    @Operation(summary = "Esquemas que herdam diretamente do esquema")
+    public GetSchemasResponse getSchemaChildren(@PathVariable("schema") String schema, HttpServletRequest httpRequest)
+            throws SchemaNotFoundException {
+        httpRequest.setAttribute("request", schema);
+        return schemaSession.getSchemaChildren(schema);
+    }
+
+    @AuthenticatedCall(role = {"user"})
+    @GetMapping(path = "/catalog/{schema}/ancestors", produces = "application/json")
+    @Operation(summary = "Cadeia de herança do esquema, do pai até a raiz")
+    public GetSchemasResponse getSchemaAncestors(@PathVariable("schema") String schema, HttpServletRequest httpRequest)
+            throws SchemaNotFoundException {
+        httpRequest.setAttribute("request", schema);
+        return schemaSession.getSchemaAncestors(schema);
+    }
+
+    @AuthenticatedCall(role = {"user"})
+    @GetMapping(path = "/catalog/{schema}/descendants", produces = "application/json")
+    @Operation(summary = "Todos os esquemas que herdam do esquema")
+    public GetSchemasResponse getSchemaDescendants(@PathVariable("schema") String schema, HttpServletRequest httpRequest)
+            throws SchemaNotFoundException {
+        httpRequest.setAttribute("request", schema);
+        return schemaSession.getSchemaDescendants(schema);
+    }
+
+    @AuthenticatedCall(role = {"user"})
+    @GetMapping(path = "/catalog/{schema}/lineage", produces = "application/json")
+    @Operation(summary = "Herança achatada do esquema, com o esquema que definiu ou sobrescreveu cada atributo")
+    public SchemaLineageResponse getSchemaLineage(@PathVariable("schema") String schema, HttpServletRequest httpRequest)
+            throws GenericException, SchemaNotFoundException {
+        httpRequest.setAttribute("request", schema);
+        return schemaSession.getSchemaLineage(schema);
+    }
+
     @AuthenticatedCall(role = {"user"})
     @GetMapping(path = "/types", produces = "application/json")
     public TypedListResponse getSupportedTypes()
@@ -240,6 +302,21 @@ public class SchemaApi extends BaseApi {
         return new EmptyOkResponse();
     }
 
+    /**
+     * Inicia a migração dos documentos para o schemaModel por referência
+     *
+     * @return
+     * @throws InvalidRequestException
+     */
+    @AuthenticatedCall(role = {"operator"})
+    @PostMapping(path = "/storage/migrate", produces = "application/json")
+    @Operation(
+            summary = "Remove os schemaModels embutidos nos documentos",
+            description = "<p>Inicia uma job que percorre todos os domains e troca o schemaModel completo gravado em cada documento pela referência (nome e revisão do schema). Requer schemaStorageMode=REFERENCE.</p>")
+    public DbJobResponse migrateSchemaStorage() throws InvalidRequestException {
+        return this.schemaSession.migrateSchemaStorage();
+    }
+
     /**
      * list cached entries
      *
@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.manager.rules;
+
+import groovy.lang.Script;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Uma regra groovy já compilada, válida enquanto o arquivo tiver o mesmo
+ * mtime e a mesma política. Quando o arquivo não existe a entrada guarda só a ausência, para não
+ * procurar o arquivo em toda avaliação.
+ *
+ * @author Lucas Nishimura
+ * @created 19.10.2026
+ */
+public final class CompiledRule {
+
+    private final String path;
+    private final long lastModified;
+    private final Class<? extends Script> scriptClass;
+    private final List<String> includes;
+    private final String policySignature;
+    private volatile long checkedAt;
+
+    CompiledRule(String path, long lastModified, Class<? extends Script> scriptClass, List<String> includes,
+            String policySignature, long checkedAt) {
+        this.path = path;
+        this.lastModified = lastModified;
+        this.scriptClass = scriptClass;
+        this.includes = Collections.unmodifiableList(includes);
+        this.policySignature = policySignature;
+        this.checkedAt = checkedAt;
+    }
+
+    static CompiledRule missing(String path, long checkedAt) {
+        return new CompiledRule(path, 0L, null, Collections.emptyList(), "", checkedAt);
+    }
+
+    public String getPath() {
+        return this.path;
+    }
+
+    public long getLastModified() {
+        return this.lastModified;
+    }
+
+    public Class<? extends Script> getScriptClass() {
+        return this.scriptClass;
+    }
+
+    /**
+     * @return os includes literais encontrados no fonte, já compilados junto
+     */
+    public List<String> getIncludes() {
+        return this.includes;
+    }
+
+    /**
+     * @return os limites da política com que a regra foi compilada
+     */
+    public String getPolicySignature() {
+        return this.policySignature;
+    }
+
+    public boolean exists() {
+        return this.scriptClass != null;
+    }
+
+    long getCheckedAt() {
+        return this.checkedAt;
+    }
+
+    void setCheckedAt(long checkedAt) {
+        this.checkedAt = checkedAt;
+    }
+}
@@ -0,0 +1,338 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.manager.rules;
+
+import com.osstelecom.db.inventory.manager.configuration.ConfigurationManager;
+import com.osstelecom.db.inventory.manager.configuration.RulePolicyConfiguration;
+import com.osstelecom.db.inventory.manager.exception.RuleBudgetException;
+import com.osstelecom.db.inventory.manager.exception.ScriptRuleException;
+import groovy.lang.Binding;
+import groovy.lang.GroovyClassLoader;
+import groovy.lang.GroovyCodeSource;
+import groovy.lang.GroovyShell;
+import groovy.lang.Script;
+import groovy.transform.ThreadInterrupt;
+import groovy.transform.TimedInterrupt;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.annotation.PostConstruct;
+import org.codehaus.groovy.ast.ClassHelper;
+import org.codehaus.groovy.ast.expr.ClassExpression;
+import org.codehaus.groovy.ast.expr.PropertyExpression;
+import org.codehaus.groovy.control.CompilationFailedException;
+import org.codehaus.groovy.control.CompilerConfiguration;
+import org.codehaus.groovy.control.customizers.ASTTransformationCustomizer;
+import org.codehaus.groovy.runtime.InvokerHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * Executa as regras groovy do rulesDir.
+ * <p>
+ * Cada arquivo é compilado uma vez para uma classe {@link Script} e guardado
+ * por caminho e mtime, o arquivo só é consultado de novo depois de
+ * ruleRecheckInterval. Cada execução cria o seu próprio {@link Binding} e o
+ * seu próprio context, então a mesma regra pode rodar em várias threads ao
+ * mesmo tempo sem uma enxergar as variáveis da outra. Os includes escritos
+ * como texto fixo no fonte (context.include = "x/Y.groovy") são compilados
+ * junto com a regra, os calculados em tempo de execução são compilados no
+ * primeiro uso. Os limites de execução de cada regra e as suas métricas ficam
+ * no {@link RuleGovernor}.
+ *
+ * @author Lucas Nishimura
+ * @created 19.10.2026
+ */
+@Component
+public class RuleEngine {
+
+    private static final Pattern LITERAL_INCLUDE = Pattern.compile(
+            "include[\"']?\\s*\\]?\\s*[=,]\\s*[\"']([^\"']+\\.groovy)[\"']");
+
+    /**
+     * Evita loop de includes
+     */
+    private static final int MAX_INCLUDE_DEPTH = 32;
+
+    private final Logger logger = LoggerFactory.getLogger(RuleEngine.class);
+
+    @Autowired
+    private ConfigurationManager configurationManager;
+
+    @Autowired
+    private RuleGovernor ruleGovernor;
+
+    private final Map<String, CompiledRule> rules = new ConcurrentHashMap<>();
+
+    private final Map<String, Object> compileLocks = new ConcurrentHashMap<>();
+
+    private Path rulesDir;
+
+    @PostConstruct
+    private void initEngine() {
+        this.rulesDir = Paths.get(this.configurationManager.loadConfiguration().getRulesDir()).toAbsolutePath().normalize();
+        logger.info("Rule Engine Compiling Rules from:[{}]", this.rulesDir);
+    }
+
+    /**
+     * A política da regra entra na compilação: o timeout vira um
+     * TimedInterrupt, os limites de iterações e memória viram chamadas ao
+     * {@link RuleGuard}. Toda regra também recebe ThreadInterrupt, então um
+     * interrupt na thread para a regra no próximo laço.
+     *
+     * @param policy
+     * @return a configuração usada para compilar a regra
+     */
+    protected CompilerConfiguration compilerConfiguration(RulePolicyConfiguration policy) {
+        CompilerConfiguration configuration = new CompilerConfiguration();
+        configuration.setSourceEncoding(StandardCharsets.UTF_8.name());
+        configuration.addCompilationCustomizers(new ASTTransformationCustomizer(ThreadInterrupt.class));
+        if (policy.getTimeout() != null && policy.getTimeout() > 0) {
+            Map<String, Object> parameters = new HashMap<>();
+            parameters.put("value", policy.getTimeout());
+            parameters.put("unit", new PropertyExpression(new ClassExpression(ClassHelper.make(TimeUnit.class)), "MILLISECONDS"));
+            configuration.addCompilationCustomizers(new ASTTransformationCustomizer(parameters, TimedInterrupt.class));
+        }
+        if ((policy.getMaxLoopIterations() != null && policy.getMaxLoopIterations() > 0)
+                || (policy.getMaxAllocatedBytes() != null && policy.getMaxAllocatedBytes() > 0)) {
+            configuration.addCompilationCustomizers(new RuleGuardCustomizer());
+        }
+        return configuration;
+    }
+
+    /**
+     * Nome da classe com pontos -> caminho da regra
+     *
+     * @param className
+     * @return location/City.groovy
+     */
+    public static String scriptPathOf(String className) {
+        return className.replace(".", "/") + ".groovy";
+    }
+
+    /**
+     * Regra compilada do caminho, recompilada se o arquivo mudou
+     *
+     * @param scriptPath relativo ao rulesDir
+     * @return nunca null, {@link CompiledRule#exists()} diz se há regra
+     * @throws ScriptRuleException se a regra não compila
+     */
+    public CompiledRule resolve(String scriptPath) throws ScriptRuleException {
+        CompiledRule rule = this.rules.get(scriptPath);
+        long now = System.currentTimeMillis();
+        if (rule != null && now - rule.getCheckedAt() < this.recheckInterval()) {
+            return rule;
+        }
+        Object lock = this.compileLocks.computeIfAbsent(scriptPath, p -> new Object());
+        List<String> includes;
+        synchronized (lock) {
+            rule = this.rules.get(scriptPath);
+            if (rule != null && now - rule.getCheckedAt() < this.recheckInterval()) {
+                return rule;
+            }
+            File file = this.rulesDir.resolve(scriptPath).toFile();
+            long lastModified = file.isFile() ? file.lastModified() : 0L;
+            RulePolicyConfiguration policy = this.ruleGovernor.policyOf(scriptPath);
+            if (rule != null && rule.getLastModified() == lastModified
+                    && (!rule.exists() || rule.getPolicySignature().equals(policy.compileSignature()))) {
+                rule.setCheckedAt(now);
+                return rule;
+            }
+            if (lastModified == 0L) {
+                if (rule == null || rule.exists()) {
+                    logger.warn("No Rules Found at:[{}]", scriptPath);
+                }
+                rule = CompiledRule.missing(scriptPath, now);
+            } else {
+                rule = this.compile(scriptPath, file, lastModified, policy, now);
+            }
+            this.rules.put(scriptPath, rule);
+            includes = rule.getIncludes();
+        }
+        //
+        // Fora do lock, um include pode apontar de volta para esta regra
+        //
+        for (String include : includes) {
+            try {
+                this.resolve(include);
+            } catch (ScriptRuleException ex) {
+                logger.warn("Failed to Compile Include:[{}] of Rule:[{}] {}", include, scriptPath, ex.getMessage());
+            }
+        }
+        return rule;
+    }
+
+    /**
+     * Executa a regra e a cadeia de includes com um binding novo
+     *
+     * @param rule
+     * @param variables vão para o binding e para o context
+     * @throws ScriptRuleException
+     */
+    public void run(CompiledRule rule, Map<String, Object> variables) throws ScriptRuleException {
+        LinkedHashMap<String, Object> context = new LinkedHashMap<>(variables);
+        Binding binding = new Binding();
+        binding.setVariable("logger", logger);
+        variables.forEach(binding::setVariable);
+        binding.setVariable("context", context);
+        CompiledRule running = rule;
+        int depth = 0;
+        while (running != null && running.exists()) {
+            context.put("include", "");
+            this.execute(running, binding);
+            Object include = context.get("include");
+            if (include instanceof String && StringUtils.hasText((String) include)) {
+                if (++depth > MAX_INCLUDE_DEPTH) {
+                    throw new ScriptRuleException("Rule Include Chain Too Deep at:[" + running.getPath() + "]");
+                }
+                running = this.resolve((String) include);
+                if (!running.exists()) {
+                    throw new ScriptRuleException("Included Rule:[" + include + "] Not Found");
+                }
+            } else {
+                running = null;
+            }
+        }
+    }
+
+    /**
+     * Executa a mesma regra para vários itens, o resultado de cada item fica
+     * no seu {@link RuleEvaluationResult}. Nada escapa daqui, qualquer erro
+     * de um item vira FAILED nele e os demais continuam
+     *
+     * @param rule
+     * @param items variáveis de cada execução
+     * @param results mesma ordem de items
+     */
+    public void runAll(CompiledRule rule, List<Map<String, Object>> items, List<RuleEvaluationResult> results) {
+        for (int i = 0; i < items.size(); i++) {
+            try {
+                this.run(rule, items.get(i));
+            } catch (ScriptRuleException ex) {
+                results.get(i).failed(ex.getMessage());
+            } catch (Throwable ex) {
+                logger.error("Unexpected Error Evaluating Rule:[{}] Item:[{}]", rule.getPath(), i, ex);
+                results.get(i).failed(ex.toString());
+            }
+        }
+    }
+
+    /**
+     * Uma execução de uma regra, sem includes
+     *
+     * @param rule
+     * @param binding
+     * @throws ScriptRuleException
+     */
+    protected void execute(CompiledRule rule, Binding binding) throws ScriptRuleException {
+        String scriptPath = rule.getPath();
+        RulePolicyConfiguration policy = this.ruleGovernor.policyOf(scriptPath);
+        if (!this.ruleGovernor.allow(scriptPath)) {
+            if ("REJECT".equalsIgnoreCase(policy.getWhenOpen())) {
+                throw new ScriptRuleException("Rule:[" + scriptPath + "] Disabled by Circuit Breaker");
+            }
+            logger.debug("Rule:[{}] Skipped by Circuit Breaker", scriptPath);
+            return;
+        }
+        long start = System.nanoTime();
+        RuleGuard.Budget previous = RuleGuard.enter(policy.getMaxLoopIterations(), policy.getMaxAllocatedBytes());
+        try {
+            Script script = InvokerHelper.createScript(rule.getScriptClass(), binding);
+            script.run();
+            this.ruleGovernor.success(scriptPath, System.nanoTime() - start);
+        } catch (Throwable ex) {
+            //
+            // O groovy não declara as exceções checadas, elas chegam aqui
+            // como Exception. Error (assert do groovy, StackOverflowError)
+            // também passa por aqui, senão uma execução de teste do breaker
+            // ficaria sem desfecho e a regra nunca mais rodaria
+            //
+            if (ex instanceof RuleBudgetException) {
+                this.ruleGovernor.failure(scriptPath, policy, System.nanoTime() - start, "budget", ex.getMessage());
+                throw (RuleBudgetException) ex;
+            }
+            if (ex instanceof ScriptRuleException) {
+                //
+                // A regra recusou o recurso, é o trabalho dela e não conta
+                // como falha para o breaker
+                //
+                this.ruleGovernor.success(scriptPath, System.nanoTime() - start);
+                throw (ScriptRuleException) ex;
+            }
+            if (ex instanceof TimeoutException) {
+                this.ruleGovernor.failure(scriptPath, policy, System.nanoTime() - start, "timeout", ex.getMessage());
+                throw new ScriptRuleException("Rule:[" + scriptPath + "] Timed Out After:[" + policy.getTimeout() + "] ms", ex);
+            }
+            this.ruleGovernor.failure(scriptPath, policy, System.nanoTime() - start, "error", String.valueOf(ex.getMessage()));
+            throw new ScriptRuleException("Error in Groovy Context", ex);
+        } finally {
+            RuleGuard.exit(previous);
+        }
+    }
+
+    /**
+     * Descarta as regras compiladas, a próxima execução compila de novo
+     */
+    public void clear() {
+        this.rules.clear();
+    }
+
+    private CompiledRule compile(String scriptPath, File file, long lastModified, RulePolicyConfiguration policy, long now)
+            throws ScriptRuleException {
+        try {
+            String source = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+            GroovyCodeSource codeSource = new GroovyCodeSource(source, file.getName().replace(".groovy", ""),
+                    GroovyShell.DEFAULT_CODE_BASE);
+            @SuppressWarnings("unchecked")
+            Class<? extends Script> scriptClass = new GroovyClassLoader(RuleEngine.class.getClassLoader(),
+                    this.compilerConfiguration(policy)).parseClass(codeSource, false);
+            List<String> includes = new ArrayList<>();
+            Matcher matcher = LITERAL_INCLUDE.matcher(source);
+            while (matcher.find()) {
+                if (!matcher.group(1).equals(scriptPath)) {
+                    includes.add(matcher.group(1));
+                }
+            }
+            logger.debug("Compiled Rule:[{}] Includes:{}", scriptPath, includes);
+            return new CompiledRule(scriptPath, lastModified, scriptClass, includes, policy.compileSignature(), now);
+        } catch (IOException | CompilationFailedException ex) {
+            throw new ScriptRuleException("Failed to Compile Rule:[" + scriptPath + "]", ex);
+        }
+    }
+
+    private long recheckInterval() {
+        Long interval = this.configurationManager.loadConfiguration().getRuleRecheckInterval();
+        return interval != null ? interval : 5000L;
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.manager.rules;
+
+/**
+ * Resultado da avaliação de um item de um lote de regras
+ *
+ * @author Lucas Nishimura
+ * @created 19.10.2026
+ */
+public class RuleEvaluationResult {
+
+    public enum Status {
+        /**
+         * A regra rodou sem erro
+         */
+        OK,
+        /**
+         * Não existe regra para a classe
+         */
+        NO_RULE,
+        /**
+         * Regras dinâmicas desligadas
+         */
+        DISABLED,
+        /**
+         * A regra falhou ou não compilou, ver error
+         */
+        FAILED
+    }
+
+    private final int index;
+    private final String key;
+    private final String className;
+    private Status status;
+    private String error;
+
+    public RuleEvaluationResult(int index, String key, String className, Status status) {
+        this.index = index;
+        this.key = key;
+        this.className = className;
+        this.status = status;
+    }
+
+    /**
+     * Marca o item como falho
+     *
+     * @param error
+     */
+    public void failed(String error) {
+        this.status = Status.FAILED;
+        this.error = error;
+    }
+
+    /**
+     * @return a posição do item no lote
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public boolean isFailed() {
+        return this.status == Status.FAILED;
+    }
+}
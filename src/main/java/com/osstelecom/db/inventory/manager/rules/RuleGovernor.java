@@ -0,0 +1,214 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.manager.rules;
+
+import com.osstelecom.db.inventory.manager.configuration.ConfigurationManager;
+import com.osstelecom.db.inventory.manager.configuration.RulePolicyConfiguration;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Políticas, métricas e circuit breaker das regras groovy.
+ * <p>
+ * Cada regra tem um timer de latência (netcompass.rule.execution) e contadores
+ * de falhas por tipo (error, timeout, budget) e de execuções barradas pelo
+ * breaker. Só timeout, budget e erros inesperados são falhas, a
+ * ScriptRuleException com que a regra recusa um recurso não é. Depois de
+ * failureThreshold falhas seguidas o breaker abre e a regra deixa de rodar
+ * por openInterval, depois disso uma execução de teste decide se ele fecha ou
+ * abre de novo.
+ *
+ * @author Lucas Nishimura
+ * @created 19.10.2026
+ */
+@Component
+public class RuleGovernor {
+
+    public static final String DEFAULT_POLICY = "default";
+
+    private final Logger logger = LoggerFactory.getLogger(RuleGovernor.class);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ConfigurationManager configurationManager;
+
+    private final Map<String, RuleStats> stats = new ConcurrentHashMap<>();
+
+    /**
+     * @param scriptPath
+     * @return a política da regra, ou a default
+     */
+    public RulePolicyConfiguration policyOf(String scriptPath) {
+        Map<String, RulePolicyConfiguration> policies = this.configurationManager.loadConfiguration().getRulePolicies();
+        RulePolicyConfiguration policy = policies != null ? policies.get(scriptPath) : null;
+        if (policy == null && policies != null) {
+            policy = policies.get(DEFAULT_POLICY);
+        }
+        return policy != null ? policy : new RulePolicyConfiguration();
+    }
+
+    /**
+     * @param scriptPath
+     * @return false se o breaker da regra está aberto
+     */
+    public boolean allow(String scriptPath) {
+        RuleStats rule = this.statsOf(scriptPath);
+        long openUntil = rule.openUntil.get();
+        if (openUntil == 0L) {
+            return true;
+        }
+        if (System.currentTimeMillis() >= openUntil && rule.trial.compareAndSet(false, true)) {
+            logger.info("Rule:[{}] Circuit Half Open, Trying Once", scriptPath);
+            return true;
+        }
+        rule.rejected.increment();
+        return false;
+    }
+
+    public void success(String scriptPath, long nanos) {
+        RuleStats rule = this.statsOf(scriptPath);
+        rule.timer.record(nanos, TimeUnit.NANOSECONDS);
+        rule.consecutiveFailures.set(0);
+        if (rule.trial.compareAndSet(true, false)) {
+            rule.openUntil.set(0L);
+            logger.info("Rule:[{}] Circuit Closed", scriptPath);
+        }
+    }
+
+    /**
+     * @param scriptPath
+     * @param policy
+     * @param nanos
+     * @param type error, timeout ou budget
+     * @param message
+     */
+    public void failure(String scriptPath, RulePolicyConfiguration policy, long nanos, String type, String message) {
+        RuleStats rule = this.statsOf(scriptPath);
+        rule.timer.record(nanos, TimeUnit.NANOSECONDS);
+        rule.failures.computeIfAbsent(type, t -> Counter.builder("netcompass.rule.failures")
+                .tags("rule", scriptPath, "type", t)
+                .register(this.meterRegistry)).increment();
+        rule.lastFailure = message;
+        rule.lastFailureDate = new Date();
+        int failures = rule.consecutiveFailures.incrementAndGet();
+        Integer threshold = policy.getFailureThreshold();
+        boolean wasTrial = rule.trial.compareAndSet(true, false);
+        if (wasTrial || (threshold != null && threshold > 0 && failures >= threshold)) {
+            long interval = policy.getOpenInterval() != null ? policy.getOpenInterval() : 0L;
+            rule.openUntil.set(System.currentTimeMillis() + interval);
+            logger.warn("Rule:[{}] Circuit Opened After:[{}] Failures for:[{}] ms Last:[{}]", scriptPath, failures, interval, message);
+        }
+    }
+
+    /**
+     * Fecha o breaker e zera as falhas seguidas da regra
+     *
+     * @param scriptPath
+     */
+    public void reset(String scriptPath) {
+        RuleStats rule = this.stats.get(scriptPath);
+        if (rule != null) {
+            rule.consecutiveFailures.set(0);
+            rule.openUntil.set(0L);
+            rule.trial.set(false);
+        }
+    }
+
+    /**
+     * @return as estatísticas de cada regra já executada
+     */
+    public List<Map<String, Object>> dumpStats() {
+        List<Map<String, Object>> result = new ArrayList<>();
+        this.stats.forEach((scriptPath, rule) -> {
+            Map<String, Object> item = new LinkedHashMap<>();
+            long invocations = rule.timer.count();
+            long failures = 0L;
+            Map<String, Long> byType = new LinkedHashMap<>();
+            for (Map.Entry<String, Counter> entry : rule.failures.entrySet()) {
+                long count = (long) entry.getValue().count();
+                byType.put(entry.getKey(), count);
+                failures += count;
+            }
+            item.put("rule", scriptPath);
+            item.put("invocations", invocations);
+            item.put("failures", byType);
+            item.put("errorRate", invocations > 0 ? (double) failures / invocations : 0D);
+            item.put("rejected", (long) rule.rejected.count());
+            item.put("meanMs", rule.timer.mean(TimeUnit.MILLISECONDS));
+            item.put("maxMs", rule.timer.max(TimeUnit.MILLISECONDS));
+            Map<String, Double> percentiles = new LinkedHashMap<>();
+            for (ValueAtPercentile value : rule.timer.takeSnapshot().percentileValues()) {
+                percentiles.put("p" + Math.round(value.percentile() * 100), value.value(TimeUnit.MILLISECONDS));
+            }
+            item.put("percentilesMs", percentiles);
+            long openUntil = rule.openUntil.get();
+            item.put("circuit", openUntil == 0L ? "CLOSED" : rule.trial.get() ? "HALF_OPEN" : "OPEN");
+            item.put("openUntil", openUntil == 0L ? null : new Date(openUntil));
+            item.put("consecutiveFailures", rule.consecutiveFailures.get());
+            item.put("lastFailure", rule.lastFailure);
+            item.put("lastFailureDate", rule.lastFailureDate);
+            result.add(item);
+        });
+        return result;
+    }
+
+    private RuleStats statsOf(String scriptPath) {
+        return this.stats.computeIfAbsent(scriptPath, p -> new RuleStats(p, this.meterRegistry));
+    }
+
+    private static class RuleStats {
+
+        private final Timer timer;
+        private final Counter rejected;
+        private final Map<String, Counter> failures = new ConcurrentHashMap<>();
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+        private final AtomicLong openUntil = new AtomicLong();
+        private final AtomicBoolean trial = new AtomicBoolean();
+        private volatile String lastFailure;
+        private volatile Date lastFailureDate;
+
+        private RuleStats(String scriptPath, MeterRegistry registry) {
+            this.timer = Timer.builder("netcompass.rule.execution")
+                    .tags("rule", scriptPath)
+                    .publishPercentileHistogram()
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(registry);
+            this.rejected = Counter.builder("netcompass.rule.rejected")
+                    .tags("rule", scriptPath)
+                    .register(registry);
+        }
+    }
+}
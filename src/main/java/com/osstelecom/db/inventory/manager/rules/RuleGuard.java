@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.manager.rules;
+
+import com.osstelecom.db.inventory.manager.exception.RuleBudgetException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Contadores da execução corrente de uma regra. O {@link RuleGuardCustomizer}
+ * injeta uma chamada a {@link #tick()} em cada iteração de laço e em cada
+ * chamada de closure das regras que têm limite de iterações ou de memória.
+ *
+ * @author Lucas Nishimura
+ * @created 19.10.2026
+ */
+public final class RuleGuard {
+
+    /**
+     * A alocação da thread é consultada a cada CHECK_EVERY ticks
+     */
+    private static final int CHECK_EVERY = 1024;
+
+    private static final ThreadLocal<Budget> CURRENT = new ThreadLocal<>();
+
+    private static final com.sun.management.ThreadMXBean THREADS = threadBean();
+
+    private RuleGuard() {
+    }
+
+    /**
+     * Chamado pelo código injetado nas regras
+     *
+     * @throws RuleBudgetException
+     */
+    public static void tick() throws RuleBudgetException {
+        Budget budget = CURRENT.get();
+        if (budget == null) {
+            return;
+        }
+        long iterations = ++budget.iterations;
+        if (budget.maxIterations > 0 && iterations > budget.maxIterations) {
+            throw new RuleBudgetException("Rule Exceeded:[" + budget.maxIterations + "] Loop Iterations");
+        }
+        if (budget.maxBytes > 0 && iterations % CHECK_EVERY == 0) {
+            long allocated = allocatedBytes() - budget.startBytes;
+            if (allocated > budget.maxBytes) {
+                throw new RuleBudgetException("Rule Exceeded:[" + budget.maxBytes + "] Allocated Bytes");
+            }
+        }
+    }
+
+    /**
+     * Abre o orçamento da execução na thread corrente
+     *
+     * @param maxIterations
+     * @param maxBytes
+     * @return o orçamento anterior, para {@link #exit(Budget)}
+     */
+    static Budget enter(Long maxIterations, Long maxBytes) {
+        Budget previous = CURRENT.get();
+        long bytes = maxBytes != null && THREADS != null ? maxBytes : 0L;
+        CURRENT.set(new Budget(maxIterations != null ? maxIterations : 0L, bytes, bytes > 0 ? allocatedBytes() : 0L));
+        return previous;
+    }
+
+    static void exit(Budget previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    private static long allocatedBytes() {
+        return THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static com.sun.management.ThreadMXBean threadBean() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()) {
+            return (com.sun.management.ThreadMXBean) bean;
+        }
+        return null;
+    }
+
+    static final class Budget {
+
+        private final long maxIterations;
+        private final long maxBytes;
+        private final long startBytes;
+        private long iterations;
+
+        private Budget(long maxIterations, long maxBytes, long startBytes) {
+            this.maxIterations = maxIterations;
+            this.maxBytes = maxBytes;
+            this.startBytes = startBytes;
+        }
+    }
+}
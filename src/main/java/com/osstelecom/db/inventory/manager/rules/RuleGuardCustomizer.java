@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.manager.rules;
+
+import org.codehaus.groovy.ast.ClassCodeVisitorSupport;
+import org.codehaus.groovy.ast.ClassHelper;
+import org.codehaus.groovy.ast.ClassNode;
+import org.codehaus.groovy.ast.expr.ArgumentListExpression;
+import org.codehaus.groovy.ast.expr.ClosureExpression;
+import org.codehaus.groovy.ast.expr.StaticMethodCallExpression;
+import org.codehaus.groovy.ast.stmt.BlockStatement;
+import org.codehaus.groovy.ast.stmt.DoWhileStatement;
+import org.codehaus.groovy.ast.stmt.ExpressionStatement;
+import org.codehaus.groovy.ast.stmt.ForStatement;
+import org.codehaus.groovy.ast.stmt.LoopingStatement;
+import org.codehaus.groovy.ast.stmt.Statement;
+import org.codehaus.groovy.ast.stmt.WhileStatement;
+import org.codehaus.groovy.classgen.GeneratorContext;
+import org.codehaus.groovy.control.CompilePhase;
+import org.codehaus.groovy.control.SourceUnit;
+import org.codehaus.groovy.control.customizers.CompilationCustomizer;
+
+/**
+ * Injeta {@link RuleGuard#tick()} no início de cada laço e de cada closure da
+ * regra, o que cobre também list.each { } e afins
+ *
+ * @author Lucas Nishimura
+ * @created 19.10.2026
+ */
+public class RuleGuardCustomizer extends CompilationCustomizer {
+
+    public RuleGuardCustomizer() {
+        super(CompilePhase.CONVERSION);
+    }
+
+    @Override
+    public void call(SourceUnit source, GeneratorContext context, ClassNode classNode) {
+        new ClassCodeVisitorSupport() {
+            @Override
+            protected SourceUnit getSourceUnit() {
+                return source;
+            }
+
+            @Override
+            public void visitForLoop(ForStatement loop) {
+                guard(loop);
+                super.visitForLoop(loop);
+            }
+
+            @Override
+            public void visitWhileLoop(WhileStatement loop) {
+                guard(loop);
+                super.visitWhileLoop(loop);
+            }
+
+            @Override
+            public void visitDoWhileLoop(DoWhileStatement loop) {
+                guard(loop);
+                super.visitDoWhileLoop(loop);
+            }
+
+            @Override
+            public void visitClosureExpression(ClosureExpression closure) {
+                closure.setCode(guarded(closure.getCode()));
+                super.visitClosureExpression(closure);
+            }
+        }.visitClass(classNode);
+    }
+
+    private static void guard(LoopingStatement loop) {
+        loop.setLoopBlock(guarded(loop.getLoopBlock()));
+    }
+
+    private static Statement guarded(Statement body) {
+        BlockStatement block = new BlockStatement();
+        block.addStatement(new ExpressionStatement(new StaticMethodCallExpression(ClassHelper.make(RuleGuard.class), "tick",
+                ArgumentListExpression.EMPTY_ARGUMENTS)));
+        block.addStatement(body);
+        return block;
+    }
+}
@@ -0,0 +1,573 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.manager.schema;
+
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.osstelecom.db.inventory.manager.resources.BasicResource;
+import com.osstelecom.db.inventory.manager.resources.exception.AttributeConstraintViolationException;
+import com.osstelecom.db.inventory.manager.resources.model.ResourceAttributeModel;
+import com.osstelecom.db.inventory.manager.resources.model.ResourceSchemaModel;
+
+/**
+ * Validador imutável de um schema merged, gerado pelo
+ * {@link SchemaValidatorCompiler}.
+ * <p>
+ * Regex, formatos de data, valores permitidos e defaults são resolvidos uma
+ * única vez na compilação, a validação de um recurso só percorre o array de
+ * atributos. Uma chave presente com valor null é mantida como está, o default
+ * só vale para chaves ausentes.
+ *
+ * @author Lucas Nishimura
+ * @created 19.10.2026
+ */
+public final class CompiledSchemaValidator {
+
+    private static final Logger logger = LoggerFactory.getLogger(CompiledSchemaValidator.class);
+
+    enum AttributeType {
+        STRING, NUMBER, BOOLEAN, FLOAT, DATE, DATETIME, GEOLINE, UNKNOWN
+    }
+
+    private final String schemaName;
+    private final String revision;
+    private final boolean allowAll;
+    private final CompiledAttribute[] attributes;
+    private final Map<String, CompiledAttribute> attributesByName;
+    /**
+     * Bit i ligado se attributes[i] é obrigatório
+     */
+    private final BitSet requiredMask;
+
+    CompiledSchemaValidator(ResourceSchemaModel model, String revision, SchemaDateParser dateParser, SchemaDateParser dateTimeParser) {
+        this.schemaName = model.getSchemaName();
+        this.revision = revision;
+        this.allowAll = Boolean.TRUE.equals(model.getAllowAll());
+        Map<String, ResourceAttributeModel> source = model.getAttributes() != null ? model.getAttributes() : Collections.emptyMap();
+        this.attributes = new CompiledAttribute[source.size()];
+        this.requiredMask = new BitSet(source.size());
+        Map<String, CompiledAttribute> byName = new HashMap<>();
+        int index = 0;
+        //
+        // Mesma ordem do mapa do schema, para que o primeiro erro reportado
+        // seja o mesmo
+        //
+        for (ResourceAttributeModel attribute : source.values()) {
+            CompiledAttribute compiled = new CompiledAttribute(attribute, dateParser, dateTimeParser);
+            this.attributes[index] = compiled;
+            if (compiled.required) {
+                this.requiredMask.set(index);
+            }
+            byName.put(attribute.getName(), compiled);
+            index++;
+        }
+        //
+        // O nome da chave pode divergir do name do atributo, as duas resolvem
+        //
+        source.forEach((key, attribute) -> byName.putIfAbsent(key, byName.get(attribute.getName())));
+        this.attributesByName = Collections.unmodifiableMap(byName);
+    }
+
+    public String getSchemaName() {
+        return this.schemaName;
+    }
+
+    public String getRevision() {
+        return this.revision;
+    }
+
+    /**
+     * @return quantidade de atributos obrigatórios
+     */
+    public int getRequiredCount() {
+        return this.requiredMask.cardinality();
+    }
+
+    /**
+     * Valida o recurso contra o schema, aplicando defaults e convertendo os
+     * valores. Marca o schemaModel do recurso como válido ou inválido, com a
+     * revisão usada.
+     *
+     * @param resource
+     * @throws AttributeConstraintViolationException
+     */
+    public void validate(BasicResource resource) throws AttributeConstraintViolationException {
+        ResourceSchemaModel schemaModel = resource.getSchemaModel();
+        Map<String, Object> values = resource.getAttributes();
+        schemaModel.setRevision(this.revision);
+        schemaModel.setRevalidationPending(null);
+
+        //
+        // As vezes uma chave será exluída e devemos processar isso aqui, faz a
+        // sanitização das chaves
+        //
+        if (values != null) {
+            Iterator<String> keys = values.keySet().iterator();
+            while (keys.hasNext()) {
+                String attrName = keys.next();
+                if (!this.attributesByName.containsKey(attrName)) {
+                    logger.debug("Deleting Attribute from Resource:[{}]", resource.getKey());
+                    keys.remove();
+                }
+            }
+        }
+
+        if (schemaModel.getAllowAll() == null) {
+            schemaModel.setAllowAll(false);
+        }
+        if (this.allowAll) {
+            logger.warn("Allow ALL Is Enable, please fix me!");
+            schemaModel.setIsValid(true);
+            return;
+        }
+
+        try {
+            for (int i = 0; i < this.attributes.length; i++) {
+                CompiledAttribute attribute = this.attributes[i];
+                if (this.requiredMask.get(i)) {
+                    this.validateRequired(attribute, values);
+                } else if (values != null) {
+                    this.validateOptional(attribute, values);
+                }
+            }
+
+            //
+            // Segunda parte valida os atributos da rede, só o typecasting
+            //
+            Map<String, Object> discovery = resource.getDiscoveryAttributes();
+            if (discovery != null && !discovery.isEmpty()) {
+                for (Map.Entry<String, Object> data : discovery.entrySet()) {
+                    CompiledAttribute attribute = this.attributesByName.get(data.getKey());
+                    if (attribute == null) {
+                        throw new AttributeConstraintViolationException("Invalid Discovery Attribute named:[" + data.getKey()
+                                + "] for model: [" + this.schemaName + "]");
+                    }
+                    if (!attribute.discovery) {
+                        throw new AttributeConstraintViolationException(
+                                "Attribute named:[" + data.getKey() + "] is not discovery attribute for model: ["
+                                + this.schemaName + "]");
+                    }
+                    Object converted = attribute.convert(data.getValue());
+                    if (converted != null) {
+                        data.setValue(converted);
+                    }
+                }
+            }
+        } catch (AttributeConstraintViolationException acve) {
+            //
+            // Erro em alguma validação, marca o schemamodel do recurso como inválido
+            //
+            schemaModel.setIsValid(false);
+            throw acve;
+        }
+        //
+        // Se bateu aqui tá tudo certinho :)
+        //
+        schemaModel.setIsValid(true);
+    }
+
+    /**
+     * Default do atributo pronto para ser gravado direto no banco, ou seja o
+     * mesmo valor que a validação colocaria num documento sem o atributo
+     *
+     * @param attributeName
+     * @return null se o atributo não existe, não tem default ou o default não
+     * passa na validação
+     */
+    public Object fillableDefault(String attributeName) {
+        CompiledAttribute attribute = this.attributesByName.get(attributeName);
+        if (attribute == null || !attribute.hasDefault || attribute.defaultError != null) {
+            return null;
+        }
+        if (attribute.required && !attribute.list && attribute.rawRegex != null && !attribute.defaultMatchesRegex) {
+            return null;
+        }
+        try {
+            return attribute.defaultValue();
+        } catch (AttributeConstraintViolationException ex) {
+            return null;
+        }
+    }
+
+    private void validateRequired(CompiledAttribute attribute, Map<String, Object> values) throws AttributeConstraintViolationException {
+        if (values == null) {
+            throw new AttributeConstraintViolationException(
+                    "Missing Required Attribute Named:[" + attribute.name + "]");
+        }
+        if (!values.containsKey(attribute.name)) {
+            if (!attribute.hasDefault) {
+                throw new AttributeConstraintViolationException(
+                        "Missing Required Attribute Named:[" + attribute.name + "]");
+            }
+            Object value = attribute.defaultValue();
+            if (!attribute.list && attribute.rawRegex != null && !attribute.defaultMatchesRegex) {
+                throw new AttributeConstraintViolationException("Value: ["
+                        + attribute.rawDefault + "] does not matches validation regex:["
+                        + attribute.rawRegex + "]");
+            }
+            if (value == null) {
+                throw new AttributeConstraintViolationException(
+                        "Missing Required Attribute Named:[" + attribute.name + "]");
+            }
+            values.put(attribute.name, value);
+        } else {
+            Object value = attribute.convert(values.get(attribute.name));
+            if (value != null) {
+                if (!attribute.list) {
+                    attribute.checkRegex(value);
+                }
+                values.put(attribute.name, value);
+            }
+        }
+    }
+
+    private void validateOptional(CompiledAttribute attribute, Map<String, Object> values) throws AttributeConstraintViolationException {
+        if (!values.containsKey(attribute.name)) {
+            if (attribute.hasDefault) {
+                Object value = attribute.defaultValue();
+                if (value != null) {
+                    values.put(attribute.name, value);
+                }
+            }
+        } else {
+            Object value = attribute.convert(values.get(attribute.name));
+            if (value != null) {
+                attribute.checkRegex(value);
+                values.put(attribute.name, value);
+            }
+        }
+    }
+
+    /**
+     * Um atributo com tudo pré-resolvido
+     */
+    static final class CompiledAttribute {
+
+        private final String name;
+        private final String variableType;
+        private final AttributeType type;
+        private final boolean list;
+        private final boolean required;
+        private final boolean discovery;
+        private final String rawRegex;
+        /**
+         * Regex aplicada nos valores, só existe se validate estiver ligado e a
+         * regex não for vazia
+         */
+        private final Pattern validationPattern;
+        private final String regexError;
+        private final Set<String> allowedValues;
+        private final String allowedValuesText;
+        private final SchemaDateParser dateParser;
+        private final SchemaDateParser dateTimeParser;
+        private final boolean hasDefault;
+        private final String rawDefault;
+        private final Object resolvedDefault;
+        private final AttributeConstraintViolationException defaultError;
+        private final boolean defaultMatchesRegex;
+
+        private CompiledAttribute(ResourceAttributeModel model, SchemaDateParser dateParser, SchemaDateParser dateTimeParser) {
+            this.name = model.getName();
+            this.variableType = model.getVariableType() != null ? model.getVariableType() : "String";
+            this.type = typeOf(this.variableType);
+            this.list = Boolean.TRUE.equals(model.getIsList());
+            this.required = Boolean.TRUE.equals(model.getRequired());
+            this.discovery = Boolean.TRUE.equals(model.getIsDiscovery());
+            this.dateParser = dateParser;
+            this.dateTimeParser = dateTimeParser;
+            this.rawRegex = model.getValidationRegex();
+
+            Pattern pattern = null;
+            String error = null;
+            boolean matchesDefault = true;
+            if (this.rawRegex != null) {
+                try {
+                    Pattern compiled = Pattern.compile(this.rawRegex);
+                    if (Boolean.TRUE.equals(model.getValidate()) && !this.rawRegex.trim().equals("")) {
+                        pattern = compiled;
+                    }
+                    if (model.getDefaultValue() != null) {
+                        matchesDefault = compiled.matcher(model.getDefaultValue()).matches();
+                    }
+                } catch (PatternSyntaxException ex) {
+                    error = ex.getDescription();
+                    matchesDefault = false;
+                }
+            }
+            this.validationPattern = pattern;
+            this.regexError = Boolean.TRUE.equals(model.getValidate()) ? error : null;
+            this.defaultMatchesRegex = matchesDefault;
+
+            if (model.getAllowedValues() != null && !model.getAllowedValues().isEmpty()) {
+                this.allowedValues = Collections.unmodifiableSet(new HashSet<>(model.getAllowedValues()));
+                this.allowedValuesText = String.join(",", model.getAllowedValues());
+            } else {
+                this.allowedValues = null;
+                this.allowedValuesText = null;
+            }
+
+            this.rawDefault = model.getDefaultValue();
+            this.hasDefault = this.rawDefault != null;
+            Object resolved = null;
+            AttributeConstraintViolationException resolveError = null;
+            if (this.hasDefault) {
+                try {
+                    resolved = this.convert(this.rawDefault);
+                } catch (AttributeConstraintViolationException ex) {
+                    resolveError = ex;
+                }
+            }
+            this.resolvedDefault = resolved;
+            this.defaultError = resolveError;
+        }
+
+        private static AttributeType typeOf(String variableType) {
+            switch (variableType.toLowerCase()) {
+                case "string":
+                    return AttributeType.STRING;
+                case "number":
+                    return AttributeType.NUMBER;
+                case "boolean":
+                    return AttributeType.BOOLEAN;
+                case "float":
+                    return AttributeType.FLOAT;
+                case "date":
+                    return AttributeType.DATE;
+                case "datetime":
+                    return AttributeType.DATETIME;
+                case "geoline":
+                    return AttributeType.GEOLINE;
+                default:
+                    return AttributeType.UNKNOWN;
+            }
+        }
+
+        /**
+         * O default já convertido, datas são copiadas pois Date é mutável
+         *
+         * @return
+         * @throws AttributeConstraintViolationException
+         */
+        private Object defaultValue() throws AttributeConstraintViolationException {
+            if (this.defaultError != null) {
+                throw new AttributeConstraintViolationException(this.defaultError.getMessage(), this.defaultError.getCause());
+            }
+            if (this.resolvedDefault instanceof Date) {
+                return new Date(((Date) this.resolvedDefault).getTime());
+            }
+            return this.resolvedDefault;
+        }
+
+        private void checkRegex(Object value) throws AttributeConstraintViolationException {
+            if (this.regexError != null) {
+                throw new AttributeConstraintViolationException("Invalid validation regex:[" + this.rawRegex + "] "
+                        + this.regexError + " for Attribute [" + this.name + "]");
+            }
+            if (this.validationPattern != null) {
+                String stringValue = value.toString();
+                if (!this.validationPattern.matcher(stringValue).matches()) {
+                    throw new AttributeConstraintViolationException(
+                            "Value: [" + stringValue + "] does not matches validation regex:["
+                            + this.rawRegex + "]");
+                }
+            }
+        }
+
+        /**
+         * Converte o valor para o tipo do atributo e confere os valores
+         * permitidos
+         *
+         * @param value
+         * @return
+         * @throws AttributeConstraintViolationException
+         */
+        private Object convert(Object value) throws AttributeConstraintViolationException {
+            if (this.allowedValues != null) {
+                this.checkAllowedValues(value);
+            }
+            try {
+                switch (this.type) {
+                    case STRING:
+                        if (isEmpty(value)) {
+                            return null;
+                        }
+                        if (this.list && value instanceof List) {
+                            return value;
+                        }
+                        if (value instanceof String) {
+                            return value;
+                        }
+                        throw new AttributeConstraintViolationException("Attribute [" + this.name
+                                + "] of type:" + this.variableType + " Does not accpect value: [" + value
+                                + "] of type:" + value.getClass().getCanonicalName());
+                    case NUMBER:
+                        if (isEmpty(value)) {
+                            return null;
+                        }
+                        if ((this.list && value instanceof List) || value instanceof Long) {
+                            return value;
+                        }
+                        String number = value.toString();
+                        if (number.contains(".")) {
+                            return (long) Double.parseDouble(number);
+                        }
+                        return Long.parseLong(number);
+                    case BOOLEAN:
+                        if (this.list && value instanceof List) {
+                            return value;
+                        }
+                        if (isEmpty(value)) {
+                            return false;
+                        }
+                        if (value instanceof Boolean) {
+                            return value;
+                        }
+                        String bool = value.toString();
+                        if (bool.equalsIgnoreCase("true")) {
+                            return true;
+                        } else if (bool.equalsIgnoreCase("false")) {
+                            return false;
+                        }
+                        throw new AttributeConstraintViolationException(
+                                "Attribute [" + this.name + "] of type:"
+                                + this.variableType + " Does not accpect value: [" + value + "]");
+                    case FLOAT:
+                        if (isEmpty(value)) {
+                            return null;
+                        }
+                        if ((this.list && value instanceof List) || value instanceof Float) {
+                            return value;
+                        }
+                        return Float.parseFloat(value.toString());
+                    case DATE:
+                        return this.convertDate(value);
+                    case DATETIME:
+                        if (isEmpty(value)) {
+                            return null;
+                        }
+                        if (this.list && value instanceof List) {
+                            return value;
+                        }
+                        try {
+                            return this.dateTimeParser.parse(value.toString());
+                        } catch (ParseException ex) {
+                            throw new AttributeConstraintViolationException(
+                                    "Attribute [" + this.name + "] of type:"
+                                    + this.variableType + " Cannot Parse Date Time Value : [" + value
+                                    + "] With Mask: [" + this.dateTimeParser.getPattern() + "]", ex);
+                        }
+                    case GEOLINE:
+                        if (isEmpty(value)) {
+                            return null;
+                        }
+                        if (!(value instanceof List)) {
+                            throw new AttributeConstraintViolationException("Attribute [" + this.name + "] of type:"
+                                    + this.variableType + " Does not accpect value: [" + value + "]");
+                        }
+                        return value;
+                    default:
+                        throw new AttributeConstraintViolationException(
+                                "Attribute [" + this.name + "] of type:" + this.variableType + " Cannot be parsed");
+                }
+            } catch (NumberFormatException ex) {
+                throw new AttributeConstraintViolationException("Value: [" + value + "] Cannot be parsed do Number", ex);
+            }
+        }
+
+        private Object convertDate(Object value) throws AttributeConstraintViolationException {
+            if (isEmpty(value)) {
+                return null;
+            }
+            if (this.list && value instanceof List) {
+                List<?> list = (List<?>) value;
+                if (list.isEmpty()) {
+                    return null;
+                }
+                List<Date> dates = new ArrayList<>(list.size());
+                for (Object o : list) {
+                    if (o != null) {
+                        dates.add(this.parseDate(o.toString()));
+                    }
+                }
+                return dates;
+            }
+            String dateValue = value.toString();
+            if (dateValue.trim().equals("")) {
+                return null;
+            }
+            return this.parseDate(dateValue);
+        }
+
+        private Date parseDate(String value) throws AttributeConstraintViolationException {
+            try {
+                return this.dateParser.parseWithFallbacks(value);
+            } catch (ParseException ex) {
+                throw new AttributeConstraintViolationException("Cant Parse Date from Value:[" + value
+                        + "] Prefered Format:[" + this.dateParser.getPattern() + "]");
+            }
+        }
+
+        private void checkAllowedValues(Object value) throws AttributeConstraintViolationException {
+            if (this.list) {
+                //
+                // Model é uma lista, então todos os valores da lista precisam estar no
+                // allowed values.
+                //
+                if (!(value instanceof List)) {
+                    throw new AttributeConstraintViolationException(
+                            "Attribute [" + this.name + "] of type:" + this.variableType
+                            + " Is a List, please send a list , not a scalar value");
+                }
+                for (Object o : (List<?>) value) {
+                    if (o != null && !o.toString().trim().equals("") && !this.allowedValues.contains(o.toString())) {
+                        throw new AttributeConstraintViolationException(
+                                "Attribute [" + this.name + "] of type:"
+                                + this.variableType + " Value : ["
+                                + o.toString() + "] is not allowed here Allowed vars are:["
+                                + this.allowedValuesText + "]");
+                    }
+                }
+            } else if (value != null && !value.toString().trim().equals("") && !this.allowedValues.contains(value.toString())) {
+                throw new AttributeConstraintViolationException(
+                        "Attribute [" + this.name + "] of type:" + this.variableType
+                        + " Value : ["
+                        + value + "] is not allowed here Allowed vars are:["
+                        + this.allowedValuesText + "]");
+            }
+        }
+
+        private static boolean isEmpty(Object value) {
+            return value == null || (value instanceof String ? ((String) value).isEmpty() : value.toString().equals(""));
+        }
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.manager.schema;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Catálogo dos schemas para listagens, autocomplete e consultas de herança.
+ * <p>
+ * Mantém um {@link SchemaCatalogIndex} do snapshot atual do registry e só o
+ * reconstrói quando o registry publica uma versão nova, as leituras não usam
+ * lock.
+ *
+ * @author Lucas Nishimura
+ * @created 19.10.2026
+ */
+@Component
+public class SchemaCatalog {
+
+    @Autowired
+    private SchemaRegistry schemaRegistry;
+
+    private volatile SchemaCatalogIndex index;
+
+    /**
+     * @return o índice da versão atual do registry
+     */
+    public SchemaCatalogIndex current() {
+        SchemaCatalogIndex current = this.index;
+        long version = this.schemaRegistry.getVersion();
+        if (current != null && current.getVersion() == version) {
+            return current;
+        }
+        synchronized (this) {
+            current = this.index;
+            if (current == null || current.getVersion() != version) {
+                current = SchemaCatalogIndex.of(this.schemaRegistry.asMap(), version);
+                this.index = current;
+            }
+            return current;
+        }
+    }
+}
@@ -0,0 +1,359 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.manager.schema;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import com.osstelecom.db.inventory.manager.resources.model.ResourceSchemaModel;
+
+/**
+ * Índice imutável de um snapshot do {@link SchemaRegistry}.
+ * <p>
+ * Os nomes listáveis ficam num array ordenado com uma trie por cima, cada nó
+ * da trie guarda o intervalo do array com o seu prefixo, então a busca por
+ * prefixo custa o tamanho do prefixo e devolve uma view sem cópia. Também
+ * guarda os filhos diretos de cada schema, a cadeia de ancestrais e os
+ * schemas já ordenados pelos campos de ordenação da listagem. Todas as listas
+ * retornadas são imutáveis.
+ *
+ * @author Lucas Nishimura
+ * @created 19.10.2026
+ */
+public final class SchemaCatalogIndex {
+
+    /**
+     * Árvores de schema que aparecem nas listagens
+     */
+    private static final String[] LISTABLE_TREES = {"resource", "location", "connection", "service", "circuit"};
+
+    private static final String DEFAULT_SORT = "schemaName";
+
+    private static final Map<String, Comparator<ResourceSchemaModel>> SORTS = new HashMap<>();
+
+    static {
+        SORTS.put(DEFAULT_SORT, Comparator.comparing(ResourceSchemaModel::getSchemaName));
+        SORTS.put("fromSchema", nullsFirst(ResourceSchemaModel::getFromSchema));
+        SORTS.put("author", nullsFirst(ResourceSchemaModel::getAuthor));
+        SORTS.put("owner", nullsFirst(ResourceSchemaModel::getOwner));
+        SORTS.put("creationDate", nullsFirst(ResourceSchemaModel::getCreationDate));
+        SORTS.put("lastUpdate", nullsFirst(ResourceSchemaModel::getLastUpdate));
+    }
+
+    private final long version;
+    private final String[] names;
+    private final List<String> nameList;
+    private final PrefixTrie trie;
+    private final Map<String, List<ResourceSchemaModel>> sorted;
+    private final Map<String, List<String>> children;
+    private final Map<String, List<String>> ancestors;
+
+    private SchemaCatalogIndex(long version, Map<String, ResourceSchemaModel> schemas) {
+        this.version = version;
+        List<ResourceSchemaModel> listable = new ArrayList<>();
+        Map<String, List<String>> childrenIndex = new HashMap<>();
+        Map<String, String> parents = new HashMap<>();
+        for (ResourceSchemaModel schema : schemas.values()) {
+            String name = schema.getSchemaName();
+            if (name == null) {
+                continue;
+            }
+            String parent = parentOf(schema);
+            if (parent != null) {
+                parents.put(name, parent);
+                childrenIndex.computeIfAbsent(parent, p -> new ArrayList<>()).add(name);
+            }
+            if (isListable(name)) {
+                //
+                // A listagem sempre mostrou datas ausentes como 0, feito aqui
+                // uma vez por snapshot
+                //
+                if (schema.getCreationDate() == null) {
+                    schema.setCreationDate(new Date(0));
+                }
+                if (schema.getLastUpdate() == null) {
+                    schema.setLastUpdate(new Date(0));
+                }
+                listable.add(schema);
+            }
+        }
+        listable.sort(SORTS.get(DEFAULT_SORT));
+        this.names = listable.stream().map(ResourceSchemaModel::getSchemaName).toArray(String[]::new);
+        this.nameList = Collections.unmodifiableList(Arrays.asList(this.names));
+        this.trie = new PrefixTrie(this.names);
+
+        Map<String, List<ResourceSchemaModel>> sortedIndex = new HashMap<>();
+        SORTS.forEach((field, comparator) -> {
+            List<ResourceSchemaModel> copy = new ArrayList<>(listable);
+            //
+            // Ordenação estável, o nome desempata
+            //
+            copy.sort(comparator);
+            sortedIndex.put(field, Collections.unmodifiableList(copy));
+        });
+        this.sorted = sortedIndex;
+
+        Map<String, List<String>> childrenResult = new HashMap<>();
+        childrenIndex.forEach((parent, list) -> {
+            Collections.sort(list);
+            childrenResult.put(parent, Collections.unmodifiableList(list));
+        });
+        this.children = childrenResult;
+
+        Map<String, List<String>> ancestorsResult = new HashMap<>();
+        for (String name : schemas.keySet()) {
+            List<String> chain = new ArrayList<>();
+            String parent = parents.get(name);
+            while (parent != null && !chain.contains(parent) && !parent.equals(name)) {
+                chain.add(parent);
+                parent = parents.get(parent);
+            }
+            ancestorsResult.put(name, Collections.unmodifiableList(chain));
+        }
+        this.ancestors = ancestorsResult;
+    }
+
+    /**
+     * @param schemas nome -> schema merged
+     * @param version versão do registry que originou o índice
+     * @return
+     */
+    public static SchemaCatalogIndex of(Map<String, ResourceSchemaModel> schemas, long version) {
+        return new SchemaCatalogIndex(version, schemas);
+    }
+
+    public long getVersion() {
+        return this.version;
+    }
+
+    /**
+     * @return os nomes listáveis, ordenados
+     */
+    public List<String> names() {
+        return this.nameList;
+    }
+
+    /**
+     * @param prefix
+     * @return os nomes listáveis com o prefixo, ordenados
+     */
+    public List<String> namesStartingWith(String prefix) {
+        int[] range = this.trie.range(prefix != null ? prefix : "");
+        return this.nameList.subList(range[0], range[1]);
+    }
+
+    /**
+     * @param prefix
+     * @param limit
+     * @return até limit nomes com o prefixo
+     */
+    public List<String> autocomplete(String prefix, int limit) {
+        List<String> result = this.namesStartingWith(prefix);
+        return limit >= 0 && result.size() > limit ? result.subList(0, limit) : result;
+    }
+
+    /**
+     * @param schemaName
+     * @return os filhos diretos
+     */
+    public List<String> children(String schemaName) {
+        return this.children.getOrDefault(schemaName, Collections.emptyList());
+    }
+
+    /**
+     * @param schemaName
+     * @return do pai até a raiz
+     */
+    public List<String> ancestors(String schemaName) {
+        return this.ancestors.getOrDefault(schemaName, Collections.emptyList());
+    }
+
+    /**
+     * @param schemaName
+     * @return todos os descendentes, em largura
+     */
+    public List<String> descendants(String schemaName) {
+        List<String> result = new ArrayList<>(this.children(schemaName));
+        for (int i = 0; i < result.size(); i++) {
+            for (String child : this.children(result.get(i))) {
+                if (!result.contains(child)) {
+                    result.add(child);
+                }
+            }
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Página dos schemas listáveis
+     *
+     * @param prefix só nomes com este prefixo, null para todos
+     * @param contains só nomes que contém o texto, null ou "*" para todos
+     * @param sortField campo de ordenação, schemaName se desconhecido
+     * @param direction asc ou desc
+     * @param page
+     * @param size
+     * @return
+     */
+    public Page<ResourceSchemaModel> list(String prefix, String contains, String sortField, String direction, int page, int size) {
+        PageRequest pageRequest = PageRequest.of(page, size);
+        List<ResourceSchemaModel> ordered = this.sorted.get(sortField != null && SORTS.containsKey(sortField) ? sortField : DEFAULT_SORT);
+        boolean descending = "desc".equalsIgnoreCase(direction);
+        boolean byPrefix = prefix != null && !prefix.isEmpty();
+        boolean byContains = contains != null && !contains.isEmpty() && !contains.equals("*");
+        int start = (int) pageRequest.getOffset();
+        if (!byPrefix && !byContains) {
+            return slice(ordered, descending, start, size, pageRequest);
+        }
+        //
+        // Com filtro percorre a ordem já pronta, sem ordenar de novo
+        //
+        List<ResourceSchemaModel> content = new ArrayList<>(Math.min(size, 64));
+        int total = 0;
+        int count = ordered.size();
+        for (int i = 0; i < count; i++) {
+            ResourceSchemaModel schema = ordered.get(descending ? count - 1 - i : i);
+            String name = schema.getSchemaName();
+            if ((byPrefix && !name.startsWith(prefix)) || (byContains && !name.contains(contains))) {
+                continue;
+            }
+            if (total >= start && content.size() < size) {
+                content.add(schema);
+            }
+            total++;
+        }
+        return new PageImpl<>(Collections.unmodifiableList(content), pageRequest, total);
+    }
+
+    private static Page<ResourceSchemaModel> slice(List<ResourceSchemaModel> ordered, boolean descending, int start, int size,
+            PageRequest pageRequest) {
+        int total = ordered.size();
+        int from = Math.min(start, total);
+        int to = Math.min(from + size, total);
+        List<ResourceSchemaModel> content;
+        if (descending) {
+            List<ResourceSchemaModel> reversed = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                reversed.add(ordered.get(total - 1 - i));
+            }
+            content = Collections.unmodifiableList(reversed);
+        } else {
+            content = ordered.subList(from, to);
+        }
+        return new PageImpl<>(content, pageRequest, total);
+    }
+
+    private static boolean isListable(String schemaName) {
+        for (String tree : LISTABLE_TREES) {
+            if (schemaName.startsWith(tree)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String parentOf(ResourceSchemaModel schema) {
+        String fromSchema = schema.getFromSchema();
+        if (fromSchema == null || fromSchema.equals(".")) {
+            return null;
+        }
+        return fromSchema.replace("/", ".");
+    }
+
+    private static <U extends Comparable<? super U>> Comparator<ResourceSchemaModel> nullsFirst(
+            Function<ResourceSchemaModel, U> field) {
+        return Comparator.comparing(field, Comparator.nullsFirst(Comparator.<U>naturalOrder()))
+                .thenComparing(ResourceSchemaModel::getSchemaName);
+    }
+
+    /**
+     * Trie sobre um array de nomes ordenado. Como a entrada é ordenada, os
+     * filhos de um nó chegam em ordem e cada nó cobre um intervalo contínuo do
+     * array.
+     */
+    private static final class PrefixTrie {
+
+        private final Node root = new Node(0);
+
+        private PrefixTrie(String[] sortedNames) {
+            for (int i = 0; i < sortedNames.length; i++) {
+                Node node = this.root;
+                node.to = i + 1;
+                String name = sortedNames[i];
+                for (int c = 0; c < name.length(); c++) {
+                    node = node.childFor(name.charAt(c), i);
+                    node.to = i + 1;
+                }
+            }
+        }
+
+        /**
+         * @param prefix
+         * @return [from, to) no array de nomes
+         */
+        private int[] range(String prefix) {
+            Node node = this.root;
+            for (int c = 0; c < prefix.length() && node != null; c++) {
+                node = node.find(prefix.charAt(c));
+            }
+            return node == null ? new int[]{0, 0} : new int[]{node.from, node.to};
+        }
+
+        private static final class Node {
+
+            private char[] labels = new char[0];
+            private Node[] children = new Node[0];
+            private final int from;
+            private int to;
+
+            private Node(int from) {
+                this.from = from;
+                this.to = from;
+            }
+
+            private Node childFor(char label, int index) {
+                int last = this.labels.length - 1;
+                if (last >= 0 && this.labels[last] == label) {
+                    return this.children[last];
+                }
+                Node child = new Node(index);
+                this.labels = Arrays.copyOf(this.labels, last + 2);
+                this.children = Arrays.copyOf(this.children, last + 2);
+                this.labels[last + 1] = label;
+                this.children[last + 1] = child;
+                return child;
+            }
+
+            private Node find(char label) {
+                int position = Arrays.binarySearch(this.labels, label);
+                return position >= 0 ? this.children[position] : null;
+            }
+        }
+    }
+}
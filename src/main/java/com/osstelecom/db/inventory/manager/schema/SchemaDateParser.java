@@ -0,0 +1,160 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.manager.schema;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.ResolverStyle;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+import java.util.Date;
+
+/**
+ * Parser de datas thread-safe para os atributos Date/DateTime dos schemas.
+ * <p>
+ * O formato configurado é convertido uma vez em um {@link DateTimeFormatter}
+ * estrito, que atende a grande maioria dos valores sem criar objetos. Se o
+ * formato não puder ser convertido ou o valor não casar com ele, cai no
+ * {@link SimpleDateFormat} não leniente como antes, então o resultado aceito é
+ * sempre o mesmo do caminho antigo.
+ *
+ * @author Lucas Nishimura
+ * @created 19.10.2026
+ */
+public final class SchemaDateParser {
+
+    private static final DateTimeFormatter ISO_WITH_OFFSET = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSX");
+
+    private final String pattern;
+    private final DateTimeFormatter formatter;
+
+    public SchemaDateParser(String pattern) {
+        this.pattern = pattern;
+        this.formatter = toFormatter(pattern);
+    }
+
+    public String getPattern() {
+        return this.pattern;
+    }
+
+    /**
+     * Parse estrito no formato configurado (DateTime)
+     *
+     * @param value
+     * @return
+     * @throws ParseException
+     */
+    public Date parse(String value) throws ParseException {
+        Date fast = this.parseFast(value);
+        if (fast != null) {
+            return fast;
+        }
+        SimpleDateFormat sdf = new SimpleDateFormat(this.pattern);
+        sdf.setLenient(false);
+        return sdf.parse(value);
+    }
+
+    /**
+     * Parse no formato configurado com as alternativas ISO aceitas pelos
+     * atributos Date
+     *
+     * @param value
+     * @return
+     * @throws ParseException
+     */
+    public Date parseWithFallbacks(String value) throws ParseException {
+        try {
+            return this.parse(value);
+        } catch (ParseException ex) {
+            SimpleDateFormat sdf1 = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS");
+            try {
+                return sdf1.parse(value);
+            } catch (ParseException ex1) {
+                try {
+                    return Date.from(Instant.from(ISO_WITH_OFFSET.parse(value)));
+                } catch (DateTimeException ex2) {
+                    throw ex;
+                }
+            }
+        }
+    }
+
+    private Date parseFast(String value) {
+        if (this.formatter == null) {
+            return null;
+        }
+        try {
+            TemporalAccessor parsed = this.formatter.parse(value);
+            LocalDateTime dateTime;
+            if (parsed.isSupported(ChronoField.HOUR_OF_DAY)) {
+                dateTime = LocalDateTime.from(parsed);
+            } else {
+                dateTime = LocalDate.from(parsed).atStartOfDay();
+            }
+            return Date.from(dateTime.atZone(ZoneId.systemDefault()).toInstant());
+        } catch (DateTimeException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Só padrões simples de data/hora (d, M, yyyy, H, m, s, SSS e literais)
+     * vão para o caminho rápido, onde o significado das letras é o mesmo nas
+     * duas APIs. O resto fica com o SimpleDateFormat.
+     *
+     * @param pattern
+     * @return
+     */
+    private static DateTimeFormatter toFormatter(String pattern) {
+        if (pattern == null) {
+            return null;
+        }
+        boolean quoted = false;
+        StringBuilder converted = new StringBuilder();
+        char[] chars = pattern.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            char c = chars[i];
+            if (c == '\'') {
+                quoted = !quoted;
+            } else if (!quoted && Character.isLetter(c)) {
+                if ("dMyHmsS".indexOf(c) < 0) {
+                    return null;
+                }
+                int run = 1;
+                while (i + run < chars.length && chars[i + run] == c) {
+                    run++;
+                }
+                if ((c == 'y' && run != 4) || (c == 'S' && run != 3)) {
+                    return null;
+                }
+            }
+            converted.append(!quoted && c == 'y' ? 'u' : c);
+        }
+        try {
+            return DateTimeFormatter.ofPattern(converted.toString()).withResolverStyle(ResolverStyle.STRICT);
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.manager.schema;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+
+import com.osstelecom.db.inventory.manager.resources.model.ResourceAttributeModel;
+import com.osstelecom.db.inventory.manager.resources.model.ResourceSchemaModel;
+
+/**
+ * Compara duas revisões merged de um schema e monta a migração mínima.
+ * <p>
+ * Atributos iguais nos campos da revisão ({@link SchemaRevision#sameAttribute})
+ * não geram trabalho, então mudanças só de descrição, displayName etc. são
+ * no-op. Para os demais:
+ * <ul>
+ * <li>atributo novo com default válido: preenchido no banco onde falta;</li>
+ * <li>atributo novo obrigatório sem default: revalida quem não tem;</li>
+ * <li>atributo removido: removido no banco;</li>
+ * <li>tipo, lista, regex ou valores permitidos alterados: revalida quem
+ * tem;</li>
+ * <li>required ou default alterados: preenche ou revalida quem não tem.</li>
+ * </ul>
+ * Trocar o allowAll, ou não conhecer a revisão anterior, revalida tudo.
+ *
+ * @author Lucas Nishimura
+ * @created 19.10.2026
+ */
+public final class SchemaDiff {
+
+    private SchemaDiff() {
+    }
+
+    /**
+     * @param previous revisão que os documentos seguem, null se desconhecida
+     * @param current revisão nova
+     * @param validator validador compilado da revisão nova, resolve os
+     * defaults
+     * @return
+     */
+    public static SchemaMigrationPlan between(ResourceSchemaModel previous, ResourceSchemaModel current,
+            CompiledSchemaValidator validator) {
+        if (previous == null || isAllowAll(previous) != isAllowAll(current)) {
+            return SchemaMigrationPlan.fullRevalidation();
+        }
+        SchemaMigrationPlan plan = new SchemaMigrationPlan();
+        Map<String, ResourceAttributeModel> before = attributesOf(previous);
+        Map<String, ResourceAttributeModel> after = attributesOf(current);
+        TreeSet<String> names = new TreeSet<>(before.keySet());
+        names.addAll(after.keySet());
+        for (String name : names) {
+            ResourceAttributeModel oldAttribute = before.get(name);
+            ResourceAttributeModel newAttribute = after.get(name);
+            if (newAttribute == null) {
+                plan.getRemoved().add(name);
+                if (isTrue(oldAttribute.getIsDiscovery())) {
+                    plan.getRevalidateDiscovery().add(name);
+                }
+            } else if (isAllowAll(current)) {
+                //
+                // Com allowAll a validação só remove chaves desconhecidas
+                //
+                continue;
+            } else if (oldAttribute == null) {
+                fillOrRevalidateMissing(plan, name, newAttribute, false, validator);
+            } else if (!SchemaRevision.sameAttribute(oldAttribute, newAttribute)) {
+                boolean valueRulesChanged = !Objects.equals(oldAttribute.getVariableType(), newAttribute.getVariableType())
+                        || isTrue(oldAttribute.getIsList()) != isTrue(newAttribute.getIsList())
+                        || isTrue(oldAttribute.getValidate()) != isTrue(newAttribute.getValidate())
+                        || !Objects.equals(oldAttribute.getValidationRegex(), newAttribute.getValidationRegex())
+                        || !Objects.equals(oldAttribute.getAllowedValues(), newAttribute.getAllowedValues());
+                if (valueRulesChanged) {
+                    plan.getRevalidatePresent().add(name);
+                }
+                if (isTrue(oldAttribute.getIsDiscovery()) != isTrue(newAttribute.getIsDiscovery())
+                        || (valueRulesChanged && isTrue(newAttribute.getIsDiscovery()))) {
+                    plan.getRevalidateDiscovery().add(name);
+                }
+                if (isTrue(oldAttribute.getRequired()) != isTrue(newAttribute.getRequired())
+                        || !Objects.equals(oldAttribute.getDefaultValue(), newAttribute.getDefaultValue())) {
+                    fillOrRevalidateMissing(plan, name, newAttribute, isTrue(oldAttribute.getRequired()), validator);
+                }
+            }
+        }
+        return plan;
+    }
+
+    /**
+     * Documentos sem o atributo: recebem o default no banco se ele for válido,
+     * senão são revalidados quando o resultado da validação pode mudar
+     */
+    private static void fillOrRevalidateMissing(SchemaMigrationPlan plan, String name, ResourceAttributeModel attribute,
+            boolean wasRequired, CompiledSchemaValidator validator) {
+        Object defaultValue = validator.fillableDefault(name);
+        if (defaultValue != null) {
+            plan.getDefaults().put(name, defaultValue);
+        } else if (isTrue(attribute.getRequired()) || wasRequired || attribute.getDefaultValue() != null) {
+            plan.getRevalidateMissing().add(name);
+        }
+    }
+
+    private static Map<String, ResourceAttributeModel> attributesOf(ResourceSchemaModel model) {
+        return model.getAttributes() != null ? model.getAttributes() : Collections.emptyMap();
+    }
+
+    private static boolean isAllowAll(ResourceSchemaModel model) {
+        return isTrue(model.getAllowAll());
+    }
+
+    private static boolean isTrue(Boolean value) {
+        return Boolean.TRUE.equals(value);
+    }
+}
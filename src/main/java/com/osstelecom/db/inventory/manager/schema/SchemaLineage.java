@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.manager.schema;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Herança já achatada de um schema, imutável.
+ * <p>
+ * Para cada atributo guarda os schemas da cadeia que o declaram, do mais
+ * próximo para a raiz: o primeiro é quem vale (definiu ou sobrescreveu) e o
+ * último é onde o atributo nasceu. Atributos apenas herdados reaproveitam a
+ * lista do pai, então a cadeia inteira ocupa pouco mais que os atributos
+ * declarados em cada nível.
+ *
+ * @author Lucas Nishimura
+ * @created 19.10.2026
+ */
+public final class SchemaLineage {
+
+    private final String schemaName;
+    private final List<String> ancestors;
+    private final Map<String, List<String>> attributes;
+
+    SchemaLineage(String schemaName, List<String> ancestors, Map<String, List<String>> attributes) {
+        this.schemaName = schemaName;
+        this.ancestors = Collections.unmodifiableList(ancestors);
+        this.attributes = Collections.unmodifiableMap(attributes);
+    }
+
+    /**
+     * Lineage de um schema a partir da do pai
+     *
+     * @param schemaName
+     * @param declared atributos declarados no próprio schema
+     * @param parent null se for raiz
+     * @return
+     */
+    static SchemaLineage of(String schemaName, Iterable<String> declared, SchemaLineage parent) {
+        List<String> ancestors = new ArrayList<>();
+        Map<String, List<String>> attributes = new HashMap<>();
+        if (parent != null) {
+            ancestors.add(parent.schemaName);
+            ancestors.addAll(parent.ancestors);
+            attributes.putAll(parent.attributes);
+        }
+        for (String attribute : declared) {
+            List<String> inherited = attributes.getOrDefault(attribute, Collections.emptyList());
+            List<String> declarers = new ArrayList<>(inherited.size() + 1);
+            declarers.add(schemaName);
+            declarers.addAll(inherited);
+            attributes.put(attribute, Collections.unmodifiableList(declarers));
+        }
+        return new SchemaLineage(schemaName, ancestors, attributes);
+    }
+
+    public String getSchemaName() {
+        return this.schemaName;
+    }
+
+    /**
+     * @return do pai até a raiz
+     */
+    public List<String> getAncestors() {
+        return this.ancestors;
+    }
+
+    /**
+     * @return atributo -> schemas que o declaram, do mais próximo para a raiz
+     */
+    public Map<String, List<String>> getAttributes() {
+        return this.attributes;
+    }
+
+    /**
+     * @param attributeName
+     * @return o schema cuja definição do atributo vale, null se não existe
+     */
+    public String definedBy(String attributeName) {
+        List<String> declarers = this.attributes.get(attributeName);
+        return declarers == null ? null : declarers.get(0);
+    }
+
+    /**
+     * @param attributeName
+     * @return true se o atributo foi redefinido abaixo de onde nasceu
+     */
+    public boolean isOverridden(String attributeName) {
+        List<String> declarers = this.attributes.get(attributeName);
+        return declarers != null && declarers.size() > 1;
+    }
+}
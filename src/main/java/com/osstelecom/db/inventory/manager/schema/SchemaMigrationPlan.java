@@ -0,0 +1,185 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.manager.schema;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A migração mínima entre duas revisões de um schema, resultado do
+ * {@link SchemaDiff}.
+ * <p>
+ * Defaults e remoções são aplicados direto no banco, sem ler os documentos.
+ * A revalidação em Java só acontece nos documentos que têm (ou não têm) os
+ * atributos listados. Se {@code full} estiver ligado todos os documentos do
+ * schema são revalidados. É persistido junto com o checkpoint da propagação.
+ *
+ * @author Lucas Nishimura
+ * @created 19.10.2026
+ */
+public class SchemaMigrationPlan {
+
+    /**
+     * Revalida todos os documentos do schema
+     */
+    private Boolean full = false;
+    /**
+     * Atributo -> default já convertido, gravado onde o atributo não existe
+     */
+    private Map<String, Object> defaults = new LinkedHashMap<>();
+    /**
+     * Atributos que saíram do schema, removidos dos documentos
+     */
+    private List<String> removed = new ArrayList<>();
+    /**
+     * Revalida os documentos que possuem estes atributos
+     */
+    private List<String> revalidatePresent = new ArrayList<>();
+    /**
+     * Revalida os documentos que não possuem estes atributos
+     */
+    private List<String> revalidateMissing = new ArrayList<>();
+    /**
+     * Revalida os documentos que possuem estes atributos de discovery
+     */
+    private List<String> revalidateDiscovery = new ArrayList<>();
+
+    public static SchemaMigrationPlan fullRevalidation() {
+        SchemaMigrationPlan plan = new SchemaMigrationPlan();
+        plan.setFull(true);
+        return plan;
+    }
+
+    /**
+     * @return true se nenhum documento precisa ser tocado
+     */
+    public boolean isNoop() {
+        return !Boolean.TRUE.equals(this.full) && !this.hasAttributeChanges() && !this.needsRevalidation();
+    }
+
+    /**
+     * @return true se há defaults ou remoções para aplicar no banco
+     */
+    public boolean hasAttributeChanges() {
+        return !this.defaults.isEmpty() || !this.removed.isEmpty();
+    }
+
+    /**
+     * @return true se algum documento precisa ser revalidado
+     */
+    public boolean needsRevalidation() {
+        return Boolean.TRUE.equals(this.full) || !this.revalidatePresent.isEmpty()
+                || !this.revalidateMissing.isEmpty() || !this.revalidateDiscovery.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        if (Boolean.TRUE.equals(this.full)) {
+            return "Full Revalidation";
+        }
+        return "Defaults:" + this.defaults.keySet() + " Removed:" + this.removed
+                + " Revalidate Present:" + this.revalidatePresent + " Missing:" + this.revalidateMissing
+                + " Discovery:" + this.revalidateDiscovery;
+    }
+
+    /**
+     * @return the full
+     */
+    public Boolean getFull() {
+        return full;
+    }
+
+    /**
+     * @param full the full to set
+     */
+    public void setFull(Boolean full) {
+        this.full = full;
+    }
+
+    /**
+     * @return the defaults
+     */
+    public Map<String, Object> getDefaults() {
+        return defaults;
+    }
+
+    /**
+     * @param defaults the defaults to set
+     */
+    public void setDefaults(Map<String, Object> defaults) {
+        this.defaults = defaults != null ? defaults : new LinkedHashMap<>();
+    }
+
+    /**
+     * @return the removed
+     */
+    public List<String> getRemoved() {
+        return removed;
+    }
+
+    /**
+     * @param removed the removed to set
+     */
+    public void setRemoved(List<String> removed) {
+        this.removed = removed != null ? removed : new ArrayList<>();
+    }
+
+    /**
+     * @return the revalidatePresent
+     */
+    public List<String> getRevalidatePresent() {
+        return revalidatePresent;
+    }
+
+    /**
+     * @param revalidatePresent the revalidatePresent to set
+     */
+    public void setRevalidatePresent(List<String> revalidatePresent) {
+        this.revalidatePresent = revalidatePresent != null ? revalidatePresent : new ArrayList<>();
+    }
+
+    /**
+     * @return the revalidateMissing
+     */
+    public List<String> getRevalidateMissing() {
+        return revalidateMissing;
+    }
+
+    /**
+     * @param revalidateMissing the revalidateMissing to set
+     */
+    public void setRevalidateMissing(List<String> revalidateMissing) {
+        this.revalidateMissing = revalidateMissing != null ? revalidateMissing : new ArrayList<>();
+    }
+
+    /**
+     * @return the revalidateDiscovery
+     */
+    public List<String> getRevalidateDiscovery() {
+        return revalidateDiscovery;
+    }
+
+    /**
+     * @param revalidateDiscovery the revalidateDiscovery to set
+     */
+    public void setRevalidateDiscovery(List<String> revalidateDiscovery) {
+        this.revalidateDiscovery = revalidateDiscovery != null ? revalidateDiscovery : new ArrayList<>();
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.manager.schema;
+
+import java.util.ArrayList;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.arangodb.internal.velocypack.VPackDriverModule;
+import com.arangodb.velocypack.VPack;
+import com.arangodb.velocypack.VPackDeserializer;
+import com.arangodb.velocypack.VPackSerializer;
+import com.arangodb.velocypack.VPackSlice;
+import com.arangodb.velocypack.ValueType;
+import com.osstelecom.db.inventory.manager.resources.model.ResourceSchemaModel;
+
+/**
+ * Serialização do schemaModel dos recursos no Arango.
+ * <p>
+ * No modo REFERENCE o schemaModel vira {schemaName, revision, isValid}, em
+ * vez do modelo inteiro com atributos e regras. A revisão é a com que o
+ * isValid foi calculado. Na leitura a referência é reidratada pelo
+ * {@link SchemaRegistry}, sem I/O, mantendo a revisão gravada; se ela não é a
+ * atual e a propagação do schema ainda está em curso o modelo sai com
+ * revalidationPending. Documentos antigos, com o modelo embutido, continuam
+ * sendo lidos normalmente, então os dois formatos podem conviver durante a
+ * migração.
+ *
+ * @author Lucas Nishimura
+ * @created 19.10.2026
+ */
+public class SchemaReferenceCodec {
+
+    public static final String MODE_EMBEDDED = "EMBEDDED";
+    public static final String MODE_REFERENCE = "REFERENCE";
+
+    static final String SCHEMA_NAME = "schemaName";
+    static final String REVISION = "revision";
+    static final String IS_VALID = "isValid";
+    static final String ATTRIBUTES = "attributes";
+
+    private final Logger logger = LoggerFactory.getLogger(SchemaReferenceCodec.class);
+
+    private final SchemaRegistry schemaRegistry;
+
+    /**
+     * Decoder sem este codec registrado, para os documentos com o modelo
+     * embutido
+     */
+    private final VPack embeddedDecoder = new VPack.Builder().registerModule(new VPackDriverModule()).build();
+
+    public SchemaReferenceCodec(SchemaRegistry schemaRegistry) {
+        this.schemaRegistry = schemaRegistry;
+    }
+
+    /**
+     * @return serializer que grava só a referência do schema
+     */
+    public VPackSerializer<ResourceSchemaModel> referenceSerializer() {
+        return (builder, attribute, value, context) -> {
+            builder.add(attribute, ValueType.OBJECT);
+            builder.add(SCHEMA_NAME, value.getSchemaName());
+            //
+            // A revisão da última validação, ou a do registro se o modelo não
+            // passou por uma
+            //
+            builder.add(REVISION, value.getRevision() != null ? value.getRevision() : this.schemaRegistry.getRevision(value));
+            builder.add(IS_VALID, value.getIsValid());
+            builder.close();
+        };
+    }
+
+    /**
+     * @return deserializer que aceita tanto a referência quanto o modelo
+     * embutido
+     */
+    public VPackDeserializer<ResourceSchemaModel> deserializer() {
+        return (parent, vpack, context) -> {
+            if (!vpack.get(ATTRIBUTES).isNone()) {
+                return this.embeddedDecoder.deserialize(vpack, ResourceSchemaModel.class);
+            }
+            VPackSlice name = vpack.get(SCHEMA_NAME);
+            VPackSlice revision = vpack.get(REVISION);
+            VPackSlice isValid = vpack.get(IS_VALID);
+            return this.resolve(name.isString() ? name.getAsString() : null,
+                    revision.isString() ? revision.getAsString() : null,
+                    isValid.isBoolean() ? isValid.getAsBoolean() : Boolean.TRUE);
+        };
+    }
+
+    /**
+     * Reidrata uma referência. Os atributos são os do registry, compartilhados;
+     * a revisão e o isValid são do documento
+     *
+     * @param schemaName
+     * @param revision
+     * @param isValid
+     * @return
+     */
+    private ResourceSchemaModel resolve(String schemaName, String revision, Boolean isValid) {
+        ResourceSchemaModel current = schemaName != null ? this.schemaRegistry.asMap().get(schemaName) : null;
+        if (current == null) {
+            logger.warn("Schema Reference:[{}] not Found on Registry", schemaName);
+            ResourceSchemaModel result = new ResourceSchemaModel();
+            result.setSchemaName(schemaName);
+            result.setRevision(revision);
+            result.setIsValid(false);
+            return result;
+        }
+        ResourceSchemaModel result = sharedCopy(current);
+        result.setIsValid(isValid);
+        result.setRevision(revision);
+        if (this.schemaRegistry.isRevalidationPending(schemaName, revision)) {
+            result.setRevalidationPending(true);
+        }
+        return result;
+    }
+
+    /**
+     * Cópia rasa do modelo do registry, os atributos são compartilhados e não
+     * devem ser alterados. Serve para que cada documento tenha o seu próprio
+     * isValid.
+     *
+     * @param current
+     * @return
+     */
+    public static ResourceSchemaModel sharedCopy(ResourceSchemaModel current) {
+        ResourceSchemaModel result = new ResourceSchemaModel();
+        result.setSchemaName(current.getSchemaName());
+        result.setIsValid(current.getIsValid());
+        result.setFromSchema(current.getFromSchema());
+        result.setOwner(current.getOwner());
+        result.setAuthor(current.getAuthor());
+        result.setAllowAll(current.getAllowAll());
+        result.setGraphItemColor(current.getGraphItemColor());
+        result.setCreationDate(current.getCreationDate());
+        result.setLastUpdate(current.getLastUpdate());
+        result.setAttributes(current.getAttributes());
+        result.setChildrenSchemas(current.getChildrenSchemas() != null ? new ArrayList<>(current.getChildrenSchemas()) : null);
+        result.setRelatedSchemas(current.getRelatedSchemas() != null ? new ArrayList<>(current.getRelatedSchemas()) : null);
+        return result;
+    }
+}
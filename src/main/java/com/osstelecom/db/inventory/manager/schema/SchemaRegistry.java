@@ -0,0 +1,772 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.manager.schema;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.google.gson.JsonParseException;
+import com.osstelecom.db.inventory.manager.configuration.ConfigurationManager;
+import com.osstelecom.db.inventory.manager.configuration.InventoryConfiguration;
+import com.osstelecom.db.inventory.manager.exception.GenericException;
+import com.osstelecom.db.inventory.manager.exception.SchemaNotFoundException;
+import com.osstelecom.db.inventory.manager.operation.ManagedExecutorService;
+import com.osstelecom.db.inventory.manager.resources.model.ResourceAttributeModel;
+import com.osstelecom.db.inventory.manager.resources.model.ResourceSchemaModel;
+import com.osstelecom.db.inventory.manager.session.UtilSession;
+
+/**
+ * Registro em memória de todos os schemas do schemaDir, já com a herança
+ * resolvida.
+ * <p>
+ * A árvore inteira é lida e ligada uma vez no startup. Depois disso a leitura
+ * de um schema é só um get num mapa imutável, nunca vai ao disco. Um
+ * {@link WatchService} observa o diretório e, quando um arquivo muda, só o
+ * schema alterado e os seus descendentes são reconstruídos em background. O
+ * resultado é publicado trocando o snapshot inteiro (copy-on-write), então
+ * quem está lendo sempre enxerga uma árvore consistente.
+ * <p>
+ * Cada schema é achatado uma única vez a partir do pai já achatado, então o
+ * custo de um reload é proporcional aos atributos da subárvore alterada e não
+ * à profundidade da herança. A origem de cada atributo fica num
+ * {@link SchemaLineage}.
+ *
+ * @author Lucas Nishimura
+ * @created 19.10.2026
+ */
+@Component
+public class SchemaRegistry {
+
+    private final Logger logger = LoggerFactory.getLogger(SchemaRegistry.class);
+
+    @Autowired
+    private ConfigurationManager configurationManager;
+
+    @Autowired
+    private UtilSession utilSession;
+
+    @Autowired
+    private ManagedExecutorService managedExecutorService;
+
+    @Autowired
+    private SchemaValidatorCompiler schemaValidatorCompiler;
+
+    private volatile Snapshot snapshot = new Snapshot(Collections.emptyMap(), Collections.emptyMap(),
+            Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap(), new ConcurrentHashMap<>(), 0L);
+
+    /**
+     * Serializa os reloads, a leitura não usa lock
+     */
+    private final Object reloadLock = new Object();
+
+    private Path schemaDir;
+
+    private WatchService watchService;
+
+    private final Map<WatchKey, Path> watchedDirs = new ConcurrentHashMap<>();
+
+    /**
+     * Última revisão diferente de cada schema, base do diff da propagação
+     */
+    private final Map<String, ResourceSchemaModel> previousModels = new ConcurrentHashMap<>();
+
+    /**
+     * Schema -> revisão com propagação em curso
+     */
+    private final Map<String, String> propagating = new ConcurrentHashMap<>();
+
+    private ScheduledFuture<?> watchTask;
+
+    @PostConstruct
+    private void initRegistry() {
+        InventoryConfiguration configuration = this.configurationManager.loadConfiguration();
+        this.schemaDir = Paths.get(configuration.getSchemaDir()).toAbsolutePath().normalize();
+        this.reloadAll();
+        if (Boolean.TRUE.equals(configuration.getSchemaWatchEnabled())) {
+            this.startWatching(configuration.getSchemaWatchInterval());
+        }
+    }
+
+    @PreDestroy
+    private void stopWatching() {
+        if (this.watchTask != null) {
+            this.watchTask.cancel(false);
+        }
+        if (this.watchService != null) {
+            try {
+                this.watchService.close();
+            } catch (IOException ex) {
+                logger.warn("Failed to Close Schema Watch Service", ex);
+            }
+        }
+    }
+
+    /**
+     * Retorna o schema merged. A instância é compartilhada, quem precisa
+     * alterar deve usar {@link #getCopy(String)}
+     *
+     * @param schemaName
+     * @return
+     * @throws SchemaNotFoundException
+     * @throws GenericException se o arquivo do schema existe mas é inválido
+     */
+    public ResourceSchemaModel get(String schemaName) throws SchemaNotFoundException, GenericException {
+        String name = normalizeName(schemaName);
+        Snapshot current = this.snapshot;
+        ResourceSchemaModel schema = current.merged.get(name);
+        if (schema != null) {
+            return schema;
+        }
+        String error = current.errors.get(name);
+        if (error != null) {
+            throw new GenericException(error);
+        }
+        throw new SchemaNotFoundException("Schema With Name:[" + schemaName + "] was not found File: ["
+                + this.schemaDir + "/" + name.replace(".", "/") + ".json" + "]");
+    }
+
+    /**
+     * Cópia profunda do schema merged, pode ser alterada à vontade
+     *
+     * @param schemaName
+     * @return
+     * @throws SchemaNotFoundException
+     * @throws GenericException
+     */
+    public ResourceSchemaModel getCopy(String schemaName) throws SchemaNotFoundException, GenericException {
+        ResourceSchemaModel schema = this.get(schemaName);
+        return this.utilSession.getGson().fromJson(this.utilSession.getGson().toJson(schema), ResourceSchemaModel.class);
+    }
+
+    public boolean contains(String schemaName) {
+        return this.snapshot.merged.containsKey(normalizeName(schemaName));
+    }
+
+    /**
+     * @return todos os schemas merged válidos, ordenados por nome
+     */
+    public List<ResourceSchemaModel> getSchemas() {
+        return new ArrayList<>(this.snapshot.merged.values());
+    }
+
+    /**
+     * @return visão imutável nome -> schema merged
+     */
+    public Map<String, ResourceSchemaModel> asMap() {
+        return this.snapshot.merged;
+    }
+
+    /**
+     * Validador compilado do schema. O modelo é resolvido pelo nome no
+     * snapshot atual: se é o do registro, uma cópia dele ou um modelo igual
+     * (lido do banco, getCopy) o validador fica guardado no próprio snapshot e
+     * é descartado junto com ele. Só um modelo que difere do registro passa
+     * pelo cache por revisão do compilador
+     *
+     * @param model schema merged
+     * @return
+     */
+    public CompiledSchemaValidator getValidator(ResourceSchemaModel model) {
+        Snapshot current = this.snapshot;
+        String name = registeredName(model, current);
+        if (name != null) {
+            return current.validators.computeIfAbsent(name, k -> this.schemaValidatorCompiler.compile(current.merged.get(k)));
+        }
+        return this.schemaValidatorCompiler.compile(model);
+    }
+
+    /**
+     * Revisão do schema, a do validador do snapshot se o modelo é o do
+     * registro, sem recalcular
+     *
+     * @param model schema merged
+     * @return
+     */
+    public String getRevision(ResourceSchemaModel model) {
+        Snapshot current = this.snapshot;
+        String name = registeredName(model, current);
+        if (name != null) {
+            return current.validators.computeIfAbsent(name, k -> this.schemaValidatorCompiler.compile(current.merged.get(k))).getRevision();
+        }
+        return SchemaRevision.of(model);
+    }
+
+    /**
+     * Registra que a revisão do schema está sendo propagada para os
+     * documentos, até {@link #propagationCompleted}
+     *
+     * @param schemaName
+     * @param revision
+     */
+    public void propagationStarted(String schemaName, String revision) {
+        this.propagating.put(normalizeName(schemaName), revision);
+    }
+
+    /**
+     * @param schemaName
+     * @param revision a revisão que terminou, uma mais nova continua pendente
+     */
+    public void propagationCompleted(String schemaName, String revision) {
+        this.propagating.remove(normalizeName(schemaName), revision);
+    }
+
+    /**
+     * Um documento validado com a revisão informada pode estar com o isValid
+     * desatualizado: o schema tem uma propagação em curso e a revisão não é a
+     * atual. Sem propagação pendente os documentos que ela não regravou não
+     * mudaram de validade.
+     *
+     * @param schemaName
+     * @param revision a revisão gravada no documento
+     * @return
+     */
+    public boolean isRevalidationPending(String schemaName, String revision) {
+        if (revision == null || schemaName == null || !this.propagating.containsKey(normalizeName(schemaName))) {
+            return false;
+        }
+        ResourceSchemaModel current = this.snapshot.merged.get(normalizeName(schemaName));
+        return current != null && !revision.equals(this.getRevision(current));
+    }
+
+    /**
+     * Nome do schema no snapshot se o modelo valida igual ao do registro. A
+     * {@link SchemaReferenceCodec#sharedCopy} compartilha os atributos e sai na
+     * comparação por identidade, as demais cópias são comparadas campo a
+     * campo, sem calcular a revisão
+     *
+     * @param model
+     * @param current
+     * @return null se o schema não está no registro ou se o modelo difere
+     */
+    private static String registeredName(ResourceSchemaModel model, Snapshot current) {
+        if (model.getSchemaName() == null) {
+            return null;
+        }
+        String name = normalizeName(model.getSchemaName());
+        ResourceSchemaModel registered = current.merged.get(name);
+        if (registered == null) {
+            return null;
+        }
+        if (registered == model || (registered.getAttributes() == model.getAttributes()
+                && Boolean.TRUE.equals(registered.getAllowAll()) == Boolean.TRUE.equals(model.getAllowAll()))) {
+            return name;
+        }
+        return SchemaRevision.sameSchema(registered, model) ? name : null;
+    }
+
+    /**
+     * Herança achatada do schema, com o schema que definiu cada atributo
+     *
+     * @param schemaName
+     * @return
+     * @throws SchemaNotFoundException
+     * @throws GenericException
+     */
+    public SchemaLineage getLineage(String schemaName) throws SchemaNotFoundException, GenericException {
+        SchemaLineage lineage = this.snapshot.lineage.get(normalizeName(schemaName));
+        if (lineage != null) {
+            return lineage;
+        }
+        this.get(schemaName);
+        throw new SchemaNotFoundException("Schema With Name:[" + schemaName + "] was not found");
+    }
+
+    /**
+     * Revisão anterior do schema, a que foi substituída pela última alteração
+     * efetiva dos atributos. Só existe para schemas alterados desde o
+     * startup.
+     *
+     * @param schemaName
+     * @return null se desconhecida
+     */
+    public ResourceSchemaModel getPrevious(String schemaName) {
+        return this.previousModels.get(normalizeName(schemaName));
+    }
+
+    /**
+     * @return contador incrementado a cada publicação de um novo snapshot
+     */
+    public long getVersion() {
+        return this.snapshot.version;
+    }
+
+    /**
+     * Relê todo o schemaDir e publica uma árvore nova
+     */
+    public void reloadAll() {
+        synchronized (this.reloadLock) {
+            Map<String, String> sources = new HashMap<>();
+            if (Files.isDirectory(this.schemaDir)) {
+                try (Stream<Path> files = Files.walk(this.schemaDir)) {
+                    for (Path file : files.filter(f -> f.toString().endsWith(".json")).collect(Collectors.toList())) {
+                        String source = this.readSource(file);
+                        if (source != null) {
+                            sources.put(this.nameOf(file), source);
+                        }
+                    }
+                } catch (IOException ex) {
+                    logger.error("Failed to Scan Schema Dir:[{}]", this.schemaDir, ex);
+                    return;
+                }
+            } else {
+                logger.error("Schema Dir:[{}] Does not Exists", this.schemaDir);
+            }
+            Map<String, ResourceSchemaModel> parsed = new HashMap<>();
+            Map<String, String> parents = new HashMap<>();
+            sources.forEach((name, source) -> this.parseParent(name, source, parsed, parents));
+            Snapshot current = this.snapshot;
+            this.publish(sources, parents, parsed, new HashSet<>(sources.keySet()), current.version + 1);
+            logger.info("Schema Registry Loaded [{}] Schemas from:[{}]", this.snapshot.merged.size(), this.schemaDir);
+        }
+    }
+
+    /**
+     * Relê do disco apenas os schemas informados e reconstrói eles e seus
+     * descendentes
+     *
+     * @param schemaNames
+     */
+    public void reload(Collection<String> schemaNames) {
+        synchronized (this.reloadLock) {
+            Snapshot current = this.snapshot;
+            Map<String, String> sources = new HashMap<>(current.sources);
+            Map<String, String> parents = new HashMap<>(current.parents);
+            Map<String, ResourceSchemaModel> parsed = new HashMap<>();
+            Set<String> changed = new HashSet<>();
+            for (String schemaName : schemaNames) {
+                String name = normalizeName(schemaName);
+                Path file = this.schemaDir.resolve(name.replace(".", "/") + ".json");
+                String source = Files.exists(file) ? this.readSource(file) : null;
+                parents.remove(name);
+                if (source != null) {
+                    sources.put(name, source);
+                    this.parseParent(name, source, parsed, parents);
+                } else {
+                    sources.remove(name);
+                }
+                changed.add(name);
+            }
+            //
+            // Descendentes pela árvore antiga e pela nova, um schema pode ter
+            // trocado de pai. Os ancestrais entram para atualizar o
+            // childrenSchemas deles
+            //
+            Map<String, String> oldParents = current.parents;
+            Set<String> affected = new HashSet<>(changed);
+            affected.addAll(descendants(changed, childrenOf(oldParents)));
+            affected.addAll(descendants(changed, childrenOf(parents)));
+            affected.addAll(ancestors(affected, oldParents));
+            affected.addAll(ancestors(affected, parents));
+            this.publish(sources, parents, parsed, affected, current.version + 1);
+            logger.debug("Schema Registry Reloaded:[{}] Affected:[{}]", changed, affected.size());
+        }
+    }
+
+    /**
+     * Monta um snapshot novo recalculando só os schemas afetados e troca o
+     * atual de uma vez
+     *
+     * @param sources
+     * @param parents nome -> nome do pai, já de acordo com sources
+     * @param parsed schemas já lidos neste reload, consumidos aqui
+     * @param affected
+     * @param version
+     */
+    private void publish(Map<String, String> sources, Map<String, String> parents, Map<String, ResourceSchemaModel> parsed,
+            Set<String> affected, long version) {
+        Snapshot current = this.snapshot;
+        Map<String, ResourceSchemaModel> merged = new HashMap<>(current.merged);
+        Map<String, SchemaLineage> lineage = new HashMap<>(current.lineage);
+        Map<String, String> errors = new HashMap<>(current.errors);
+        Map<String, CompiledSchemaValidator> validators = new ConcurrentHashMap<>(current.validators);
+        merged.keySet().retainAll(sources.keySet());
+        lineage.keySet().retainAll(sources.keySet());
+        errors.keySet().retainAll(sources.keySet());
+        validators.keySet().retainAll(sources.keySet());
+        merged.keySet().removeAll(affected);
+        lineage.keySet().removeAll(affected);
+        errors.keySet().removeAll(affected);
+        validators.keySet().removeAll(affected);
+        Flattening flattening = new Flattening(sources, parents, parsed, merged, lineage, errors);
+        for (String name : affected) {
+            if (sources.containsKey(name)) {
+                this.flatten(name, flattening);
+            }
+        }
+        //
+        // childrenSchemas passa a ser calculado aqui, a leitura não grava mais
+        // o arquivo do pai. Só os filhos diretos, quem notifica percorre a
+        // árvore, e o valor gravado no arquivo é ignorado
+        //
+        Map<String, List<String>> children = childrenOf(parents);
+        for (String name : affected) {
+            ResourceSchemaModel schema = merged.get(name);
+            if (schema != null) {
+                schema.setChildrenSchemas(new ArrayList<>(new TreeSet<>(children.getOrDefault(name, Collections.emptyList()))));
+            }
+        }
+        for (String name : affected) {
+            ResourceSchemaModel before = current.merged.get(name);
+            ResourceSchemaModel after = merged.get(name);
+            if (after == null) {
+                this.previousModels.remove(name);
+            } else if (before != null && !SchemaRevision.sameSchema(before, after)) {
+                this.previousModels.put(name, before);
+            }
+        }
+        Map<String, ResourceSchemaModel> sorted = new TreeMap<>(merged);
+        this.snapshot = new Snapshot(Collections.unmodifiableMap(sources), Collections.unmodifiableMap(parents),
+                Collections.unmodifiableMap(sorted), Collections.unmodifiableMap(lineage),
+                Collections.unmodifiableMap(errors), validators, version);
+    }
+
+    /**
+     * Achata o schema a partir do pai já achatado, resolvendo o pai antes se
+     * ele também foi afetado. Cada nível da árvore é processado uma única vez
+     * por reload, o schema só copia os atributos que herda do pai.
+     *
+     * @param name
+     * @param flattening
+     */
+    private void flatten(String name, Flattening flattening) {
+        if (flattening.merged.containsKey(name) || flattening.errors.containsKey(name)) {
+            return;
+        }
+        flattening.visiting.add(name);
+        try {
+            ResourceSchemaModel schema = flattening.parsed.remove(name);
+            if (schema == null) {
+                schema = this.parse(name, flattening.sources.get(name));
+            }
+            String parentName = flattening.parents.get(name);
+            ResourceSchemaModel parent = null;
+            SchemaLineage parentLineage = null;
+            if (parentName != null) {
+                if (!flattening.sources.containsKey(parentName)) {
+                    throw new SchemaNotFoundException("Schema With Name:[" + parentName + "] was not found File: ["
+                            + this.schemaDir + "/" + parentName.replace(".", "/") + ".json" + "]");
+                }
+                if (flattening.visiting.contains(parentName)) {
+                    throw new GenericException("Schema:[" + name + "] Has a Cyclic Inheritance on:[" + parentName + "]");
+                }
+                this.flatten(parentName, flattening);
+                parent = flattening.merged.get(parentName);
+                parentLineage = flattening.lineage.get(parentName);
+                if (parent == null) {
+                    throw new GenericException(flattening.errors.get(parentName));
+                }
+            }
+            Map<String, ResourceAttributeModel> attributes = schema.getAttributes();
+            for (Map.Entry<String, ResourceAttributeModel> entry : attributes.entrySet()) {
+                entry.getValue().setItemHash(this.utilSession.getMd5(schema.getSchemaName() + "." + entry.getKey()));
+            }
+            SchemaLineage schemaLineage = SchemaLineage.of(name, attributes.keySet(), parentLineage);
+            if (parent != null) {
+                for (Map.Entry<String, ResourceAttributeModel> entry : parent.getAttributes().entrySet()) {
+                    String key = entry.getKey();
+                    if (!attributes.containsKey(key)) {
+                        //
+                        // Cópia rasa, o itemHash já vem do schema que declarou
+                        //
+                        ResourceAttributeModel inherited = new ResourceAttributeModel(entry.getValue());
+                        inherited.setId(flattening.merged.get(parentLineage.definedBy(key)).getSchemaName() + "." + key);
+                        attributes.put(key, inherited);
+                    }
+                }
+            }
+            flattening.merged.put(name, schema);
+            flattening.lineage.put(name, schemaLineage);
+        } catch (SchemaNotFoundException | GenericException ex) {
+            logger.error("Failed to Load Schema:[{}] {}", name, ex.getMessage());
+            flattening.errors.put(name, ex.getMessage());
+        } finally {
+            flattening.visiting.remove(name);
+        }
+    }
+
+    private ResourceSchemaModel parse(String name, String source) throws GenericException {
+        try {
+            ResourceSchemaModel model = this.utilSession.getGson().fromJson(source, ResourceSchemaModel.class);
+            if (model == null) {
+                throw new GenericException("Empty Schema File:[" + name + "]");
+            }
+            if (model.getAttributes() == null) {
+                model.setAttributes(new HashMap<>());
+            }
+            return model;
+        } catch (JsonParseException ex) {
+            throw new GenericException("Invalid Json File:[" + name + "] " + ex.getMessage(), ex);
+        }
+    }
+
+    private String readSource(Path file) {
+        try {
+            return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+        } catch (IOException ex) {
+            logger.error("Failed to Read Schema File:[{}]", file, ex);
+            return null;
+        }
+    }
+
+    /**
+     * resource/swa/default.json -> resource.swa.default
+     *
+     * @param file
+     * @return
+     */
+    private String nameOf(Path file) {
+        Path relative = this.schemaDir.relativize(file.toAbsolutePath().normalize());
+        List<String> parts = new ArrayList<>();
+        relative.forEach(part -> parts.add(part.toString()));
+        String name = String.join(".", parts);
+        return name.substring(0, name.length() - ".json".length());
+    }
+
+    private static String normalizeName(String schemaName) {
+        return schemaName.replace("/", ".");
+    }
+
+    /**
+     * Lê o schema uma vez e registra o pai dele, o modelo lido é reaproveitado
+     * no flatten
+     *
+     * @param name
+     * @param source
+     * @param parsed
+     * @param parents
+     */
+    private void parseParent(String name, String source, Map<String, ResourceSchemaModel> parsed, Map<String, String> parents) {
+        try {
+            ResourceSchemaModel model = this.parse(name, source);
+            parsed.put(name, model);
+            String fromSchema = model.getFromSchema();
+            if (fromSchema != null && !fromSchema.equals(".")) {
+                parents.put(name, normalizeName(fromSchema));
+            }
+        } catch (GenericException ex) {
+            //
+            // Arquivo inválido não tem filhos conhecidos, o erro é registrado
+            // no flatten
+            //
+        }
+    }
+
+    /**
+     * @param parents
+     * @return nome -> filhos diretos
+     */
+    private static Map<String, List<String>> childrenOf(Map<String, String> parents) {
+        Map<String, List<String>> children = new HashMap<>();
+        parents.forEach((child, parent) -> children.computeIfAbsent(parent, k -> new ArrayList<>()).add(child));
+        return children;
+    }
+
+    private static Set<String> ancestors(Set<String> names, Map<String, String> parents) {
+        Set<String> result = new HashSet<>();
+        for (String name : names) {
+            String parent = parents.get(name);
+            while (parent != null && result.add(parent)) {
+                parent = parents.get(parent);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Todos os descendentes (transitivos) das raízes
+     *
+     * @param roots
+     * @param children
+     * @return
+     */
+    private static Set<String> descendants(Set<String> roots, Map<String, List<String>> children) {
+        Set<String> result = new LinkedHashSet<>();
+        Deque<String> pending = new ArrayDeque<>(roots);
+        while (!pending.isEmpty()) {
+            for (String child : children.getOrDefault(pending.poll(), Collections.emptyList())) {
+                if (result.add(child)) {
+                    pending.add(child);
+                }
+            }
+        }
+        result.removeAll(roots);
+        return result;
+    }
+
+    /**
+     * Registra o schemaDir e os subdiretórios no WatchService e agenda a
+     * leitura dos eventos no scheduler
+     *
+     * @param interval
+     */
+    private void startWatching(Long interval) {
+        if (!Files.isDirectory(this.schemaDir)) {
+            return;
+        }
+        try {
+            this.watchService = FileSystems.getDefault().newWatchService();
+            this.registerTree(this.schemaDir);
+            long period = interval != null && interval > 0 ? interval : 1000L;
+            this.watchTask = this.managedExecutorService.scheduleAtFixedRate(this::pollWatchEvents, period, period,
+                    TimeUnit.MILLISECONDS);
+            logger.info("Watching Schema Dir:[{}]", this.schemaDir);
+        } catch (IOException ex) {
+            logger.error("Failed to Watch Schema Dir:[{}], Hot Reload Disabled", this.schemaDir, ex);
+        }
+    }
+
+    private void registerTree(Path root) throws IOException {
+        try (Stream<Path> dirs = Files.walk(root)) {
+            for (Path dir : dirs.filter(Files::isDirectory).collect(Collectors.toList())) {
+                WatchKey key = dir.register(this.watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+                this.watchedDirs.put(key, dir);
+            }
+        }
+    }
+
+    /**
+     * Junta todos os eventos pendentes e faz um único reload
+     */
+    private void pollWatchEvents() {
+        try {
+            Set<String> changed = new HashSet<>();
+            boolean rescan = false;
+            WatchKey key;
+            while ((key = this.watchService.poll()) != null) {
+                Path dir = this.watchedDirs.get(key);
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW || dir == null) {
+                        rescan = true;
+                        continue;
+                    }
+                    Path child = dir.resolve((Path) event.context());
+                    if (Files.isDirectory(child)) {
+                        this.registerTree(child);
+                        rescan = true;
+                    } else if (child.toString().endsWith(".json")) {
+                        changed.add(this.nameOf(child));
+                    }
+                }
+                if (!key.reset()) {
+                    this.watchedDirs.remove(key);
+                    rescan = true;
+                }
+            }
+            if (rescan) {
+                this.reloadAll();
+            } else if (!changed.isEmpty()) {
+                logger.info("Schema Files Changed:[{}]", changed);
+                this.reload(changed);
+            }
+        } catch (Exception ex) {
+            //
+            // Não deixa a tarefa agendada morrer
+            //
+            logger.error("Failed to Process Schema Dir Events", ex);
+        }
+    }
+
+    /**
+     * Estado de um reload em andamento
+     */
+    private static class Flattening {
+
+        private final Map<String, String> sources;
+        private final Map<String, String> parents;
+        private final Map<String, ResourceSchemaModel> parsed;
+        private final Map<String, ResourceSchemaModel> merged;
+        private final Map<String, SchemaLineage> lineage;
+        private final Map<String, String> errors;
+        private final Set<String> visiting = new HashSet<>();
+
+        private Flattening(Map<String, String> sources, Map<String, String> parents, Map<String, ResourceSchemaModel> parsed,
+                Map<String, ResourceSchemaModel> merged, Map<String, SchemaLineage> lineage, Map<String, String> errors) {
+            this.sources = sources;
+            this.parents = parents;
+            this.parsed = parsed;
+            this.merged = merged;
+            this.lineage = lineage;
+            this.errors = errors;
+        }
+    }
+
+    /**
+     * Estado publicado, nunca é alterado depois de criado a não ser pelos
+     * validadores
+     */
+    private static class Snapshot {
+
+        private final Map<String, String> sources;
+        private final Map<String, String> parents;
+        private final Map<String, ResourceSchemaModel> merged;
+        private final Map<String, SchemaLineage> lineage;
+        private final Map<String, String> errors;
+        /**
+         * Compilados sob demanda, o único mapa do snapshot que é alterado
+         */
+        private final Map<String, CompiledSchemaValidator> validators;
+        private final long version;
+
+        private Snapshot(Map<String, String> sources, Map<String, String> parents, Map<String, ResourceSchemaModel> merged,
+                Map<String, SchemaLineage> lineage, Map<String, String> errors, Map<String, CompiledSchemaValidator> validators,
+                long version) {
+            this.sources = sources;
+            this.parents = parents;
+            this.merged = merged;
+            this.lineage = lineage;
+            this.errors = errors;
+            this.validators = validators;
+            this.version = version;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.manager.schema;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.osstelecom.db.inventory.manager.resources.model.ResourceAttributeModel;
+import com.osstelecom.db.inventory.manager.resources.model.ResourceSchemaModel;
+
+/**
+ * Revisão de um schema merged: um hash estável dos campos que mudam a
+ * validação e a forma dos documentos (tipo, lista, obrigatório, regex,
+ * default, valores permitidos, discovery e allowAll).
+ * <p>
+ * O hash é um murmur3 de 128 bits sobre os bytes UTF-8 de cada campo, com o
+ * tamanho antes de cada valor, então o mesmo schema gera a mesma revisão em
+ * qualquer instância e pode ser persistido. Para decidir se algo mudou use
+ * {@link #sameSchema} e {@link #sameAttribute}, que comparam os campos com
+ * equals. Descrição, displayName e datas não entram, alterá-los não gera uma
+ * nova revisão.
+ *
+ * @author Lucas Nishimura
+ * @created 19.10.2026
+ */
+public final class SchemaRevision {
+
+    private SchemaRevision() {
+    }
+
+    /**
+     * @param model schema merged
+     * @return a revisão em hexadecimal (32 caracteres)
+     */
+    public static String of(ResourceSchemaModel model) {
+        Hasher hasher = Hashing.murmur3_128().newHasher();
+        putString(hasher, model.getSchemaName());
+        hasher.putBoolean(isTrue(model.getAllowAll()));
+        //
+        // Ordenado por nome para não depender da ordem do HashMap
+        //
+        Map<String, ResourceAttributeModel> attributes = new TreeMap<>(attributesOf(model));
+        hasher.putInt(attributes.size());
+        attributes.forEach((name, attribute) -> {
+            putString(hasher, name);
+            putString(hasher, attribute.getVariableType());
+            hasher.putBoolean(isTrue(attribute.getIsList()));
+            hasher.putBoolean(isTrue(attribute.getRequired()));
+            hasher.putBoolean(isTrue(attribute.getValidate()));
+            hasher.putBoolean(isTrue(attribute.getIsDiscovery()));
+            putString(hasher, attribute.getValidationRegex());
+            putString(hasher, attribute.getDefaultValue());
+            List<String> allowedValues = attribute.getAllowedValues();
+            if (allowedValues == null) {
+                hasher.putInt(-1);
+            } else {
+                hasher.putInt(allowedValues.size());
+                allowedValues.forEach(value -> putString(hasher, value));
+            }
+        });
+        return hasher.hash().toString();
+    }
+
+    /**
+     * Compara os campos que entram na revisão
+     *
+     * @param a
+     * @param b
+     * @return true se os dois schemas validam da mesma forma
+     */
+    public static boolean sameSchema(ResourceSchemaModel a, ResourceSchemaModel b) {
+        if (!Objects.equals(a.getSchemaName(), b.getSchemaName()) || isTrue(a.getAllowAll()) != isTrue(b.getAllowAll())) {
+            return false;
+        }
+        Map<String, ResourceAttributeModel> before = attributesOf(a);
+        Map<String, ResourceAttributeModel> after = attributesOf(b);
+        if (!before.keySet().equals(after.keySet())) {
+            return false;
+        }
+        for (Map.Entry<String, ResourceAttributeModel> entry : before.entrySet()) {
+            if (!sameAttribute(entry.getValue(), after.get(entry.getKey()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Compara os campos do atributo que entram na revisão, usado também pelo
+     * diff de schemas
+     *
+     * @param a
+     * @param b
+     * @return
+     */
+    public static boolean sameAttribute(ResourceAttributeModel a, ResourceAttributeModel b) {
+        return Objects.equals(a.getVariableType(), b.getVariableType())
+                && isTrue(a.getIsList()) == isTrue(b.getIsList())
+                && isTrue(a.getRequired()) == isTrue(b.getRequired())
+                && isTrue(a.getValidate()) == isTrue(b.getValidate())
+                && isTrue(a.getIsDiscovery()) == isTrue(b.getIsDiscovery())
+                && Objects.equals(a.getValidationRegex(), b.getValidationRegex())
+                && Objects.equals(a.getDefaultValue(), b.getDefaultValue())
+                && Objects.equals(a.getAllowedValues(), b.getAllowedValues());
+    }
+
+    private static void putString(Hasher hasher, String value) {
+        if (value == null) {
+            hasher.putInt(-1);
+        } else {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            hasher.putInt(bytes.length);
+            hasher.putBytes(bytes);
+        }
+    }
+
+    private static Map<String, ResourceAttributeModel> attributesOf(ResourceSchemaModel model) {
+        return model.getAttributes() != null ? model.getAttributes() : Collections.emptyMap();
+    }
+
+    private static boolean isTrue(Boolean value) {
+        return Boolean.TRUE.equals(value);
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.manager.schema;
+
+import java.util.concurrent.ExecutionException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.osstelecom.db.inventory.manager.configuration.ConfigurationManager;
+import com.osstelecom.db.inventory.manager.configuration.InventoryConfiguration;
+import com.osstelecom.db.inventory.manager.resources.model.ResourceSchemaModel;
+
+/**
+ * Compila e guarda os validadores dos schemas.
+ * <p>
+ * A chave do cache é o nome do schema mais a sua {@link SchemaRevision}, então
+ * qualquer alteração que mude a validação gera um validador novo e o antigo
+ * simplesmente expira. Os schemas do registro não passam por aqui a cada
+ * validação, o {@link SchemaRegistry} guarda o validador no snapshot. Os
+ * validadores são imutáveis e podem ser usados por várias threads ao mesmo
+ * tempo.
+ *
+ * @author Lucas Nishimura
+ * @created 19.10.2026
+ */
+@Component
+public class SchemaValidatorCompiler {
+
+    private final Logger logger = LoggerFactory.getLogger(SchemaValidatorCompiler.class);
+
+    @Autowired
+    private ConfigurationManager configurationManager;
+
+    private final Cache<String, CompiledSchemaValidator> validators = CacheBuilder
+            .newBuilder()
+            .maximumSize(5000)
+            .build();
+
+    private volatile SchemaDateParser dateParser;
+
+    private volatile SchemaDateParser dateTimeParser;
+
+    /**
+     * Retorna o validador do schema, compilando se ainda não existir para a
+     * revisão atual
+     *
+     * @param schemaModel schema merged
+     * @return
+     */
+    public CompiledSchemaValidator compile(ResourceSchemaModel schemaModel) {
+        String revision = SchemaRevision.of(schemaModel);
+        String cacheKey = schemaModel.getSchemaName() + "@" + revision;
+        try {
+            return this.validators.get(cacheKey, () -> {
+                this.initDateParsers();
+                CompiledSchemaValidator validator = new CompiledSchemaValidator(schemaModel, revision,
+                        this.dateParser, this.dateTimeParser);
+                logger.debug("Compiled Validator for Schema:[{}] Revision:[{}]", schemaModel.getSchemaName(), revision);
+                return validator;
+            });
+        } catch (ExecutionException ex) {
+            //
+            // O construtor não lança checked exceptions, mas mantemos a causa
+            //
+            throw new IllegalStateException("Failed to Compile Schema:[" + schemaModel.getSchemaName() + "]", ex.getCause());
+        }
+    }
+
+    /**
+     * Descarta todos os validadores compilados
+     */
+    public void invalidateAll() {
+        this.validators.invalidateAll();
+    }
+
+    /**
+     * @return quantidade de validadores em cache
+     */
+    public long size() {
+        return this.validators.size();
+    }
+
+    private void initDateParsers() {
+        if (this.dateParser == null) {
+            InventoryConfiguration configuration = this.configurationManager.loadConfiguration();
+            this.dateTimeParser = new SchemaDateParser(configuration.getDateTimeFormat());
+            this.dateParser = new SchemaDateParser(configuration.getDateFormat());
+        }
+    }
+}
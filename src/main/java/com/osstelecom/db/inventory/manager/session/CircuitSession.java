@@ -17,7 +17,6 @@
  */
 package com.osstelecom.db.inventory.manager.session;
 
-import com.google.common.util.concurrent.Striped;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
@@ -49,6 +48,7 @@ import com.osstelecom.db.inventory.manager.request.DeleteCircuitPathRequest;
 import com.osstelecom.db.inventory.manager.request.DeleteCircuitRequest;
 import com.osstelecom.db.inventory.manager.request.FilterRequest;
 import com.osstelecom.db.inventory.manager.request.GetCircuitPathRequest;
+import com.osstelecom.db.inventory.manager.request.GetCircuitRequest;
 import com.osstelecom.db.inventory.manager.request.PatchCircuitResourceRequest;
 import com.osstelecom.db.inventory.manager.resources.CircuitResource;
 import com.osstelecom.db.inventory.manager.resources.Domain;
@@ -61,14 +61,20 @@ import com.osstelecom.db.inventory.manager.response.CreateCircuitPathResponse;
 import com.osstelecom.db.inventory.manager.response.CreateCircuitResponse;
 import com.osstelecom.db.inventory.manager.response.DeleteCircuitResponse;
 import com.osstelecom.db.inventory.manager.response.FilterResponse;
+import com.osstelecom.db.inventory.manager.response.GetCircuitConnectivityResponse;
 import com.osstelecom.db.inventory.manager.response.GetCircuitPathResponse;
 import com.osstelecom.db.inventory.manager.response.GetCircuitResponse;
+import com.osstelecom.db.inventory.manager.response.GetDomainCircuitConnectivityResponse;
 import com.osstelecom.db.inventory.manager.response.PatchCircuitResourceResponse;
 import java.io.IOException;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.Lock;
+import javax.annotation.PostConstruct;
+import com.osstelecom.db.inventory.manager.configuration.ConfigurationManager;
+import com.osstelecom.db.inventory.manager.operation.LockProfiler;
+import com.osstelecom.db.inventory.manager.operation.OrderedMultiLock;
+import com.osstelecom.db.inventory.manager.operation.OrderedMultiLock.LockSet;
 
 /**
  *
@@ -96,13 +102,26 @@ public class CircuitSession {
     @Autowired
     private GraphManager graphManager;
 
+    @Autowired
+    private LockProfiler lockProfiler;
+
+    @Autowired
+    private ConfigurationManager configurationManager;
+
     /**
-     * Vamos tentar resolver o problema de concorrencia do Roger
+     * Vamos tentar resolver o problema de concorrencia do Roger, as conexões
+     * de um path são travadas juntas e em ordem
      */
-    private final Striped<Lock> circuitConnectionPathLock = Striped.lock(255); // <-- Este número deve ser maior ou igual ao número de worker threads do server
+    private OrderedMultiLock circuitConnectionPathLock;
 
     private Logger logger = LoggerFactory.getLogger(CircuitSession.class);
 
+    @PostConstruct
+    private void createPathLock() {
+        Integer stripes = this.configurationManager.loadConfiguration().getCircuitPathLockStripes();
+        this.circuitConnectionPathLock = new OrderedMultiLock(stripes, "CircuitPathStripe", this.lockProfiler);
+    }
+
     /**
      * Atualiza um circuito no netcompass
      *
@@ -472,6 +491,45 @@ public class CircuitSession {
         return response;
     }
     
+    /**
+     * Caminhos disjuntos e corte mínimo entre o aPoint e o zPoint do circuito
+     *
+     * @param request
+     * @return
+     * @throws ResourceNotFoundException
+     * @throws DomainNotFoundException
+     * @throws ArangoDaoException
+     * @throws InvalidRequestException
+     */
+    public GetCircuitConnectivityResponse computeCircuitConnectivity(GetCircuitPathRequest request)
+            throws ResourceNotFoundException, DomainNotFoundException, ArangoDaoException, InvalidRequestException {
+        if (request.getRequestDomain() == null) {
+            throw new InvalidRequestException("Please provide a domain");
+        }
+        if (request.getCircuitId() == null) {
+            throw new InvalidRequestException("Please provide a CircuidID (_key)");
+        }
+        CircuitResource circuit = new CircuitResource(domainManager.getDomain(request.getRequestDomain()), request.getCircuitId());
+        circuit = circuitResourceManager.findCircuitResource(circuit);
+        return new GetCircuitConnectivityResponse(circuitResourceManager.computeCircuitConnectivity(circuit));
+    }
+
+    /**
+     * Conectividade de todos os circuitos do domínio, para auditoria de
+     * proteção
+     *
+     * @param request
+     * @return
+     * @throws DomainNotFoundException
+     * @throws ArangoDaoException
+     * @throws InvalidRequestException
+     */
+    public GetDomainCircuitConnectivityResponse computeDomainCircuitConnectivity(GetCircuitRequest request)
+            throws DomainNotFoundException, ArangoDaoException, InvalidRequestException {
+        Domain domain = domainManager.getDomain(request.getRequestDomain());
+        return new GetDomainCircuitConnectivityResponse(circuitResourceManager.computeCircuitConnectivity(domain));
+    }
+
     public CircuitResource findCircuitResource(CircuitResource resource)
             throws ResourceNotFoundException, ArangoDaoException, InvalidRequestException {
         return this.circuitResourceManager.findCircuitResource(resource);
@@ -515,7 +573,10 @@ public class CircuitSession {
         circuit = circuitResourceManager.findCircuitResource(circuit);
         request.getPayLoad().setCircuit(circuit);
         if (!request.getPayLoad().getPaths().isEmpty()) {
-            Map<Lock, ResourceConnection> resolved = new HashMap<>();
+            //
+            // Primeiro resolve todas as conexões, sem lock
+            //
+            Map<String, ResourceConnection> found = new LinkedHashMap<>();
             logger.debug("Paths Size: {}", request.getPayLoad().getPaths().size());
             for (ResourceConnection requestedPath : request.getPayLoad().getPaths()) {
                 if (requestedPath.getDomainName() == null) {
@@ -560,82 +621,55 @@ public class CircuitSession {
                 }
                 
                 ResourceConnection fromDbConnection = resourceConnectionManager.findResourceConnection(requestedPath);
-                String currentRevisionId = fromDbConnection.getRevisionId();
-                /**
-                 * É importante que o lock do recurso aconteça logo na sequencia
-                 * do find
-                 */
-                Lock connectionLock = this.circuitConnectionPathLock.get(fromDbConnection.getId());
-                
-                try {
-                    if (connectionLock.tryLock(60, TimeUnit.SECONDS)) {
-                        fromDbConnection = resourceConnectionManager.findResourceConnection(fromDbConnection);
-                        if (!currentRevisionId.equals(fromDbConnection.getRevisionId())) {
-                            logger.warn("Concurrent Connection , but it is ok to ignore this warning");
-                        }
-                        if (!fromDbConnection.getCircuits().contains(circuit.getId())) {
-                            //
-                            // Garante que a Conexão vai ter uma referencia ao circuito
-                            //
-                            fromDbConnection.getCircuits().add(circuit.getId());
-                        } else {
-                            // logger.warn("Connection: [{}] Already Has Circuit: {}", b.getId(),
-                            // circuit.getId());
-                        }
-
-                        //
-                        // Se o Circuito não tem a conexão adciona a conexão no circuito
-                        //
-                        if (!circuit.getCircuitPath().contains(fromDbConnection.getId())) {
-                            circuit.getCircuitPath().add(fromDbConnection.getId());
-                        }
-                        resolved.put(connectionLock, fromDbConnection);
-                    }
-                } catch (InterruptedException ex) {
-                    throw new LockWaitTimeOutException("Timed out waiting for lock on connection:[" + fromDbConnection.getId() + "]");
-                }
+                found.put(fromDbConnection.getId(), fromDbConnection);
             }
             //
-            // Melhorar esta validação!
-            // Dentro do processo de criação, podemos ter
-            // recebido paths inválidos...
-            // Caso um path inválido seja passado o método
-            // domainManager.findResourceConnection(requestedPath)
-            // Vai lançar um ResourceNotFoundException, impedindo a criação
-            // do circuito MAS nesse ponto as conexões já foram parcialmente atualizadas
+            // Depois trava todas de uma vez, em ordem canônica, tudo ou nada.
+            // Duas criações concorrentes com conexões em comum não entram mais
+            // em espera circular
             //
-            try {
-                if (resolved.size() == request.getPayLoad().getPaths().size()) {
-                    
-                    for (ResourceConnection c : resolved.values()) {
-                        if (!c.getCircuits().contains(circuit.getId())) {
-                            c.getCircuits().add(circuit.getId());
-                        }
-                        
+            Long lockTimeout = this.configurationManager.loadConfiguration().getCircuitPathLockTimeout();
+            try (LockSet ignored = this.circuitConnectionPathLock.lockAll(found.keySet(), lockTimeout, TimeUnit.SECONDS)) {
+                List<ResourceConnection> resolved = new ArrayList<>();
+                for (ResourceConnection connection : found.values()) {
+                    String currentRevisionId = connection.getRevisionId();
+                    //
+                    // Relê sob o lock, a versão do banco é a que vale
+                    //
+                    ResourceConnection fromDbConnection = resourceConnectionManager.findResourceConnection(connection);
+                    if (!currentRevisionId.equals(fromDbConnection.getRevisionId())) {
+                        logger.warn("Concurrent Connection , but it is ok to ignore this warning");
+                    }
+                    if (!fromDbConnection.getCircuits().contains(circuit.getId())) {
+                        //
+                        // Garante que a Conexão vai ter uma referencia ao circuito
+                        //
+                        fromDbConnection.getCircuits().add(circuit.getId());
                     }
 
+                    //
+                    // Se o Circuito não tem a conexão adciona a conexão no circuito
+                    //
+                    if (!circuit.getCircuitPath().contains(fromDbConnection.getId())) {
+                        circuit.getCircuitPath().add(fromDbConnection.getId());
+                    }
+                    resolved.add(fromDbConnection);
+                }
+
+                if (resolved.size() == request.getPayLoad().getPaths().size()) {
                     //
                     // Valida se funciona, mas batch update é muito mais rápido xD mas ficou feio que é dói
                     //
-                    List<ResourceConnection> savedConnections = resourceConnectionManager.updateResourceConnections(new ArrayList<>(resolved.values()), circuit.getDomain());
+                    List<ResourceConnection> savedConnections = resourceConnectionManager.updateResourceConnections(resolved, circuit.getDomain());
                     request.getPayLoad().getPaths().clear();
                     request.getPayLoad().getPaths().addAll(savedConnections);
                     circuit = circuitResourceManager.updateCircuitPath(circuit);
-                    
                 } else {
                     //
-                    // Aqui temos um problema que precisamos ver se precisamos tratar.
+                    // Conexões repetidas no request
                     //
-
                     logger.warn("Resolved Path Differs from Request: {}", resolved.size());
                 }
-            } finally {
-                /**
-                 * Garante que vai excluir os locks;
-                 */
-                resolved.forEach((l, c) -> {
-                    l.unlock();
-                });
             }
         } else {
             logger.warn("Empty Paths, creating Empty Circuit");
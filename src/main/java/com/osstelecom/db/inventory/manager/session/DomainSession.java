@@ -32,6 +32,7 @@ import com.osstelecom.db.inventory.manager.jobs.DbJobStage;
 import com.osstelecom.db.inventory.manager.operation.CircuitResourceManager;
 import com.osstelecom.db.inventory.manager.operation.DbJobManager;
 import com.osstelecom.db.inventory.manager.operation.DomainManager;
+import com.osstelecom.db.inventory.manager.operation.ManagedExecutorService;
 import com.osstelecom.db.inventory.manager.operation.ManagedResourceManager;
 import com.osstelecom.db.inventory.manager.operation.ResourceConnectionManager;
 
@@ -75,6 +76,9 @@ public class DomainSession {
     @Autowired
     private DomainManager domainManager;
 
+    @Autowired
+    private ManagedExecutorService managedExecutorService;
+
     @Autowired
     private ManagedResourceManager managedResourceManager;
 
@@ -178,8 +182,8 @@ public class DomainSession {
              * caution
              */
             Domain domain = this.domainManager.getDomain(req.getRequestDomain());
-            logger.debug("Starting Reconciliation Thread");
-            new Thread(() -> {
+            logger.debug("Starting Reconciliation Job");
+            managedExecutorService.execute(ManagedExecutorService.Pool.MAINTENANCE, () -> {
                 try {
                     this.reconcileDomain(domain, true);
                 } catch (DomainNotFoundException | ArangoDaoException | InvalidRequestException ex) {
@@ -187,7 +191,7 @@ public class DomainSession {
                 } finally {
                     logger.debug("Reconciliation Job Completed");
                 }
-            }, "com.osstelecom.db.inventory.manager.session.RECONCILIATION-" + req.getRequestDomain()).start();
+            });
             runningReconcilations.put(req.getRequestDomain(), true);
             return new StringResponse("Domain:[" + req.getRequestDomain() + "] Reconciliation Started");
         }
@@ -17,29 +17,27 @@
  */
 package com.osstelecom.db.inventory.manager.session;
 
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
 import com.osstelecom.db.inventory.manager.configuration.ConfigurationManager;
-import com.osstelecom.db.inventory.manager.configuration.InventoryConfiguration;
 import com.osstelecom.db.inventory.manager.exception.ScriptRuleException;
+import com.osstelecom.db.inventory.manager.operation.ManagedExecutorService;
 import com.osstelecom.db.inventory.manager.resources.BasicResource;
-import groovy.lang.Binding;
-import groovy.util.GroovyScriptEngine;
-import groovy.util.ResourceException;
-import groovy.util.ScriptException;
-import java.io.File;
-import java.io.IOException;
+import com.osstelecom.db.inventory.manager.rules.CompiledRule;
+import com.osstelecom.db.inventory.manager.rules.RuleEngine;
+import com.osstelecom.db.inventory.manager.rules.RuleEvaluationResult;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
-import java.util.concurrent.TimeUnit;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.context.event.ApplicationReadyEvent;
-import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
-import org.springframework.util.StringUtils;
 
 /**
+ * Avalia as regras groovy das classes dos recursos. As regras são compiladas
+ * e executadas pelo {@link RuleEngine}, cada avaliação tem o seu próprio
+ * binding e pode rodar em paralelo com as demais.
  *
  * @author Lucas Nishimura
  * @created 03.01.2022
@@ -47,103 +45,141 @@ import org.springframework.util.StringUtils;
 @Service
 public class DynamicRuleSession {
 
-    private GroovyScriptEngine gse;
-    private InventoryConfiguration configuration;
-    private Binding bindings;
-    private Logger logger = LoggerFactory.getLogger(DynamicRuleSession.class);
-    private Cache<String, File> cachedFile;
-    private Cache<String, Boolean> cachedNoRules;
-    private LinkedHashMap<String, Object> context = new LinkedHashMap<>();
     @Autowired
     private ConfigurationManager configurationManager;
 
-    @EventListener(ApplicationReadyEvent.class)
-    private void initGse() {
-        try {
-            this.configuration = configurationManager.loadConfiguration();
-            logger.info("Starting Dynamic Rule Engine with rules dir at: [{}]", this.configuration.getRulesDir());
-            this.gse = new GroovyScriptEngine(configuration.getRulesDir());
-            this.bindings = new Binding();
-            this.bindings.setVariable("logger", logger);
-            this.initGuavaCache();
-        } catch (IOException ex) {
-            logger.error("Failed to start Rules Engine...");
-        }
-    }
+    @Autowired
+    private RuleEngine ruleEngine;
 
-    /**
-     * Inicializa um Cache válido por 30s.
-     */
-    private void initGuavaCache() {
-        this.cachedFile = CacheBuilder.newBuilder().maximumSize(1000).expireAfterWrite(30, TimeUnit.HOURS).build();
-        this.cachedNoRules = CacheBuilder.newBuilder().maximumSize(1000).expireAfterWrite(5, TimeUnit.SECONDS).build();
-    }
+    @Autowired
+    private ManagedExecutorService managedExecutorService;
 
     /**
      * Avalia no groovy se podemos continuar com a transação
      *
      * @param resource
-     * @param domainManager
+     * @param oper
+     * @param manager
      * @throws ScriptRuleException
      */
     public void evalResource(BasicResource resource, String oper, Object manager) throws ScriptRuleException {
         //
         // Eval the resource chain
         //
-
         if (this.configurationManager.loadConfiguration().getDynamicRulesEnabled()) {
-            String scriptPath = resource.getClassName();
-
-            scriptPath = scriptPath.replaceAll("\\.", "/");
-            scriptPath += ".groovy";
+            CompiledRule rule = this.ruleEngine.resolve(RuleEngine.scriptPathOf(resource.getClassName()));
+            if (rule.exists()) {
+                this.ruleEngine.run(rule, this.variables(resource, oper, manager));
+            }
+        }
+    }
 
-            if (this.cachedNoRules.getIfPresent(scriptPath) == null) {
-                File scriptFile = this.cachedFile.getIfPresent(scriptPath);
-                if (scriptFile == null) {
-                    scriptFile = new File(configuration.getRulesDir() + scriptPath);
-                    this.cachedFile.put(scriptPath, scriptFile);
+    /**
+     * Avalia as regras de um lote, para cargas em massa. Os recursos são
+     * agrupados por className e a regra de cada grupo é resolvida uma única
+     * vez. Uma falha não interrompe o lote, cada item tem o seu resultado.
+     *
+     * @param resources
+     * @param oper
+     * @param manager
+     * @param parallel divide cada grupo entre as threads do pool RULES, só
+     * deve ser usado se o manager suporta chamadas concorrentes
+     * @return um resultado por recurso, na ordem recebida. Se a thread for
+     * interrompida os itens que não terminaram voltam como FAILED
+     */
+    public List<RuleEvaluationResult> evalResources(List<? extends BasicResource> resources, String oper, Object manager,
+            boolean parallel) {
+        boolean enabled = Boolean.TRUE.equals(this.configurationManager.loadConfiguration().getDynamicRulesEnabled());
+        List<RuleEvaluationResult> results = new ArrayList<>(resources.size());
+        Map<String, List<Integer>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < resources.size(); i++) {
+            BasicResource resource = resources.get(i);
+            results.add(new RuleEvaluationResult(i, resource.getKey(), resource.getClassName(),
+                    enabled ? RuleEvaluationResult.Status.OK : RuleEvaluationResult.Status.DISABLED));
+            if (enabled) {
+                groups.computeIfAbsent(resource.getClassName(), c -> new ArrayList<>()).add(i);
+            }
+        }
+        List<Future<?>> pending = new ArrayList<>();
+        List<List<RuleEvaluationResult>> pendingResults = new ArrayList<>();
+        groups.forEach((className, indexes) -> {
+            CompiledRule rule;
+            try {
+                rule = this.ruleEngine.resolve(RuleEngine.scriptPathOf(className));
+            } catch (ScriptRuleException ex) {
+                indexes.forEach(i -> results.get(i).failed(ex.getMessage()));
+                return;
+            }
+            if (!rule.exists()) {
+                indexes.forEach(i -> results.get(i).setStatus(RuleEvaluationResult.Status.NO_RULE));
+                return;
+            }
+            int chunks = parallel
+                    ? Math.min(indexes.size(), this.managedExecutorService.getPoolSize(ManagedExecutorService.Pool.RULES))
+                    : 1;
+            int chunkSize = (indexes.size() + chunks - 1) / chunks;
+            for (int from = 0; from < indexes.size(); from += chunkSize) {
+                List<Integer> chunk = indexes.subList(from, Math.min(from + chunkSize, indexes.size()));
+                List<Map<String, Object>> items = new ArrayList<>(chunk.size());
+                List<RuleEvaluationResult> chunkResults = new ArrayList<>(chunk.size());
+                for (Integer i : chunk) {
+                    items.add(this.variables(resources.get(i), oper, manager));
+                    chunkResults.add(results.get(i));
                 }
-
-                if (scriptFile.exists()) {
-                    this.cachedNoRules.invalidate(scriptPath);
-                    context.clear();
-                    this.bindings.setVariable("manager", manager);
-                    this.bindings.setVariable("context", context);
-
-                    context.put("manager", manager);
-                    context.put("resource", resource);
-                    context.put("oper", oper);
-
-                    String runningScript = scriptPath;
-                    this.bindings.setVariable("resource", resource);
-                    while (!scriptPath.equals("")) {
-                        try {
-                            scriptPath = "";
-                            context.put("include", scriptPath);
-                            this.gse.run(runningScript, bindings);
-                            scriptPath = (String) context.get("include");
-                            if (StringUtils.hasText(scriptPath)) {
-                                runningScript = scriptPath;
-                            } else {
-                                scriptPath = "";
-                            }
-                        } catch (ResourceException | ScriptException ex) {
-                            throw new ScriptRuleException("Error in Groovy Context", ex);
-                        } catch (Exception ex) {
-                            throw new ScriptRuleException("Generic Exception in Groovy Context", ex);
-                        }
-                    }
-                    context.clear();
+                if (parallel) {
+                    pending.add(this.managedExecutorService.submit(ManagedExecutorService.Pool.RULES, () -> {
+                        this.ruleEngine.runAll(rule, items, chunkResults);
+                        return null;
+                    }));
+                    pendingResults.add(chunkResults);
                 } else {
-                    this.cachedNoRules.put(scriptPath, false);
-                    logger.warn("No Rules Found for Class: {}:=[{}] Putting on Cache for 30s", resource.getClassName(), scriptPath);
+                    this.ruleEngine.runAll(rule, items, chunkResults);
                 }
-            } else {
+            }
+        });
+        for (int x = 0; x < pending.size(); x++) {
+            try {
+                pending.get(x).get();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                this.abandon(pending, pendingResults);
+                break;
+            } catch (ExecutionException ex) {
                 //
-                // Nothing to Eval
+                // runAll não deveria lançar, mas se lançar não dá para saber
+                // quais itens do bloco rodaram, o bloco inteiro falha
                 //
+                String message = String.valueOf(ex.getCause());
+                pendingResults.get(x).forEach(result -> result.failed(message));
             }
         }
+        return results;
+    }
+
+    /**
+     * Cancela os blocos que não terminaram e marca os itens deles como FAILED.
+     * OK é o estado inicial, sem isso um bloco que nem rodou seria reportado
+     * como aprovado. Um bloco interrompido no meio é marcado inteiro, os itens
+     * que já tinham rodado não têm como ser confirmados
+     *
+     * @param pending
+     * @param pendingResults
+     */
+    private void abandon(List<Future<?>> pending, List<List<RuleEvaluationResult>> pendingResults) {
+        for (int x = 0; x < pending.size(); x++) {
+            Future<?> future = pending.get(x);
+            future.cancel(true);
+            if (future.isCancelled()) {
+                pendingResults.get(x).forEach(result -> result.failed("interrupted"));
+            }
+        }
+    }
 
+    private Map<String, Object> variables(BasicResource resource, String oper, Object manager) {
+        Map<String, Object> variables = new HashMap<>(4);
+        variables.put("manager", manager);
+        variables.put("resource", resource);
+        variables.put("oper", oper);
+        return variables;
     }
 }
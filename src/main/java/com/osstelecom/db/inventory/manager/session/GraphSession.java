@@ -17,12 +17,18 @@
  */
 package com.osstelecom.db.inventory.manager.session;
 
+import com.osstelecom.db.inventory.manager.dto.TopologyCutsDTO;
 import com.osstelecom.db.inventory.manager.exception.InvalidRequestException;
 import com.osstelecom.db.inventory.manager.exception.ResourceNotFoundException;
 import com.osstelecom.db.inventory.manager.operation.GraphManager;
 import com.osstelecom.db.inventory.manager.resources.GraphList;
 import com.osstelecom.db.inventory.manager.resources.ManagedResource;
 import com.osstelecom.db.inventory.manager.resources.ResourceConnection;
+import com.osstelecom.db.inventory.topology.csr.Biconnectivity;
+import com.osstelecom.db.inventory.topology.csr.CsrGraph;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -54,4 +60,38 @@ public class GraphSession {
 
         return this.graphManager.expandNode(resource, direction, depth);
     }
+
+    /**
+     * Calcula os pontos únicos de falha das conexões informadas. Conexões que
+     * não estão UP não entram na conta.
+     *
+     * @param connections
+     * @return
+     */
+    public TopologyCutsDTO computeCuts(GraphList<ResourceConnection> connections) {
+        CsrGraph graph = this.graphManager.buildGraph(connections);
+        Biconnectivity biconnectivity = Biconnectivity.of(graph);
+        TopologyCutsDTO result = new TopologyCutsDTO();
+        result.setNodeCount(graph.nodeCount());
+        result.setConnectionCount(graph.edgeCount());
+        result.setComponentCount(biconnectivity.componentCount());
+        BitSet articulationPoints = biconnectivity.articulationPoints();
+        for (int v = articulationPoints.nextSetBit(0); v >= 0; v = articulationPoints.nextSetBit(v + 1)) {
+            result.getArticulationPoints().add(graph.name(v));
+        }
+        BitSet bridges = biconnectivity.bridges();
+        for (int e = bridges.nextSetBit(0); e >= 0; e = bridges.nextSetBit(e + 1)) {
+            result.getBridges().add(graph.edgeName(e));
+        }
+        for (BitSet component : biconnectivity.components()) {
+            List<String> ids = new ArrayList<>(component.cardinality());
+            for (int e = component.nextSetBit(0); e >= 0; e = component.nextSetBit(e + 1)) {
+                ids.add(graph.edgeName(e));
+            }
+            result.getComponents().add(ids);
+        }
+        logger.debug("Topology Cuts Nodes:[{}] Connections:[{}] Articulation Points:[{}] Bridges:[{}]",
+                graph.nodeCount(), graph.edgeCount(), result.getArticulationPoints().size(), result.getBridges().size());
+        return result;
+    }
 }
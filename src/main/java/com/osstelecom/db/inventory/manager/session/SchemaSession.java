@@ -18,19 +18,15 @@
 package com.osstelecom.db.inventory.manager.session;
 
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -39,18 +35,13 @@ import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.RemovalListener;
-import com.google.common.cache.RemovalNotification;
-import com.google.gson.JsonIOException;
-import com.google.gson.JsonSyntaxException;
 import com.osstelecom.db.inventory.manager.configuration.ConfigurationManager;
 import com.osstelecom.db.inventory.manager.events.ResourceSchemaUpdatedEvent;
 import com.osstelecom.db.inventory.manager.exception.GenericException;
 import com.osstelecom.db.inventory.manager.exception.InvalidRequestException;
 import com.osstelecom.db.inventory.manager.exception.SchemaNotFoundException;
 import com.osstelecom.db.inventory.manager.listeners.EventManagerListener;
+import com.osstelecom.db.inventory.manager.operation.SchemaStorageMigrationManager;
 import com.osstelecom.db.inventory.manager.request.CreateResourceSchemaModelRequest;
 import com.osstelecom.db.inventory.manager.request.PatchResourceSchemaModelRequest;
 import com.osstelecom.db.inventory.manager.resources.BasicResource;
@@ -58,21 +49,15 @@ import com.osstelecom.db.inventory.manager.resources.exception.AttributeConstrai
 import com.osstelecom.db.inventory.manager.resources.model.ResourceAttributeModel;
 import com.osstelecom.db.inventory.manager.resources.model.ResourceSchemaModel;
 import com.osstelecom.db.inventory.manager.response.CreateResourceSchemaModelResponse;
+import com.osstelecom.db.inventory.manager.response.DbJobResponse;
 import com.osstelecom.db.inventory.manager.response.GetSchemasResponse;
 import com.osstelecom.db.inventory.manager.response.ListSchemasResponse;
 import com.osstelecom.db.inventory.manager.response.PatchResourceSchemaModelResponse;
 import com.osstelecom.db.inventory.manager.response.ResourceSchemaResponse;
-import java.time.Instant;
-import java.time.format.DateTimeFormatter;
-import java.util.Comparator;
+import com.osstelecom.db.inventory.manager.response.SchemaLineageResponse;
+import com.osstelecom.db.inventory.manager.schema.SchemaCatalog;
+import com.osstelecom.db.inventory.manager.schema.SchemaRegistry;
 import java.util.Date;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
-import org.apache.commons.beanutils.BeanComparator;
-import org.apache.tools.ant.DirectoryScanner;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 
 /**
  * Classe que lida com os atributos do schema
@@ -83,9 +68,7 @@ import org.springframework.data.domain.Pageable;
  * @created 14.12.2021
  */
 @Service
-public class SchemaSession implements RemovalListener<String, ResourceSchemaModel> {
-
-    private String schemaDir;
+public class SchemaSession {
 
     private Logger logger = LoggerFactory.getLogger(SchemaSession.class);
 
@@ -98,39 +81,28 @@ public class SchemaSession implements RemovalListener<String, ResourceSchemaMode
     @Autowired
     private EventManagerListener eventManager;
 
-    private List<String> allSchemasName = new ArrayList<>();
+    /**
+     * Árvore de schemas já resolvida, mantida em memória e recarregada quando
+     * o schemaDir muda
+     */
+    @Autowired
+    private SchemaRegistry schemaRegistry;
 
     /**
-     * Local Cache keeps the Schema for 1 Minute in memory, most of 5k Records
+     * Índices de listagem, autocomplete e herança sobre o registry
      */
-    private Cache<String, ResourceSchemaModel> schemaCache;
+    @Autowired
+    private SchemaCatalog schemaCatalog;
 
-    private Cache<String, List<ResourceSchemaModel>> allSchemasCache;
+    @Autowired
+    private SchemaStorageMigrationManager schemaStorageMigrationManager;
 
     /**
-     * Cuida pro processo de incialização e cria um cache com capacidade de
-     * armazenamento de 5mil registros, a configuração do cache é ajustavel e
-     * parametrizada no arquivo de configuração
+     * Os schemas são carregados pelo SchemaRegistry no startup, aqui só
+     * validamos que a árvore pode ser listada
      */
     @EventListener(ApplicationReadyEvent.class)
     private void initSchemaSession() {
-        this.schemaCache = CacheBuilder
-                .newBuilder()
-                .maximumSize(5000)
-                .removalListener(this)
-                .expireAfterWrite(this.configurationManager
-                        .loadConfiguration()
-                        .getSchemaCacheTTL(), TimeUnit.SECONDS)
-                .build();
-
-        this.allSchemasCache = CacheBuilder
-                .newBuilder()
-                .maximumSize(5000)
-                .expireAfterWrite(this.configurationManager
-                        .loadConfiguration()
-                        .getSchemaCacheTTL(), TimeUnit.SECONDS)
-                .build();
-
         try {
             /**
              * Vamos carregar todos os schemas
@@ -156,25 +128,25 @@ public class SchemaSession implements RemovalListener<String, ResourceSchemaMode
          * Pegamos só o raiz de cada arvore.
          */
         ResourceSchemaModel defaultResource = this.loadSchema("resource.default");
-        this.notifyUpdateEvent(defaultResource);
+        this.notifyUpdateEvent(defaultResource, true);
 
         /**
          * Pegamos agora as connections
          */
         ResourceSchemaModel defaultConnection = this.loadSchema("connection.default");
-        this.notifyUpdateEvent(defaultConnection);
+        this.notifyUpdateEvent(defaultConnection, true);
 
         /**
          * Agora os circuitos
          */
         ResourceSchemaModel defaultCircuit = this.loadSchema("circuit.default");
-        this.notifyUpdateEvent(defaultCircuit);
+        this.notifyUpdateEvent(defaultCircuit, true);
 
         /**
          * Agora os serviços
          */
         ResourceSchemaModel defaultService = this.loadSchema("service.default");
-        this.notifyUpdateEvent(defaultService);
+        this.notifyUpdateEvent(defaultService, true);
 
     }
 
@@ -182,7 +154,7 @@ public class SchemaSession implements RemovalListener<String, ResourceSchemaMode
      * Carrega um schema
      *
      * @param schemaName nome do schema a ser carregado
-     * @param cached - se true, usará o cache, se false irá ignorar o cache
+     * @param cached - se false, relê o arquivo do schema antes de retornar
      * @return
      * @throws SchemaNotFoundException
      * @throws GenericException
@@ -190,7 +162,7 @@ public class SchemaSession implements RemovalListener<String, ResourceSchemaMode
     public ResourceSchemaModel loadSchema(String schemaName, Boolean cached)
             throws SchemaNotFoundException, GenericException {
         if (!cached) {
-            this.clearSchemaCache();
+            this.schemaRegistry.reload(Collections.singletonList(schemaName));
         }
         return this.loadSchema(schemaName);
     }
@@ -204,103 +176,24 @@ public class SchemaSession implements RemovalListener<String, ResourceSchemaMode
      * @throws GenericException
      */
     public ResourceSchemaModel loadSchema(String schemaName) throws SchemaNotFoundException, GenericException {
-        ResourceSchemaModel schema = this.schemaCache.getIfPresent(schemaName);
-        if (schema != null) {
-            logger.debug("Hit Cache on Schema: [" + schemaName + "]");
-            return schema;
-        } else {
-            this.schemaDir = configurationManager.loadConfiguration().getSchemaDir();
-            schema = this.loadSchemaFromDisk(schemaName, null);
-            this.schemaCache.put(schemaName, schema);
-            return schema;
-        }
-    }
-
-    private List<ResourceSchemaModel> loadSchemaFromDisk() throws SchemaNotFoundException, GenericException {
-        List<ResourceSchemaModel> result = new ArrayList<>();
-        this.schemaDir = configurationManager.loadConfiguration().getSchemaDir();
-
-        String schemaDirectory = configurationManager.loadConfiguration().getSchemaDir();
-        schemaDirectory = schemaDirectory.replace("\\.", "/");
-        DirectoryScanner scanner = new DirectoryScanner();
-        String[] filter = new String[1];
-        filter[0] = "**/*.json";
-        scanner.setIncludes(filter);
-        scanner.setBasedir(schemaDirectory);
-        scanner.setCaseSensitive(true);
-        scanner.scan();
-
-        for (String schemaFile : scanner.getIncludedFiles()) {
-            if (schemaFile.startsWith("resource")
-                    || schemaFile.startsWith("location")
-                    || schemaFile.startsWith("connection")
-                    || schemaFile.startsWith("service")
-                    || schemaFile.startsWith("circuit")) {
-
-                schemaFile = schemaFile.replaceAll("\\/", ".").replaceAll("\\.json", "");
-                ResourceSchemaModel schema = this.loadSchemaFromDisk(schemaFile, null);
-                /**
-                 * Trata data
-                 */
-                if (schema.getCreationDate() == null) {
-                    /**
-                     * Seta bem antigo
-                     */
-                    schema.setCreationDate(new Date(0));
-                }
-
-                if (schema.getLastUpdate() == null) {
-                    schema.setLastUpdate(new Date(0));
-                }
-                result.add(schema);
-            }
-
-        }
-        return result;
+        return this.schemaRegistry.get(schemaName);
     }
 
+    /**
+     * Lista os schemas das árvores resource, location, connection, service e
+     * circuit, paginado a partir do catálogo já ordenado
+     *
+     * @param page
+     * @param size
+     * @param sortField
+     * @param sortDirection
+     * @param filter
+     * @return
+     * @throws SchemaNotFoundException
+     * @throws GenericException
+     */
     public ListSchemasResponse listSchemas(int page, int size, String sortField, String sortDirection, String filter) throws SchemaNotFoundException, GenericException {
-        /**
-         * Faz uso do Cache
-         */
-        List<ResourceSchemaModel> result = this.allSchemasCache.getIfPresent(filter);
-        if (result == null) {
-            result = this.loadSchemaFromDisk();
-            this.allSchemasCache.put(filter, result);
-        }
-
-        /**
-         * Vamos fazer um filtro :)
-         */
-        if (!filter.equals("*")) {
-            result.removeIf(a -> !a.getSchemaName().contains(filter));
-        }
-        int totalSize = result.size();
-
-        /**
-         * Agora vamos ordenar a saída com o campo que o usuário pediu
-         */
-        Stream<ResourceSchemaModel> stream = result.stream();
-        if (sortField != null) {
-            Comparator<ResourceSchemaModel> comparator = new BeanComparator<>(sortField);
-            if ("desc".equalsIgnoreCase(sortDirection)) {
-                comparator = comparator.reversed();
-            }
-            stream = stream.sorted(comparator);
-        }
-        result = stream.collect(Collectors.toList());
-
-        /**
-         * Constroi a paginação depois do filtro
-         */
-        Pageable pageRequest = PageRequest.of(page, size);
-
-        int start = (int) pageRequest.getOffset();
-        int end = Math.min((start + pageRequest.getPageSize()), result.size());
-
-        List<ResourceSchemaModel> pageContent = result.subList(start, end);
-
-        return new ListSchemasResponse(new PageImpl<>(pageContent, pageRequest, totalSize));
+        return new ListSchemasResponse(this.schemaCatalog.current().list(null, filter, sortField, sortDirection, page, size));
     }
 
     /**
@@ -312,133 +205,109 @@ public class SchemaSession implements RemovalListener<String, ResourceSchemaMode
      * @throws com.osstelecom.db.inventory.manager.exception.GenericException
      */
     public GetSchemasResponse loadSchemas() throws SchemaNotFoundException, GenericException {
+        return new GetSchemasResponse(this.schemaCatalog.current().names());
+    }
 
-        if (allSchemasName.isEmpty()) {
-            this.loadSchemaFromDisk().forEach(s -> {
-                allSchemasName.add(s.getSchemaName());
-            });
-        }
+    /**
+     * Página de schemas com prefixo e/ou trecho do nome
+     *
+     * @param prefix
+     * @param contains
+     * @param page
+     * @param size
+     * @param sortField
+     * @param sortDirection
+     * @return
+     */
+    public ListSchemasResponse listSchemas(String prefix, String contains, int page, int size, String sortField, String sortDirection) {
+        return new ListSchemasResponse(this.schemaCatalog.current().list(prefix, contains, sortField, sortDirection, page, size));
+    }
 
-        return new GetSchemasResponse(allSchemasName);
+    /**
+     * Nomes de schema que começam com o prefixo, para autocomplete
+     *
+     * @param prefix
+     * @param limit
+     * @return
+     */
+    public GetSchemasResponse autocompleteSchemas(String prefix, int limit) {
+        return new GetSchemasResponse(this.schemaCatalog.current().autocomplete(prefix, limit));
     }
 
     /**
-     * Loads the Schema by Name
+     * Schemas que herdam diretamente do schema
      *
      * @param schemaName
      * @return
      * @throws SchemaNotFoundException
-     * @throws GenericException
      */
-    public ResourceSchemaResponse loadSchemaByName(String schemaName) throws SchemaNotFoundException, GenericException {
-        return new ResourceSchemaResponse(this.loadSchema(schemaName));
+    public GetSchemasResponse getSchemaChildren(String schemaName) throws SchemaNotFoundException {
+        return new GetSchemasResponse(this.schemaCatalog.current().children(this.catalogName(schemaName)));
     }
 
     /**
+     * Cadeia de herança do schema, do pai até a raiz
      *
-     * @param filter
+     * @param schemaName
      * @return
      * @throws SchemaNotFoundException
-     * @throws GenericException
      */
-    public GetSchemasResponse getSchemaByFilter(String filter) throws SchemaNotFoundException, GenericException {
-        GetSchemasResponse r = this.loadSchemas();
-        r.getPayLoad().removeIf(a -> !a.startsWith(filter));
-        return r;
+    public GetSchemasResponse getSchemaAncestors(String schemaName) throws SchemaNotFoundException {
+        return new GetSchemasResponse(this.schemaCatalog.current().ancestors(this.catalogName(schemaName)));
     }
 
     /**
-     * Merge a schema name, the result model is the output
+     * Todos os schemas que herdam do schema, direta ou indiretamente
      *
-     * @param result
-     * @param resourceModel
+     * @param schemaName
+     * @return
+     * @throws SchemaNotFoundException
      */
-    private void mergeSchemaModelSession(ResourceSchemaModel result, ResourceSchemaModel resourceModel) {
-        for (Map.Entry<String, ResourceAttributeModel> entry : resourceModel.getAttributes().entrySet()) {
-            String key = entry.getKey();
-            entry.getValue().setItemHash(utilSession.getMd5(resourceModel.getSchemaName() + "." + key));
-            ResourceAttributeModel model = entry.getValue();
-            if (!result.getAttributes().containsKey(key)) {
-                model.setId(resourceModel.getSchemaName() + "." + key);
-                result.getAttributes().put(key, model);
-            }
-        }
-
+    public GetSchemasResponse getSchemaDescendants(String schemaName) throws SchemaNotFoundException {
+        return new GetSchemasResponse(this.schemaCatalog.current().descendants(this.catalogName(schemaName)));
     }
 
     /**
-     * Smartly reads the schema definition from disk
+     * Herança achatada do schema, com o schema que definiu ou sobrescreveu
+     * cada atributo
      *
      * @param schemaName
-     * @param result
-     * @param loadInherited
      * @return
      * @throws SchemaNotFoundException
      * @throws GenericException
      */
-    private ResourceSchemaModel loadSchemaFromDisk(String schemaName, ResourceSchemaModel result)
-            throws SchemaNotFoundException, GenericException {
-        schemaName = schemaName.replaceAll("\\.", "/");
+    public SchemaLineageResponse getSchemaLineage(String schemaName) throws SchemaNotFoundException, GenericException {
+        return new SchemaLineageResponse(this.schemaRegistry.getLineage(schemaName));
+    }
 
-        ResourceSchemaModel cachedSchema = this.schemaCache.getIfPresent(schemaName);
-        if (cachedSchema != null) {
-            return cachedSchema;
+    private String catalogName(String schemaName) throws SchemaNotFoundException {
+        if (!this.schemaRegistry.contains(schemaName)) {
+            throw new SchemaNotFoundException("Schema With Name:[" + schemaName + "] was not found");
         }
+        return schemaName.replace("/", ".");
+    }
 
-        logger.debug("Trying to load Schema from: " + schemaName);
-        File f = new File(this.schemaDir + "/" + schemaName + ".json");
-
-        if (f.exists()) {
-            try {
-                //
-                // Arquivo existe vamos ler os modelos
-                //
-                FileReader jsonReader = new FileReader(f);
-                ResourceSchemaModel resourceModel = utilSession.getGson().fromJson(jsonReader,
-                        ResourceSchemaModel.class);
-                jsonReader.close();
-
-                if (result == null) {
-                    result = resourceModel;
-                } else {
-                    //
-                    // Eu tenho um filho
-                    //
-                    if (resourceModel.getChildrenSchemas() != null) {
-                        if (!resourceModel.getChildrenSchemas().contains(result.getSchemaName())) {
-                            resourceModel.getChildrenSchemas().add(result.getSchemaName());
-                            try {
-                                this.writeModelToDisk(resourceModel, true);
-                            } catch (InvalidRequestException ex) {
-                                logger.error("Failed to Syncronize Data with DISK");
-                            }
-                        }
-                    }
-                }
-                logger.debug("Loaded  SchemaName: [" + resourceModel.getSchemaName() + "]");
-
-                this.mergeSchemaModelSession(result, resourceModel);
-
-                if (!resourceModel.getFromSchema().equals(".")) {
-                    result = this.loadSchemaFromDisk(resourceModel.getFromSchema(), result);
-                }
-                //
-                // Salva só no final
-                //
-                return result;
-            } catch (FileNotFoundException ex) {
-                throw new GenericException(ex.getMessage(), ex);
-            } catch (IOException ex) {
-                throw new GenericException(ex.getMessage(), ex);
-            } catch (JsonSyntaxException | JsonIOException ex) {
-                logger.error("Invalid Json File:[{}]", f, ex);
-                throw new GenericException(ex.getMessage(), ex);
-            }
-        } else {
-            throw new SchemaNotFoundException("Schema With Name:[" + schemaName + "] was not found File: ["
-                    + this.schemaDir + "/" + schemaName + ".json" + "]");
-        }
+    /**
+     * Loads the Schema by Name
+     *
+     * @param schemaName
+     * @return
+     * @throws SchemaNotFoundException
+     * @throws GenericException
+     */
+    public ResourceSchemaResponse loadSchemaByName(String schemaName) throws SchemaNotFoundException, GenericException {
+        return new ResourceSchemaResponse(this.loadSchema(schemaName));
+    }
 
+    /**
+     *
+     * @param filter
+     * @return
+     * @throws SchemaNotFoundException
+     * @throws GenericException
+     */
+    public GetSchemasResponse getSchemaByFilter(String filter) throws SchemaNotFoundException, GenericException {
+        return new GetSchemasResponse(this.schemaCatalog.current().namesStartingWith(filter));
     }
 
     /**
@@ -573,20 +442,27 @@ public class SchemaSession implements RemovalListener<String, ResourceSchemaMode
         resolveRelatedParentSchemas(model, null);
 
         this.writeModelToDisk(model, false);
-        this.clearSchemaCache();
         return new CreateResourceSchemaModelResponse(this.loadSchema(model.getSchemaName()));
 
     }
 
     /**
-     * Clear all cached Entries.. .
+     * Inicia a job que troca os schemaModels embutidos nos documentos pela
+     * referência do schema
+     *
+     * @return
+     * @throws InvalidRequestException
      */
-    public void clearSchemaCache() {
-        logger.debug("Clearing all Cached Schemas..." + this.schemaCache.size());
-        this.allSchemasName.clear();
-        this.schemaCache.invalidateAll();
-        this.allSchemasCache.invalidateAll();
+    public DbJobResponse migrateSchemaStorage() throws InvalidRequestException {
+        return new DbJobResponse(this.schemaStorageMigrationManager.startMigration());
+    }
 
+    /**
+     * Relê todo o schemaDir
+     */
+    public void clearSchemaCache() {
+        logger.debug("Reloading all Schemas..." + this.schemaRegistry.asMap().size());
+        this.schemaRegistry.reloadAll();
     }
 
     /**
@@ -595,598 +471,24 @@ public class SchemaSession implements RemovalListener<String, ResourceSchemaMode
      * @return
      */
     public Map<String, ResourceSchemaModel> getCachedSchemas() {
-        return this.schemaCache.asMap();
+        return this.schemaRegistry.asMap();
     }
 
     /**
-     * Valida o esquema de recurso fornecido com base em seu modelo de atributo
-     * de esquema (ResourceSchemaModel).
-     *
-     * <p>
-     * Este método realiza a validação do esquema de recurso fornecido
-     * (representado por um objeto BasicResource) de acordo com o modelo de
-     * atributo de esquema associado. O processo de validação inclui as
-     * seguintes etapas:</p>
-     *
-     * <ol>
-     * <li>Sanitização das chaves:
-     * <ul>
-     * <li>O método verifica se existem atributos no recurso que não estão
-     * presentes no modelo de atributo de esquema associado.</li>
-     * <li>Quaisquer atributos ausentes são removidos do recurso antes de
-     * prosseguir com a validação.</li>
-     * </ul>
-     * </li>
-     * <li>Verificação de "Allow All":
-     * <ul>
-     * <li>Se a configuração "Allow All" no modelo de atributo de esquema for
-     * definida como "false" ou não estiver presente, o método procederá com a
-     * validação dos atributos definidos no modelo.</li>
-     * <li>Se "Allow All" for definido como "true", o método logará um aviso
-     * indicando que essa configuração está habilitada, mas não executará a
-     * validação dos atributos específicos.</li>
-     * </ul>
-     * </li>
-     * <li>Validação dos atributos obrigatórios:
-     * <ul>
-     * <li>O método verifica se os atributos obrigatórios definidos no modelo de
-     * atributo de esquema estão presentes no recurso.</li>
-     * <li>Caso um atributo obrigatório esteja ausente e não tenha um valor
-     * padrão definido, uma exceção AttributeConstraintViolationException será
-     * lançada.</li>
-     * <li>Se o valor padrão estiver definido para um atributo obrigatório, o
-     * método validará o valor do atributo com base nas restrições
-     * especificadas, como expressões regulares de validação, valores permitidos
-     * e tipos de variável.</li>
-     * </ul>
-     * </li>
-     * <li>Validação dos atributos de descoberta:
-     * <ul>
-     * <li>O método valida os atributos de descoberta (discoveryAttributes) do
-     * recurso com base em seus modelos de atributo de esquema associados.</li>
-     * <li>Somente os atributos de descoberta que são marcados como
-     * "isDiscovery" no modelo de atributo de esquema podem ser usados na
-     * validação.</li>
-     * <li>O método garantirá que os atributos de descoberta estejam associados
-     * a seus modelos de atributo de esquema correspondentes e que os valores
-     * fornecidos sejam do tipo correto, conforme definido nos modelos.</li>
-     * </ul>
-     * </li>
-     * <li>Marcação do modelo de atributo de esquema como válido ou inválido:
-     * <ul>
-     * <li>Após concluir a validação dos atributos, o método atualizará o estado
-     * de validação (isValid) do modelo de atributo de esquema associado ao
-     * recurso com base nos resultados da validação.</li>
-     * </ul>
-     * </li>
-     * </ol>
-     *
-     * @param resource O objeto BasicResource que representa o recurso a ser
-     * validado.
-     * @throws AttributeConstraintViolationException Se houver algum atributo
-     * ausente, inválido ou em violação das restrições especificadas no modelo
-     * de atributo de esquema.
+     * Valida o recurso contra o schema dele, removendo as chaves que o schema
+     * não conhece, aplicando os defaults e convertendo os valores. O
+     * schemaModel do recurso é marcado como válido ou inválido.
      *
+     * @param resource
+     * @throws AttributeConstraintViolationException se algum atributo está
+     * ausente ou viola as restrições do schema
      */
     public void validateResourceSchema(BasicResource resource) throws AttributeConstraintViolationException {
-
         //
-        // As vezes uma chave será exluída e devemos processar isso aqui, faz a
-        // sanitização das chaves
+        // O validador é compilado uma vez por snapshot do registro, regex,
+        // datas e defaults já estão resolvidos
         //
-        List<String> deletedAttributes = new ArrayList<>();
-
-        resource.getAttributes().forEach((attrName, attrValue) -> {
-            if (!resource.getSchemaModel().getAttributes().containsKey(attrName)) {
-                deletedAttributes.add(attrName);
-            }
-        });
-
-        if (!deletedAttributes.isEmpty()) {
-            deletedAttributes.forEach((deletedAttrName) -> {
-                logger.debug("Deleting Attribute from Resource:[{}]", resource.getKey());
-                resource.getAttributes().remove(deletedAttrName);
-            });
-
-        }
-
-        if (resource.getSchemaModel().getAllowAll() == null) {
-            resource.getSchemaModel().setAllowAll(false);
-        }
-        if (!resource.getSchemaModel().getAllowAll()) {
-
-            for (String key : resource.getAttributes().keySet()) {
-                if (!resource.getSchemaModel().getAttributes().containsKey(key)) {
-                    resource.getSchemaModel().setIsValid(false);
-                    throw new AttributeConstraintViolationException("Invalid Attribute named:[" + key + "] for model: ["
-                            + resource.getSchemaModel().getSchemaName() + "]");
-
-                }
-            }
-
-            //
-            // Valida os campos obrigatórios...
-            //
-            try {
-                for (ResourceAttributeModel entry : resource.getSchemaModel().getAttributes().values()) {
-                    if (entry.getRequired() == null) {
-                        entry.setRequired(false);
-                    }
-                    if (entry.getValidate() == null) {
-                        entry.setValidate(false);
-                    }
-                    if (entry.getRequired()) {
-                        if (resource.getAttributes() == null) {
-                            throw new AttributeConstraintViolationException(
-                                    "Missing Required Attribute Named:[" + entry.getName() + "]");
-                        }
-                        if (!resource.getAttributes().containsKey(entry.getName())) {
-                            if (entry.getDefaultValue() != null) {
-                                Object value = this.getAttributeValue(entry, entry.getDefaultValue());
-
-                                if (!entry.getIsList() && entry.getValidationRegex() != null) {
-                                    //
-                                    // Não é lista e tem uma regex
-                                    //
-                                    if (!entry.getDefaultValue().matches(entry.getValidationRegex())) {
-                                        resource.getSchemaModel().setIsValid(false);
-                                        throw new AttributeConstraintViolationException("Value: ["
-                                                + entry.getDefaultValue() + "] does not matches validation regex:["
-                                                + entry.getValidationRegex() + "]");
-                                    }
-
-                                } else {
-                                    //
-                                    // Valida a lista
-                                    //
-                                }
-
-                                resource.getAttributes().put(entry.getName(),
-                                        value);
-                            } else {
-                                //
-                                // Lança a exception de validação
-                                //
-                                resource.getSchemaModel().setIsValid(false);
-
-                                throw new AttributeConstraintViolationException(
-                                        "Missing Required Attribute Named:[" + entry.getName() + "]");
-                            }
-                        } else {
-                            Object value = this.getAttributeValue(entry, resource.getAttributes().get(entry.getName()));
-
-                            if (!entry.getIsList() && entry.getValidationRegex() != null
-                                    && !entry.getValidationRegex().trim().equals("") && entry.getValidate()) {
-                                String stringValue = value.toString();
-                                if (!stringValue.matches(entry.getValidationRegex())) {
-                                    resource.getSchemaModel().setIsValid(false);
-                                    throw new AttributeConstraintViolationException(
-                                            "Value: [" + stringValue + "] does not matches validation regex:["
-                                            + entry.getValidationRegex() + "]");
-                                }
-                            }
-
-                            resource.getAttributes().put(entry.getName(), value);
-                        }
-                    } else {
-                        if (resource.getAttributes() != null) {
-                            if (!resource.getAttributes().containsKey(entry.getName())) {
-                                if (entry.getDefaultValue() != null) {
-                                    Object value = getAttributeValue(entry, entry.getDefaultValue());
-                                    if (value != null) {
-                                        resource.getAttributes().put(entry.getName(),
-                                                value);
-                                    }
-                                } else {
-                                    //
-                                    // Isso pode gerar inconsistencia
-                                    //
-                                }
-                            } else {
-                                Object value = this.getAttributeValue(entry,
-                                        resource.getAttributes().get(entry.getName()));
-                                if (value != null) {
-                                    String stringValue = value.toString();
-                                    if (entry.getValidationRegex() != null
-                                            && !entry.getValidationRegex().trim().equals("") && entry.getValidate()) {
-                                        if (!stringValue.matches(entry.getValidationRegex())) {
-                                            resource.getSchemaModel().setIsValid(false);
-                                            throw new AttributeConstraintViolationException(
-                                                    "Value: [" + stringValue + "] does not matches validation regex:["
-                                                    + entry.getValidationRegex() + "]");
-                                        }
-                                    }
-                                    resource.getAttributes().put(entry.getName(),
-                                            value);
-                                }
-                            }
-                        }
-                    }
-                }
-
-                //
-                // Segunda parte valida os atributos da rede
-                //
-                if (resource.getDiscoveryAttributes() != null && !resource.getDiscoveryAttributes().isEmpty()) {
-                    //
-                    // Note que só validamos o typecasting
-                    //
-                    for (Map.Entry<String, Object> data : resource.getDiscoveryAttributes().entrySet()) {
-                        String name = data.getKey();
-                        Object value = data.getValue();
-                        ResourceAttributeModel model = resource.getSchemaModel().getAttributes().get(name);
-                        if (model != null) {
-                            if (model.getIsDiscovery()) {
-                                //
-                                // Podemos usar aqui :)
-                                //
-                                resource.getDiscoveryAttributes().put(name, this.getAttributeValue(model, value));
-                            } else {
-                                throw new AttributeConstraintViolationException(
-                                        "Attribute named:[" + name + "] is not discovery attribute for model: ["
-                                        + resource.getSchemaModel().getSchemaName() + "]");
-                            }
-                        } else {
-                            throw new AttributeConstraintViolationException("Invalid Discovery Attribute named:[" + name
-                                    + "] for model: [" + resource.getSchemaModel().getSchemaName() + "]");
-                        }
-                    }
-
-                }
-                //
-                // Se bateu aqui tá tudo certinho :)
-                //
-                resource.getSchemaModel().setIsValid(true);
-
-            } catch (AttributeConstraintViolationException acve) {
-                //
-                // Erro em alguma validação, marca o schemamodel do recurso como inválido
-                //
-                resource.getSchemaModel().setIsValid(false);
-                throw acve;
-            }
-            //
-            // Se bateu aqui tá tudo certinho :)
-            //
-            resource.getSchemaModel().setIsValid(true);
-        } else {
-            logger.warn("Allow ALL Is Enable, please fix me!");
-            resource.getSchemaModel().setIsValid(true);
-        }
-    }
-
-    /**
-     * Obtém o valor de atributo formatado com base no modelo fornecido
-     * (ResourceAttributeModel).
-     *
-     * <p>
-     * Este método é responsável por obter o valor do atributo formatado com
-     * base nas restrições definidas no modelo de atributo
-     * (ResourceAttributeModel) associado. Ele realiza as seguintes etapas de
-     * validação:</p>
-     *
-     * <ol>
-     * <li>Verificação do valor nulo:
-     * <ul>
-     * <li>Se o valor fornecido for nulo, o método registrará um aviso no log
-     * indicando o nome do atributo (model.getName()).</li>
-     * </ul>
-     * </li>
-     * <li>Definição do valor de "IsList":
-     * <ul>
-     * <li>Se o valor de "IsList" no modelo for nulo, ele será definido como
-     * "false".</li>
-     * </ul>
-     * </li>
-     * <li>Validação dos valores permitidos (AllowedValues):
-     * <ul>
-     * <li>Se a lista de "AllowedValues" no modelo não estiver vazia, o método
-     * verificará se o valor fornecido está contido na lista.</li>
-     * <li>Se "IsList" for verdadeiro, o método iterará sobre cada valor da
-     * lista e verificará se ele está na lista de "AllowedValues". Se não
-     * estiver, uma exceção AttributeConstraintViolationException será
-     * lançada.</li>
-     * <li>Se "IsList" for falso, o método verificará se o valor fornecido está
-     * na lista de "AllowedValues". Se não estiver, uma exceção
-     * AttributeConstraintViolationException será lançada.</li>
-     * </ul>
-     * </li>
-     * <li>Sanitização do tipo de variável (VariableType):
-     * <ul>
-     * <li>Se o tipo de variável no modelo (VariableType) for nulo, o método
-     * registrará um aviso no log indicando o nome do atributo (model.getName())
-     * e definirá o tipo de variável como "String" por padrão.</li>
-     * </ul>
-     * </li>
-     * <li>Formatação de valores baseados no tipo de variável:
-     * <ul>
-     * <li>Se o tipo de variável for "String", o método retornará o valor como
-     * uma String. Se "IsList" for verdadeiro, o valor será retornado como uma
-     * lista de Strings.</li>
-     * <li>Se o tipo de variável for "Number", o método tentará formatar o valor
-     * como um número. Se "IsList" for verdadeiro, o valor será retornado como
-     * uma lista de Longs.</li>
-     * <li>Se o tipo de variável for "Boolean", o método tentará formatar o
-     * valor como um booleano. Se "IsList" for verdadeiro, o valor será
-     * retornado como uma lista de Booleanos.</li>
-     * <li>Se o tipo de variável for "Float", o método tentará formatar o valor
-     * como um número de ponto flutuante. Se "IsList" for verdadeiro, o valor
-     * será retornado como uma lista de Floats.</li>
-     * <li>Se o tipo de variável for "Date" ou "DateTime", o método tentará
-     * formatar o valor como uma data ou data e hora, respectivamente, com base
-     * no formato especificado na configuração.</li>
-     * <li>Se o tipo de variável for "GeoLine", o método retornará o valor como
-     * uma lista de Floats.</li>
-     * <li>Se o tipo de variável não corresponder a nenhum dos tipos acima, uma
-     * exceção AttributeConstraintViolationException será lançada.</li>
-     * </ul>
-     * </li>
-     * </ol>
-     *
-     * @param model O objeto ResourceAttributeModel que representa o modelo de
-     * atributo a ser usado para validação e formatação.
-     * @param value O valor do atributo a ser validado e formatado.
-     * @return O valor formatado do atributo com base no modelo fornecido.
-     * @throws AttributeConstraintViolationException Se o valor não atender às
-     * restrições especificadas no modelo de atributo.
-     */
-    public Object getAttributeValue(ResourceAttributeModel model, Object value)
-            throws AttributeConstraintViolationException {
-        // if (!model.getIsList()) {
-        if (value == null) {
-            logger.warn("Value is null for:" + model.getName());
-        }
-        if (model.getIsList() == null) {
-            model.setIsList(false);
-        }
-        try {
-            if (model.getAllowedValues() != null) {
-                if (!model.getAllowedValues().isEmpty()) {
-                    if (model.getIsList()) {
-                        //
-                        // Model é uma lista, então precisamos ver se todos os valores da Lista estão no
-                        // allowed values.
-                        //
-                        if (value instanceof List) {
-                            List list = (List) value;
-                            for (Object o : list) {
-                                //
-                                // Deve ser migrado para o método validateResourceSchema()
-                                //
-                                if (o != null) {
-                                    if (!o.toString().trim().equals("")) {
-                                        if (!model.getAllowedValues().contains(o.toString())) {
-                                            throw new AttributeConstraintViolationException(
-                                                    "Attribute [" + model.getName() + "] of type:"
-                                                    + model.getVariableType() + " Value : ["
-                                                    + o.toString() + "] is not allowed here Allowed vars are:["
-                                                    + String.join(",", model.getAllowedValues()) + "]");
-                                        }
-                                    }
-                                }
-                            }
-                        } else {
-                            throw new AttributeConstraintViolationException(
-                                    "Attribute [" + model.getName() + "] of type:" + model.getVariableType()
-                                    + " Is a List, please send a list , not a scalar value");
-
-                        }
-
-                    } else {
-                        if (value != null) {
-                            if (!value.toString().trim().equals("")) {
-                                if (!model.getAllowedValues().contains(value.toString())) {
-                                    //
-                                    // Não Pode Prosseguir
-                                    //
-                                    throw new AttributeConstraintViolationException(
-                                            "Attribute [" + model.getName() + "] of type:" + model.getVariableType()
-                                            + " Value : ["
-                                            + value + "] is not allowed here Allowed vars are:["
-                                            + String.join(",", model.getAllowedValues()) + "]");
-
-                                }
-                            }
-                        }
-                    }
-                }
-            }
-
-            //
-            // Sanitiza o tipo de variavel se subiu lixo
-            // @since rc1
-            //
-            if (model.getVariableType() == null) {
-                logger.warn("Please Check:" + model.getName() + " Null Variable Type, assuming string as default");
-                model.setVariableType("String");
-            }
-
-            if (model.getVariableType().equalsIgnoreCase("String")) {
-                //
-                // String will get the String representation as it is..
-                //
-                if (value != null && !value.toString().equals("")) {
-                    if (model.getIsList() && value instanceof List) {
-                        //
-                        // lista de string
-                        //
-                        List<String> list = (List) value;
-                        return list;
-                    } else {
-                        if (value != null && !value.toString().equals("")) {
-                            if (value instanceof String) {
-                                if (value.toString().equals("")) {
-                                    //
-                                    // Trata como null;
-                                    //
-                                    return null;
-                                } else {
-                                    return value;
-                                }
-                            } else {
-                                throw new AttributeConstraintViolationException("Attribute [" + model.getName()
-                                        + "] of type:" + model.getVariableType() + " Does not accpect value: [" + value
-                                        + "] of type:" + value.getClass().getCanonicalName());
-                            }
-                        } else {
-                            return null;
-                        }
-                    }
-                } else {
-                    return null;
-                }
-            } else if (model.getVariableType().equalsIgnoreCase("Number")) {
-                if (value != null && !value.toString().equals("")) {
-                    if (model.getIsList() && value instanceof List) {
-                        //
-                        // lista de string
-                        //
-                        List<Long> list = (List) value;
-                        return list;
-                    } else {
-                        if (value != null) {
-                            if (value.toString().equals("")) {
-                                return null;
-                            }
-                            if (value instanceof Long) {
-                                return value;
-                            }
-                            if (value.toString().contains(".")) {
-                                Double d = Double.parseDouble(value.toString());
-                                return d.longValue();
-                            }
-                            return Long.parseLong(value.toString());
-                        } else {
-                            return null;
-                        }
-                    }
-                } else {
-                    return null;
-                }
-            } else if (model.getVariableType().equalsIgnoreCase("Boolean")) {
-                if (model.getIsList() && value instanceof List) {
-                    //
-                    // lista de string
-                    //
-                    List<Boolean> list = (List) value;
-                    return list;
-                } else {
-                    if (value != null && !value.toString().equals("")) {
-                        if (value instanceof Boolean) {
-                            return value;
-                        }
-                        if (value.toString().equalsIgnoreCase("true") || value.toString().equalsIgnoreCase("false")) {
-                            return value.toString().equalsIgnoreCase("true");
-                        } else if (value.toString().equals("")) {
-                            return false;
-                        } else {
-                            throw new AttributeConstraintViolationException(
-                                    "Attribute [" + model.getName() + "] of type:"
-                                    + model.getVariableType() + " Does not accpect value: [" + value + "]");
-                        }
-                    } else {
-                        return false;
-                    }
-                }
-            } else if (model.getVariableType().equalsIgnoreCase("Float")) {
-                if (value != null && !value.toString().equals("")) {
-                    if (model.getIsList() && value instanceof List) {
-                        //
-                        // lista de string
-                        //
-                        List<Float> list = (List) value;
-                        return list;
-                    } else {
-                        if (value instanceof Float) {
-                            return value;
-                        }
-                        return Float.parseFloat(value.toString());
-                    }
-                } else {
-                    return null;
-                }
-            } else if (model.getVariableType().equalsIgnoreCase("Date")) {
-
-                if (value != null && !value.toString().equals("")) {
-
-                    if (model.getIsList() && value instanceof List) {
-                        //
-                        // lista de string deveria ser de date!
-                        // @todo arrumar o type cast
-                        //
-                        List list = (List) value;
-
-                        if (list != null) {
-                            if (!list.isEmpty()) {
-                                List<Date> dates = new ArrayList<>();
-                                for (Object o : list) {
-                                    if (o != null) {
-                                        String dateValue = o.toString();
-                                        dates.add(this.getDateFromStringFormat(dateValue, configurationManager.loadConfiguration().getDateFormat()));
-                                    }
-                                }
-                                return dates;
-                            } else {
-                                return null;
-                            }
-
-                        } else {
-                            return null;
-                        }
-
-                    } else {
-                        String dateValue = value.toString();
-                        if (!dateValue.trim().equals("")) {
-                            return this.getDateFromStringFormat(dateValue, configurationManager.loadConfiguration().getDateFormat());
-                        } else {
-                            return null;
-                        }
-                    }
-                } else {
-                    return null;
-                }
-            } else if (model.getVariableType().equalsIgnoreCase("DateTime")) {
-                if (value != null && !value.toString().equals("")) {
-                    SimpleDateFormat sdf = new SimpleDateFormat(
-                            configurationManager.loadConfiguration().getDateTimeFormat());
-                    sdf.setLenient(false);
-                    if (model.getIsList() && value instanceof List) {
-                        //
-                        // lista de string
-                        //
-                        List list = (List) value;
-                        return list;
-                    } else {
-                        try {
-                            return sdf.parse(value.toString());
-                        } catch (ParseException ex) {
-                            throw new AttributeConstraintViolationException(
-                                    "Attribute [" + model.getName() + "] of type:"
-                                    + model.getVariableType() + " Cannot Parse Date Time Value : [" + value
-                                    + "] With Mask: ["
-                                    + configurationManager.loadConfiguration().getDateTimeFormat() + "]",
-                                    ex);
-
-                        }
-                    }
-                } else {
-                    return null;
-                }
-            } else if (model.getVariableType().equalsIgnoreCase("GeoLine")) {
-                if (value != null && !value.toString().equals("")) {
-                    List<Float> data = (List<Float>) value;
-                    return data;
-                } else {
-                    return null;
-                }
-            } else {
-                throw new AttributeConstraintViolationException(
-                        "Attribute [" + model.getName() + "] of type:" + model.getVariableType() + " Cannot be parsed");
-            }
-        } catch (NumberFormatException ex) {
-            throw new AttributeConstraintViolationException("Value: [" + value + "] Cannot be parsed do Number", ex);
-        }
-
+        this.schemaRegistry.getValidator(resource.getSchemaModel()).validate(resource);
     }
 
     /**
@@ -1336,7 +638,10 @@ public class SchemaSession implements RemovalListener<String, ResourceSchemaMode
             throw new InvalidRequestException("Attribute Schema Model not found");
         }
 
-        ResourceSchemaModel original = this.loadSchema(update.getSchemaName());
+        //
+        // Trabalha numa cópia, a instância do registry é compartilhada
+        //
+        ResourceSchemaModel original = this.schemaRegistry.getCopy(update.getSchemaName());
 
         if (update.getSchemaName() != null) {
             if (!update.getSchemaName().equals(original.getSchemaName())) {
@@ -1553,7 +858,6 @@ public class SchemaSession implements RemovalListener<String, ResourceSchemaMode
         if (original.getAttributesChanged()) {
 
             this.writeModelToDisk(original, true);
-            this.clearSchemaCache();
 
             //
             // Notifica o Message Bus da Atualização, ele vai varrer a base procurando
@@ -1570,15 +874,24 @@ public class SchemaSession implements RemovalListener<String, ResourceSchemaMode
      * @param model
      */
     private void notifyUpdateEvent(ResourceSchemaModel model) {
+        this.notifyUpdateEvent(model, false);
+    }
+
+    /**
+     * @param model
+     * @param fullRevalidation revalida todos os recursos, usado na
+     * reconciliação
+     */
+    private void notifyUpdateEvent(ResourceSchemaModel model, boolean fullRevalidation) {
         logger.debug("Notifying Schema Update:[{}] With [{}] Children", model.getSchemaName(),
                 model.getChildrenSchemas().size());
-        eventManager.notifyGenericEvent(new ResourceSchemaUpdatedEvent(model));
+        eventManager.notifyGenericEvent(new ResourceSchemaUpdatedEvent(model, fullRevalidation));
         if (!model.getChildrenSchemas().isEmpty()) {
             model.getChildrenSchemas().forEach(childSchemaName -> {
                 logger.debug("Notifying Child Schema Update:[{}]", childSchemaName);
                 try {
                     ResourceSchemaModel childModel = this.loadSchema(childSchemaName);
-                    this.notifyUpdateEvent(childModel);
+                    this.notifyUpdateEvent(childModel, fullRevalidation);
                 } catch (SchemaNotFoundException | GenericException ex) {
                     logger.error("Error Processing Child Model on Update event", ex);
                 }
@@ -1687,7 +1000,7 @@ public class SchemaSession implements RemovalListener<String, ResourceSchemaMode
         String schemaName = newSchemaModel.getSchemaName();
         List<String> parents = extractParentsFromDefaultExpression(newSchemaModel);
         for (String parent : parents) {
-            ResourceSchemaModel parentSchema = loadSchemaFromDisk(parent, null);
+            ResourceSchemaModel parentSchema = this.schemaRegistry.getCopy(parent);
             List<String> relatedSchemas = parentSchema.getRelatedSchemas();
             if (relatedSchemas != null) {
                 if (!relatedSchemas.contains(schemaName)) {
@@ -1705,7 +1018,7 @@ public class SchemaSession implements RemovalListener<String, ResourceSchemaMode
             for (String oldParent : oldParents) {
                 // não existe mais a referência na lista de atributos default
                 if (!parents.contains(oldParent)) {
-                    ResourceSchemaModel oldParentSchema = loadSchemaFromDisk(oldParent, null);
+                    ResourceSchemaModel oldParentSchema = this.schemaRegistry.getCopy(oldParent);
                     List<String> relatedSchemas = oldParentSchema.getRelatedSchemas();
                     if (relatedSchemas != null && relatedSchemas.contains(schemaName)) {
                         relatedSchemas.remove(schemaName);
@@ -1857,50 +1170,12 @@ public class SchemaSession implements RemovalListener<String, ResourceSchemaMode
                 throw new GenericException(ex.getMessage(), ex);
             }
             //
-            // Reloads the schema and its attributes.
+            // Reloads the schema and its children, without waiting for the
+            // watcher
             //
-            this.clearSchemaCache();
+            this.schemaRegistry.reload(Collections.singletonList(modelName));
         } else {
             throw new InvalidRequestException("Resource Schema Model [" + model.getSchemaName() + "] Already Exists");
         }
     }
-
-    private Date getDateFromStringFormat(String value, String preferedFormat) throws AttributeConstraintViolationException {
-        SimpleDateFormat sdf = new SimpleDateFormat(
-                preferedFormat);
-        sdf.setLenient(false);
-
-        try {
-            return sdf.parse(value);
-        } catch (ParseException ex) {
-            /**
-             * Deu ruim, vamos tentar outro jeito
-             */
-            SimpleDateFormat sdf1 = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS");
-            try {
-                return sdf1.parse(value);
-            } catch (ParseException ex1) {
-                try {
-                    DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSX");
-                    // Parsear a string para um objeto Instant.
-                    Instant instant = Instant.from(formatter.parse(value));
-                    return Date.from(instant);
-                } catch (Exception ex2) {
-                    throw new AttributeConstraintViolationException("Cant Parse Date from Value:[" + value + "] Prefered Format:[" + preferedFormat + "]");
-                }
-            }
-        }
-    }
-
-    /**
-     * Just for Debugging
-     *
-     * @param rn
-     */
-    @Override
-    public void onRemoval(RemovalNotification<String, ResourceSchemaModel> rn) {
-        // throw new UnsupportedOperationException("Not supported yet."); //To change
-        // body of generated methods, choose Tools | Templates.
-        logger.debug("Schema: [" + rn.getKey() + "] Removed From Cache...[" + rn.getCause().name() + "]");
-    }
 }
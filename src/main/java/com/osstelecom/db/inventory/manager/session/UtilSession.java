@@ -100,7 +100,7 @@ public class UtilSession {
      *
      * @return
      */
-    public synchronized String getRequestId() {
+    public String getRequestId() {
         return UUID.randomUUID().toString();
     }
 
@@ -109,7 +109,7 @@ public class UtilSession {
      *
      * @return
      */
-    public synchronized String getResponseId() {
+    public String getResponseId() {
         return UUID.randomUUID().toString();
     }
 
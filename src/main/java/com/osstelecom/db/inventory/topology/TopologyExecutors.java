@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.topology;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executor compartilhado pelos algoritmos de topologia.
+ * <p>
+ * A biblioteca de topologia não depende do spring, então o executor e o pool
+ * fork/join são registrados aqui pelo ManagedExecutorService na subida da
+ * aplicação. Usada fora da aplicação, cai em pools próprios do tamanho da
+ * quantidade de CPUs.
+ *
+ * @author Lucas Nishimura
+ * @created 19.10.2026
+ */
+public final class TopologyExecutors {
+
+    private static volatile ExecutorService executor;
+    private static volatile ForkJoinPool forkJoinPool;
+
+    private TopologyExecutors() {
+    }
+
+    /**
+     * Registra o executor da aplicação
+     *
+     * @param executorService
+     */
+    public static void setExecutor(ExecutorService executorService) {
+        executor = executorService;
+    }
+
+    /**
+     * Registra o pool fork/join da aplicação
+     *
+     * @param pool
+     */
+    public static void setForkJoinPool(ForkJoinPool pool) {
+        forkJoinPool = pool;
+    }
+
+    /**
+     * @return o executor registrado ou o pool padrão da biblioteca
+     */
+    public static ExecutorService getExecutor() {
+        ExecutorService current = executor;
+        if (current == null) {
+            synchronized (TopologyExecutors.class) {
+                if (executor == null) {
+                    executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), new ThreadFactory() {
+                        private final AtomicInteger counter = new AtomicInteger();
+
+                        @Override
+                        public Thread newThread(Runnable r) {
+                            Thread thread = new Thread(r, "topology-" + counter.getAndIncrement());
+                            thread.setDaemon(true);
+                            return thread;
+                        }
+                    });
+                }
+                current = executor;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Pool fork/join das buscas paralelas por nível. Fica separado do
+     * executor, que tem fila limitada e não serve para tarefas que se dividem
+     *
+     * @return o pool registrado ou o pool padrão da biblioteca
+     */
+    public static ForkJoinPool getForkJoinPool() {
+        ForkJoinPool current = forkJoinPool;
+        if (current == null) {
+            synchronized (TopologyExecutors.class) {
+                if (forkJoinPool == null) {
+                    forkJoinPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors(), pool -> {
+                        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                        thread.setName("topology-fj-" + thread.getPoolIndex());
+                        thread.setDaemon(true);
+                        return thread;
+                    }, null, false);
+                }
+                current = forkJoinPool;
+            }
+        }
+        return current;
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.topology;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progresso e cancelamento cooperativo de uma análise de topologia. A job
+ * associa uma instância à thread que executa a análise, os algoritmos pegam
+ * a instância com current() antes de distribuir o trabalho no pool
+ * fork/join e chamam checkCancelled() entre níveis e lotes. Fora de uma job
+ * current() devolve uma instância que nunca cancela e não guarda nada.
+ *
+ * @author Lucas Nishimura
+ * @created 19.10.2026
+ */
+public final class TopologyProgress {
+
+    private static final ThreadLocal<TopologyProgress> CURRENT = new ThreadLocal<>();
+
+    private static final TopologyProgress NONE = new TopologyProgress();
+
+    private final AtomicLong done = new AtomicLong();
+    private final AtomicLong total = new AtomicLong();
+    private volatile String stage;
+    private volatile boolean cancelled;
+
+    /**
+     * @return o progresso da thread atual, nunca null
+     */
+    public static TopologyProgress current() {
+        TopologyProgress progress = CURRENT.get();
+        return progress == null ? NONE : progress;
+    }
+
+    /**
+     * Associa o progresso à thread atual até o unbind
+     *
+     * @param progress
+     */
+    public static void bind(TopologyProgress progress) {
+        CURRENT.set(progress);
+    }
+
+    public static void unbind() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Entra numa nova etapa, zerando a contagem
+     *
+     * @param stage
+     * @param total unidades de trabalho da etapa, zero se não se sabe
+     */
+    public void stage(String stage, long total) {
+        if (this != NONE) {
+            this.stage = stage;
+            this.done.set(0L);
+            this.total.set(total);
+        }
+    }
+
+    public void advance(long units) {
+        if (this != NONE) {
+            this.done.addAndGet(units);
+        }
+    }
+
+    public void cancel() {
+        if (this != NONE) {
+            this.cancelled = true;
+        }
+    }
+
+    public boolean isCancelled() {
+        return this.cancelled;
+    }
+
+    /**
+     * @throws CancellationException se a job foi cancelada ou a thread
+     * interrompida
+     */
+    public void checkCancelled() {
+        if (this.cancelled || (this != NONE && Thread.currentThread().isInterrupted())) {
+            throw new CancellationException("Topology Analysis Cancelled at Stage: [" + this.stage + "]");
+        }
+    }
+
+    public String getStage() {
+        return stage;
+    }
+
+    public long getDone() {
+        return done.get();
+    }
+
+    public long getTotal() {
+        return total.get();
+    }
+}
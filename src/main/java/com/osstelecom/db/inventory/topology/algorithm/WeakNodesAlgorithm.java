@@ -17,19 +17,26 @@
  */
 package com.osstelecom.db.inventory.topology.algorithm;
 
-import com.osstelecom.db.inventory.topology.connection.INetworkConnection;
-import com.osstelecom.db.inventory.topology.node.INetworkNode;
+import com.osstelecom.db.inventory.topology.ITopology;
+import com.osstelecom.db.inventory.topology.TopologyProgress;
+import com.osstelecom.db.inventory.topology.csr.Biconnectivity;
+import com.osstelecom.db.inventory.topology.csr.TopologyGraph;
 import com.osstelecom.db.inventory.topology.node.SourceTargetWrapper;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Queue;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.logging.Level;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
+ * Marca em cada nó de origem as conexões que levam ao alvo. A fila de pares
+ * origem/alvo é drenada de uma vez e calculada sobre a fotografia CSR da
+ * topologia: os pares são agrupados por origem e as origens que compartilham
+ * o mesmo conjunto de alvos são processadas juntas sobre os componentes
+ * biconexos, calculados uma vez, em vez do DFS de todos os caminhos por par.
  *
  * @author Lucas Nishimura
  * @created 24.10.2022
@@ -37,7 +44,6 @@ import org.slf4j.LoggerFactory;
 public class WeakNodesAlgorithm implements ITopologyAlgorithm {
 
     private AtomicLong counter = new AtomicLong(0L);
-    private AtomicLong interationCounter = new AtomicLong(0L);
     private Queue<SourceTargetWrapper> queue;
     private Map<String, Object> options;
     private Logger logger = LoggerFactory.getLogger(WeakNodesAlgorithm.class);
@@ -52,6 +58,7 @@ public class WeakNodesAlgorithm implements ITopologyAlgorithm {
 
     @Override
     public void calculate(Queue<SourceTargetWrapper> queue, Map<String, Object> options) {
+        this.queue = queue;
         this.options = options;
         this.threadSize = 1;
         this.start();
@@ -79,161 +86,43 @@ public class WeakNodesAlgorithm implements ITopologyAlgorithm {
     public void start() {
         Long start = System.currentTimeMillis();
         if (this.queue != null && !this.queue.isEmpty()) {
-
-            List<Thread> threads = new ArrayList<>();
-
-            for (int x = 0; x < this.threadSize; x++) {
-                Thread worker = new Thread(new DfsMultiPathThread());
-                threads.add(worker);
-            }
-            for (Thread t : threads) {
-                t.start();
-            }
-
-            try {
-                for (Thread t : threads) {
-                    t.join();
-                }
-
-            } catch (InterruptedException ex) {
-                java.util.logging.Logger.getLogger(WeakNodesAlgorithm.class.getName()).log(Level.SEVERE, null, ex);
-            }
-
-        }
-        Long end = System.currentTimeMillis();
-        Long took = end - start;
-        logger.debug("Job Done: Processed: [{}] Tasks With: [{}] Threads, Iteration Counter:[{}] In :[{}] ms", counter.get(), this.threadSize, this.interationCounter.get(), took);
-    }
-
-    private class DfsMultiPathThread implements Runnable {
-
-        @Override
-        public void run() {
-            while (!queue.isEmpty()) {
-                SourceTargetWrapper job = queue.poll();
-                if (job != null) {
-                    //
-                    // Temos  algo para trabalhar
-                    //
-                    counter.incrementAndGet();
-                    this.computeDfs(job);
-                }
-            }
-//            System.out.println(":Processed:" + counter.get());
-        }
-
-        private void computeDfs(SourceTargetWrapper job) {
-            INetworkNode source = job.getSource();
-            INetworkNode target = job.getTarget();
-            List<String> pathList = new ArrayList<>();
-            Integer level = 0;
-            pathList.add(source.getUuid());
             //
-            // Generate an unique UID for this Interaction
+            // Uma fotografia por topologia presente na fila, normalmente uma só
             //
-            String uid = source.getUuid();
-
-            if (job.getUseCache()) {
-                this.computeDfsWithCache(source, target, pathList, uid, level);
-            } else {
-                this.computeDfsWithoutCache(source, target, pathList, uid, level);
-            }
-
-//            System.out.println("Tested: " + source.getName() + " TO: " + target.getName() + " Result:" + source.getEndpointConnectionsCount());
-        }
-
-        private Boolean computeDfsWithoutCache(INetworkNode source, INetworkNode target, List<String> pathList, String uid, Integer level) {
-            //
-            // Current Iteration: UID
-            //
-            interationCounter.incrementAndGet();
-            level++;
-            Boolean result = false;
-            if (source.equals(target)) {
-                result = true;
-                level--;
-                return result;
-            }
-            source.setVisited(uid);
-            for (INetworkConnection connection : source.getUnVisitedConnections(uid)) {
-                connection.setVisited(uid);
-                INetworkNode other = source.getOtherSide(connection);
-
-                if (!other.isVisited(uid)) {
-                    pathList.add(other.getUuid());
-                    if (other.equals(target)) {
-                        //
-                        // Já chegou na saída
-                        //
-                        source.addEndPointConnection(connection);
-                        result = true;
-                    } else if (computeDfsWithoutCache(other, target, pathList, uid, level)) {
-                        source.addEndPointConnection(connection);
-                        result = true;
-                    }
+            Map<ITopology, Map<Integer, BitSet>> jobs = new IdentityHashMap<>();
+            Map<ITopology, TopologyGraph> views = new IdentityHashMap<>();
+            SourceTargetWrapper job;
+            long pairs = 0L;
+            while ((job = this.queue.poll()) != null) {
+                counter.incrementAndGet();
+                pairs++;
+                ITopology topology = job.getSource().getTopology();
+                TopologyGraph view = views.computeIfAbsent(topology, TopologyGraph::of);
+                int source = view.indexOf(job.getSource());
+                int target = view.indexOf(job.getTarget());
+                if (source >= 0 && target >= 0) {
+                    jobs.computeIfAbsent(topology, t -> new LinkedHashMap<>())
+                            .computeIfAbsent(source, s -> new BitSet()).set(target);
                 }
-                pathList.remove(other.getUuid());
-
             }
-            source.setUnvisited(uid);
-            level--;
-            return result;
-        }
-
-        /**
-         * Este método precisa ser testado melhor
-         *
-         * @param source
-         * @param target
-         * @param pathList
-         * @param uid
-         * @param level
-         * @return
-         */
-        private Boolean computeDfsWithCache(INetworkNode source, INetworkNode target, List<String> pathList, String uid, Integer level) {
-            //
-            // Current Iteration: UID
-            //
-            interationCounter.incrementAndGet();
-            level++;
-            Boolean result = false;
-            if (source.equals(target)) {
-                result = true;
-                level--;
-                return result;
-            }
-            source.setVisited(uid);
-            for (INetworkConnection connection : source.getUnVisitedConnections(uid)) {
-                INetworkNode other = source.getOtherSide(connection);
 
-                if (!other.isVisited(uid)) {
-                    pathList.add(other.getUuid());
-                    if (other.equals(target)) {
-                        //
-                        // Já chegou na saída
-                        //
-                        source.addEndPointConnection(connection);
-                        result = true;
-                    } else if (other.getEndpointConnectionsCount(source) > 0) {
-                        //
-                        // Mark as ok, já que tem uma saída por este nó.
-                        //
-                        source.addEndPointConnection(connection);
-                        result = true;
-                    } else if (computeDfsWithoutCache(other, target, pathList, uid, level)) {
-                        //
-                        // Se for para andar tudo, não vai poder usar o cache., mas depois que descobre pode.
-                        //
-                        source.addEndPointConnection(connection);
-                        result = true;
-                    }
-                }
-                pathList.remove(other.getUuid());
-
-            }
-            source.setUnvisited(uid);
-            level--;
-            return result;
+            TopologyProgress progress = TopologyProgress.current();
+            progress.stage("weakNodes", pairs);
+            jobs.forEach((topology, targetsBySource) -> {
+                progress.checkCancelled();
+                TopologyGraph view = views.get(topology);
+                Biconnectivity biconnectivity = Biconnectivity.of(view.getGraph());
+                Map<BitSet, BitSet> sourcesByTargets = new LinkedHashMap<>();
+                targetsBySource.forEach((source, targets) -> sourcesByTargets.computeIfAbsent(targets, t -> new BitSet()).set(source));
+                sourcesByTargets.forEach((targets, sources) -> {
+                    progress.checkCancelled();
+                    view.publishEndpointSlots(biconnectivity.endpointSlots(sources, targets));
+                    progress.advance(sources.cardinality() * (long) targets.cardinality());
+                });
+            });
         }
+        Long end = System.currentTimeMillis();
+        Long took = end - start;
+        logger.debug("Job Done: Processed: [{}] Tasks With: [{}] Threads In :[{}] ms", counter.get(), this.threadSize, took);
     }
 }
@@ -0,0 +1,275 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.topology.csr;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Pontos de articulação, pontes e componentes biconexos do CsrGraph
+ * (Hopcroft-Tarjan), considerando só nós e conexões ativos.
+ * <p>
+ * A DFS é iterativa, com pilha de nós e pilha de conexões em int[], e roda
+ * uma vez em O(V + E). Um ponto de articulação é um nó cuja queda separa a
+ * rede, uma ponte é uma conexão cuja queda separa a rede, e cada componente
+ * (bloco) é um conjunto de conexões que continua conectado com a queda de
+ * qualquer um dos seus nós.
+ *
+ * @author Lucas Nishimura
+ * @created 19.10.2026
+ */
+public final class Biconnectivity {
+
+    private final CsrGraph graph;
+    private final int[] disc;
+    private final int[] low;
+    private final int[] parent;
+    private final int[] root;
+    private final int[] postOrder;
+    private final int[] edgeComponent;
+    private final int[] blockHead;
+    private final int[] blockChild;
+    private final int componentCount;
+    private final BitSet articulationPoints = new BitSet();
+    private final BitSet bridges = new BitSet();
+
+    private Biconnectivity(CsrGraph graph) {
+        int n = graph.nodeCount();
+        this.graph = graph;
+        this.disc = new int[n];
+        this.low = new int[n];
+        this.parent = new int[n];
+        this.root = new int[n];
+        this.postOrder = new int[n];
+        this.edgeComponent = new int[graph.edgeCount()];
+        Arrays.fill(this.edgeComponent, -1);
+        Arrays.fill(this.parent, -1);
+        Arrays.fill(this.root, -1);
+
+        int[] parentEdge = new int[n];
+        int[] next = new int[n];
+        int[] stack = new int[n];
+        int[] edgeStack = new int[graph.edgeCount()];
+        int[] heads = new int[16];
+        int[] children = new int[16];
+        int time = 0;
+        int visited = 0;
+        int components = 0;
+
+        for (int r = 0; r < n; r++) {
+            if (this.disc[r] != 0 || !graph.isActive(r)) {
+                continue;
+            }
+            int sp = 0;
+            int esp = 0;
+            int rootChildren = 0;
+            this.disc[r] = this.low[r] = ++time;
+            this.root[r] = r;
+            parentEdge[r] = -1;
+            next[r] = graph.firstSlot(r);
+            stack[sp++] = r;
+            while (sp > 0) {
+                int v = stack[sp - 1];
+                if (next[v] < graph.endSlot(v)) {
+                    int slot = next[v]++;
+                    int e = graph.edgeAt(slot);
+                    int u = graph.target(slot);
+                    if (e == parentEdge[v] || !graph.isEdgeActive(e) || !graph.isActive(u)) {
+                        continue;
+                    }
+                    if (this.disc[u] == 0) {
+                        edgeStack[esp++] = e;
+                        this.disc[u] = this.low[u] = ++time;
+                        this.parent[u] = v;
+                        this.root[u] = r;
+                        parentEdge[u] = e;
+                        next[u] = graph.firstSlot(u);
+                        stack[sp++] = u;
+                        if (v == r) {
+                            rootChildren++;
+                        }
+                    } else if (this.disc[u] < this.disc[v]) {
+                        //
+                        // Conexão de volta para um ancestral, empilhada uma
+                        // vez só, pelo lado do descendente
+                        //
+                        edgeStack[esp++] = e;
+                        this.low[v] = Math.min(this.low[v], this.disc[u]);
+                    }
+                } else {
+                    sp--;
+                    this.postOrder[visited++] = v;
+                    if (sp == 0) {
+                        continue;
+                    }
+                    int p = stack[sp - 1];
+                    this.low[p] = Math.min(this.low[p], this.low[v]);
+                    if (this.low[v] >= this.disc[p]) {
+                        //
+                        // p separa a subárvore de v: fecha um bloco
+                        //
+                        if (p != r) {
+                            this.articulationPoints.set(p);
+                        }
+                        if (this.low[v] > this.disc[p]) {
+                            this.bridges.set(parentEdge[v]);
+                        }
+                        int e;
+                        do {
+                            e = edgeStack[--esp];
+                            this.edgeComponent[e] = components;
+                        } while (e != parentEdge[v]);
+                        if (components == heads.length) {
+                            heads = Arrays.copyOf(heads, components * 2);
+                            children = Arrays.copyOf(children, components * 2);
+                        }
+                        heads[components] = p;
+                        children[components] = v;
+                        components++;
+                    }
+                }
+            }
+            if (rootChildren > 1) {
+                this.articulationPoints.set(r);
+            }
+        }
+        this.componentCount = components;
+        this.blockHead = Arrays.copyOf(heads, components);
+        this.blockChild = Arrays.copyOf(children, components);
+        if (visited < n) {
+            //
+            // Nós inativos ficam fora da ordem
+            //
+            Arrays.fill(this.postOrder, visited, n, -1);
+        }
+    }
+
+    public static Biconnectivity of(CsrGraph graph) {
+        return new Biconnectivity(graph);
+    }
+
+    public CsrGraph getGraph() {
+        return this.graph;
+    }
+
+    /**
+     * @return cópia dos nós que são pontos de articulação
+     */
+    public BitSet articulationPoints() {
+        return (BitSet) this.articulationPoints.clone();
+    }
+
+    public boolean isArticulationPoint(int node) {
+        return this.articulationPoints.get(node);
+    }
+
+    /**
+     * @return cópia das conexões que são pontes
+     */
+    public BitSet bridges() {
+        return (BitSet) this.bridges.clone();
+    }
+
+    public boolean isBridge(int edge) {
+        return this.bridges.get(edge);
+    }
+
+    public int componentCount() {
+        return this.componentCount;
+    }
+
+    /**
+     * @param edge
+     * @return o bloco da conexão, -1 se ela está inativa ou é um laço
+     */
+    public int componentOf(int edge) {
+        return this.edgeComponent[edge];
+    }
+
+    /**
+     * Conexões de cada bloco
+     *
+     * @return
+     */
+    public BitSet[] components() {
+        BitSet[] result = new BitSet[this.componentCount];
+        for (int c = 0; c < this.componentCount; c++) {
+            result[c] = new BitSet();
+        }
+        for (int e = 0; e < this.edgeComponent.length; e++) {
+            if (this.edgeComponent[e] >= 0) {
+                result[this.edgeComponent[e]].set(e);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Para cada nó de sources, marca os slots que levam a algum alvo por um
+     * caminho que não volta pelo próprio nó, em O(V + E) para todos os nós.
+     * <p>
+     * Se o slot v - u está num bloco cuja cabeça é v, o lado de u na queda de
+     * v é a subárvore do filho do bloco; senão u cai no restante da rede, que
+     * é o componente inteiro menos v e menos as subárvores que v separa.
+     *
+     * @param sources
+     * @param targets
+     * @return slots marcados
+     */
+    public BitSet endpointSlots(BitSet sources, BitSet targets) {
+        int n = this.graph.nodeCount();
+        int[] subtree = new int[n];
+        int[] separated = new int[n];
+        for (int x : this.postOrder) {
+            if (x < 0) {
+                break;
+            }
+            if (targets.get(x)) {
+                subtree[x]++;
+            }
+            int p = this.parent[x];
+            if (p >= 0) {
+                subtree[p] += subtree[x];
+                if (this.low[x] >= this.disc[p]) {
+                    separated[p] += subtree[x];
+                }
+            }
+        }
+        BitSet slots = new BitSet(this.graph.slotCount());
+        for (int v = sources.nextSetBit(0); v >= 0; v = sources.nextSetBit(v + 1)) {
+            if (!this.graph.isActive(v) || targets.get(v)) {
+                continue;
+            }
+            int rest = subtree[this.root[v]] - separated[v];
+            for (int slot = this.graph.firstSlot(v); slot < this.graph.endSlot(v); slot++) {
+                int e = this.graph.edgeAt(slot);
+                if (this.edgeComponent[e] < 0) {
+                    continue;
+                }
+                int block = this.edgeComponent[e];
+                boolean leads = this.blockHead[block] == v
+                        ? subtree[this.blockChild[block]] > 0
+                        : rest > 0;
+                if (leads) {
+                    slots.set(slot);
+                }
+            }
+        }
+        return slots;
+    }
+}
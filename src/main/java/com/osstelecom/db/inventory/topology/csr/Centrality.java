@@ -0,0 +1,428 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.topology.csr;
+
+import com.osstelecom.db.inventory.topology.TopologyExecutors;
+import com.osstelecom.db.inventory.topology.TopologyProgress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Centralidade dos nós e conexões do CsrGraph, andando só por nós e conexões
+ * ativos.
+ * <p>
+ * Uma BFS por origem (Brandes) dá de uma vez a betweenness dos nós e das
+ * conexões e a closeness harmônica (soma de 1 / distância). Com samples > 0
+ * só essa quantidade de origens, sorteadas com a semente informada, é
+ * percorrida e os valores são escalados por origens possíveis / samples, o
+ * que dá uma estimativa sem viés em O(samples * conexões) em vez de
+ * O(nós * conexões).
+ * <p>
+ * Antes das buscas as adjacências são copiadas só com os slots ativos até
+ * vizinhos ativos, então o laço interno não consulta os BitSets. As origens
+ * são divididas entre os workers do pool fork/join em lotes; cada worker tem
+ * os próprios vetores e acumuladores, somados no fim. O progresso
+ * conta origens percorridas e a busca para com CancellationException se a
+ * job for cancelada.
+ *
+ * @author Lucas Nishimura
+ * @created 19.10.2026
+ */
+public final class Centrality {
+
+    private static final int BATCH = 16;
+
+    private final CsrGraph graph;
+    private final double[] betweenness;
+    private final double[] edgeBetweenness;
+    private final double[] closeness;
+    private final int[] degree;
+    private final int sources;
+    private final boolean exact;
+
+    private Centrality(CsrGraph graph, double[] betweenness, double[] edgeBetweenness, double[] closeness, int[] degree, int sources, boolean exact) {
+        this.graph = graph;
+        this.betweenness = betweenness;
+        this.edgeBetweenness = edgeBetweenness;
+        this.closeness = closeness;
+        this.degree = degree;
+        this.sources = sources;
+        this.exact = exact;
+    }
+
+    /**
+     * Cálculo exato, uma BFS por nó ativo
+     *
+     * @param graph
+     * @return
+     */
+    public static Centrality of(CsrGraph graph) {
+        return of(graph, 0, 0L);
+    }
+
+    /**
+     * @param graph
+     * @param samples quantidade de origens sorteadas, 0 ou acima dos nós
+     * ativos para o cálculo exato
+     * @param seed semente do sorteio
+     * @return
+     */
+    public static Centrality of(CsrGraph graph, int samples, long seed) {
+        int n = graph.nodeCount();
+        int[] degree = new int[n];
+        int[] candidates = new int[n];
+        int[] offsets = new int[n + 1];
+        int[] targets = new int[graph.slotCount()];
+        int[] edges = new int[graph.slotCount()];
+        int active = 0;
+        int slots = 0;
+        for (int v = 0; v < n; v++) {
+            offsets[v] = slots;
+            if (!graph.isActive(v)) {
+                continue;
+            }
+            candidates[active++] = v;
+            for (int slot = graph.firstSlot(v); slot < graph.endSlot(v); slot++) {
+                int w = graph.target(slot);
+                if (w != v && graph.isEdgeActive(graph.edgeAt(slot)) && graph.isActive(w)) {
+                    targets[slots] = w;
+                    edges[slots++] = graph.edgeAt(slot);
+                    degree[v]++;
+                }
+            }
+        }
+        offsets[n] = slots;
+        Adjacency adjacency = new Adjacency(offsets, targets, edges);
+        boolean exact = samples <= 0 || samples >= active;
+        int count = exact ? active : samples;
+        if (!exact) {
+            //
+            // Fisher-Yates parcial, as primeiras count posições são a amostra
+            //
+            Random random = new Random(seed);
+            for (int i = 0; i < count; i++) {
+                int j = i + random.nextInt(active - i);
+                int swap = candidates[i];
+                candidates[i] = candidates[j];
+                candidates[j] = swap;
+            }
+        }
+        int[] chosen = Arrays.copyOf(candidates, count);
+
+        TopologyProgress progress = TopologyProgress.current();
+        progress.stage("centrality", (long) count);
+        int parallelism = TopologyExecutors.getForkJoinPool().getParallelism();
+        int workerCount = Math.max(1, Math.min(parallelism, (count + BATCH - 1) / BATCH));
+        AtomicInteger next = new AtomicInteger();
+        List<Worker> workers = new ArrayList<>(workerCount);
+        for (int w = 0; w < workerCount; w++) {
+            workers.add(new Worker(graph, adjacency, chosen, next, progress));
+        }
+        if (workerCount == 1) {
+            workers.get(0).invoke();
+        } else {
+            TopologyExecutors.getForkJoinPool().invoke(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    invokeAll(workers);
+                }
+            });
+        }
+
+        //
+        // No grafo não direcionado cada par é contado nas duas pontas na
+        // betweenness, daí a divisão por 2
+        //
+        double scale = exact || count == 0 ? 1.0 : (double) active / count;
+        double[] betweenness = new double[n];
+        double[] edgeBetweenness = new double[graph.edgeCount()];
+        double[] closeness = new double[n];
+        for (Worker worker : workers) {
+            for (int v = 0; v < n; v++) {
+                betweenness[v] += worker.betweenness[v];
+                closeness[v] += worker.closeness[v];
+            }
+            for (int e = 0; e < edgeBetweenness.length; e++) {
+                edgeBetweenness[e] += worker.edgeBetweenness[e];
+            }
+        }
+        for (int v = 0; v < n; v++) {
+            betweenness[v] *= scale / 2;
+            closeness[v] *= scale;
+        }
+        for (int e = 0; e < edgeBetweenness.length; e++) {
+            edgeBetweenness[e] *= scale / 2;
+        }
+        return new Centrality(graph, betweenness, edgeBetweenness, closeness, degree, count, exact);
+    }
+
+    public double betweenness(int node) {
+        return this.betweenness[node];
+    }
+
+    public double edgeBetweenness(int edge) {
+        return this.edgeBetweenness[edge];
+    }
+
+    public double closeness(int node) {
+        return this.closeness[node];
+    }
+
+    /**
+     * @param node
+     * @return conexões ativas até vizinhos ativos, sem laços
+     */
+    public int degree(int node) {
+        return this.degree[node];
+    }
+
+    /**
+     * @return quantidade de origens percorridas
+     */
+    public int getSources() {
+        return this.sources;
+    }
+
+    public boolean isExact() {
+        return this.exact;
+    }
+
+    /**
+     * @param k
+     * @return os k nós de maior betweenness, em ordem decrescente
+     */
+    public int[] topBetweenness(int k) {
+        return top(this.betweenness, k);
+    }
+
+    /**
+     * @param k
+     * @return os k nós de maior closeness, em ordem decrescente
+     */
+    public int[] topCloseness(int k) {
+        return top(this.closeness, k);
+    }
+
+    /**
+     * @param k
+     * @return os k nós de maior grau, em ordem decrescente
+     */
+    public int[] topDegree(int k) {
+        double[] values = new double[this.degree.length];
+        for (int v = 0; v < values.length; v++) {
+            values[v] = this.degree[v];
+        }
+        return top(values, k);
+    }
+
+    /**
+     * @param k
+     * @return as k conexões de maior betweenness, em ordem decrescente
+     */
+    public int[] topEdgeBetweenness(int k) {
+        return top(this.edgeBetweenness, k);
+    }
+
+    /**
+     * Seleção por heap de tamanho k, empates pelo menor índice
+     */
+    private static int[] top(double[] values, int k) {
+        int size = Math.max(0, Math.min(k, values.length));
+        int[] heap = new int[size];
+        int filled = 0;
+        for (int i = 0; i < values.length && size > 0; i++) {
+            if (filled < size) {
+                heap[filled] = i;
+                siftUp(heap, filled++, values);
+            } else if (before(values, i, heap[0])) {
+                heap[0] = i;
+                siftDown(heap, size, values);
+            }
+        }
+        //
+        // O heap tem o menor na raiz, então esvazia do fim para o começo
+        //
+        int[] result = new int[filled];
+        for (int i = filled - 1; i >= 0; i--) {
+            result[i] = heap[0];
+            heap[0] = heap[i];
+            siftDown(heap, i, values);
+        }
+        return result;
+    }
+
+    /**
+     * @return se a vem antes de b no ranking
+     */
+    private static boolean before(double[] values, int a, int b) {
+        return values[a] > values[b] || (values[a] == values[b] && a < b);
+    }
+
+    private static void siftUp(int[] heap, int position, double[] values) {
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (!before(values, heap[parent], heap[position])) {
+                break;
+            }
+            int swap = heap[parent];
+            heap[parent] = heap[position];
+            heap[position] = swap;
+            position = parent;
+        }
+    }
+
+    private static void siftDown(int[] heap, int size, double[] values) {
+        int position = 0;
+        while (true) {
+            int child = 2 * position + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && before(values, heap[child], heap[child + 1])) {
+                child++;
+            }
+            if (!before(values, heap[position], heap[child])) {
+                break;
+            }
+            int swap = heap[child];
+            heap[child] = heap[position];
+            heap[position] = swap;
+            position = child;
+        }
+    }
+
+    public CsrGraph getGraph() {
+        return this.graph;
+    }
+
+    /**
+     * Adjacências filtradas, no mesmo formato do CsrGraph
+     */
+    private static final class Adjacency {
+
+        private final int[] offsets;
+        private final int[] targets;
+        private final int[] edges;
+
+        private Adjacency(int[] offsets, int[] targets, int[] edges) {
+            this.offsets = offsets;
+            this.targets = targets;
+            this.edges = edges;
+        }
+    }
+
+    /**
+     * Percorre lotes de origens até acabarem. As distâncias são zeradas só
+     * nos nós visitados, pela própria ordem da BFS
+     */
+    private static final class Worker extends RecursiveAction {
+
+        private final Adjacency adjacency;
+        private final int[] sources;
+        private final AtomicInteger next;
+        private final TopologyProgress progress;
+        private final double[] betweenness;
+        private final double[] edgeBetweenness;
+        private final double[] closeness;
+
+        private Worker(CsrGraph graph, Adjacency adjacency, int[] sources, AtomicInteger next, TopologyProgress progress) {
+            this.adjacency = adjacency;
+            this.sources = sources;
+            this.next = next;
+            this.progress = progress;
+            this.betweenness = new double[graph.nodeCount()];
+            this.edgeBetweenness = new double[graph.edgeCount()];
+            this.closeness = new double[graph.nodeCount()];
+        }
+
+        @Override
+        protected void compute() {
+            int n = this.adjacency.offsets.length - 1;
+            int[] distance = new int[n];
+            Arrays.fill(distance, -1);
+            double[] sigma = new double[n];
+            double[] delta = new double[n];
+            int[] order = new int[n];
+            int first;
+            while ((first = this.next.getAndAdd(BATCH)) < this.sources.length) {
+                this.progress.checkCancelled();
+                int last = Math.min(first + BATCH, this.sources.length);
+                for (int i = first; i < last; i++) {
+                    this.accumulate(this.sources[i], distance, sigma, delta, order);
+                }
+                this.progress.advance(last - first);
+            }
+        }
+
+        private void accumulate(int source, int[] distance, double[] sigma, double[] delta, int[] order) {
+            int[] offsets = this.adjacency.offsets;
+            int[] targets = this.adjacency.targets;
+            int[] edges = this.adjacency.edges;
+            double[] closeness = this.closeness;
+            int head = 0;
+            int tail = 0;
+            order[tail++] = source;
+            distance[source] = 0;
+            sigma[source] = 1;
+            while (head < tail) {
+                int v = order[head++];
+                int next = distance[v] + 1;
+                double inverse = 1.0 / next;
+                for (int slot = offsets[v]; slot < offsets[v + 1]; slot++) {
+                    int w = targets[slot];
+                    if (distance[w] < 0) {
+                        distance[w] = next;
+                        order[tail++] = w;
+                        closeness[w] += inverse;
+                    }
+                    if (distance[w] == next) {
+                        sigma[w] += sigma[v];
+                    }
+                }
+            }
+            //
+            // Dependências na ordem inversa da BFS; os predecessores de w são
+            // os vizinhos um nível acima, então não precisam ser guardados
+            //
+            for (int i = tail - 1; i > 0; i--) {
+                int w = order[i];
+                double factor = (1 + delta[w]) / sigma[w];
+                int previous = distance[w] - 1;
+                for (int slot = offsets[w]; slot < offsets[w + 1]; slot++) {
+                    int v = targets[slot];
+                    if (distance[v] == previous) {
+                        double contribution = sigma[v] * factor;
+                        delta[v] += contribution;
+                        this.edgeBetweenness[edges[slot]] += contribution;
+                    }
+                }
+                this.betweenness[w] += delta[w];
+            }
+            for (int i = 0; i < tail; i++) {
+                int v = order[i];
+                distance[v] = -1;
+                sigma[v] = 0;
+                delta[v] = 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.topology.csr;
+
+import java.util.BitSet;
+
+/**
+ * Algoritmos de alcance e impacto sobre o CsrGraph. Tudo é iterativo, com
+ * fila em int[], sem recursão e sem objeto por nó visitado.
+ *
+ * @author Lucas Nishimura
+ * @created 19.10.2026
+ */
+public final class CsrAlgorithms {
+
+    private CsrAlgorithms() {
+    }
+
+    /**
+     * Nós que alcançam algum endpoint ativo, andando só por nós e conexões
+     * ativos
+     *
+     * @param graph
+     * @return
+     */
+    public static BitSet reachable(CsrGraph graph) {
+        return reachable(graph, null, null);
+    }
+
+    /**
+     * Como reachable(graph), considerando também fora do ar os nós e conexões
+     * informados, que podem ser nulos
+     *
+     * @param graph
+     * @param downNodes
+     * @param downEdges
+     * @return
+     */
+    public static BitSet reachable(CsrGraph graph, BitSet downNodes, BitSet downEdges) {
+        return Reachability.from(graph, graph.activeEndPoints(), downNodes, downEdges);
+    }
+
+    /**
+     * reachable(graph, downNodes[i], downEdges[i]) para cada cenário, 64
+     * cenários por passada
+     *
+     * @param graph
+     * @param downNodes
+     * @param downEdges
+     * @return
+     */
+    public static BitSet[] reachableUnder(CsrGraph graph, BitSet[] downNodes, BitSet[] downEdges) {
+        return Reachability.underFailures(graph, graph.activeEndPoints(), downNodes, downEdges);
+    }
+
+    /**
+     * Nós que deixam de alcançar os endpoints se o nó informado cair, sem
+     * contar o próprio nó nem os que já não alcançavam
+     *
+     * @param graph
+     * @param node
+     * @return
+     */
+    public static BitSet impactOf(CsrGraph graph, int node) {
+        BitSet down = new BitSet(graph.nodeCount());
+        down.set(node);
+        BitSet impacted = reachable(graph);
+        impacted.andNot(reachable(graph, down, null));
+        impacted.clear(node);
+        return impacted;
+    }
+
+    /**
+     * Para cada nó de sources, marca os slots (conexões a partir dele) que
+     * levam a algum alvo por um caminho que não volta pelo próprio nó. É o
+     * mesmo resultado da busca de todos os caminhos do DFS antigo: a conexão
+     * v - u leva ao alvo se u é alvo ou se u alcança um alvo no grafo sem v.
+     * Sai dos componentes biconexos, em O(V + E) para todos os nós.
+     *
+     * @param graph
+     * @param sources nós a avaliar
+     * @param targets alvos, nulo para os endpoints ativos
+     * @return slots marcados
+     */
+    public static BitSet endpointSlots(CsrGraph graph, BitSet sources, BitSet targets) {
+        return Biconnectivity.of(graph).endpointSlots(sources, targets == null ? graph.activeEndPoints() : targets);
+    }
+
+    /**
+     * @param graph
+     * @param slots
+     * @param node
+     * @return quantos slots do nó estão marcados
+     */
+    public static int count(CsrGraph graph, BitSet slots, int node) {
+        int total = 0;
+        for (int slot = graph.firstSlot(node); slot < graph.endSlot(node); slot++) {
+            if (slots.get(slot)) {
+                total++;
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,364 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.topology.csr;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Grafo compacto em CSR (compressed sparse row).
+ * <p>
+ * Os nós são inteiros de 0 a nodeCount - 1 e as adjacências ficam em dois
+ * vetores: os vizinhos do nó v estão em targets[offsets[v]..offsets[v + 1]) e
+ * edges[slot] diz qual conexão gerou aquele slot. As conexões são não
+ * direcionadas, cada uma ocupa dois slots, um em cada ponta. Estado
+ * (endpoint, ativo) fica em BitSets. A estrutura é imutável depois do build,
+ * então pode ser percorrida por várias threads sem lock.
+ *
+ * @author Lucas Nishimura
+ * @created 19.10.2026
+ */
+public final class CsrGraph {
+
+    private final int nodeCount;
+    private final int edgeCount;
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] edges;
+    private final int[] edgeSources;
+    private final int[] edgeTargets;
+    private final String[] names;
+    private final String[] edgeNames;
+    private final BitSet endPoints;
+    private final BitSet inactiveNodes;
+    private final BitSet inactiveEdges;
+    private volatile Map<String, Integer> nameIndex;
+
+    private CsrGraph(Builder builder) {
+        this.nodeCount = builder.nodeCount;
+        this.edgeCount = builder.edgeCount;
+        this.names = Arrays.copyOf(builder.names, builder.nodeCount);
+        this.edgeSources = Arrays.copyOf(builder.sources, builder.edgeCount);
+        this.edgeTargets = Arrays.copyOf(builder.targets, builder.edgeCount);
+        this.edgeNames = builder.edgeNames == null ? null : Arrays.copyOf(builder.edgeNames, builder.edgeCount);
+        this.endPoints = (BitSet) builder.endPoints.clone();
+        this.inactiveNodes = (BitSet) builder.inactiveNodes.clone();
+        this.inactiveEdges = (BitSet) builder.inactiveEdges.clone();
+        //
+        // Counting sort das pontas pelo nó de origem, laços (a -> a) não
+        // entram na adjacência
+        //
+        this.offsets = new int[this.nodeCount + 1];
+        for (int e = 0; e < this.edgeCount; e++) {
+            if (this.edgeSources[e] != this.edgeTargets[e]) {
+                this.offsets[this.edgeSources[e] + 1]++;
+                this.offsets[this.edgeTargets[e] + 1]++;
+            }
+        }
+        for (int v = 0; v < this.nodeCount; v++) {
+            this.offsets[v + 1] += this.offsets[v];
+        }
+        int slots = this.offsets[this.nodeCount];
+        this.targets = new int[slots];
+        this.edges = new int[slots];
+        int[] cursor = Arrays.copyOf(this.offsets, this.nodeCount);
+        for (int e = 0; e < this.edgeCount; e++) {
+            int a = this.edgeSources[e];
+            int b = this.edgeTargets[e];
+            if (a != b) {
+                this.targets[cursor[a]] = b;
+                this.edges[cursor[a]++] = e;
+                this.targets[cursor[b]] = a;
+                this.edges[cursor[b]++] = e;
+            }
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int nodeCount() {
+        return this.nodeCount;
+    }
+
+    public int edgeCount() {
+        return this.edgeCount;
+    }
+
+    /**
+     * @param node
+     * @return primeiro slot de adjacência do nó
+     */
+    public int firstSlot(int node) {
+        return this.offsets[node];
+    }
+
+    /**
+     * @param node
+     * @return slot seguinte ao último slot de adjacência do nó
+     */
+    public int endSlot(int node) {
+        return this.offsets[node + 1];
+    }
+
+    public int degree(int node) {
+        return this.offsets[node + 1] - this.offsets[node];
+    }
+
+    /**
+     * @return total de slots de adjacência (duas vezes as conexões sem laço)
+     */
+    public int slotCount() {
+        return this.targets.length;
+    }
+
+    /**
+     * @param slot
+     * @return o nó vizinho daquele slot
+     */
+    public int target(int slot) {
+        return this.targets[slot];
+    }
+
+    /**
+     * @param slot
+     * @return a conexão que gerou o slot
+     */
+    public int edgeAt(int slot) {
+        return this.edges[slot];
+    }
+
+    public int edgeSource(int edge) {
+        return this.edgeSources[edge];
+    }
+
+    public int edgeTarget(int edge) {
+        return this.edgeTargets[edge];
+    }
+
+    public String name(int node) {
+        return this.names[node];
+    }
+
+    /**
+     * @param edge
+     * @return o nome da conexão, se o grafo foi montado com nomes
+     */
+    public String edgeName(int edge) {
+        return this.edgeNames == null ? null : this.edgeNames[edge];
+    }
+
+    /**
+     * Índice do nó pelo nome, o mapa só é montado na primeira consulta
+     *
+     * @param name
+     * @return o índice ou -1
+     */
+    public int indexOf(String name) {
+        Map<String, Integer> index = this.nameIndex;
+        if (index == null) {
+            index = new HashMap<>(this.nodeCount * 4 / 3 + 1);
+            for (int v = 0; v < this.nodeCount; v++) {
+                if (this.names[v] != null) {
+                    index.putIfAbsent(this.names[v], v);
+                }
+            }
+            this.nameIndex = index;
+        }
+        return index.getOrDefault(name, -1);
+    }
+
+    public boolean isEndPoint(int node) {
+        return this.endPoints.get(node);
+    }
+
+    public boolean isActive(int node) {
+        return !this.inactiveNodes.get(node);
+    }
+
+    public boolean isEdgeActive(int edge) {
+        return !this.inactiveEdges.get(edge);
+    }
+
+    /**
+     * @return cópia dos endpoints
+     */
+    public BitSet endPoints() {
+        return (BitSet) this.endPoints.clone();
+    }
+
+    /**
+     * Endpoints ativos, de onde as buscas de alcance partem
+     *
+     * @return
+     */
+    public BitSet activeEndPoints() {
+        BitSet active = (BitSet) this.endPoints.clone();
+        active.andNot(this.inactiveNodes);
+        return active;
+    }
+
+    /**
+     * Estimativa do tamanho dos vetores, sem os nomes
+     *
+     * @return bytes
+     */
+    public long sizeInBytes() {
+        long ints = this.offsets.length + this.targets.length + this.edges.length
+                + this.edgeSources.length + this.edgeTargets.length;
+        long bits = this.endPoints.size() + this.inactiveNodes.size() + this.inactiveEdges.size();
+        return ints * Integer.BYTES + bits / Byte.SIZE;
+    }
+
+    /**
+     * Acumula nós e conexões em vetores que crescem por cópia, sem objeto por
+     * elemento. Os nomes só são indexados se o grafo for montado por nome.
+     */
+    public static final class Builder {
+
+        private String[] names = new String[16];
+        private int[] sources = new int[16];
+        private int[] targets = new int[16];
+        private String[] edgeNames;
+        private int nodeCount;
+        private int edgeCount;
+        private final BitSet endPoints = new BitSet();
+        private final BitSet inactiveNodes = new BitSet();
+        private final BitSet inactiveEdges = new BitSet();
+        private Map<String, Integer> byName;
+
+        private Builder() {
+        }
+
+        /**
+         * Adiciona um nó novo, mesmo que já exista outro com o mesmo nome
+         *
+         * @param name
+         * @param endPoint
+         * @param active
+         * @return o índice do nó
+         */
+        public int addNode(String name, boolean endPoint, boolean active) {
+            if (this.nodeCount == this.names.length) {
+                this.names = Arrays.copyOf(this.names, this.nodeCount * 2);
+            }
+            int node = this.nodeCount++;
+            this.names[node] = name;
+            if (endPoint) {
+                this.endPoints.set(node);
+            }
+            if (!active) {
+                this.inactiveNodes.set(node);
+            }
+            if (this.byName != null && name != null) {
+                this.byName.putIfAbsent(name, node);
+            }
+            return node;
+        }
+
+        /**
+         * Retorna o nó pelo nome, criando se não existir
+         *
+         * @param name
+         * @return
+         */
+        public int node(String name) {
+            if (this.byName == null) {
+                this.byName = new HashMap<>();
+                for (int v = 0; v < this.nodeCount; v++) {
+                    if (this.names[v] != null) {
+                        this.byName.putIfAbsent(this.names[v], v);
+                    }
+                }
+            }
+            Integer node = this.byName.get(name);
+            if (node == null) {
+                node = this.addNode(name, false, true);
+            }
+            return node;
+        }
+
+        public Builder endPoint(int node) {
+            this.endPoints.set(node);
+            return this;
+        }
+
+        public Builder disable(int node) {
+            this.inactiveNodes.set(node);
+            return this;
+        }
+
+        /**
+         * @param source
+         * @param target
+         * @param active
+         * @return o índice da conexão
+         */
+        public int addEdge(int source, int target, boolean active) {
+            return this.addEdge(source, target, active, null);
+        }
+
+        /**
+         * @param source
+         * @param target
+         * @param active
+         * @param name nome da conexão, o vetor de nomes só existe se algum
+         * for informado
+         * @return o índice da conexão
+         */
+        public int addEdge(int source, int target, boolean active, String name) {
+            if (source < 0 || source >= this.nodeCount || target < 0 || target >= this.nodeCount) {
+                throw new IllegalArgumentException("Invalid Edge: [" + source + "] -> [" + target + "]");
+            }
+            if (this.edgeCount == this.sources.length) {
+                this.sources = Arrays.copyOf(this.sources, this.edgeCount * 2);
+                this.targets = Arrays.copyOf(this.targets, this.edgeCount * 2);
+            }
+            if (name != null && this.edgeNames == null) {
+                this.edgeNames = new String[this.sources.length];
+            } else if (this.edgeNames != null && this.edgeNames.length < this.sources.length) {
+                this.edgeNames = Arrays.copyOf(this.edgeNames, this.sources.length);
+            }
+            int edge = this.edgeCount++;
+            if (this.edgeNames != null) {
+                this.edgeNames[edge] = name;
+            }
+            this.sources[edge] = source;
+            this.targets[edge] = target;
+            if (!active) {
+                this.inactiveEdges.set(edge);
+            }
+            return edge;
+        }
+
+        public int addEdge(String source, String target, boolean active) {
+            return this.addEdge(this.node(source), this.node(target), active);
+        }
+
+        public int nodeCount() {
+            return this.nodeCount;
+        }
+
+        public CsrGraph build() {
+            return new CsrGraph(this);
+        }
+    }
+}
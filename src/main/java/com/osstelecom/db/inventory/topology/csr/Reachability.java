@@ -0,0 +1,363 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.topology.csr;
+
+import com.osstelecom.db.inventory.topology.TopologyExecutors;
+import com.osstelecom.db.inventory.topology.TopologyProgress;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Alcance a partir de várias origens no CsrGraph, andando só por nós e
+ * conexões ativos.
+ * <p>
+ * A busca é por nível, com fronteira e visitados em long[] (um bit por nó).
+ * Enquanto a fronteira é pequena expande de cima para baixo, marcando os
+ * vizinhos com OR atômico; quando as conexões da fronteira passam de 1/14 das
+ * que ainda faltam, inverte e cada nó não visitado procura um vizinho na
+ * fronteira, e volta quando a fronteira cai abaixo de 1/24 dos nós. Acima de
+ * 64 mil nós cada nível é dividido em faixas de palavras no pool fork/join.
+ * <p>
+ * Para cenários de falha, underFailures roda 64 cenários por passada: cada nó
+ * carrega um long em que o bit k diz se ele é alcançado no cenário k.
+ * <p>
+ * As buscas conferem o TopologyProgress da thread a cada nível e param com
+ * CancellationException se a job foi cancelada.
+ *
+ * @author Lucas Nishimura
+ * @created 19.10.2026
+ */
+public final class Reachability {
+
+    private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final int ALPHA = 14;
+    private static final int BETA = 24;
+    private static final int PARALLEL_NODES = 1 << 16;
+    private static final int CHUNK_WORDS = 256;
+
+    private final CsrGraph graph;
+    private final BitSet downEdges;
+    private final long[] blocked;
+    private final int words;
+    private long[] visited;
+    private long[] frontier;
+    private long[] next;
+
+    private Reachability(CsrGraph graph, BitSet downNodes, BitSet downEdges) {
+        int n = graph.nodeCount();
+        this.graph = graph;
+        this.downEdges = downEdges;
+        this.words = (n + 63) >>> 6;
+        this.blocked = new long[this.words];
+        for (int v = 0; v < n; v++) {
+            if (!graph.isActive(v)) {
+                this.blocked[v >>> 6] |= 1L << v;
+            }
+        }
+        if (downNodes != null) {
+            long[] down = downNodes.toLongArray();
+            for (int w = 0; w < Math.min(down.length, this.words); w++) {
+                this.blocked[w] |= down[w];
+            }
+        }
+        if ((n & 63) != 0) {
+            //
+            // Bits depois do último nó contam como bloqueados
+            //
+            this.blocked[this.words - 1] |= -1L << n;
+        }
+    }
+
+    /**
+     * @param graph
+     * @param sources
+     * @return nós alcançados a partir das origens ativas
+     */
+    public static BitSet from(CsrGraph graph, BitSet sources) {
+        return from(graph, sources, null, null);
+    }
+
+    /**
+     * Como from(graph, sources), considerando também fora do ar os nós e
+     * conexões informados, que podem ser nulos
+     *
+     * @param graph
+     * @param sources
+     * @param downNodes
+     * @param downEdges
+     * @return
+     */
+    public static BitSet from(CsrGraph graph, BitSet sources, BitSet downNodes, BitSet downEdges) {
+        return new Reachability(graph, downNodes, downEdges).search(sources);
+    }
+
+    /**
+     * Alcance a partir das origens em cada cenário de falha. Os vetores podem
+     * ser nulos ou ter tamanhos diferentes, e cada posição pode ser nula.
+     *
+     * @param graph
+     * @param sources
+     * @param downNodes nós fora do ar em cada cenário
+     * @param downEdges conexões fora do ar em cada cenário
+     * @return nós alcançados em cada cenário
+     */
+    public static BitSet[] underFailures(CsrGraph graph, BitSet sources, BitSet[] downNodes, BitSet[] downEdges) {
+        int scenarios = Math.max(downNodes == null ? 0 : downNodes.length, downEdges == null ? 0 : downEdges.length);
+        BitSet[] result = new BitSet[scenarios];
+        TopologyProgress progress = TopologyProgress.current();
+        List<ForkJoinTask<?>> batches = new ArrayList<>();
+        for (int first = 0; first < scenarios; first += 64) {
+            int start = first;
+            int count = Math.min(64, scenarios - first);
+            batches.add(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    propagate(graph, sources, downNodes, downEdges, start, count, result, progress);
+                    progress.advance(count);
+                }
+            });
+        }
+        if (batches.size() == 1) {
+            batches.get(0).invoke();
+        } else if (!batches.isEmpty()) {
+            TopologyExecutors.getForkJoinPool().invoke(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    invokeAll(batches);
+                }
+            });
+        }
+        return result;
+    }
+
+    private BitSet search(BitSet sources) {
+        TopologyProgress progress = TopologyProgress.current();
+        int n = this.graph.nodeCount();
+        this.visited = new long[this.words];
+        this.frontier = new long[this.words];
+        this.next = new long[this.words];
+        long frontierEdges = 0;
+        for (int v = sources.nextSetBit(0); v >= 0 && v < n; v = sources.nextSetBit(v + 1)) {
+            if (!this.isBlocked(v)) {
+                this.visited[v >>> 6] |= 1L << v;
+                frontierEdges += this.graph.degree(v);
+            }
+        }
+        System.arraycopy(this.visited, 0, this.frontier, 0, this.words);
+        long unexploredEdges = this.graph.slotCount() - frontierEdges;
+        int frontierSize = count(this.frontier);
+        boolean bottomUp = false;
+        boolean parallel = n >= PARALLEL_NODES;
+        while (frontierSize > 0) {
+            progress.checkCancelled();
+            if (!bottomUp && frontierEdges > unexploredEdges / ALPHA) {
+                bottomUp = true;
+            } else if (bottomUp && frontierSize < n / BETA) {
+                bottomUp = false;
+            }
+            Arrays.fill(this.next, 0L);
+            frontierEdges = parallel
+                    ? TopologyExecutors.getForkJoinPool().invoke(new Level(0, this.words, bottomUp))
+                    : this.step(0, this.words, bottomUp);
+            unexploredEdges -= frontierEdges;
+            long[] swap = this.frontier;
+            this.frontier = this.next;
+            this.next = swap;
+            frontierSize = count(this.frontier);
+        }
+        return BitSet.valueOf(this.visited);
+    }
+
+    /**
+     * Expande um nível na faixa de palavras [from, to)
+     *
+     * @return soma dos graus dos nós descobertos
+     */
+    private long step(int from, int to, boolean bottomUp) {
+        return bottomUp ? this.bottomUp(from, to) : this.topDown(from, to);
+    }
+
+    private long topDown(int from, int to) {
+        long discovered = 0;
+        for (int w = from; w < to; w++) {
+            long word = this.frontier[w];
+            while (word != 0) {
+                int v = (w << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+                for (int slot = this.graph.firstSlot(v); slot < this.graph.endSlot(v); slot++) {
+                    int u = this.graph.target(slot);
+                    long bit = 1L << u;
+                    int index = u >>> 6;
+                    if (((long) WORDS.getOpaque(this.visited, index) & bit) != 0
+                            || this.isBlocked(u) || this.isEdgeBlocked(this.graph.edgeAt(slot))) {
+                        continue;
+                    }
+                    long previous = (long) WORDS.getAndBitwiseOr(this.visited, index, bit);
+                    if ((previous & bit) == 0) {
+                        WORDS.getAndBitwiseOr(this.next, index, bit);
+                        discovered += this.graph.degree(u);
+                    }
+                }
+            }
+        }
+        return discovered;
+    }
+
+    private long bottomUp(int from, int to) {
+        long discovered = 0;
+        for (int w = from; w < to; w++) {
+            long word = ~(this.visited[w] | this.blocked[w]);
+            while (word != 0) {
+                int u = (w << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+                for (int slot = this.graph.firstSlot(u); slot < this.graph.endSlot(u); slot++) {
+                    int v = this.graph.target(slot);
+                    if ((this.frontier[v >>> 6] & (1L << v)) != 0 && !this.isEdgeBlocked(this.graph.edgeAt(slot))) {
+                        //
+                        // A palavra w é só desta faixa, não precisa de OR
+                        // atômico
+                        //
+                        this.visited[w] |= 1L << u;
+                        this.next[w] |= 1L << u;
+                        discovered += this.graph.degree(u);
+                        break;
+                    }
+                }
+            }
+        }
+        return discovered;
+    }
+
+    private boolean isBlocked(int node) {
+        return (this.blocked[node >>> 6] & (1L << node)) != 0;
+    }
+
+    private boolean isEdgeBlocked(int edge) {
+        return !this.graph.isEdgeActive(edge) || (this.downEdges != null && this.downEdges.get(edge));
+    }
+
+    private static int count(long[] words) {
+        int total = 0;
+        for (long word : words) {
+            total += Long.bitCount(word);
+        }
+        return total;
+    }
+
+    /**
+     * Um lote de até 64 cenários. reach[v] tem o bit k ligado se v é
+     * alcançado no cenário first + k; a fronteira é quem ganhou algum bit.
+     * O progresso vem da thread que chamou underFailures, o lote pode rodar
+     * numa thread do pool fork/join
+     */
+    private static void propagate(CsrGraph graph, BitSet sources, BitSet[] downNodes, BitSet[] downEdges,
+            int first, int count, BitSet[] result, TopologyProgress progress) {
+        int n = graph.nodeCount();
+        long all = count == 64 ? -1L : (1L << count) - 1;
+        long[] nodeDown = new long[n];
+        long[] edgeDown = new long[graph.edgeCount()];
+        for (int k = 0; k < count; k++) {
+            BitSet nodes = downNodes != null && first + k < downNodes.length ? downNodes[first + k] : null;
+            BitSet edges = downEdges != null && first + k < downEdges.length ? downEdges[first + k] : null;
+            if (nodes != null) {
+                for (int v = nodes.nextSetBit(0); v >= 0 && v < n; v = nodes.nextSetBit(v + 1)) {
+                    nodeDown[v] |= 1L << k;
+                }
+            }
+            if (edges != null) {
+                for (int e = edges.nextSetBit(0); e >= 0 && e < edgeDown.length; e = edges.nextSetBit(e + 1)) {
+                    edgeDown[e] |= 1L << k;
+                }
+            }
+        }
+        long[] reach = new long[n];
+        BitSet frontier = new BitSet(n);
+        for (int v = sources.nextSetBit(0); v >= 0 && v < n; v = sources.nextSetBit(v + 1)) {
+            if (graph.isActive(v)) {
+                reach[v] = all & ~nodeDown[v];
+                if (reach[v] != 0) {
+                    frontier.set(v);
+                }
+            }
+        }
+        while (!frontier.isEmpty()) {
+            progress.checkCancelled();
+            BitSet changed = new BitSet(n);
+            for (int v = frontier.nextSetBit(0); v >= 0; v = frontier.nextSetBit(v + 1)) {
+                for (int slot = graph.firstSlot(v); slot < graph.endSlot(v); slot++) {
+                    int u = graph.target(slot);
+                    int e = graph.edgeAt(slot);
+                    if (!graph.isActive(u) || !graph.isEdgeActive(e)) {
+                        continue;
+                    }
+                    long gained = reach[v] & ~edgeDown[e] & ~nodeDown[u] & ~reach[u];
+                    if (gained != 0) {
+                        reach[u] |= gained;
+                        changed.set(u);
+                    }
+                }
+            }
+            frontier = changed;
+        }
+        for (int k = 0; k < count; k++) {
+            result[first + k] = new BitSet(n);
+        }
+        for (int v = 0; v < n; v++) {
+            long bits = reach[v];
+            while (bits != 0) {
+                result[first + Long.numberOfTrailingZeros(bits)].set(v);
+                bits &= bits - 1;
+            }
+        }
+    }
+
+    /**
+     * Um nível da busca dividido em faixas de palavras
+     */
+    private final class Level extends RecursiveTask<Long> {
+
+        private final int from;
+        private final int to;
+        private final boolean bottomUp;
+
+        private Level(int from, int to, boolean bottomUp) {
+            this.from = from;
+            this.to = to;
+            this.bottomUp = bottomUp;
+        }
+
+        @Override
+        protected Long compute() {
+            if (this.to - this.from <= CHUNK_WORDS) {
+                return step(this.from, this.to, this.bottomUp);
+            }
+            int middle = (this.from + this.to) >>> 1;
+            Level left = new Level(this.from, middle, this.bottomUp);
+            left.fork();
+            long right = new Level(middle, this.to, this.bottomUp).compute();
+            return left.join() + right;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.topology.csr;
+
+import com.osstelecom.db.inventory.topology.ITopology;
+import com.osstelecom.db.inventory.topology.connection.INetworkConnection;
+import com.osstelecom.db.inventory.topology.node.INetworkNode;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+/**
+ * Fotografia de um ITopology em CSR, guardando o caminho de volta dos índices
+ * para os objetos. Os nós de getNodes() vêm primeiro, na mesma ordem, depois
+ * os endpoints que não estão nela. A conexão e corresponde a
+ * getConnections().get(e).
+ *
+ * @author Lucas Nishimura
+ * @created 19.10.2026
+ */
+public final class TopologyGraph {
+
+    private final CsrGraph graph;
+    private final List<INetworkNode> nodes;
+    private final List<INetworkConnection> connections;
+    private final IdentityHashMap<INetworkNode, Integer> index;
+
+    private TopologyGraph(CsrGraph graph, List<INetworkNode> nodes, List<INetworkConnection> connections, IdentityHashMap<INetworkNode, Integer> index) {
+        this.graph = graph;
+        this.nodes = nodes;
+        this.connections = connections;
+        this.index = index;
+    }
+
+    /**
+     * Converte a topologia, o estado ativo de nós e conexões é copiado no
+     * momento da chamada
+     *
+     * @param topology
+     * @return
+     */
+    public static TopologyGraph of(ITopology topology) {
+        CsrGraph.Builder builder = CsrGraph.builder();
+        List<INetworkNode> nodes = new ArrayList<>(topology.getNodes().size() + topology.getEndPoints().size());
+        IdentityHashMap<INetworkNode, Integer> index = new IdentityHashMap<>();
+        for (INetworkNode node : topology.getNodes()) {
+            add(builder, node, nodes, index);
+        }
+        for (INetworkNode node : topology.getEndPoints()) {
+            add(builder, node, nodes, index);
+        }
+        List<INetworkConnection> connections = new ArrayList<>(topology.getConnections());
+        for (INetworkConnection connection : connections) {
+            int source = add(builder, connection.getSource(), nodes, index);
+            int target = add(builder, connection.getTarget(), nodes, index);
+            builder.addEdge(source, target, Boolean.TRUE.equals(connection.getActive()), connection.getName());
+        }
+        return new TopologyGraph(builder.build(), nodes, connections, index);
+    }
+
+    private static int add(CsrGraph.Builder builder, INetworkNode node, List<INetworkNode> nodes, IdentityHashMap<INetworkNode, Integer> index) {
+        Integer existing = index.get(node);
+        if (existing != null) {
+            return existing;
+        }
+        int created = builder.addNode(node.getName(), Boolean.TRUE.equals(node.endPoint()), Boolean.TRUE.equals(node.getActive()));
+        index.put(node, created);
+        nodes.add(node);
+        return created;
+    }
+
+    public CsrGraph getGraph() {
+        return this.graph;
+    }
+
+    public INetworkNode node(int node) {
+        return this.nodes.get(node);
+    }
+
+    public INetworkConnection connection(int edge) {
+        return this.connections.get(edge);
+    }
+
+    /**
+     * @param node
+     * @return o índice ou -1 se o nó não faz parte da fotografia
+     */
+    public int indexOf(INetworkNode node) {
+        Integer found = this.index.get(node);
+        return found == null ? -1 : found;
+    }
+
+    /**
+     * Índices dos nós informados, ignorando os que não pertencem à topologia
+     *
+     * @param nodes
+     * @return
+     */
+    public BitSet indexOf(Iterable<INetworkNode> nodes) {
+        BitSet result = new BitSet(this.graph.nodeCount());
+        for (INetworkNode node : nodes) {
+            int found = this.indexOf(node);
+            if (found >= 0) {
+                result.set(found);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Devolve aos objetos as conexões que levam aos endpoints, marcadas por
+     * slot em CsrAlgorithms.endpointSlots, para manter o
+     * getEndpointConnectionsCount() dos nós coerente
+     *
+     * @param slots
+     */
+    public void publishEndpointSlots(BitSet slots) {
+        int node = 0;
+        for (int slot = slots.nextSetBit(0); slot >= 0; slot = slots.nextSetBit(slot + 1)) {
+            while (this.graph.endSlot(node) <= slot) {
+                node++;
+            }
+            this.nodes.get(node).addEndPointConnection(this.connections.get(this.graph.edgeAt(slot)));
+        }
+    }
+}
@@ -21,10 +21,11 @@ import com.osstelecom.db.inventory.topology.ITopology;
 import com.osstelecom.db.inventory.topology.algorithm.WeakNodesAlgorithm;
 import com.osstelecom.db.inventory.topology.node.INetworkNode;
 import com.osstelecom.db.inventory.topology.node.SourceTargetWrapper;
-import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
@@ -57,7 +58,7 @@ public class WeakNodesImpactManager extends DefaultImpactManagerImpl {
         // Esses nunca vão chegar lá....
         // Já elege pelo DFS os que não tocam nenhuma saída...
         //
-        ArrayList<INetworkNode> alreadyWeak = this.getUnreacheableNodes();
+        Set<INetworkNode> alreadyWeak = new HashSet<>(this.getUnreacheableNodes());
         logger.debug("Removing: " + alreadyWeak.size() + " Nodes Because Already Weak - Unreacheable");
 
         //
@@ -0,0 +1,176 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.topology.job;
+
+import com.osstelecom.db.inventory.manager.dto.TopologyJobDTO;
+import com.osstelecom.db.inventory.manager.dto.TopologyJobItemDTO;
+import com.osstelecom.db.inventory.topology.TopologyProgress;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Uma análise de topologia rodando fora da requisição HTTP. As transições de
+ * estado são por compareAndSet: uma job cancelada ainda na fila não chega a
+ * rodar, e uma que termina antes de ver o cancelamento fica como DONE.
+ *
+ * @author Lucas Nishimura
+ * @created 19.10.2026
+ */
+public class TopologyJob {
+
+    public enum Status {
+        QUEUED, RUNNING, DONE, FAILED, CANCELLED
+    }
+
+    private final String jobId;
+    private final String type;
+    private final String fingerprint;
+    private final Date submitted = new Date();
+    private final TopologyProgress progress = new TopologyProgress();
+    private final AtomicReference<Status> status = new AtomicReference<>(Status.QUEUED);
+    private volatile Date started;
+    private volatile Date ended;
+    private volatile String error;
+    private volatile List<TopologyJobItemDTO> result = Collections.emptyList();
+    private volatile Future<?> future;
+
+    public TopologyJob(String jobId, String type, String fingerprint) {
+        this.jobId = jobId;
+        this.type = type;
+        this.fingerprint = fingerprint;
+    }
+
+    /**
+     * @return false se a job foi cancelada antes de sair da fila
+     */
+    public boolean start() {
+        if (this.status.compareAndSet(Status.QUEUED, Status.RUNNING)) {
+            this.started = new Date();
+            return true;
+        }
+        return false;
+    }
+
+    public void finish(List<TopologyJobItemDTO> items) {
+        this.result = Collections.unmodifiableList(items);
+        this.end(Status.DONE);
+    }
+
+    public void fail(Throwable cause) {
+        this.error = cause.getMessage() == null ? cause.getClass().getSimpleName() : cause.getMessage();
+        this.end(Status.FAILED);
+    }
+
+    public void cancelled() {
+        this.end(Status.CANCELLED);
+    }
+
+    private void end(Status end) {
+        if (this.status.compareAndSet(Status.RUNNING, end)) {
+            this.ended = new Date();
+        }
+    }
+
+    /**
+     * Pede o cancelamento: na fila vira CANCELLED na hora, rodando os
+     * algoritmos param no próximo checkCancelled e a thread é interrompida
+     * para soltar esperas de I/O
+     *
+     * @return true se a job ainda não tinha terminado
+     */
+    public boolean cancel() {
+        if (this.status.compareAndSet(Status.QUEUED, Status.CANCELLED)) {
+            this.ended = new Date();
+            return true;
+        }
+        if (this.status.get() == Status.RUNNING) {
+            this.progress.cancel();
+            Future<?> running = this.future;
+            if (running != null) {
+                running.cancel(true);
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return false se falhou ou foi cancelada, e não serve para outra
+     * requisição com a mesma entrada
+     */
+    public boolean isReusable() {
+        Status current = this.status.get();
+        return current != Status.FAILED && current != Status.CANCELLED && !this.progress.isCancelled();
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public Status getStatus() {
+        return status.get();
+    }
+
+    public TopologyProgress getProgress() {
+        return progress;
+    }
+
+    public List<TopologyJobItemDTO> getResult() {
+        return result;
+    }
+
+    public void setFuture(Future<?> future) {
+        this.future = future;
+    }
+
+    /**
+     * @param offset
+     * @param limit null para não trazer os itens
+     * @return
+     */
+    public TopologyJobDTO toDTO(Integer offset, Integer limit) {
+        TopologyJobDTO dto = new TopologyJobDTO();
+        dto.setJobId(this.jobId);
+        dto.setType(this.type);
+        dto.setStatus(this.status.get().name());
+        dto.setStage(this.progress.getStage());
+        dto.setDone(this.progress.getDone());
+        dto.setTotal(this.progress.getTotal());
+        dto.setSubmitted(this.submitted);
+        dto.setStarted(this.started);
+        dto.setEnded(this.ended);
+        dto.setError(this.error);
+        List<TopologyJobItemDTO> items = this.result;
+        dto.setResultSize(items.size());
+        if (limit != null) {
+            int from = Math.min(Math.max(offset, 0), items.size());
+            int to = Math.min(from + Math.max(limit, 0), items.size());
+            dto.setOffset(from);
+            dto.setLimit(limit);
+            dto.setItems(items.subList(from, to));
+        }
+        return dto;
+    }
+}
@@ -0,0 +1,399 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.topology.live;
+
+import com.osstelecom.db.inventory.topology.csr.CsrGraph;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Topologia residente de um domain, mantida pelos eventos das conexões e dos
+ * recursos em vez de ser remontada do banco a cada verificação.
+ * <p>
+ * Guarda só o necessário para os algoritmos: as pontas e o estado de cada
+ * conexão e quais conexões compõem cada circuito. Cada alteração efetiva
+ * incrementa a versão, e o grafo compacto do domain é remontado no máximo uma
+ * vez por versão. Enquanto a carga inicial está em curso as alterações
+ * recebidas ficam pendentes e são reaplicadas no final, na ordem em que
+ * chegaram, então valem sobre o que foi lido do banco.
+ *
+ * @author Lucas Nishimura
+ * @created 19.10.2026
+ */
+public class LiveTopology {
+
+    /**
+     * Estimativa de bytes por conexão, nó e referência de circuito: entrada
+     * do HashMap, objeto e cabeçalho da String, sem os caracteres
+     */
+    private static final long LINK_BYTES = 120L;
+    private static final long NODE_BYTES = 96L;
+    private static final long CIRCUIT_REF_BYTES = 48L;
+
+    private final String domainName;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Link> links = new HashMap<>();
+    private final Map<String, Node> nodes = new HashMap<>();
+    private final Map<String, Set<String>> circuits = new HashMap<>();
+    private final AtomicLong version = new AtomicLong();
+    private List<Runnable> pending;
+    private boolean ready = false;
+    private long circuitRefs;
+    private long chars;
+    private CsrGraph snapshot;
+    private long snapshotVersion = -1L;
+    private Long loadMillis;
+    private Date loadedAt;
+    private volatile long lastUsed = System.currentTimeMillis();
+
+    public LiveTopology(String domainName) {
+        this.domainName = domainName;
+    }
+
+    /**
+     * Inicia a carga, até o finishLoad as alterações ficam pendentes
+     */
+    public void beginLoad() {
+        this.lock.writeLock().lock();
+        try {
+            this.pending = new ArrayList<>();
+            this.ready = false;
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Conexão lida do banco durante a carga
+     *
+     * @param id
+     * @param from
+     * @param to
+     * @param active
+     * @param circuitIds
+     */
+    public void load(String id, String from, String to, boolean active, Collection<String> circuitIds) {
+        this.lock.writeLock().lock();
+        try {
+            this.doPutLink(id, from, to, active, circuitIds);
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Reaplica as alterações recebidas durante a carga e libera a topologia
+     * para leitura
+     *
+     * @param millis tempo da carga
+     */
+    public void finishLoad(long millis) {
+        this.lock.writeLock().lock();
+        try {
+            if (this.pending != null) {
+                this.pending.forEach(Runnable::run);
+                this.pending = null;
+            }
+            this.loadMillis = millis;
+            this.loadedAt = new Date();
+            this.ready = true;
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Cria ou atualiza uma conexão, sem efeito se nada mudou
+     *
+     * @param id
+     * @param from
+     * @param to
+     * @param active
+     * @param circuitIds
+     */
+    public void putLink(String id, String from, String to, boolean active, Collection<String> circuitIds) {
+        List<String> circuitCopy = circuitIds == null ? Collections.emptyList() : new ArrayList<>(circuitIds);
+        this.mutate(() -> this.doPutLink(id, from, to, active, circuitCopy));
+    }
+
+    public void removeLink(String id) {
+        this.mutate(() -> this.doRemoveLink(id));
+    }
+
+    /**
+     * Remove o nó e as conexões ligadas a ele. As conexões são procuradas
+     * numa varredura, remoção de recurso é rara e assim o nó não precisa
+     * guardar a lista de conexões
+     *
+     * @param id
+     */
+    public void removeNode(String id) {
+        this.mutate(() -> {
+            if (this.nodes.containsKey(id)) {
+                List<String> incident = new ArrayList<>();
+                this.links.values().forEach(link -> {
+                    if (link.from.equals(id) || link.to.equals(id)) {
+                        incident.add(link.id);
+                    }
+                });
+                incident.forEach(this::doRemoveLink);
+            }
+        });
+    }
+
+    private void mutate(Runnable change) {
+        this.lock.writeLock().lock();
+        try {
+            if (this.pending != null) {
+                this.pending.add(change);
+            } else {
+                change.run();
+            }
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    private void doPutLink(String id, String from, String to, boolean active, Collection<String> circuitIds) {
+        Link previous = this.links.get(id);
+        Set<String> newCircuits = circuitIds == null || circuitIds.isEmpty()
+                ? Collections.emptySet() : new HashSet<>(circuitIds);
+        if (previous != null && previous.from.equals(from) && previous.to.equals(to)
+                && previous.active == active && previous.circuits.equals(newCircuits)) {
+            return;
+        }
+        if (previous != null) {
+            this.unlink(previous);
+        }
+        Link link = new Link(id, from, to, active, newCircuits);
+        this.links.put(id, link);
+        this.chars += id.length();
+        this.ref(from);
+        this.ref(to);
+        for (String circuitId : newCircuits) {
+            this.circuits.computeIfAbsent(circuitId, k -> new HashSet<>()).add(id);
+            this.circuitRefs++;
+        }
+        this.version.incrementAndGet();
+    }
+
+    private void doRemoveLink(String id) {
+        Link previous = this.links.get(id);
+        if (previous != null) {
+            this.unlink(previous);
+            this.version.incrementAndGet();
+        }
+    }
+
+    private void unlink(Link link) {
+        this.links.remove(link.id);
+        this.chars -= link.id.length();
+        this.unref(link.from);
+        this.unref(link.to);
+        for (String circuitId : link.circuits) {
+            Set<String> members = this.circuits.get(circuitId);
+            if (members != null && members.remove(link.id)) {
+                this.circuitRefs--;
+                if (members.isEmpty()) {
+                    this.circuits.remove(circuitId);
+                }
+            }
+        }
+    }
+
+    private void ref(String name) {
+        Node node = this.nodes.get(name);
+        if (node == null) {
+            node = new Node();
+            this.nodes.put(name, node);
+            this.chars += name.length();
+        }
+        node.links++;
+    }
+
+    private void unref(String name) {
+        Node node = this.nodes.get(name);
+        if (node != null && --node.links <= 0) {
+            this.nodes.remove(name);
+            this.chars -= name.length();
+        }
+    }
+
+    /**
+     * @return false enquanto a carga não terminou
+     */
+    public boolean isReady() {
+        this.lock.readLock().lock();
+        try {
+            return this.ready;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    public long getVersion() {
+        return this.version.get();
+    }
+
+    public String getDomainName() {
+        return domainName;
+    }
+
+    public long getLastUsed() {
+        return lastUsed;
+    }
+
+    /**
+     * Grafo compacto do domain inteiro, sem endpoints, remontado só quando a
+     * versão mudou. Os nomes dos nós são os ids dos recursos e os das
+     * conexões os ids das conexões
+     *
+     * @return null se a carga não terminou
+     */
+    public CsrGraph snapshot() {
+        this.lastUsed = System.currentTimeMillis();
+        this.lock.readLock().lock();
+        try {
+            if (!this.ready) {
+                return null;
+            }
+            CsrGraph current = this.snapshot;
+            if (current != null && this.snapshotVersion == this.version.get()) {
+                return current;
+            }
+        } finally {
+            this.lock.readLock().unlock();
+        }
+        this.lock.writeLock().lock();
+        try {
+            long currentVersion = this.version.get();
+            if (this.snapshot == null || this.snapshotVersion != currentVersion) {
+                CsrGraph.Builder builder = CsrGraph.builder();
+                Map<String, Integer> index = new HashMap<>(this.nodes.size() * 2);
+                this.nodes.keySet().forEach(name -> index.put(name, builder.addNode(name, false, true)));
+                this.links.values().forEach(link -> builder.addEdge(index.get(link.from), index.get(link.to), link.active, link.id));
+                this.snapshot = builder.build();
+                this.snapshotVersion = currentVersion;
+            }
+            return this.snapshot;
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Grafo só com as conexões do circuito, com o aPoint como endpoint, no
+     * mesmo formato do checkBrokenGraph
+     *
+     * @param circuitId
+     * @param aPoint
+     * @return null se a carga não terminou
+     */
+    public CsrGraph circuitGraph(String circuitId, String aPoint) {
+        this.lastUsed = System.currentTimeMillis();
+        this.lock.readLock().lock();
+        try {
+            if (!this.ready) {
+                return null;
+            }
+            CsrGraph.Builder builder = CsrGraph.builder();
+            builder.endPoint(builder.node(aPoint));
+            Set<String> members = this.circuits.getOrDefault(circuitId, Collections.emptySet());
+            for (String linkId : members) {
+                Link link = this.links.get(linkId);
+                builder.addEdge(builder.node(link.from), builder.node(link.to), link.active, link.id);
+            }
+            return builder.build();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Estimativa da memória ocupada pelos mapas e pelo último snapshot
+     *
+     * @return bytes
+     */
+    public long estimatedBytes() {
+        this.lock.readLock().lock();
+        try {
+            long bytes = this.links.size() * LINK_BYTES + this.nodes.size() * NODE_BYTES
+                    + this.circuitRefs * CIRCUIT_REF_BYTES + this.chars * 2;
+            if (this.snapshot != null) {
+                bytes += this.snapshot.sizeInBytes();
+            }
+            return bytes;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        long bytes = this.estimatedBytes();
+        this.lock.readLock().lock();
+        try {
+            result.put("domain", this.domainName);
+            result.put("ready", this.ready);
+            result.put("version", this.version.get());
+            result.put("nodes", this.nodes.size());
+            result.put("connections", this.links.size());
+            result.put("circuits", this.circuits.size());
+            result.put("estimatedBytes", bytes);
+            result.put("loadMillis", this.loadMillis);
+            result.put("loadedAt", this.loadedAt);
+            result.put("lastUsed", new Date(this.lastUsed));
+        } finally {
+            this.lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    private static final class Link {
+
+        private final String id;
+        private final String from;
+        private final String to;
+        private final boolean active;
+        private final Set<String> circuits;
+
+        private Link(String id, String from, String to, boolean active, Set<String> circuits) {
+            this.id = Objects.requireNonNull(id);
+            this.from = Objects.requireNonNull(from);
+            this.to = Objects.requireNonNull(to);
+            this.active = active;
+            this.circuits = circuits;
+        }
+    }
+
+    private static final class Node {
+
+        private int links;
+    }
+}
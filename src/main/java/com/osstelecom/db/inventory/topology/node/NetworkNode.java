@@ -21,8 +21,10 @@ import com.osstelecom.db.inventory.topology.connection.INetworkConnection;
 import com.osstelecom.db.inventory.topology.ITopology;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.ReentrantLock;
@@ -51,7 +53,7 @@ public abstract class NetworkNode implements INetworkNode {
     private ReentrantLock lock = new ReentrantLock(true);
     private ConcurrentHashMap<String, Boolean> visitedThreads = new ConcurrentHashMap<>();
     private ArrayList<INetworkConnection> connections = new ArrayList<>();
-    private ArrayList<INetworkConnection> probedConnections = new ArrayList<>();
+    private Set<INetworkConnection> probedConnections = new LinkedHashSet<>();
     private List<ArrayList<INetworkNode>> solutions = Collections.synchronizedList(new ArrayList<ArrayList<INetworkNode>>());
     private ConcurrentHashMap<String, Object> attributes = new ConcurrentHashMap<>();
 
@@ -130,25 +132,22 @@ public abstract class NetworkNode implements INetworkNode {
 
     @Override
     public void markConnectionAsProbed(INetworkConnection connection) {
-        if (!this.probedConnections.contains(connection)) {
-//            connection.setVisited();
-            this.probedConnections.add(connection);
-        }
+        this.probedConnections.add(connection);
     }
 
     @Override
     public List<INetworkConnection> getUnprobedConnections() {
-        return this.connections.parallelStream().filter(c -> !this.probedConnections.contains(c)).collect(Collectors.toList());
+        return this.connections.stream().filter(c -> !this.probedConnections.contains(c)).collect(Collectors.toList());
     }
 
     @Override
     public List<INetworkConnection> getVisitedConnections(String uid) {
-        return this.connections.parallelStream().filter(c -> c.isVisited(uid)).collect(Collectors.toList());
+        return this.connections.stream().filter(c -> c.isVisited(uid)).collect(Collectors.toList());
     }
 
     @Override
     public List<INetworkConnection> getUnVisitedConnections(String uid) {
-        return this.connections.parallelStream().filter(c -> !c.isVisited(uid) && c.getActive()).collect(Collectors.toList());
+        return this.connections.stream().filter(c -> !c.isVisited(uid) && c.getActive()).collect(Collectors.toList());
     }
 
     @Override
@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.topology.rest.api;
+
+import com.osstelecom.db.inventory.manager.exception.ArangoDaoException;
+import com.osstelecom.db.inventory.manager.exception.DomainNotFoundException;
+import com.osstelecom.db.inventory.manager.exception.InvalidRequestException;
+import com.osstelecom.db.inventory.manager.exception.ResourceNotFoundException;
+import com.osstelecom.db.inventory.manager.request.ComputeCentralityRequest;
+import com.osstelecom.db.inventory.manager.request.ComputeFailureSimulationRequest;
+import com.osstelecom.db.inventory.manager.request.ComputeTransientTopologyRequest;
+import com.osstelecom.db.inventory.manager.response.TopologyJobResponse;
+import com.osstelecom.db.inventory.manager.rest.api.BaseApi;
+import com.osstelecom.db.inventory.manager.security.model.AuthenticatedCall;
+import com.osstelecom.db.inventory.topology.session.TopologyJobSession;
+import com.osstelecom.db.inventory.visualization.request.GetDomainTopologyRequest;
+import javax.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Análises de topologia assíncronas: o POST devolve a job, o GET acompanha o
+ * progresso, o DELETE cancela e o resultado vem paginado
+ *
+ * @author Lucas Nishimura
+ * @created 19.10.2026
+ */
+@RestController
+@RequestMapping("topology/v1/jobs")
+public class TopologyJobApi extends BaseApi {
+
+    @Autowired
+    private TopologyJobSession topologyJobSession;
+
+    @AuthenticatedCall(role = {"user", "operator"})
+    @PostMapping(path = "/transient", produces = "application/json", consumes = "application/json")
+    public TopologyJobResponse submitTransient(@RequestBody ComputeTransientTopologyRequest request, HttpServletRequest httpRequest) throws InvalidRequestException {
+        this.setUserDetails(request);
+        httpRequest.setAttribute("request", request);
+        return this.topologyJobSession.submitTransient(request);
+    }
+
+    @AuthenticatedCall(role = {"user", "operator"})
+    @PostMapping(path = "/{domain}/cuts", produces = "application/json", consumes = "application/json")
+    public TopologyJobResponse submitCuts(@PathVariable("domain") String domain,
+            @RequestBody GetDomainTopologyRequest request, HttpServletRequest httpRequest) throws DomainNotFoundException, ArangoDaoException {
+        request.setRequestDomain(domain);
+        this.setUserDetails(request);
+        httpRequest.setAttribute("request", request);
+        return this.topologyJobSession.submitCuts(request);
+    }
+
+    @AuthenticatedCall(role = {"user", "operator"})
+    @PostMapping(path = "/{domain}/centrality", produces = "application/json", consumes = "application/json")
+    public TopologyJobResponse submitCentrality(@PathVariable("domain") String domain,
+            @RequestBody ComputeCentralityRequest request, HttpServletRequest httpRequest) throws DomainNotFoundException, ArangoDaoException, InvalidRequestException {
+        request.setRequestDomain(domain);
+        this.setUserDetails(request);
+        httpRequest.setAttribute("request", request);
+        return this.topologyJobSession.submitCentrality(request);
+    }
+
+    @AuthenticatedCall(role = {"user", "operator"})
+    @PostMapping(path = "/{domain}/simulation", produces = "application/json", consumes = "application/json")
+    public TopologyJobResponse submitSimulation(@PathVariable("domain") String domain,
+            @RequestBody ComputeFailureSimulationRequest request, HttpServletRequest httpRequest) throws DomainNotFoundException, ArangoDaoException, InvalidRequestException {
+        request.setRequestDomain(domain);
+        this.setUserDetails(request);
+        httpRequest.setAttribute("request", request);
+        return this.topologyJobSession.submitSimulation(request);
+    }
+
+    @AuthenticatedCall(role = {"user", "operator"})
+    @GetMapping(path = "/{jobId}", produces = "application/json")
+    public TopologyJobResponse getJob(@PathVariable("jobId") String jobId) throws ResourceNotFoundException {
+        return this.topologyJobSession.getJob(jobId);
+    }
+
+    @AuthenticatedCall(role = {"user", "operator"})
+    @DeleteMapping(path = "/{jobId}", produces = "application/json")
+    public TopologyJobResponse cancelJob(@PathVariable("jobId") String jobId) throws ResourceNotFoundException, InvalidRequestException {
+        return this.topologyJobSession.cancelJob(jobId);
+    }
+
+    @AuthenticatedCall(role = {"user", "operator"})
+    @GetMapping(path = "/{jobId}/result", produces = "application/json")
+    public TopologyJobResponse getJobResult(@PathVariable("jobId") String jobId) throws ResourceNotFoundException, InvalidRequestException {
+        return this.topologyJobSession.getJobResult(jobId, 0, null);
+    }
+
+    @AuthenticatedCall(role = {"user", "operator"})
+    @GetMapping(path = "/{jobId}/result/{offset}/{limit}", produces = "application/json")
+    public TopologyJobResponse getJobResult(@PathVariable("jobId") String jobId, @PathVariable("offset") Integer offset,
+            @PathVariable("limit") Integer limit) throws ResourceNotFoundException, InvalidRequestException {
+        return this.topologyJobSession.getJobResult(jobId, offset, limit);
+    }
+}
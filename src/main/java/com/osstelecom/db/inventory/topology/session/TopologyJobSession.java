@@ -0,0 +1,373 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.topology.session;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.osstelecom.db.inventory.manager.configuration.ConfigurationManager;
+import com.osstelecom.db.inventory.manager.configuration.InventoryConfiguration;
+import com.osstelecom.db.inventory.manager.dto.FailureScenarioDTO;
+import com.osstelecom.db.inventory.manager.dto.TopologyCentralityDTO;
+import com.osstelecom.db.inventory.manager.dto.TopologyCutsDTO;
+import com.osstelecom.db.inventory.manager.dto.TopologyJobItemDTO;
+import com.osstelecom.db.inventory.manager.exception.ArangoDaoException;
+import com.osstelecom.db.inventory.manager.exception.DomainNotFoundException;
+import com.osstelecom.db.inventory.manager.exception.InvalidRequestException;
+import com.osstelecom.db.inventory.manager.exception.ResourceNotFoundException;
+import com.osstelecom.db.inventory.manager.operation.DomainManager;
+import com.osstelecom.db.inventory.manager.operation.ImpactSimulationManager;
+import com.osstelecom.db.inventory.manager.operation.LiveTopologyManager;
+import com.osstelecom.db.inventory.manager.operation.ManagedExecutorService;
+import com.osstelecom.db.inventory.manager.operation.ManagedExecutorService.Pool;
+import com.osstelecom.db.inventory.manager.request.ComputeCentralityRequest;
+import com.osstelecom.db.inventory.manager.request.ComputeFailureSimulationRequest;
+import com.osstelecom.db.inventory.manager.request.ComputeTransientTopologyRequest;
+import com.osstelecom.db.inventory.manager.resources.Domain;
+import com.osstelecom.db.inventory.manager.response.TopologyJobResponse;
+import com.osstelecom.db.inventory.topology.TopologyProgress;
+import com.osstelecom.db.inventory.topology.csr.Centrality;
+import com.osstelecom.db.inventory.topology.csr.CsrGraph;
+import com.osstelecom.db.inventory.topology.job.TopologyJob;
+import com.osstelecom.db.inventory.topology.simulation.ImpactModel;
+import com.osstelecom.db.inventory.topology.simulation.ImpactSimulation;
+import com.osstelecom.db.inventory.visualization.request.GetDomainTopologyRequest;
+import com.osstelecom.db.inventory.visualization.session.FilterViewSession;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Jobs de análise de topologia. O submit devolve o id na hora e a análise
+ * roda no pool de topologia, com progresso e cancelamento pelo
+ * TopologyProgress. As jobs ficam num cache limitado pela impressão digital
+ * da entrada, então a mesma análise pedida de novo devolve a job que já
+ * rodou, ou que ainda está rodando, em vez de começar outra.
+ *
+ * @author Lucas Nishimura
+ * @created 19.10.2026
+ */
+@Service
+public class TopologyJobSession {
+
+    private static final int DEFAULT_PAGE = 1000;
+    private static final int MAX_PAGE = 10000;
+
+    @Autowired
+    private TransientTopologySession transientTopologySession;
+
+    @Autowired
+    private FilterViewSession filterViewSession;
+
+    @Autowired
+    private DomainManager domainManager;
+
+    @Autowired
+    private LiveTopologyManager liveTopologyManager;
+
+    @Autowired
+    private ImpactSimulationManager impactSimulationManager;
+
+    @Autowired
+    private ManagedExecutorService managedExecutorService;
+
+    @Autowired
+    private ConfigurationManager configurationManager;
+
+    private Cache<String, TopologyJob> jobs;
+
+    private Cache<String, TopologyJob> fingerprints;
+
+    private Logger logger = LoggerFactory.getLogger(TopologyJobSession.class);
+
+    @PostConstruct
+    private void createCaches() {
+        InventoryConfiguration configuration = this.configurationManager.loadConfiguration();
+        this.jobs = CacheBuilder.newBuilder()
+                .maximumSize(configuration.getTopologyJobCacheSize())
+                .expireAfterAccess(configuration.getTopologyJobCacheTTL(), TimeUnit.SECONDS)
+                .build();
+        this.fingerprints = CacheBuilder.newBuilder()
+                .maximumSize(configuration.getTopologyJobCacheSize())
+                .expireAfterWrite(configuration.getTopologyJobCacheTTL(), TimeUnit.SECONDS)
+                .build();
+    }
+
+    /**
+     * Topologia transiente (DOT) como job
+     *
+     * @param request
+     * @return
+     * @throws InvalidRequestException
+     */
+    public TopologyJobResponse submitTransient(ComputeTransientTopologyRequest request) throws InvalidRequestException {
+        String fingerprint;
+        try {
+            fingerprint = "transient:" + this.transientTopologySession.fingerprint(request.getPayLoad());
+        } catch (IOException ex) {
+            throw new InvalidRequestException("Invalid DOT Topology: " + ex.getMessage());
+        }
+        return this.submit("transient", fingerprint, () -> {
+            TransientTopologyResult result = this.transientTopologySession.computeResult(request.getPayLoad());
+            List<TopologyJobItemDTO> items = new ArrayList<>();
+            result.getUnreacheableNodes().forEach(name -> items.add(new TopologyJobItemDTO("unreachable", name)));
+            result.getWeakNodes().forEach(name -> items.add(new TopologyJobItemDTO("weakNode", name)));
+            result.getArticulationPoints().forEach(name -> items.add(new TopologyJobItemDTO("articulationPoint", name)));
+            result.getBridges().forEach(name -> items.add(new TopologyJobItemDTO("bridge", name)));
+            return items;
+        });
+    }
+
+    /**
+     * Pontos únicos de falha da topologia filtrada do domain como job. Nunca é
+     * reaproveitada: o filtro olha atributos de nós e conexões lidos do banco,
+     * e a versão da topologia em memória não muda quando um recurso é criado
+     * ou alterado
+     *
+     * @param request
+     * @return
+     * @throws DomainNotFoundException
+     * @throws ArangoDaoException
+     */
+    public TopologyJobResponse submitCuts(GetDomainTopologyRequest request) throws DomainNotFoundException, ArangoDaoException {
+        //
+        // Falha antes de aceitar a job se o domain não existe
+        //
+        this.domainManager.getDomain(request.getRequestDomain());
+        return this.submit("cuts", null, () -> {
+            TopologyCutsDTO cuts = this.filterViewSession.getDomainTopologyCuts(request).getPayLoad();
+            List<TopologyJobItemDTO> items = new ArrayList<>();
+            cuts.getArticulationPoints().forEach(name -> items.add(new TopologyJobItemDTO("articulationPoint", name)));
+            cuts.getBridges().forEach(name -> items.add(new TopologyJobItemDTO("bridge", name)));
+            for (int x = 0; x < cuts.getComponents().size(); x++) {
+                items.add(new TopologyJobItemDTO("component", String.valueOf(x), cuts.getComponents().get(x)));
+            }
+            return items;
+        });
+    }
+
+    /**
+     * Centralidade do domain inteiro como job: os topK nós por betweenness,
+     * closeness harmônica e grau, e as topK conexões por betweenness. Sem
+     * samples no pedido, domains acima de centralityMaxExactNodes são
+     * estimados com centralitySamples origens
+     *
+     * @param request
+     * @return
+     * @throws DomainNotFoundException
+     * @throws ArangoDaoException
+     * @throws InvalidRequestException
+     */
+    public TopologyJobResponse submitCentrality(ComputeCentralityRequest request) throws DomainNotFoundException, ArangoDaoException, InvalidRequestException {
+        Domain domain = this.domainManager.getDomain(request.getRequestDomain());
+        TopologyCentralityDTO payLoad = request.getPayLoad() == null ? new TopologyCentralityDTO() : request.getPayLoad();
+        if (payLoad.getSamples() != null && payLoad.getSamples() < 0) {
+            throw new InvalidRequestException("Invalid Samples: " + payLoad.getSamples());
+        }
+        int topK = payLoad.getTopK() == null ? 50 : payLoad.getTopK();
+        if (topK <= 0 || topK > MAX_PAGE) {
+            throw new InvalidRequestException("topK Must be Between 1 and " + MAX_PAGE);
+        }
+        long seed = payLoad.getSeed() == null ? 0L : payLoad.getSeed();
+        Long version = this.liveTopologyManager.getVersion(domain);
+        String fingerprint = null;
+        if (version != null) {
+            fingerprint = String.format("centrality:%s:%s:%d:%d:%d", domain.getDomainName(), payLoad.getSamples(), seed, topK, version);
+        }
+        return this.submit("centrality", fingerprint, () -> {
+            CsrGraph graph = this.liveTopologyManager.snapshot(domain);
+            InventoryConfiguration configuration = this.configurationManager.loadConfiguration();
+            int samples;
+            if (payLoad.getSamples() != null) {
+                samples = payLoad.getSamples();
+            } else {
+                samples = graph.nodeCount() > configuration.getCentralityMaxExactNodes() ? configuration.getCentralitySamples() : 0;
+            }
+            Long start = System.currentTimeMillis();
+            Centrality centrality = Centrality.of(graph, samples, seed);
+            logger.debug("Centrality for Domain:[{}] Nodes:[{}] Sources:[{}] Exact:[{}] in [{}] ms", domain.getDomainName(),
+                    graph.nodeCount(), centrality.getSources(), centrality.isExact(), System.currentTimeMillis() - start);
+            List<TopologyJobItemDTO> items = new ArrayList<>();
+            for (int v : centrality.topBetweenness(topK)) {
+                items.add(new TopologyJobItemDTO("betweenness", graph.name(v), centrality.betweenness(v)));
+            }
+            for (int v : centrality.topCloseness(topK)) {
+                items.add(new TopologyJobItemDTO("closeness", graph.name(v), centrality.closeness(v)));
+            }
+            for (int v : centrality.topDegree(topK)) {
+                items.add(new TopologyJobItemDTO("degree", graph.name(v), (double) centrality.degree(v)));
+            }
+            for (int e : centrality.topEdgeBetweenness(topK)) {
+                items.add(new TopologyJobItemDTO("linkBetweenness", graph.edgeName(e), centrality.edgeBetweenness(e)));
+            }
+            return items;
+        });
+    }
+
+    /**
+     * Simulação de falhas como job, sem gravar nada: cada cenário derruba
+     * nós e conexões no modelo do domain e o resultado traz, por cenário, as
+     * conexões, circuitos e serviços que pioraram em relação ao estado atual.
+     * Exposta em POST topology/v1/jobs/{domain}/simulation
+     *
+     * @param request
+     * @return
+     * @throws DomainNotFoundException
+     * @throws ArangoDaoException
+     * @throws InvalidRequestException
+     */
+    public TopologyJobResponse submitSimulation(ComputeFailureSimulationRequest request) throws DomainNotFoundException, ArangoDaoException, InvalidRequestException {
+        Domain domain = this.domainManager.getDomain(request.getRequestDomain());
+        if (request.getPayLoad() == null || request.getPayLoad().getScenarios() == null || request.getPayLoad().getScenarios().isEmpty()) {
+            throw new InvalidRequestException("Please Provide at Least One Scenario");
+        }
+        Integer maxScenarios = this.configurationManager.loadConfiguration().getSimulationMaxScenarios();
+        if (request.getPayLoad().getScenarios().size() > maxScenarios) {
+            throw new InvalidRequestException("Too Many Scenarios: " + request.getPayLoad().getScenarios().size() + " Max: " + maxScenarios);
+        }
+        List<ImpactSimulation.Scenario> scenarios = new ArrayList<>();
+        for (FailureScenarioDTO scenario : request.getPayLoad().getScenarios()) {
+            String name = scenario.getName() == null ? "scenario-" + scenarios.size() : scenario.getName();
+            scenarios.add(new ImpactSimulation.Scenario(name, scenario.getNodes(), scenario.getConnections()));
+        }
+        return this.submit("simulation", null, () -> {
+            ImpactModel model = this.impactSimulationManager.getModel(domain);
+            List<TopologyJobItemDTO> items = new ArrayList<>();
+            for (ImpactSimulation.Impact impact : ImpactSimulation.run(model, scenarios)) {
+                addItem(items, "connectionDown", impact.getName(), impact.getConnectionsDown());
+                addItem(items, "circuitDegraded", impact.getName(), impact.getCircuitsDegraded());
+                addItem(items, "circuitBroken", impact.getName(), impact.getCircuitsBroken());
+                addItem(items, "serviceDegraded", impact.getName(), impact.getServicesDegraded());
+                addItem(items, "serviceBroken", impact.getName(), impact.getServicesBroken());
+                addItem(items, "unknown", impact.getName(), impact.getUnknown());
+            }
+            return items;
+        });
+    }
+
+    private static void addItem(List<TopologyJobItemDTO> items, String kind, String name, List<String> members) {
+        if (!members.isEmpty()) {
+            items.add(new TopologyJobItemDTO(kind, name, members));
+        }
+    }
+
+    private TopologyJobResponse submit(String type, String fingerprint, Callable<List<TopologyJobItemDTO>> task) {
+        boolean[] created = {fingerprint == null};
+        TopologyJob job = fingerprint == null ? new TopologyJob(UUID.randomUUID().toString(), type, null) : null;
+        try {
+            while (job == null) {
+                TopologyJob found = this.fingerprints.get(fingerprint, () -> {
+                    created[0] = true;
+                    return new TopologyJob(UUID.randomUUID().toString(), type, fingerprint);
+                });
+                if (found.isReusable()) {
+                    job = found;
+                } else {
+                    this.fingerprints.asMap().remove(fingerprint, found);
+                }
+            }
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Failed to Create Topology Job", ex.getCause());
+        }
+        this.jobs.put(job.getJobId(), job);
+        if (created[0]) {
+            TopologyJob submitted = job;
+            submitted.setFuture(this.managedExecutorService.submit(Pool.TOPOLOGY, () -> this.run(submitted, task)));
+            logger.debug("Topology Job [{}] Submitted Type:[{}] Fingerprint:[{}]", job.getJobId(), type, fingerprint);
+        }
+        TopologyJobResponse response = new TopologyJobResponse(job.toDTO(null, null));
+        response.getPayLoad().setCacheHit(!created[0]);
+        return response;
+    }
+
+    private Void run(TopologyJob job, Callable<List<TopologyJobItemDTO>> task) {
+        if (!job.start()) {
+            return null;
+        }
+        TopologyProgress.bind(job.getProgress());
+        try {
+            job.finish(task.call());
+        } catch (CancellationException ex) {
+            job.cancelled();
+        } catch (Exception ex) {
+            if (job.getProgress().isCancelled()) {
+                job.cancelled();
+            } else {
+                logger.error("Topology Job [{}] Failed", job.getJobId(), ex);
+                job.fail(ex);
+            }
+        } finally {
+            TopologyProgress.unbind();
+            if (!job.isReusable() && job.getFingerprint() != null) {
+                this.fingerprints.asMap().remove(job.getFingerprint(), job);
+            }
+        }
+        return null;
+    }
+
+    public TopologyJobResponse getJob(String jobId) throws ResourceNotFoundException {
+        return new TopologyJobResponse(this.findJob(jobId).toDTO(null, null));
+    }
+
+    public TopologyJobResponse cancelJob(String jobId) throws ResourceNotFoundException, InvalidRequestException {
+        TopologyJob job = this.findJob(jobId);
+        if (!job.cancel()) {
+            throw new InvalidRequestException("Topology Job [" + jobId + "] Already Ended as: " + job.getStatus());
+        }
+        if (job.getFingerprint() != null) {
+            this.fingerprints.asMap().remove(job.getFingerprint(), job);
+        }
+        return new TopologyJobResponse(job.toDTO(null, null));
+    }
+
+    /**
+     * Uma página do resultado
+     *
+     * @param jobId
+     * @param offset
+     * @param limit nulo para a página padrão, limitado a MAX_PAGE
+     * @return
+     * @throws ResourceNotFoundException
+     * @throws InvalidRequestException
+     */
+    public TopologyJobResponse getJobResult(String jobId, Integer offset, Integer limit) throws ResourceNotFoundException, InvalidRequestException {
+        TopologyJob job = this.findJob(jobId);
+        if (job.getStatus() != TopologyJob.Status.DONE) {
+            throw new InvalidRequestException("Topology Job [" + jobId + "] is " + job.getStatus());
+        }
+        int pageSize = limit == null || limit <= 0 ? DEFAULT_PAGE : Math.min(limit, MAX_PAGE);
+        return new TopologyJobResponse(job.toDTO(offset == null ? 0 : offset, pageSize));
+    }
+
+    private TopologyJob findJob(String jobId) throws ResourceNotFoundException {
+        TopologyJob job = this.jobs.getIfPresent(jobId);
+        if (job == null) {
+            throw new ResourceNotFoundException("Topology Job [" + jobId + "] Not Found");
+        }
+        return job;
+    }
+}
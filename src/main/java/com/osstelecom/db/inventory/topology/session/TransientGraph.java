@@ -0,0 +1,242 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.topology.session;
+
+import guru.nidi.graphviz.model.MutableGraph;
+import guru.nidi.graphviz.parse.Parser;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Grafo de entrada da topologia transiente: nomes dos nós e as conexões em
+ * dois vetores de int (origem e destino). Os três formatos aceitos chegam
+ * aqui sem objeto por conexão:
+ * <ul>
+ * <li>DOT, lido pelo graphviz-java, mantido por compatibilidade</li>
+ * <li>lista de conexões em JSON, [["a","b"],["b","c"]], mais os nós
+ * isolados</li>
+ * <li>binário colunar, opcionalmente em gzip: magic "NCTG", versão (byte),
+ * quantidade de nós, nomes em UTF modificado (DataOutput.writeUTF),
+ * quantidade de conexões, a coluna das origens e a coluna dos destinos, os
+ * inteiros em big-endian</li>
+ * </ul>
+ *
+ * @author Lucas Nishimura
+ * @created 19.10.2026
+ */
+public final class TransientGraph {
+
+    public static final int MAGIC = 0x4E435447;
+    public static final int VERSION = 1;
+
+    private String[] names = new String[16];
+    private int[] sources = new int[16];
+    private int[] targets = new int[16];
+    private int nodeCount;
+    private int edgeCount;
+    private final Map<String, Integer> index = new HashMap<>();
+
+    /**
+     * Retorna o nó pelo nome, criando se não existir
+     *
+     * @param name
+     * @return
+     */
+    public int node(String name) {
+        Integer node = this.index.get(name);
+        if (node == null) {
+            if (this.nodeCount == this.names.length) {
+                this.names = Arrays.copyOf(this.names, this.nodeCount * 2);
+            }
+            node = this.nodeCount++;
+            this.names[node] = name;
+            this.index.put(name, node);
+        }
+        return node;
+    }
+
+    public void edge(int source, int target) {
+        if (this.edgeCount == this.sources.length) {
+            this.sources = Arrays.copyOf(this.sources, this.edgeCount * 2);
+            this.targets = Arrays.copyOf(this.targets, this.edgeCount * 2);
+        }
+        this.sources[this.edgeCount] = source;
+        this.targets[this.edgeCount] = target;
+        this.edgeCount++;
+    }
+
+    public int nodeCount() {
+        return this.nodeCount;
+    }
+
+    public int edgeCount() {
+        return this.edgeCount;
+    }
+
+    public String name(int node) {
+        return this.names[node];
+    }
+
+    public int source(int edge) {
+        return this.sources[edge];
+    }
+
+    public int target(int edge) {
+        return this.targets[edge];
+    }
+
+    public static TransientGraph fromDot(String dotTopology) throws IOException {
+        MutableGraph g = new Parser().read(dotTopology);
+        TransientGraph graph = new TransientGraph();
+        g.nodes().forEach(n -> graph.node(n.name().value()));
+        g.edges().forEach(c -> graph.edge(graph.node(c.from().name().value()), graph.node(c.to().name().value())));
+        return graph;
+    }
+
+    /**
+     * @param nodes nós isolados, pode ser nulo
+     * @param edges pares origem, destino
+     * @return
+     * @throws IOException se algum par não tiver duas pontas
+     */
+    public static TransientGraph fromEdgeList(List<String> nodes, List<List<String>> edges) throws IOException {
+        TransientGraph graph = new TransientGraph();
+        if (nodes != null) {
+            nodes.forEach(graph::node);
+        }
+        for (List<String> edge : edges) {
+            if (edge == null || edge.size() != 2 || edge.get(0) == null || edge.get(1) == null) {
+                throw new IOException("Invalid Edge: " + edge + ", expected [source, target]");
+            }
+            graph.edge(graph.node(edge.get(0)), graph.node(edge.get(1)));
+        }
+        return graph;
+    }
+
+    /**
+     * Lê o formato binário direto do stream, detectando o gzip pelo cabeçalho
+     *
+     * @param input
+     * @return
+     * @throws IOException
+     */
+    public static TransientGraph fromBinary(InputStream input) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(input, 65536);
+        buffered.mark(2);
+        int first = buffered.read();
+        int second = buffered.read();
+        buffered.reset();
+        InputStream source = first == 0x1f && second == 0x8b
+                ? new BufferedInputStream(new GZIPInputStream(buffered, 65536), 65536) : buffered;
+        DataInputStream data = new DataInputStream(source);
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Invalid Binary Topology: Bad Magic");
+        }
+        int version = data.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported Binary Topology Version: " + version);
+        }
+        int nodes = data.readInt();
+        if (nodes < 0) {
+            throw new IOException("Invalid Binary Topology: Node Count " + nodes);
+        }
+        TransientGraph graph = new TransientGraph();
+        //
+        // Ids do arquivo para os nós do grafo, nomes repetidos viram um nó só.
+        // As contagens vêm do cliente, então os vetores crescem conforme os
+        // dados chegam e um cabeçalho mentiroso termina em EOF, não numa
+        // alocação gigante
+        //
+        int[] ids = new int[16];
+        for (int v = 0; v < nodes; v++) {
+            if (v == ids.length) {
+                ids = Arrays.copyOf(ids, grow(v, nodes));
+            }
+            ids[v] = graph.node(data.readUTF());
+        }
+        int edges = data.readInt();
+        if (edges < 0) {
+            throw new IOException("Invalid Binary Topology: Edge Count " + edges);
+        }
+        for (int e = 0; e < edges; e++) {
+            if (e == graph.sources.length) {
+                graph.sources = Arrays.copyOf(graph.sources, grow(e, edges));
+            }
+            graph.sources[e] = data.readInt();
+        }
+        graph.targets = new int[graph.sources.length];
+        for (int e = 0; e < edges; e++) {
+            int from = graph.sources[e];
+            int to = data.readInt();
+            if (from < 0 || from >= nodes || to < 0 || to >= nodes) {
+                throw new IOException("Invalid Binary Topology: Edge " + e + " [" + from + "] -> [" + to + "]");
+            }
+            graph.sources[e] = ids[from];
+            graph.targets[e] = ids[to];
+        }
+        graph.edgeCount = edges;
+        return graph;
+    }
+
+    /**
+     * Dobra o vetor sem passar da quantidade anunciada
+     */
+    private static int grow(int length, int announced) {
+        return (int) Math.min((long) length * 2, announced);
+    }
+
+    /**
+     * Grava o grafo no formato binário
+     *
+     * @param output
+     * @param gzip
+     * @throws IOException
+     */
+    public void writeBinary(OutputStream output, boolean gzip) throws IOException {
+        GZIPOutputStream compressed = gzip ? new GZIPOutputStream(output, 65536) : null;
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(gzip ? compressed : output, 65536));
+        data.writeInt(MAGIC);
+        data.writeByte(VERSION);
+        data.writeInt(this.nodeCount);
+        for (int v = 0; v < this.nodeCount; v++) {
+            data.writeUTF(this.names[v]);
+        }
+        data.writeInt(this.edgeCount);
+        for (int e = 0; e < this.edgeCount; e++) {
+            data.writeInt(this.sources[e]);
+        }
+        for (int e = 0; e < this.edgeCount; e++) {
+            data.writeInt(this.targets[e]);
+        }
+        data.flush();
+        if (compressed != null) {
+            compressed.finish();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.topology.session;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Resultado imutável do cálculo de uma topologia transiente, compartilhado
+ * entre as requisições com a mesma chave
+ *
+ * @author Lucas Nishimura
+ * @created 19.10.2026
+ */
+public final class TransientTopologyResult {
+
+    private final List<String> unreacheableNodes;
+    private final List<String> weakNodes;
+    private final List<String> articulationPoints;
+    private final List<String> bridges;
+
+    public TransientTopologyResult(List<String> unreacheableNodes, List<String> weakNodes,
+            List<String> articulationPoints, List<String> bridges) {
+        this.unreacheableNodes = Collections.unmodifiableList(unreacheableNodes);
+        this.weakNodes = Collections.unmodifiableList(weakNodes);
+        this.articulationPoints = Collections.unmodifiableList(articulationPoints);
+        this.bridges = Collections.unmodifiableList(bridges);
+    }
+
+    public List<String> getUnreacheableNodes() {
+        return unreacheableNodes;
+    }
+
+    public List<String> getWeakNodes() {
+        return weakNodes;
+    }
+
+    public List<String> getArticulationPoints() {
+        return articulationPoints;
+    }
+
+    public List<String> getBridges() {
+        return bridges;
+    }
+}
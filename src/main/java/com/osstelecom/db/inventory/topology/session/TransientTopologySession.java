@@ -17,23 +17,53 @@
  */
 package com.osstelecom.db.inventory.topology.session;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.osstelecom.db.inventory.manager.dto.TransientTopologyDTO;
 import com.osstelecom.db.inventory.manager.request.ComputeTransientTopologyRequest;
 import com.osstelecom.db.inventory.manager.response.ComputeTransientTopologyResponse;
 import com.osstelecom.db.inventory.topology.DefaultTopology;
+import com.osstelecom.db.inventory.topology.TopologyProgress;
 import com.osstelecom.db.inventory.topology.connection.INetworkConnection;
+import com.osstelecom.db.inventory.topology.csr.Biconnectivity;
+import com.osstelecom.db.inventory.topology.csr.CsrGraph;
+import com.osstelecom.db.inventory.topology.csr.TopologyGraph;
 import com.osstelecom.db.inventory.topology.impact.WeakNodesImpactManager;
 import com.osstelecom.db.inventory.topology.node.DefaultNode;
 import com.osstelecom.db.inventory.topology.node.INetworkNode;
-import guru.nidi.graphviz.model.MutableGraph;
-import guru.nidi.graphviz.parse.Parser;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 /**
+ * Calcula nós fracos e inalcançáveis de uma topologia enviada em DOT, em
+ * lista de conexões JSON ou no binário colunar do TransientGraph.
+ * <p>
+ * O resultado é memoizado por conteúdo: o DOT vira uma topologia canônica
+ * (nós e conexões ordenados por nome), e a chave do resultado é um SHA-256
+ * dessa topologia, dos endpoints, dos objetos desligados e do
+ * minConnections. Qualquer mudança na topologia muda a chave, então não há o
+ * que invalidar; o threadCount e o dfsCache não entram na chave porque não
+ * mudam o resultado. Num acerto a entrada ainda é conferida com a topologia
+ * e os conjuntos da requisição, a chave sozinha nunca entrega o resultado de
+ * outra topologia.
  *
  * @author Lucas Nishimura
  * @created 08.11.2022
@@ -43,72 +73,330 @@ public class TransientTopologySession {
 
     private Logger logger = LoggerFactory.getLogger(TransientTopologySession.class);
 
+    private final Cache<String, CanonicalTopology> topologies = CacheBuilder
+            .newBuilder()
+            .maximumSize(64)
+            .build();
+
+    private final Cache<String, CachedResult> results = CacheBuilder
+            .newBuilder()
+            .maximumSize(1024)
+            .build();
+
     public ComputeTransientTopologyResponse computeTransientTopologyRequest(ComputeTransientTopologyRequest request) throws IOException {
 
         logger.debug("Computing Transient Topology Data");
-        //
-        // First Create the Transient Graph:
-        //
         TransientTopologyDTO transientData = request.getPayLoad();
-        MutableGraph g = new Parser().read(transientData.getDotTopology());
-        DefaultTopology topology = new DefaultTopology(new WeakNodesImpactManager());
-        //
-        // Transfere o conhecimento do Graph para nosso modelo
-        //
-        g.nodes().forEach(n -> {
-            //
-            // Adiciona os Nodes
-            //
-            INetworkNode node = new DefaultNode(n.name().value(), topology);
+        CanonicalTopology topology = this.parse(transientData);
+        logger.debug("Topology Data, Nodes:" + topology.nodes.length + " Connections: " + topology.sources.length + " Compute Weak Nodes:[" + transientData.getComputeWeakNodes() + "]");
 
-            if (transientData.getEndPoints().contains(node.getName())) {
-                node.setEndPoint(true);
-            }
+        if (transientData.getComputeWeakNodes()) {
+            boolean[] computed = {false};
+            TransientTopologyResult result = this.result(topology, transientData, computed);
+            transientData.getUnreacheableNodes().addAll(result.getUnreacheableNodes());
+            transientData.getWeakNodes().addAll(result.getWeakNodes());
+            transientData.getArticulationPoints().addAll(result.getArticulationPoints());
+            transientData.getBridges().addAll(result.getBridges());
+            transientData.setCacheHit(!computed[0]);
+        }
 
-            if (transientData.getDisabledObjects().contains(node.getName())) {
-                node.disable();
+        return new ComputeTransientTopologyResponse(transientData);
+    }
+
+    /**
+     * Resultado da topologia transiente, memoizado como no
+     * computeTransientTopologyRequest, para as jobs de topologia
+     *
+     * @param transientData
+     * @return
+     * @throws IOException
+     */
+    public TransientTopologyResult computeResult(TransientTopologyDTO transientData) throws IOException {
+        return this.result(this.parse(transientData), transientData, new boolean[1]);
+    }
+
+    /**
+     * Chave do resultado: SHA-256 da estrutura, dos endpoints e objetos
+     * desabilitados que existem na topologia, e do mínimo de conexões
+     *
+     * @param transientData
+     * @return
+     * @throws IOException
+     */
+    public String fingerprint(TransientTopologyDTO transientData) throws IOException {
+        return this.key(this.parse(transientData), transientData);
+    }
+
+    private String key(CanonicalTopology topology, TransientTopologyDTO transientData) {
+        return key(topology, topology.filter(transientData.getEndPoints()), topology.filter(transientData.getDisabledObjects()),
+                transientData.getMinConnections());
+    }
+
+    private static String key(CanonicalTopology topology, Set<String> endPoints, Set<String> disabled, Integer minConnections) {
+        Hasher hasher = Hashing.sha256().newHasher();
+        hasher.putBytes(topology.digest);
+        putSet(hasher, endPoints);
+        putSet(hasher, disabled);
+        hasher.putInt(minConnections != null ? minConnections : Integer.MIN_VALUE);
+        return hasher.hash().toString();
+    }
+
+    private TransientTopologyResult result(CanonicalTopology topology, TransientTopologyDTO transientData, boolean[] computed) {
+        Set<String> endPoints = topology.filter(transientData.getEndPoints());
+        Set<String> disabled = topology.filter(transientData.getDisabledObjects());
+        Integer minConnections = transientData.getMinConnections();
+        String key = key(topology, endPoints, disabled, minConnections);
+        TransientTopologyResult result;
+        try {
+            CachedResult cached = this.results.get(key, () -> {
+                computed[0] = true;
+                return new CachedResult(topology, endPoints, disabled, minConnections,
+                        this.compute(topology, endPoints, disabled, minConnections));
+            });
+            if (cached.matches(topology, endPoints, disabled, minConnections)) {
+                result = cached.result;
+            } else {
+                //
+                // Mesma chave para outra entrada, calcula sem usar nem trocar
+                // o cache
+                //
+                logger.warn("Transient Topology Key Collision:[{}]", key);
+                computed[0] = true;
+                result = this.compute(topology, endPoints, disabled, minConnections);
             }
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Failed to Compute Transient Topology", ex.getCause());
+        } catch (UncheckedExecutionException ex) {
+            if (ex.getCause() instanceof CancellationException) {
+                throw (CancellationException) ex.getCause();
+            }
+            throw ex;
+        }
+        logger.debug("Weak Nodes Calculation Key:[{}] Cache Hit:[{}]", key, !computed[0]);
+        return result;
+    }
 
-        });
+    /**
+     * Descarta as topologias e resultados memoizados
+     */
+    public void invalidateAll() {
+        this.topologies.invalidateAll();
+        this.results.invalidateAll();
+    }
 
-        g.edges().forEach(c -> {
-            INetworkNode from = topology.getNodeByName(c.from().name().value());
-            INetworkNode to = topology.getNodeByName(c.to().name().value());
-            INetworkConnection connection = topology.addConnection(from, to, from.getName() + "." + to.getName());
+    /**
+     * Lê a topologia no formato enviado: binário, lista de conexões ou DOT.
+     * O binário é decodificado do base64 em stream, sem montar o binário
+     * inteiro em memória; a lista de conexões já chega desserializada e não
+     * passa pelo cache
+     */
+    private CanonicalTopology parse(TransientTopologyDTO transientData) throws IOException {
+        if (transientData.getBinaryTopology() != null) {
+            String binaryTopology = transientData.getBinaryTopology();
+            String key = "bin:" + binaryTopology;
+            CanonicalTopology cached = this.topologies.getIfPresent(key);
+            if (cached == null) {
+                try {
+                    cached = new CanonicalTopology(TransientGraph.fromBinary(Base64.getMimeDecoder()
+                            .wrap(new ByteArrayInputStream(binaryTopology.getBytes(StandardCharsets.ISO_8859_1)))));
+                } catch (IllegalArgumentException ex) {
+                    throw new IOException("Invalid Binary Topology: " + ex.getMessage(), ex);
+                }
+                this.topologies.put(key, cached);
+            }
+            return cached;
+        } else if (transientData.getEdges() != null) {
+            return new CanonicalTopology(TransientGraph.fromEdgeList(transientData.getNodes(), transientData.getEdges()));
+        } else if (transientData.getDotTopology() != null) {
+            String dotTopology = transientData.getDotTopology();
+            CanonicalTopology cached = this.topologies.getIfPresent(dotTopology);
+            if (cached == null) {
+                cached = new CanonicalTopology(TransientGraph.fromDot(dotTopology));
+                this.topologies.put(dotTopology, cached);
+            }
+            return cached;
+        }
+        throw new IOException("Missing Topology: Send dotTopology, edges or binaryTopology");
+    }
 
-            if (transientData.getDisabledObjects().contains(connection.getName())) {
+    /**
+     * Monta a topologia na ordem canônica e roda o cálculo de sempre
+     */
+    private TransientTopologyResult compute(CanonicalTopology canonical, Set<String> endPoints, Set<String> disabled, Integer minConnections) {
+        DefaultTopology topology = new DefaultTopology(new WeakNodesImpactManager());
+        INetworkNode[] nodes = new INetworkNode[canonical.nodes.length];
+        for (int v = 0; v < nodes.length; v++) {
+            String name = canonical.nodes[v];
+            INetworkNode node = new DefaultNode(name, topology);
+            if (endPoints.contains(name)) {
+                node.setEndPoint(true);
+            }
+            if (disabled.contains(name)) {
+                node.disable();
+            }
+            nodes[v] = node;
+        }
+        for (int e = 0; e < canonical.sources.length; e++) {
+            INetworkNode from = nodes[canonical.sources[e]];
+            INetworkNode to = nodes[canonical.targets[e]];
+            INetworkConnection connection = topology.addConnection(from, to, from.getName() + "." + to.getName());
+            if (disabled.contains(connection.getName())) {
                 connection.disable();
             }
+        }
 
-        });
-        logger.debug("Topology Data, Nodes:" + topology.getNodes().size() + " Connections: " + topology.getConnections().size() + " Compute Weak Nodes:[" + transientData.getComputeWeakNodes() + "]");
+        TopologyProgress progress = TopologyProgress.current();
+        progress.stage("unreachable", 0L);
+        List<String> unreacheableNodes = new ArrayList<>();
+        List<INetworkNode> unreacheable = topology.getImpactManager().getUnreacheableNodes();
+        if (unreacheable != null) {
+            unreacheable.forEach(u -> unreacheableNodes.add(u.getName()));
+        }
+        progress.checkCancelled();
+        progress.stage("weakNodes", 0L);
+        List<String> weakNodeNames = new ArrayList<>();
+        List<INetworkNode> weakNodes = topology.getImpactManager().getWeakNodes(minConnections, false, 1, false);
+        if (weakNodes != null) {
+            weakNodes.forEach(w -> weakNodeNames.add(w.getName()));
+        }
 
-//        System.out.println("Topology Data, Nodes:" + topology.getNodes().size() + " Connections: " + topology.getConnections().size() + " Compute Weak Nodes:[" + transientData.getComputeWeakNodes() + "]");
         //
-        // Topologia está montada..
+        // Pontos únicos de falha, independente dos endpoints
         //
-        if (transientData.getComputeWeakNodes()) {
-            logger.debug("Weak Nodes Calculation");
-            List<INetworkNode> unreacheable = topology.getImpactManager().getUnreacheableNodes();
-            if (unreacheable != null) {
-                unreacheable.forEach(u -> {
-                    transientData.getUnreacheableNodes().add(u.getName());
-                });
-            }
+        progress.checkCancelled();
+        progress.stage("cuts", 0L);
+        CsrGraph graph = TopologyGraph.of(topology).getGraph();
+        Biconnectivity biconnectivity = Biconnectivity.of(graph);
+        List<String> articulationPoints = new ArrayList<>();
+        BitSet articulation = biconnectivity.articulationPoints();
+        for (int v = articulation.nextSetBit(0); v >= 0; v = articulation.nextSetBit(v + 1)) {
+            articulationPoints.add(graph.name(v));
+        }
+        List<String> bridges = new ArrayList<>();
+        BitSet bridgeSet = biconnectivity.bridges();
+        for (int e = bridgeSet.nextSetBit(0); e >= 0; e = bridgeSet.nextSetBit(e + 1)) {
+            bridges.add(graph.edgeName(e));
+        }
+        return new TransientTopologyResult(unreacheableNodes, weakNodeNames, articulationPoints, bridges);
+    }
+
+    /**
+     * Quantidade e valores em ordem, cada valor com o tamanho antes
+     */
+    private static void putSet(Hasher hasher, Set<String> values) {
+        hasher.putInt(values.size());
+        for (String value : new TreeSet<>(values)) {
+            putString(hasher, value);
+        }
+    }
+
+    private static void putString(Hasher hasher, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        hasher.putInt(bytes.length);
+        hasher.putBytes(bytes);
+    }
 
-//            List<INetworkNode> weakNodes = topology.getImpactManager().getWeakNodes(transientData.getMinConnections(), false, transientData.getThreadCount(), transientData.getDfsCache());
+    /**
+     * Resultado guardado com as entradas que o geraram, para conferir num
+     * acerto
+     */
+    private static final class CachedResult {
+
+        private final CanonicalTopology topology;
+        private final Set<String> endPoints;
+        private final Set<String> disabled;
+        private final Integer minConnections;
+        private final TransientTopologyResult result;
+
+        private CachedResult(CanonicalTopology topology, Set<String> endPoints, Set<String> disabled, Integer minConnections,
+                TransientTopologyResult result) {
+            this.topology = topology;
+            this.endPoints = endPoints;
+            this.disabled = disabled;
+            this.minConnections = minConnections;
+            this.result = result;
+        }
+
+        private boolean matches(CanonicalTopology topology, Set<String> endPoints, Set<String> disabled, Integer minConnections) {
+            return this.topology.sameAs(topology) && this.endPoints.equals(endPoints) && this.disabled.equals(disabled)
+                    && Objects.equals(this.minConnections, minConnections);
+        }
+    }
+
+    /**
+     * Nós em ordem de nome e conexões em ordem de (origem, destino), pelos
+     * índices dos nós, com o SHA-256 da estrutura. A mesma topologia gera o
+     * mesmo digest em qualquer um dos formatos
+     */
+    private static final class CanonicalTopology {
+
+        private final String[] nodes;
+        private final int[] sources;
+        private final int[] targets;
+        private final Set<String> names = new HashSet<>();
+        private final byte[] digest;
+
+        private CanonicalTopology(TransientGraph graph) {
+            int nodeCount = graph.nodeCount();
+            Integer[] order = new Integer[nodeCount];
+            for (int v = 0; v < nodeCount; v++) {
+                order[v] = v;
+            }
+            Arrays.sort(order, (a, b) -> graph.name(a).compareTo(graph.name(b)));
+            this.nodes = new String[nodeCount];
+            int[] rank = new int[nodeCount];
+            for (int r = 0; r < nodeCount; r++) {
+                this.nodes[r] = graph.name(order[r]);
+                rank[order[r]] = r;
+            }
             //
-            // Desliguei o cache forçado, pois com cache ele trás resultados não deterministicos.
-            // @todo verificar o bug do cache
+            // Como o rank segue a ordem de nome, ordenar pelo par de ranks é
+            // ordenar pelo par de nomes
             //
-            List<INetworkNode> weakNodes = topology.getImpactManager().getWeakNodes(transientData.getMinConnections(), false, transientData.getThreadCount(), false);
-            if (weakNodes != null) {
-                weakNodes.forEach(w -> {
-                    transientData.getWeakNodes().add(w.getName());
-                });
+            long[] edges = new long[graph.edgeCount()];
+            for (int e = 0; e < edges.length; e++) {
+                edges[e] = ((long) rank[graph.source(e)] << 32) | rank[graph.target(e)];
+            }
+            Arrays.sort(edges);
+            this.sources = new int[edges.length];
+            this.targets = new int[edges.length];
+            Hasher hasher = Hashing.sha256().newHasher();
+            hasher.putInt(nodeCount);
+            for (String node : this.nodes) {
+                putString(hasher, node);
+                this.names.add(node);
             }
+            hasher.putInt(edges.length);
+            for (int e = 0; e < edges.length; e++) {
+                this.sources[e] = (int) (edges[e] >>> 32);
+                this.targets[e] = (int) edges[e];
+                hasher.putLong(edges[e]);
+                this.names.add(this.nodes[this.sources[e]] + "." + this.nodes[this.targets[e]]);
+            }
+            this.digest = hasher.hash().asBytes();
         }
 
-        return new ComputeTransientTopologyResponse(transientData);
+        /**
+         * Mesmos nós e conexões, a mesma instância na maioria das vezes
+         */
+        private boolean sameAs(CanonicalTopology other) {
+            return this == other || (Arrays.equals(this.nodes, other.nodes) && Arrays.equals(this.sources, other.sources)
+                    && Arrays.equals(this.targets, other.targets));
+        }
+
+        /**
+         * @return só os nomes que existem nesta topologia
+         */
+        private Set<String> filter(List<String> values) {
+            Set<String> result = new HashSet<>();
+            if (values != null) {
+                for (String value : values) {
+                    if (this.names.contains(value)) {
+                        result.add(value);
+                    }
+                }
+            }
+            return result;
+        }
     }
 }
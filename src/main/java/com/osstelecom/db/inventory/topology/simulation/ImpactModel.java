@@ -0,0 +1,455 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.topology.simulation;
+
+import com.osstelecom.db.inventory.topology.csr.CsrGraph;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Retrato compilado de um domain para simulação de falhas: o grafo de
+ * conexões, os circuitos com o caminho em índices de conexão, os serviços
+ * com os seus circuitos e dependências, os índices inversos (conexão para
+ * circuitos, circuito para serviços, serviço para dependentes) e o estado de
+ * cada circuito e serviço sem falha nenhuma, que é a base do diff.
+ * <p>
+ * As regras são as da cascata que grava no banco, avaliadas como estado e
+ * não como transição: circuito degradado se alguma conexão do caminho está
+ * fora, quebrado se o zPoint não é alcançado a partir do aPoint pelas
+ * conexões do caminho que estão no ar; serviço com um circuito (ou uma
+ * dependência) reflete o estado dele, com vários fica quebrado se todos
+ * estão quebrados e degradado se algum está quebrado.
+ * <p>
+ * Imutável depois do build, compartilhado entre as simulações.
+ *
+ * @author Lucas Nishimura
+ * @created 19.10.2026
+ */
+public final class ImpactModel {
+
+    public static final byte OK = 0;
+    public static final byte DEGRADED = 1;
+    public static final byte BROKEN = 2;
+
+    private static final int[] EMPTY = new int[0];
+
+    private final CsrGraph graph;
+    private final Map<String, Integer> edgeIndex;
+    private final String[] circuitIds;
+    //
+    // Por circuito: conexões do caminho e as pontas de cada uma em índices
+    // locais do circuito, para o union-find sem mapa
+    //
+    private final int[][] circuitEdges;
+    private final int[][] circuitFrom;
+    private final int[][] circuitTo;
+    private final int[] circuitNodes;
+    private final int[] circuitA;
+    private final int[] circuitZ;
+    private final int[] aPoint;
+    private final int[] zPoint;
+    private final int[][] edgeCircuits;
+    private final int[][] nodeCircuits;
+    private final String[] serviceIds;
+    private final int[][] serviceCircuits;
+    private final int[][] serviceDependencies;
+    private final int[][] circuitServices;
+    private final int[][] serviceDependents;
+    private final byte[] circuitBaseline;
+    private final byte[] serviceBaseline;
+    private final int maxCircuitNodes;
+
+    private ImpactModel(Builder builder) {
+        this.graph = builder.graph;
+        int m = this.graph.edgeCount();
+        int n = this.graph.nodeCount();
+        this.edgeIndex = new HashMap<>(m * 2);
+        for (int e = 0; e < m; e++) {
+            this.edgeIndex.put(this.graph.edgeName(e), e);
+        }
+        int circuits = builder.circuits.size();
+        this.circuitIds = new String[circuits];
+        this.circuitEdges = new int[circuits][];
+        this.circuitFrom = new int[circuits][];
+        this.circuitTo = new int[circuits][];
+        this.circuitNodes = new int[circuits];
+        this.circuitA = new int[circuits];
+        this.circuitZ = new int[circuits];
+        this.aPoint = new int[circuits];
+        this.zPoint = new int[circuits];
+        Map<String, Integer> circuitIndex = new HashMap<>(circuits * 2);
+        int[] edgeCircuitCount = new int[m];
+        int[] nodeCircuitCount = new int[n];
+        int maxNodes = 0;
+        for (int c = 0; c < circuits; c++) {
+            CircuitEntry entry = builder.circuits.get(c);
+            this.circuitIds[c] = entry.id;
+            circuitIndex.put(entry.id, c);
+            //
+            // Só as conexões que existem no grafo, sem repetição
+            //
+            int[] edges = entry.path.stream().map(this.edgeIndex::get).filter(e -> e != null)
+                    .mapToInt(Integer::intValue).distinct().toArray();
+            this.circuitEdges[c] = edges;
+            this.circuitFrom[c] = new int[edges.length];
+            this.circuitTo[c] = new int[edges.length];
+            Map<Integer, Integer> local = new HashMap<>();
+            for (int i = 0; i < edges.length; i++) {
+                int source = this.graph.edgeSource(edges[i]);
+                int target = this.graph.edgeTarget(edges[i]);
+                this.circuitFrom[c][i] = local.computeIfAbsent(source, k -> local.size());
+                this.circuitTo[c][i] = local.computeIfAbsent(target, k -> local.size());
+                edgeCircuitCount[edges[i]]++;
+            }
+            this.aPoint[c] = entry.aPoint == null ? -1 : this.graph.indexOf(entry.aPoint);
+            this.zPoint[c] = entry.zPoint == null ? -1 : this.graph.indexOf(entry.zPoint);
+            this.circuitA[c] = this.aPoint[c] < 0 ? -1 : local.getOrDefault(this.aPoint[c], -1);
+            this.circuitZ[c] = this.zPoint[c] < 0 ? -1 : local.getOrDefault(this.zPoint[c], -1);
+            this.circuitNodes[c] = local.size();
+            maxNodes = Math.max(maxNodes, local.size());
+            if (this.aPoint[c] >= 0) {
+                nodeCircuitCount[this.aPoint[c]]++;
+            }
+            if (this.zPoint[c] >= 0 && this.zPoint[c] != this.aPoint[c]) {
+                nodeCircuitCount[this.zPoint[c]]++;
+            }
+        }
+        this.maxCircuitNodes = maxNodes;
+        this.edgeCircuits = invert(m, edgeCircuitCount, c -> this.circuitEdges[c], circuits);
+        this.nodeCircuits = invert(n, nodeCircuitCount, c -> this.aPoint[c] < 0 ? (this.zPoint[c] < 0 ? EMPTY : new int[]{this.zPoint[c]})
+                : (this.zPoint[c] < 0 || this.zPoint[c] == this.aPoint[c] ? new int[]{this.aPoint[c]} : new int[]{this.aPoint[c], this.zPoint[c]}), circuits);
+
+        int services = builder.services.size();
+        this.serviceIds = new String[services];
+        Map<String, Integer> serviceIndex = new HashMap<>(services * 2);
+        for (int s = 0; s < services; s++) {
+            this.serviceIds[s] = builder.services.get(s).id;
+            serviceIndex.put(this.serviceIds[s], s);
+        }
+        this.serviceCircuits = new int[services][];
+        this.serviceDependencies = new int[services][];
+        int[] circuitServiceCount = new int[circuits];
+        int[] dependentCount = new int[services];
+        for (int s = 0; s < services; s++) {
+            ServiceEntry entry = builder.services.get(s);
+            this.serviceCircuits[s] = entry.circuits.stream().map(circuitIndex::get).filter(c -> c != null)
+                    .mapToInt(Integer::intValue).distinct().toArray();
+            this.serviceDependencies[s] = entry.dependencies.stream().map(serviceIndex::get).filter(d -> d != null)
+                    .mapToInt(Integer::intValue).filter(d -> d != entry.index).distinct().toArray();
+            for (int c : this.serviceCircuits[s]) {
+                circuitServiceCount[c]++;
+            }
+            for (int d : this.serviceDependencies[s]) {
+                dependentCount[d]++;
+            }
+        }
+        this.circuitServices = invert(circuits, circuitServiceCount, s -> this.serviceCircuits[s], services);
+        this.serviceDependents = invert(services, dependentCount, s -> this.serviceDependencies[s], services);
+
+        //
+        // Base: o estado atual das conexões, sem falha simulada
+        //
+        this.circuitBaseline = new byte[circuits];
+        int[] parent = new int[Math.max(1, maxNodes)];
+        for (int c = 0; c < circuits; c++) {
+            this.circuitBaseline[c] = this.circuitState(c, null, -1, null, parent);
+        }
+        this.serviceBaseline = new byte[services];
+        byte[] visiting = new byte[services];
+        for (int s = 0; s < services; s++) {
+            this.baselineService(s, visiting);
+        }
+    }
+
+    public static Builder builder(CsrGraph graph) {
+        return new Builder(graph);
+    }
+
+    private interface Members {
+
+        int[] of(int item);
+    }
+
+    /**
+     * Índice inverso: para cada alvo, os itens que apontam para ele
+     */
+    private static int[][] invert(int targets, int[] counts, Members members, int items) {
+        int[][] result = new int[targets][];
+        for (int t = 0; t < targets; t++) {
+            result[t] = counts[t] == 0 ? EMPTY : new int[counts[t]];
+        }
+        int[] fill = new int[targets];
+        for (int i = 0; i < items; i++) {
+            for (int t : members.of(i)) {
+                result[t][fill[t]++] = i;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Estado da dependência na ordem da recursão, ciclos contam como ok
+     */
+    private byte baselineService(int s, byte[] visiting) {
+        if (visiting[s] == 2) {
+            return this.serviceBaseline[s];
+        }
+        if (visiting[s] == 1) {
+            return OK;
+        }
+        visiting[s] = 1;
+        byte[] states;
+        if (this.serviceCircuits[s].length > 0) {
+            states = new byte[this.serviceCircuits[s].length];
+            for (int i = 0; i < states.length; i++) {
+                states[i] = this.circuitBaseline[this.serviceCircuits[s][i]];
+            }
+        } else {
+            states = new byte[this.serviceDependencies[s].length];
+            for (int i = 0; i < states.length; i++) {
+                states[i] = this.baselineService(this.serviceDependencies[s][i], visiting);
+            }
+        }
+        this.serviceBaseline[s] = combine(states, states.length);
+        visiting[s] = 2;
+        return this.serviceBaseline[s];
+    }
+
+    /**
+     * Regra do serviço: um item reflete o estado dele, vários quebram só
+     * quando todos quebram e degradam quando algum quebra
+     *
+     * @param states
+     * @param count
+     * @return
+     */
+    static byte combine(byte[] states, int count) {
+        if (count == 0) {
+            return OK;
+        }
+        if (count == 1) {
+            return states[0];
+        }
+        int broken = 0;
+        for (int i = 0; i < count; i++) {
+            if (states[i] == BROKEN) {
+                broken++;
+            }
+        }
+        return broken == count ? BROKEN : broken > 0 ? DEGRADED : OK;
+    }
+
+    /**
+     * Estado do circuito com as conexões marcadas com a stamp fora do ar
+     *
+     * @param c
+     * @param edgeStamp nulo para o estado base
+     * @param stamp
+     * @param nodeStamp nós fora do ar na simulação
+     * @param parent área de trabalho do union-find
+     * @return
+     */
+    byte circuitState(int c, int[] edgeStamp, int stamp, int[] nodeStamp, int[] parent) {
+        int[] edges = this.circuitEdges[c];
+        if (nodeStamp != null && ((this.aPoint[c] >= 0 && nodeStamp[this.aPoint[c]] == stamp)
+                || (this.zPoint[c] >= 0 && nodeStamp[this.zPoint[c]] == stamp))) {
+            return BROKEN;
+        }
+        for (int i = 0; i < this.circuitNodes[c]; i++) {
+            parent[i] = i;
+        }
+        boolean degraded = false;
+        for (int i = 0; i < edges.length; i++) {
+            int e = edges[i];
+            if (!this.graph.isEdgeActive(e) || (edgeStamp != null && edgeStamp[e] == stamp)) {
+                degraded = true;
+                continue;
+            }
+            int a = find(parent, this.circuitFrom[c][i]);
+            int b = find(parent, this.circuitTo[c][i]);
+            if (a != b) {
+                parent[a] = b;
+            }
+        }
+        if (this.circuitA[c] >= 0 && this.circuitZ[c] >= 0 && find(parent, this.circuitA[c]) != find(parent, this.circuitZ[c])) {
+            return BROKEN;
+        }
+        return degraded ? DEGRADED : OK;
+    }
+
+    private static int find(int[] parent, int x) {
+        while (parent[x] != x) {
+            parent[x] = parent[parent[x]];
+            x = parent[x];
+        }
+        return x;
+    }
+
+    public CsrGraph getGraph() {
+        return this.graph;
+    }
+
+    /**
+     * @param connectionId
+     * @return índice da conexão no grafo, -1 se não existe
+     */
+    public int edgeIndex(String connectionId) {
+        Integer edge = this.edgeIndex.get(connectionId);
+        return edge == null ? -1 : edge;
+    }
+
+    public int circuitCount() {
+        return this.circuitIds.length;
+    }
+
+    public int serviceCount() {
+        return this.serviceIds.length;
+    }
+
+    public String circuitId(int circuit) {
+        return this.circuitIds[circuit];
+    }
+
+    public String serviceId(int service) {
+        return this.serviceIds[service];
+    }
+
+    public byte circuitBaseline(int circuit) {
+        return this.circuitBaseline[circuit];
+    }
+
+    public byte serviceBaseline(int service) {
+        return this.serviceBaseline[service];
+    }
+
+    int[] edgeCircuits(int edge) {
+        return this.edgeCircuits[edge];
+    }
+
+    int[] nodeCircuits(int node) {
+        return this.nodeCircuits[node];
+    }
+
+    int[] circuitServices(int circuit) {
+        return this.circuitServices[circuit];
+    }
+
+    int[] serviceCircuits(int service) {
+        return this.serviceCircuits[service];
+    }
+
+    int[] serviceDependencies(int service) {
+        return this.serviceDependencies[service];
+    }
+
+    int[] serviceDependents(int service) {
+        return this.serviceDependents[service];
+    }
+
+    int maxCircuitNodes() {
+        return this.maxCircuitNodes;
+    }
+
+    /**
+     * @return estimativa grosseira da memória do modelo, sem o grafo
+     */
+    public long estimatedBytes() {
+        long bytes = 0;
+        for (int c = 0; c < this.circuitIds.length; c++) {
+            bytes += 64 + 12L * this.circuitEdges[c].length;
+        }
+        for (int s = 0; s < this.serviceIds.length; s++) {
+            bytes += 64 + 8L * (this.serviceCircuits[s].length + this.serviceDependencies[s].length);
+        }
+        return bytes + 48L * this.edgeIndex.size();
+    }
+
+    private static final class CircuitEntry {
+
+        private final String id;
+        private final String aPoint;
+        private final String zPoint;
+        private final List<String> path;
+
+        private CircuitEntry(String id, String aPoint, String zPoint, List<String> path) {
+            this.id = id;
+            this.aPoint = aPoint;
+            this.zPoint = zPoint;
+            this.path = path;
+        }
+    }
+
+    private static final class ServiceEntry {
+
+        private final int index;
+        private final String id;
+        private final List<String> circuits;
+        private final List<String> dependencies;
+
+        private ServiceEntry(int index, String id, List<String> circuits, List<String> dependencies) {
+            this.index = index;
+            this.id = id;
+            this.circuits = circuits;
+            this.dependencies = dependencies;
+        }
+    }
+
+    public static final class Builder {
+
+        private final CsrGraph graph;
+        private final List<CircuitEntry> circuits = new ArrayList<>();
+        private final List<ServiceEntry> services = new ArrayList<>();
+
+        private Builder(CsrGraph graph) {
+            this.graph = graph;
+        }
+
+        /**
+         * @param id
+         * @param aPoint id do recurso
+         * @param zPoint id do recurso
+         * @param path ids das conexões do caminho
+         * @return
+         */
+        public Builder circuit(String id, String aPoint, String zPoint, List<String> path) {
+            this.circuits.add(new CircuitEntry(id, aPoint, zPoint, path == null ? List.of() : path));
+            return this;
+        }
+
+        /**
+         * Referências a circuitos e serviços que não estão no modelo são
+         * ignoradas
+         *
+         * @param id
+         * @param circuits ids dos circuitos
+         * @param dependencies ids dos serviços dos quais depende
+         * @return
+         */
+        public Builder service(String id, List<String> circuits, List<String> dependencies) {
+            this.services.add(new ServiceEntry(this.services.size(), id,
+                    circuits == null ? List.of() : circuits, dependencies == null ? List.of() : dependencies));
+            return this;
+        }
+
+        public ImpactModel build() {
+            return new ImpactModel(this);
+        }
+    }
+}
@@ -0,0 +1,304 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.topology.simulation;
+
+import com.osstelecom.db.inventory.topology.TopologyExecutors;
+import com.osstelecom.db.inventory.topology.TopologyProgress;
+import com.osstelecom.db.inventory.topology.csr.CsrGraph;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Simulação de falhas sobre um ImpactModel, sem tocar no banco.
+ * <p>
+ * Cada cenário derruba os nós e conexões informados; nó fora derruba as
+ * conexões dele, como na cascata real. Só os circuitos que passam por uma
+ * conexão derrubada ou que têm a ponta num nó derrubado são reavaliados, e
+ * dos circuitos que pioraram o impacto sobe para os serviços e deles para os
+ * dependentes, até parar de mudar. O resultado é o diff contra o estado base
+ * do modelo.
+ * <p>
+ * Os cenários são divididos entre os workers do pool fork/join. Cada worker
+ * tem vetores do tamanho do modelo marcados com o número do cenário, então
+ * não precisam ser limpos entre um cenário e outro.
+ *
+ * @author Lucas Nishimura
+ * @created 19.10.2026
+ */
+public final class ImpactSimulation {
+
+    private ImpactSimulation() {
+    }
+
+    /**
+     * @param model
+     * @param scenarios
+     * @return o impacto de cada cenário, na mesma ordem
+     */
+    public static List<Impact> run(ImpactModel model, List<Scenario> scenarios) {
+        Impact[] result = new Impact[scenarios.size()];
+        TopologyProgress progress = TopologyProgress.current();
+        progress.stage("simulation", (long) scenarios.size());
+        AtomicInteger next = new AtomicInteger();
+        int workerCount = Math.max(1, Math.min(TopologyExecutors.getForkJoinPool().getParallelism(), scenarios.size()));
+        List<Worker> workers = new ArrayList<>(workerCount);
+        for (int w = 0; w < workerCount; w++) {
+            workers.add(new Worker(model, scenarios, result, next, progress));
+        }
+        if (workerCount == 1) {
+            workers.get(0).invoke();
+        } else {
+            TopologyExecutors.getForkJoinPool().invoke(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    invokeAll(workers);
+                }
+            });
+        }
+        return List.of(result);
+    }
+
+    /**
+     * Nós e conexões que falham juntos, pelos ids
+     */
+    public static final class Scenario {
+
+        private final String name;
+        private final Collection<String> nodes;
+        private final Collection<String> connections;
+
+        public Scenario(String name, Collection<String> nodes, Collection<String> connections) {
+            this.name = name;
+            this.nodes = nodes == null ? List.of() : nodes;
+            this.connections = connections == null ? List.of() : connections;
+        }
+
+        public String getName() {
+            return this.name;
+        }
+    }
+
+    /**
+     * O que piorou no cenário em relação à base. Circuitos e serviços
+     * quebrados não aparecem também como degradados
+     */
+    public static final class Impact {
+
+        private final String name;
+        private final List<String> connectionsDown = new ArrayList<>();
+        private final List<String> circuitsDegraded = new ArrayList<>();
+        private final List<String> circuitsBroken = new ArrayList<>();
+        private final List<String> servicesDegraded = new ArrayList<>();
+        private final List<String> servicesBroken = new ArrayList<>();
+        private final List<String> unknown = new ArrayList<>();
+
+        private Impact(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return this.name;
+        }
+
+        public List<String> getConnectionsDown() {
+            return this.connectionsDown;
+        }
+
+        public List<String> getCircuitsDegraded() {
+            return this.circuitsDegraded;
+        }
+
+        public List<String> getCircuitsBroken() {
+            return this.circuitsBroken;
+        }
+
+        public List<String> getServicesDegraded() {
+            return this.servicesDegraded;
+        }
+
+        public List<String> getServicesBroken() {
+            return this.servicesBroken;
+        }
+
+        /**
+         * @return ids do cenário que não existem no domain
+         */
+        public List<String> getUnknown() {
+            return this.unknown;
+        }
+    }
+
+    private static final class Worker extends RecursiveAction {
+
+        private final ImpactModel model;
+        private final List<Scenario> scenarios;
+        private final Impact[] result;
+        private final AtomicInteger next;
+        private final TopologyProgress progress;
+        private final int[] nodeStamp;
+        private final int[] edgeStamp;
+        private final int[] circuitStamp;
+        private final byte[] circuitState;
+        private final int[] serviceStamp;
+        private final byte[] serviceState;
+        private final int[] parent;
+        private byte[] states = new byte[16];
+        private int stamp;
+
+        private Worker(ImpactModel model, List<Scenario> scenarios, Impact[] result, AtomicInteger next, TopologyProgress progress) {
+            this.model = model;
+            this.scenarios = scenarios;
+            this.result = result;
+            this.next = next;
+            this.progress = progress;
+            this.nodeStamp = new int[model.getGraph().nodeCount()];
+            this.edgeStamp = new int[model.getGraph().edgeCount()];
+            this.circuitStamp = new int[model.circuitCount()];
+            this.circuitState = new byte[model.circuitCount()];
+            this.serviceStamp = new int[model.serviceCount()];
+            this.serviceState = new byte[model.serviceCount()];
+            this.parent = new int[Math.max(1, model.maxCircuitNodes())];
+        }
+
+        @Override
+        protected void compute() {
+            int index;
+            while ((index = this.next.getAndIncrement()) < this.scenarios.size()) {
+                this.progress.checkCancelled();
+                this.stamp = index + 1;
+                this.result[index] = this.simulate(this.scenarios.get(index));
+                this.progress.advance(1);
+            }
+        }
+
+        private Impact simulate(Scenario scenario) {
+            CsrGraph graph = this.model.getGraph();
+            int current = this.stamp;
+            Impact impact = new Impact(scenario.getName());
+            List<Integer> downEdges = new ArrayList<>();
+            List<Integer> circuits = new ArrayList<>();
+            for (String nodeId : scenario.nodes) {
+                int node = graph.indexOf(nodeId);
+                if (node < 0) {
+                    impact.unknown.add(nodeId);
+                    continue;
+                }
+                this.nodeStamp[node] = current;
+                for (int c : this.model.nodeCircuits(node)) {
+                    this.touchCircuit(c, circuits);
+                }
+                for (int slot = graph.firstSlot(node); slot < graph.endSlot(node); slot++) {
+                    this.fail(graph.edgeAt(slot), downEdges);
+                }
+            }
+            for (String connectionId : scenario.connections) {
+                int edge = this.model.edgeIndex(connectionId);
+                if (edge < 0) {
+                    impact.unknown.add(connectionId);
+                    continue;
+                }
+                this.fail(edge, downEdges);
+            }
+            for (int edge : downEdges) {
+                impact.connectionsDown.add(graph.edgeName(edge));
+                for (int c : this.model.edgeCircuits(edge)) {
+                    this.touchCircuit(c, circuits);
+                }
+            }
+
+            //
+            // Circuitos que pioraram levam os serviços para a fila
+            //
+            List<Integer> queue = new ArrayList<>();
+            for (int c : circuits) {
+                byte state = this.model.circuitState(c, this.edgeStamp, current, this.nodeStamp, this.parent);
+                this.circuitState[c] = state;
+                if (state > this.model.circuitBaseline(c)) {
+                    (state == ImpactModel.BROKEN ? impact.circuitsBroken : impact.circuitsDegraded).add(this.model.circuitId(c));
+                    for (int s : this.model.circuitServices(c)) {
+                        queue.add(s);
+                    }
+                }
+            }
+            //
+            // Os estados só pioram com mais falhas, então a propagação
+            // converge; o limite protege contra dependências circulares
+            //
+            List<Integer> changed = new ArrayList<>();
+            long budget = 4L * this.model.serviceCount() + queue.size();
+            for (int head = 0; head < queue.size() && head < budget; head++) {
+                int s = queue.get(head);
+                byte state = this.evaluateService(s);
+                if (state != this.service(s)) {
+                    if (this.serviceStamp[s] != current) {
+                        changed.add(s);
+                    }
+                    this.serviceStamp[s] = current;
+                    this.serviceState[s] = state;
+                    for (int dependent : this.model.serviceDependents(s)) {
+                        queue.add(dependent);
+                    }
+                }
+            }
+            for (int s : changed) {
+                byte state = this.serviceState[s];
+                if (state > this.model.serviceBaseline(s)) {
+                    (state == ImpactModel.BROKEN ? impact.servicesBroken : impact.servicesDegraded).add(this.model.serviceId(s));
+                }
+            }
+            return impact;
+        }
+
+        private void fail(int edge, List<Integer> downEdges) {
+            if (this.edgeStamp[edge] != this.stamp && this.model.getGraph().isEdgeActive(edge)) {
+                this.edgeStamp[edge] = this.stamp;
+                downEdges.add(edge);
+            }
+        }
+
+        private void touchCircuit(int c, List<Integer> circuits) {
+            if (this.circuitStamp[c] != this.stamp) {
+                this.circuitStamp[c] = this.stamp;
+                circuits.add(c);
+            }
+        }
+
+        private byte circuit(int c) {
+            return this.circuitStamp[c] == this.stamp ? this.circuitState[c] : this.model.circuitBaseline(c);
+        }
+
+        private byte service(int s) {
+            return this.serviceStamp[s] == this.stamp ? this.serviceState[s] : this.model.serviceBaseline(s);
+        }
+
+        private byte evaluateService(int s) {
+            int[] circuits = this.model.serviceCircuits(s);
+            int[] members = circuits.length > 0 ? circuits : this.model.serviceDependencies(s);
+            if (this.states.length < members.length) {
+                this.states = new byte[members.length];
+            }
+            for (int i = 0; i < members.length; i++) {
+                this.states[i] = circuits.length > 0 ? this.circuit(members[i]) : this.service(members[i]);
+            }
+            return ImpactModel.combine(this.states, members.length);
+        }
+    }
+}
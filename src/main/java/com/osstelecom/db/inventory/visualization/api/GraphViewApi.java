@@ -38,6 +38,7 @@ import com.osstelecom.db.inventory.visualization.request.GetDomainTopologyReques
 import com.osstelecom.db.inventory.visualization.request.GetServiceByConnectionTopologyRequest;
 import com.osstelecom.db.inventory.visualization.request.GetStructureTopologyDependencyRequest;
 import com.osstelecom.db.inventory.visualization.response.ThreeJsViewResponse;
+import com.osstelecom.db.inventory.visualization.response.TopologyCutsResponse;
 import com.osstelecom.db.inventory.visualization.session.FilterViewSession;
 
 import java.io.IOException;
@@ -265,6 +266,29 @@ public class GraphViewApi extends BaseApi {
         return this.viewSession.getDomainTopologyByFilter(request);
     }
 
+    /**
+     * Pontos únicos de falha (nós e conexões) da topologia filtrada
+     *
+     * @param domain
+     * @param request
+     * @param httpRequest
+     * @return
+     * @throws DomainNotFoundException
+     * @throws ArangoDaoException
+     * @throws ResourceNotFoundException
+     * @throws InvalidRequestException
+     */
+    @PostMapping(path = "{domain}/topology/cuts", produces = "application/json", consumes = "application/json")
+    public TopologyCutsResponse getDomainTopologyCuts(@PathVariable("domain") String domain,
+            @RequestBody GetDomainTopologyRequest request, HttpServletRequest httpRequest)
+            throws DomainNotFoundException, ArangoDaoException, ResourceNotFoundException,
+            InvalidRequestException {
+        request.setRequestDomain(domain);
+        this.setUserDetails(request);
+        httpRequest.setAttribute("request", request);
+        return this.viewSession.getDomainTopologyCuts(request);
+    }
+
     /**
      * expand um circuito por serviço
      *
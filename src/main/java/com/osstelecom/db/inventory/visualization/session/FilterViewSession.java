@@ -19,6 +19,7 @@ package com.osstelecom.db.inventory.visualization.session;
 
 import com.osstelecom.db.inventory.manager.dao.ResourceConnectionDao;
 import com.osstelecom.db.inventory.manager.dto.FilterDTO;
+import com.osstelecom.db.inventory.manager.dto.TopologyCutsDTO;
 import com.osstelecom.db.inventory.manager.exception.ArangoDaoException;
 import com.osstelecom.db.inventory.manager.exception.DomainNotFoundException;
 import com.osstelecom.db.inventory.manager.exception.GenericException;
@@ -59,6 +60,7 @@ import com.osstelecom.db.inventory.visualization.request.GetDomainTopologyReques
 import com.osstelecom.db.inventory.visualization.request.GetServiceByConnectionTopologyRequest;
 import com.osstelecom.db.inventory.visualization.request.GetStructureTopologyDependencyRequest;
 import com.osstelecom.db.inventory.visualization.response.ThreeJsViewResponse;
+import com.osstelecom.db.inventory.visualization.response.TopologyCutsResponse;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -336,6 +338,36 @@ public class FilterViewSession {
         return new ThreeJsViewResponse(view);
     }
 
+    /**
+     * Pontos de articulação e pontes da topologia selecionada pelo filtro,
+     * usando o mesmo critério de nós e conexões do getDomainTopologyByFilter
+     *
+     * @param request
+     * @return
+     * @throws InvalidRequestException
+     * @throws ArangoDaoException
+     * @throws DomainNotFoundException
+     * @throws ResourceNotFoundException
+     */
+    public TopologyCutsResponse getDomainTopologyCuts(GetDomainTopologyRequest request)
+            throws InvalidRequestException, ArangoDaoException, DomainNotFoundException, ResourceNotFoundException {
+        this.domainManager.getDomain(request.getRequestDomain());
+        request.getPayLoad().setDomainName(request.getRequestDomain());
+        GraphList<ManagedResource> nodes = this.resourceSession.findManagedResourceByFilter(request.getPayLoad());
+        List<String> nodeIds = new ArrayList<>();
+        nodes.forEach(m -> nodeIds.add(m.getKey()));
+        if (nodeIds.isEmpty()) {
+            return new TopologyCutsResponse(new TopologyCutsDTO());
+        }
+        FilterDTO connectionsFilter = new FilterDTO();
+        connectionsFilter.setDomainName(request.getRequestDomain());
+        connectionsFilter.addObject("connection");
+        connectionsFilter.setAqlFilter(" doc.fromResource._key in @nodeIds or doc.toResource._key in @nodeIds ");
+        connectionsFilter.addBinding("nodeIds", nodeIds);
+        GraphList<ResourceConnection> connections = this.resourceSession.findResourceConnectionByFilter(connectionsFilter);
+        return new TopologyCutsResponse(this.graphSession.computeCuts(connections));
+    }
+
     /**
      * Expand um nó no mapa
      *
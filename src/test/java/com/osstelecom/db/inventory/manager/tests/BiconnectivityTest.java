@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.manager.tests;
+
+import com.osstelecom.db.inventory.topology.csr.Biconnectivity;
+import com.osstelecom.db.inventory.topology.csr.CsrGraph;
+import java.util.BitSet;
+import java.util.Random;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Pontos de articulação, pontes e blocos, e a contagem de conexões que levam
+ * aos endpoints que sai deles
+ *
+ * @author Lucas Nishimura <lucas.nishimura@gmail.com>
+ * @created 19.10.2026
+ */
+public class BiconnectivityTest {
+
+    @Test
+    @DisplayName("Two triangles joined by a bridge")
+    public void bridgeTest() {
+        CsrGraph.Builder builder = CsrGraph.builder();
+        builder.addEdge("a", "b", true);
+        builder.addEdge("b", "c", true);
+        builder.addEdge("c", "a", true);
+        int bridge = builder.addEdge("c", "d", true);
+        builder.addEdge("d", "e", true);
+        builder.addEdge("e", "f", true);
+        builder.addEdge("f", "d", true);
+        CsrGraph graph = builder.build();
+        Biconnectivity result = Biconnectivity.of(graph);
+        BitSet expected = new BitSet();
+        expected.set(graph.indexOf("c"));
+        expected.set(graph.indexOf("d"));
+        Assertions.assertEquals(expected, result.articulationPoints());
+        Assertions.assertEquals(1, result.bridges().cardinality());
+        Assertions.assertTrue(result.isBridge(bridge));
+        Assertions.assertEquals(3, result.componentCount());
+    }
+
+    @Test
+    @DisplayName("Parallel links and inactive links are not bridges")
+    public void parallelEdgeTest() {
+        CsrGraph.Builder builder = CsrGraph.builder();
+        builder.addEdge("a", "b", true);
+        builder.addEdge("a", "b", true);
+        builder.addEdge("b", "c", true);
+        builder.addEdge("b", "c", false);
+        Biconnectivity result = Biconnectivity.of(builder.build());
+        Assertions.assertEquals(1, result.bridges().cardinality());
+        Assertions.assertTrue(result.isBridge(2));
+        Assertions.assertEquals(-1, result.componentOf(3));
+        Assertions.assertEquals(1, result.articulationPoints().cardinality());
+    }
+
+    @Test
+    @DisplayName("Endpoint slots match a brute force search on random graphs")
+    public void endpointSlotsTest() {
+        Random random = new Random(42);
+        for (int round = 0; round < 50; round++) {
+            CsrGraph.Builder builder = CsrGraph.builder();
+            int nodes = 5 + random.nextInt(60);
+            for (int x = 0; x < nodes; x++) {
+                builder.addNode("n" + x, x < 2, random.nextInt(10) > 0);
+            }
+            int edges = nodes + random.nextInt(nodes);
+            for (int x = 0; x < edges; x++) {
+                builder.addEdge(random.nextInt(nodes), random.nextInt(nodes), random.nextInt(8) > 0);
+            }
+            CsrGraph graph = builder.build();
+            BitSet sources = new BitSet();
+            sources.set(0, nodes);
+            Assertions.assertEquals(bruteForce(graph), Biconnectivity.of(graph).endpointSlots(sources, graph.activeEndPoints()), "Round " + round);
+        }
+    }
+
+    /**
+     * Para cada slot v - u, busca um endpoint a partir de u com v bloqueado
+     *
+     * @param graph
+     * @return
+     */
+    private static BitSet bruteForce(CsrGraph graph) {
+        BitSet goals = graph.activeEndPoints();
+        BitSet slots = new BitSet();
+        for (int v = 0; v < graph.nodeCount(); v++) {
+            if (!graph.isActive(v) || goals.get(v)) {
+                continue;
+            }
+            for (int slot = graph.firstSlot(v); slot < graph.endSlot(v); slot++) {
+                int u = graph.target(slot);
+                if (!graph.isEdgeActive(graph.edgeAt(slot)) || !graph.isActive(u)) {
+                    continue;
+                }
+                BitSet seen = new BitSet();
+                seen.set(v);
+                seen.set(u);
+                int[] queue = new int[graph.nodeCount()];
+                int tail = 0;
+                queue[tail++] = u;
+                boolean found = false;
+                for (int head = 0; head < tail && !found; head++) {
+                    int x = queue[head];
+                    found = goals.get(x);
+                    for (int s = graph.firstSlot(x); s < graph.endSlot(x); s++) {
+                        int y = graph.target(s);
+                        if (!seen.get(y) && graph.isActive(y) && graph.isEdgeActive(graph.edgeAt(s))) {
+                            seen.set(y);
+                            queue[tail++] = y;
+                        }
+                    }
+                }
+                if (found) {
+                    slots.set(slot);
+                }
+            }
+        }
+        return slots;
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.manager.tests;
+
+import com.osstelecom.db.inventory.topology.csr.Centrality;
+import com.osstelecom.db.inventory.topology.csr.CsrGraph;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Betweenness, closeness harmônica e grau no CsrGraph
+ *
+ * @author Lucas Nishimura <lucas.nishimura@gmail.com>
+ * @created 19.10.2026
+ */
+public class CentralityTest {
+
+    private static final double DELTA = 1e-9;
+
+    @Test
+    @DisplayName("Path and square give the textbook values")
+    public void smallGraphsTest() {
+        CsrGraph.Builder builder = CsrGraph.builder();
+        int ab = builder.addEdge("a", "b", true);
+        int bc = builder.addEdge("b", "c", true);
+        builder.addEdge("c", "d", true);
+        CsrGraph path = builder.build();
+        Centrality centrality = Centrality.of(path);
+        Assertions.assertTrue(centrality.isExact());
+        Assertions.assertEquals(0.0, centrality.betweenness(path.indexOf("a")), DELTA);
+        Assertions.assertEquals(2.0, centrality.betweenness(path.indexOf("b")), DELTA);
+        Assertions.assertEquals(3.0, centrality.edgeBetweenness(ab), DELTA);
+        Assertions.assertEquals(4.0, centrality.edgeBetweenness(bc), DELTA);
+        Assertions.assertEquals(1 + 1 / 2.0 + 1 / 3.0, centrality.closeness(path.indexOf("a")), DELTA);
+        Assertions.assertEquals(2.5, centrality.closeness(path.indexOf("b")), DELTA);
+        Assertions.assertEquals(2, centrality.degree(path.indexOf("c")));
+        Assertions.assertArrayEquals(new int[]{path.indexOf("b"), path.indexOf("c")}, centrality.topBetweenness(2));
+        Assertions.assertArrayEquals(new int[]{bc}, centrality.topEdgeBetweenness(1));
+
+        builder = CsrGraph.builder();
+        builder.addEdge("a", "b", true);
+        builder.addEdge("b", "c", true);
+        builder.addEdge("c", "d", true);
+        builder.addEdge("d", "a", true);
+        CsrGraph square = builder.build();
+        centrality = Centrality.of(square);
+        for (int v = 0; v < square.nodeCount(); v++) {
+            Assertions.assertEquals(0.5, centrality.betweenness(v), DELTA);
+            Assertions.assertEquals(2.5, centrality.closeness(v), DELTA);
+        }
+    }
+
+    @Test
+    @DisplayName("Disabled nodes and links are not crossed")
+    public void disabledTest() {
+        CsrGraph.Builder builder = CsrGraph.builder();
+        builder.addEdge("a", "b", true);
+        builder.addEdge("b", "c", true);
+        builder.addEdge("a", "x", false);
+        builder.addEdge("x", "c", true);
+        builder.disable(builder.node("b"));
+        CsrGraph graph = builder.build();
+        Centrality centrality = Centrality.of(graph);
+        for (int v = 0; v < graph.nodeCount(); v++) {
+            Assertions.assertEquals(0.0, centrality.betweenness(v), DELTA);
+        }
+        Assertions.assertEquals(0.0, centrality.closeness(graph.indexOf("a")), DELTA);
+        Assertions.assertEquals(1.0, centrality.closeness(graph.indexOf("c")), DELTA);
+        Assertions.assertEquals(0, centrality.degree(graph.indexOf("a")));
+    }
+
+    @Test
+    @DisplayName("Parallel exact run on a grid matches the closed form sums")
+    public void gridTest() {
+        int side = 30;
+        CsrGraph.Builder builder = CsrGraph.builder();
+        for (int x = 0; x < side; x++) {
+            for (int y = 0; y < side; y++) {
+                if (x + 1 < side) {
+                    builder.addEdge(x + ":" + y, (x + 1) + ":" + y, true);
+                }
+                if (y + 1 < side) {
+                    builder.addEdge(x + ":" + y, x + ":" + (y + 1), true);
+                }
+            }
+        }
+        CsrGraph graph = builder.build();
+        Centrality centrality = Centrality.of(graph);
+        //
+        // Cada par conectado soma (distância - 1) na betweenness dos nós e
+        // 1 / distância na closeness das duas pontas
+        //
+        double betweenness = 0;
+        double closeness = 0;
+        for (int a = 0; a < side * side; a++) {
+            for (int b = a + 1; b < side * side; b++) {
+                int distance = Math.abs(a / side - b / side) + Math.abs(a % side - b % side);
+                betweenness += distance - 1;
+                closeness += 2.0 / distance;
+            }
+        }
+        double betweennessSum = 0;
+        double closenessSum = 0;
+        for (int v = 0; v < graph.nodeCount(); v++) {
+            betweennessSum += centrality.betweenness(v);
+            closenessSum += centrality.closeness(v);
+        }
+        Assertions.assertEquals(betweenness, betweennessSum, betweenness * 1e-9);
+        Assertions.assertEquals(closeness, closenessSum, closeness * 1e-9);
+        //
+        // O centro da grade é o nó de maior betweenness e closeness
+        //
+        int center = graph.indexOf((side / 2 - 1) + ":" + (side / 2 - 1));
+        double top = centrality.betweenness(centrality.topBetweenness(1)[0]);
+        Assertions.assertEquals(top, centrality.betweenness(center), top * 1e-9);
+
+        Centrality sampled = Centrality.of(graph, 200, 7L);
+        Assertions.assertFalse(sampled.isExact());
+        Assertions.assertEquals(200, sampled.getSources());
+        double sampledSum = 0;
+        for (int v = 0; v < graph.nodeCount(); v++) {
+            sampledSum += sampled.betweenness(v);
+        }
+        Assertions.assertEquals(betweenness, sampledSum, betweenness * 0.1);
+        Assertions.assertTrue(Centrality.of(graph, side * side, 7L).isExact());
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.manager.tests;
+
+import com.osstelecom.db.inventory.topology.DefaultTopology;
+import com.osstelecom.db.inventory.topology.csr.CsrAlgorithms;
+import com.osstelecom.db.inventory.topology.csr.CsrGraph;
+import com.osstelecom.db.inventory.topology.csr.TopologyGraph;
+import com.osstelecom.db.inventory.topology.impact.DefaultImpactManagerImpl;
+import com.osstelecom.db.inventory.topology.impact.WeakNodesImpactManager;
+import com.osstelecom.db.inventory.topology.node.DefaultNode;
+import com.osstelecom.db.inventory.topology.node.INetworkNode;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Grafo CSR e as varreduras de impacto que rodam sobre ele
+ *
+ * @author Lucas Nishimura <lucas.nishimura@gmail.com>
+ * @created 19.10.2026
+ */
+public class CsrGraphTest {
+
+    @Test
+    @DisplayName("Builder lays out both directions of each edge and skips self loops")
+    public void builderTest() {
+        CsrGraph.Builder builder = CsrGraph.builder();
+        builder.addEdge("a", "b", true);
+        builder.addEdge("b", "c", false);
+        builder.addEdge("c", "c", true);
+        CsrGraph graph = builder.build();
+        Assertions.assertEquals(3, graph.nodeCount());
+        Assertions.assertEquals(3, graph.edgeCount());
+        Assertions.assertEquals(4, graph.slotCount());
+        int b = graph.indexOf("b");
+        Assertions.assertEquals(2, graph.degree(b));
+        Assertions.assertEquals(1, graph.degree(graph.indexOf("c")));
+        Assertions.assertFalse(graph.isEdgeActive(1));
+        Assertions.assertEquals(-1, graph.indexOf("d"));
+    }
+
+    @Test
+    @DisplayName("Unreacheable nodes follow only active connections")
+    public void unreacheableTest() {
+        DefaultTopology topology = example(new DefaultImpactManagerImpl());
+        topology.getConnectionByName("r3-r2").disable();
+        Assertions.assertEquals(Arrays.asList("router3", "router4", "router5", "router6", "router7"),
+                names(topology.getImpactManager().getUnreacheableNodes()));
+    }
+
+    @Test
+    @DisplayName("Weak nodes are the ones with at most connLimit connections leading to an endpoint")
+    public void weakNodesTest() {
+        DefaultTopology topology = example(new DefaultImpactManagerImpl());
+        Assertions.assertEquals(Arrays.asList("router3", "router4"),
+                names(topology.getImpactManager().getWeakNodes(1, false, 2, false)));
+        Assertions.assertEquals(2, topology.getNodeByName("router1").getEndpointConnectionsCount());
+        Assertions.assertEquals(Arrays.asList("router3", "router4", "router5", "router6", "router7"),
+                names(topology.getImpactManager().getWeakNodes(1, true, 2, false)));
+
+        DefaultTopology other = example(new WeakNodesImpactManager());
+        Assertions.assertEquals(Arrays.asList("router3", "router4"),
+                names(other.getImpactManager().getWeakNodes(1, false, 2, false)));
+    }
+
+    @Test
+    @DisplayName("Endpoint slots on a long ladder")
+    public void ladderTest() {
+        CsrGraph.Builder builder = CsrGraph.builder();
+        builder.endPoint(builder.node("exit"));
+        for (int x = 0; x < 2000; x++) {
+            builder.addEdge("n" + x, x == 0 ? "exit" : "n" + (x - 1), true);
+            if (x % 3 == 0 && x > 0) {
+                builder.addEdge("n" + x, "m" + x, true);
+                builder.addEdge("m" + x, "n" + (x - 2), true);
+            }
+        }
+        CsrGraph graph = builder.build();
+        BitSet sources = new BitSet();
+        sources.set(0, graph.nodeCount());
+        BitSet single = CsrAlgorithms.endpointSlots(graph, sources, null);
+        Assertions.assertEquals(1, CsrAlgorithms.count(graph, single, graph.indexOf("n1")));
+        Assertions.assertEquals(2, CsrAlgorithms.count(graph, single, graph.indexOf("n3")));
+        Assertions.assertEquals(graph.nodeCount(), CsrAlgorithms.reachable(graph).cardinality());
+    }
+
+    @Test
+    @DisplayName("Topology snapshot keeps node and connection order")
+    public void topologyGraphTest() {
+        DefaultTopology topology = example(new DefaultImpactManagerImpl());
+        TopologyGraph view = TopologyGraph.of(topology);
+        Assertions.assertEquals(topology.getConnections().size(), view.getGraph().edgeCount());
+        for (int x = 0; x < topology.getConnections().size(); x++) {
+            Assertions.assertSame(topology.getConnections().get(x), view.connection(x));
+        }
+        INetworkNode router4 = topology.getNodeByName("router4");
+        Assertions.assertSame(router4, view.node(view.indexOf(router4)));
+        BitSet impacted = CsrAlgorithms.impactOf(view.getGraph(), view.indexOf(router4));
+        Assertions.assertEquals(3, impacted.cardinality());
+    }
+
+    /**
+     * Mesma topologia do exemplo em uc.DefaultExample
+     *
+     * @param impactManager
+     * @return
+     */
+    private static DefaultTopology example(DefaultImpactManagerImpl impactManager) {
+        DefaultTopology topology = new DefaultTopology(impactManager);
+        DefaultNode saida = new DefaultNode("saida1", 0, topology);
+        saida.setEndPoint(true);
+        DefaultNode[] routers = new DefaultNode[8];
+        for (int x = 1; x <= 7; x++) {
+            routers[x] = new DefaultNode("router" + x, x, topology);
+        }
+        topology.addConnection(routers[1], saida, "r1-s1");
+        topology.addConnection(routers[2], saida, "r2-s1");
+        topology.addConnection(routers[2], routers[1], "r2-r1");
+        topology.addConnection(routers[3], routers[2], "r3-r2");
+        topology.addConnection(routers[3], routers[4], "r3-r4");
+        topology.addConnection(routers[5], routers[4], "r5-r4");
+        topology.addConnection(routers[6], routers[4], "r6-r4");
+        topology.addConnection(routers[7], routers[6], "r7-r6");
+        topology.addConnection(routers[7], routers[5], "r7-r5");
+        return topology;
+    }
+
+    private static List<String> names(List<INetworkNode> nodes) {
+        return nodes.stream().map(INetworkNode::getName).sorted().collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,285 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.manager.tests;
+
+import com.osstelecom.db.inventory.manager.configuration.ConfigurationManager;
+import com.osstelecom.db.inventory.manager.configuration.InventoryConfiguration;
+import com.osstelecom.db.inventory.manager.dao.CircuitResourceDao;
+import com.osstelecom.db.inventory.manager.dao.ServiceResourceDao;
+import com.osstelecom.db.inventory.manager.events.CircuitPathUpdatedEvent;
+import com.osstelecom.db.inventory.manager.events.CircuitResourceUpdatedEvent;
+import com.osstelecom.db.inventory.manager.events.ServiceResourceUpdatedEvent;
+import com.osstelecom.db.inventory.manager.operation.ImpactSimulationManager;
+import com.osstelecom.db.inventory.manager.operation.LiveTopologyManager;
+import com.osstelecom.db.inventory.manager.resources.CircuitResource;
+import com.osstelecom.db.inventory.manager.resources.Domain;
+import com.osstelecom.db.inventory.manager.resources.GraphList;
+import com.osstelecom.db.inventory.manager.resources.ManagedResource;
+import com.osstelecom.db.inventory.manager.resources.ServiceResource;
+import com.osstelecom.db.inventory.topology.csr.CsrGraph;
+import com.osstelecom.db.inventory.topology.simulation.ImpactModel;
+import com.osstelecom.db.inventory.topology.simulation.ImpactSimulation;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Simulação de falhas em memória: conexões, circuitos e serviços, e quando o
+ * ImpactSimulationManager monta o modelo de novo
+ *
+ * @author Lucas Nishimura <lucas.nishimura@gmail.com>
+ * @created 19.10.2026
+ */
+public class ImpactSimulationTest {
+
+    @Test
+    @DisplayName("Failures propagate to circuits and through service dependencies")
+    public void propagationTest() {
+        ImpactModel model = model(true);
+        List<ImpactSimulation.Impact> impacts = ImpactSimulation.run(model, List.of(
+                new ImpactSimulation.Scenario("l1", null, List.of("l1")),
+                new ImpactSimulation.Scenario("c", List.of("c"), null),
+                new ImpactSimulation.Scenario("a-isolated", null, List.of("l1", "l3", "missing"))));
+
+        ImpactSimulation.Impact link = impacts.get(0);
+        Assertions.assertEquals(List.of("l1"), link.getConnectionsDown());
+        Assertions.assertEquals(List.of("c1"), link.getCircuitsDegraded());
+        Assertions.assertEquals(List.of("c3"), link.getCircuitsBroken());
+        Assertions.assertEquals(List.of("s1", "s2"), sorted(link.getServicesDegraded()));
+        Assertions.assertTrue(link.getServicesBroken().isEmpty());
+
+        ImpactSimulation.Impact node = impacts.get(1);
+        Assertions.assertEquals(List.of("l2", "l4", "l5"), sorted(node.getConnectionsDown()));
+        Assertions.assertEquals(List.of("c1", "c2"), sorted(node.getCircuitsBroken()));
+        Assertions.assertEquals(List.of("s1"), node.getServicesBroken());
+        Assertions.assertEquals(List.of("s2", "s3", "s4"), sorted(node.getServicesDegraded()));
+
+        ImpactSimulation.Impact isolated = impacts.get(2);
+        Assertions.assertEquals(List.of("c1", "c3"), sorted(isolated.getCircuitsBroken()));
+        Assertions.assertEquals(List.of("s1"), isolated.getServicesBroken());
+        Assertions.assertEquals(List.of("missing"), isolated.getUnknown());
+    }
+
+    @Test
+    @DisplayName("The report is a diff against the current state")
+    public void baselineTest() {
+        ImpactModel model = model(false);
+        Assertions.assertEquals(ImpactModel.BROKEN, model.circuitBaseline(model.circuitCount() - 2));
+        ImpactSimulation.Impact impact = ImpactSimulation.run(model, List.of(
+                new ImpactSimulation.Scenario("c", List.of("c"), null))).get(0);
+        Assertions.assertEquals(List.of("l2", "l4"), sorted(impact.getConnectionsDown()));
+        Assertions.assertEquals(List.of("c1"), impact.getCircuitsBroken());
+        Assertions.assertEquals(List.of("s1"), impact.getServicesBroken());
+        Assertions.assertEquals(List.of("s3", "s4"), sorted(impact.getServicesDegraded()));
+    }
+
+    @Test
+    @DisplayName("Hundreds of scenarios in parallel match one by one runs")
+    public void parallelTest() {
+        ImpactModel model = model(true);
+        String[] links = {"l1", "l2", "l3", "l4", "l5"};
+        List<ImpactSimulation.Scenario> scenarios = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            List<String> failed = new ArrayList<>();
+            for (int b = 0; b < links.length; b++) {
+                if ((i >> b & 1) != 0) {
+                    failed.add(links[b]);
+                }
+            }
+            scenarios.add(new ImpactSimulation.Scenario("scenario-" + i, i % 7 == 0 ? List.of("d") : null, failed));
+        }
+        List<ImpactSimulation.Impact> batch = ImpactSimulation.run(model, scenarios);
+        for (int i = 0; i < scenarios.size(); i++) {
+            ImpactSimulation.Impact single = ImpactSimulation.run(model, List.of(scenarios.get(i))).get(0);
+            Assertions.assertEquals(single.getName(), batch.get(i).getName());
+            Assertions.assertEquals(sorted(single.getConnectionsDown()), sorted(batch.get(i).getConnectionsDown()));
+            Assertions.assertEquals(sorted(single.getCircuitsBroken()), sorted(batch.get(i).getCircuitsBroken()));
+            Assertions.assertEquals(sorted(single.getServicesBroken()), sorted(batch.get(i).getServicesBroken()));
+            Assertions.assertEquals(sorted(single.getServicesDegraded()), sorted(batch.get(i).getServicesDegraded()));
+        }
+    }
+
+    @Test
+    @DisplayName("The cached model is rebuilt on circuit and service events of its domain and on a new topology version")
+    public void modelInvalidationTest() throws Exception {
+        Domain domain = domain("test");
+        AtomicLong version = new AtomicLong(1L);
+        AtomicReference<List<String>> path = new AtomicReference<>(List.of("l1", "l2"));
+        LiveTopologyManager liveTopologyManager = Mockito.mock(LiveTopologyManager.class);
+        Mockito.when(liveTopologyManager.getVersion(domain)).thenAnswer(invocation -> version.get());
+        Mockito.when(liveTopologyManager.snapshot(domain)).thenAnswer(invocation -> {
+            CsrGraph.Builder builder = CsrGraph.builder();
+            builder.addEdge(builder.node("a"), builder.node("b"), true, "l1");
+            builder.addEdge(builder.node("b"), builder.node("c"), true, "l2");
+            return builder.build();
+        });
+        CircuitResourceDao circuitResourceDao = Mockito.mock(CircuitResourceDao.class);
+        Mockito.when(circuitResourceDao.findAll(domain)).thenAnswer(invocation -> cursor(circuit(domain, "c1", path.get())));
+        ServiceResourceDao serviceResourceDao = Mockito.mock(ServiceResourceDao.class);
+        Mockito.when(serviceResourceDao.findAll(domain)).thenAnswer(invocation -> {
+            ServiceResource service = new ServiceResource(domain);
+            service.setId("s1");
+            service.setCircuits(List.of(circuit(domain, "c1", path.get())));
+            return cursor(service);
+        });
+        ImpactSimulationManager manager = manager(liveTopologyManager, circuitResourceDao, serviceResourceDao, new InventoryConfiguration());
+
+        ImpactModel model = manager.getModel(domain);
+        Assertions.assertSame(model, manager.getModel(domain));
+        Assertions.assertEquals(List.of("c1"), failing(model, "l2").getCircuitsBroken());
+        manager.onCircuitResourceUpdatedEvent(new CircuitResourceUpdatedEvent(null, circuit(domain("other"), "c9", List.of())));
+        Assertions.assertSame(model, manager.getModel(domain));
+
+        path.set(List.of("l1"));
+        manager.onCircuitPathUpdatedEvent(new CircuitPathUpdatedEvent(circuit(domain, "c1", path.get())));
+        ImpactModel rerouted = manager.getModel(domain);
+        Assertions.assertNotSame(model, rerouted);
+        Assertions.assertTrue(failing(rerouted, "l2").getCircuitsBroken().isEmpty());
+
+        ServiceResource service = new ServiceResource(domain);
+        manager.onServiceResourceUpdatedEvent(new ServiceResourceUpdatedEvent(service, service));
+        ImpactModel serviceChanged = manager.getModel(domain);
+        Assertions.assertNotSame(rerouted, serviceChanged);
+        manager.onCircuitResourceUpdatedEvent(new CircuitResourceUpdatedEvent(null, circuit(domain, "c1", path.get())));
+        Assertions.assertNotSame(serviceChanged, manager.getModel(domain));
+
+        ImpactModel current = manager.getModel(domain);
+        version.incrementAndGet();
+        Assertions.assertNotSame(current, manager.getModel(domain));
+        Mockito.verify(circuitResourceDao, Mockito.times(5)).findAll(domain);
+    }
+
+    @Test
+    @DisplayName("A model built while an event arrives is used once and not cached, the TTL bounds the cache")
+    public void concurrentEventTest() throws Exception {
+        Domain domain = domain("test");
+        LiveTopologyManager liveTopologyManager = Mockito.mock(LiveTopologyManager.class);
+        Mockito.when(liveTopologyManager.getVersion(domain)).thenReturn(1L);
+        Mockito.when(liveTopologyManager.snapshot(domain)).thenAnswer(invocation -> CsrGraph.builder().build());
+        CircuitResourceDao circuitResourceDao = Mockito.mock(CircuitResourceDao.class);
+        ServiceResourceDao serviceResourceDao = Mockito.mock(ServiceResourceDao.class);
+        Mockito.when(serviceResourceDao.findAll(domain)).thenAnswer(invocation -> cursor());
+        InventoryConfiguration configuration = new InventoryConfiguration();
+        ImpactSimulationManager manager = manager(liveTopologyManager, circuitResourceDao, serviceResourceDao, configuration);
+        Mockito.when(circuitResourceDao.findAll(domain)).thenAnswer(invocation -> {
+            //
+            // Circuito alterado enquanto o modelo é montado
+            //
+            manager.onCircuitResourceUpdatedEvent(new CircuitResourceUpdatedEvent(null, circuit(domain, "c1", List.of())));
+            return cursor();
+        }).thenAnswer(invocation -> cursor());
+
+        ImpactModel stale = manager.getModel(domain);
+        ImpactModel fresh = manager.getModel(domain);
+        Assertions.assertNotSame(stale, fresh);
+        Assertions.assertSame(fresh, manager.getModel(domain));
+
+        configuration.setSimulationModelTTL(0L);
+        Assertions.assertNotSame(fresh, manager.getModel(domain));
+        Mockito.verify(circuitResourceDao, Mockito.times(3)).findAll(domain);
+    }
+
+    private static ImpactSimulation.Impact failing(ImpactModel model, String connection) {
+        return ImpactSimulation.run(model, List.of(new ImpactSimulation.Scenario(connection, null, List.of(connection)))).get(0);
+    }
+
+    private static ImpactSimulationManager manager(LiveTopologyManager liveTopologyManager, CircuitResourceDao circuitResourceDao,
+            ServiceResourceDao serviceResourceDao, InventoryConfiguration configuration) {
+        ConfigurationManager configurationManager = new ConfigurationManager();
+        ReflectionTestUtils.setField(configurationManager, "configuration", configuration);
+        ImpactSimulationManager manager = new ImpactSimulationManager();
+        ReflectionTestUtils.setField(manager, "liveTopologyManager", liveTopologyManager);
+        ReflectionTestUtils.setField(manager, "circuitResourceDao", circuitResourceDao);
+        ReflectionTestUtils.setField(manager, "serviceResourceDao", serviceResourceDao);
+        ReflectionTestUtils.setField(manager, "configurationManager", configurationManager);
+        return manager;
+    }
+
+    /**
+     * Cursor do banco com os recursos informados
+     */
+    @SafeVarargs
+    @SuppressWarnings("unchecked")
+    private static <T> GraphList<T> cursor(T... resources) {
+        GraphList<T> cursor = Mockito.mock(GraphList.class);
+        Mockito.doAnswer(invocation -> {
+            Consumer<T> consumer = invocation.getArgument(0);
+            for (T resource : resources) {
+                consumer.accept(resource);
+            }
+            return null;
+        }).when(cursor).forEach(ArgumentMatchers.any());
+        return cursor;
+    }
+
+    private static Domain domain(String name) {
+        Domain domain = new Domain();
+        domain.setDomainName(name);
+        return domain;
+    }
+
+    private static CircuitResource circuit(Domain domain, String id, List<String> path) {
+        CircuitResource circuit = new CircuitResource(domain);
+        circuit.setId(id);
+        ManagedResource aPoint = new ManagedResource(domain);
+        aPoint.setId("a");
+        ManagedResource zPoint = new ManagedResource(domain);
+        zPoint.setId("c");
+        circuit.setaPoint(aPoint);
+        circuit.setzPoint(zPoint);
+        circuit.setCircuitPath(new ArrayList<>(path));
+        return circuit;
+    }
+
+    /**
+     * a-b-c e a-d-c em paralelo, c-e na ponta. c1 vai de a até c pelos dois
+     * lados, c2 de c até e, c3 de a até b. s1 usa c1, s2 usa c2 e c3, s3
+     * depende de s1 e s2 e s4 só de s3
+     */
+    private static ImpactModel model(boolean l5Up) {
+        CsrGraph.Builder builder = CsrGraph.builder();
+        builder.addEdge(builder.node("a"), builder.node("b"), true, "l1");
+        builder.addEdge(builder.node("b"), builder.node("c"), true, "l2");
+        builder.addEdge(builder.node("a"), builder.node("d"), true, "l3");
+        builder.addEdge(builder.node("d"), builder.node("c"), true, "l4");
+        builder.addEdge(builder.node("c"), builder.node("e"), l5Up, "l5");
+        return ImpactModel.builder(builder.build())
+                .circuit("c1", "a", "c", List.of("l1", "l2", "l3", "l4"))
+                .circuit("c2", "c", "e", List.of("l5"))
+                .circuit("c3", "a", "b", List.of("l1"))
+                .service("s1", List.of("c1"), null)
+                .service("s2", List.of("c2", "c3"), null)
+                .service("s3", null, List.of("s1", "s2"))
+                .service("s4", null, List.of("s3", "unknown"))
+                .build();
+    }
+
+    private static List<String> sorted(List<String> values) {
+        List<String> result = new ArrayList<>(values);
+        result.sort(null);
+        return result;
+    }
+}
@@ -0,0 +1,251 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.manager.tests;
+
+import com.arangodb.entity.DocumentUpdateEntity;
+import com.osstelecom.db.inventory.manager.configuration.ConfigurationManager;
+import com.osstelecom.db.inventory.manager.configuration.InventoryConfiguration;
+import com.osstelecom.db.inventory.manager.dao.ResourceConnectionDao;
+import com.osstelecom.db.inventory.manager.events.ManagedResourceDeletedEvent;
+import com.osstelecom.db.inventory.manager.events.ResourceConnectionUpdatedEvent;
+import com.osstelecom.db.inventory.manager.operation.LiveTopologyManager;
+import com.osstelecom.db.inventory.manager.resources.Domain;
+import com.osstelecom.db.inventory.manager.resources.GraphList;
+import com.osstelecom.db.inventory.manager.resources.ManagedResource;
+import com.osstelecom.db.inventory.manager.resources.ResourceConnection;
+import com.osstelecom.db.inventory.topology.csr.CsrAlgorithms;
+import com.osstelecom.db.inventory.topology.csr.CsrGraph;
+import com.osstelecom.db.inventory.topology.live.LiveTopology;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Topologia residente do domain: versão, o grafo de cada circuito e, pelo
+ * LiveTopologyManager, os eventos recebidos durante a carga e o orçamento de
+ * memória
+ *
+ * @author Lucas Nishimura <lucas.nishimura@gmail.com>
+ * @created 19.10.2026
+ */
+public class LiveTopologyTest {
+
+    private static final List<String> CIRCUIT = Collections.singletonList("circuit/1");
+
+    @Test
+    @DisplayName("Only effective changes move the version and rebuild the snapshot")
+    public void versionTest() {
+        LiveTopology topology = loaded();
+        long version = topology.getVersion();
+        CsrGraph snapshot = topology.snapshot();
+        Assertions.assertEquals(3, snapshot.nodeCount());
+        Assertions.assertEquals(2, snapshot.edgeCount());
+
+        topology.putLink("c1", "a", "b", true, CIRCUIT);
+        Assertions.assertEquals(version, topology.getVersion());
+        Assertions.assertSame(snapshot, topology.snapshot());
+
+        topology.putLink("c1", "a", "b", false, CIRCUIT);
+        Assertions.assertEquals(version + 1, topology.getVersion());
+        CsrGraph changed = topology.snapshot();
+        Assertions.assertNotSame(snapshot, changed);
+        Assertions.assertFalse(changed.isEdgeActive(edge(changed, "c1")));
+    }
+
+    @Test
+    @DisplayName("Circuit graph reports the nodes cut from the aPoint")
+    public void circuitGraphTest() {
+        LiveTopology topology = loaded();
+        Assertions.assertTrue(unreachable(topology.circuitGraph("circuit/1", "a")).isEmpty());
+
+        topology.putLink("c2", "b", "c", false, CIRCUIT);
+        CsrGraph graph = topology.circuitGraph("circuit/1", "a");
+        Assertions.assertEquals(Collections.singletonList("c"), unreachable(graph));
+
+        topology.removeLink("c2");
+        graph = topology.circuitGraph("circuit/1", "a");
+        Assertions.assertEquals(1, graph.edgeCount());
+        Assertions.assertEquals(-1, graph.indexOf("c"));
+    }
+
+    @Test
+    @DisplayName("Events received while the cursor is read are replayed after the load")
+    public void eventsDuringLoadTest() throws Exception {
+        Domain domain = domain("test");
+        ResourceConnectionDao dao = Mockito.mock(ResourceConnectionDao.class);
+        LiveTopologyManager manager = manager(dao, null);
+        Mockito.when(dao.findAll(domain)).thenAnswer(invocation -> cursor(consumer -> {
+            consumer.accept(connection(domain, "c1", "a", "b", true));
+            //
+            // Eventos chegando no meio da leitura do cursor
+            //
+            manager.onResourceConnectionUpdatedEvent(updated(connection(domain, "c1", "a", "b", false)));
+            manager.onManagedResourceDeletedEvent(new ManagedResourceDeletedEvent(node(domain, "c"), null));
+            Assertions.assertNull(manager.getTopology(domain));
+            Assertions.assertNull(manager.getVersion(domain));
+            consumer.accept(connection(domain, "c2", "b", "c", true));
+        }));
+
+        LiveTopology topology = manager.getTopology(domain);
+        Assertions.assertNotNull(topology);
+        CsrGraph snapshot = topology.snapshot();
+        Assertions.assertEquals(1, snapshot.edgeCount());
+        Assertions.assertFalse(snapshot.isEdgeActive(0));
+        Assertions.assertEquals(-1, snapshot.indexOf("c"));
+        Assertions.assertEquals(2, topology.stats().get("nodes"));
+
+        long version = manager.getVersion(domain);
+        manager.onResourceConnectionUpdatedEvent(updated(connection(domain, "c1", "a", "b", true)));
+        Assertions.assertEquals(version + 1, manager.getVersion(domain));
+        Assertions.assertTrue(manager.snapshot(domain).isEdgeActive(0));
+        Assertions.assertSame(topology, manager.getTopology(domain));
+        Mockito.verify(dao, Mockito.times(1)).findAll(domain);
+    }
+
+    @Test
+    @DisplayName("Over the memory budget the least used domain is evicted and reloaded on next use")
+    public void budgetTest() throws Exception {
+        Domain first = domain("first");
+        Domain second = domain("second");
+        ResourceConnectionDao dao = Mockito.mock(ResourceConnectionDao.class);
+        InventoryConfiguration configuration = new InventoryConfiguration();
+        configuration.setLiveTopologyEnabled(true);
+        LiveTopologyManager manager = manager(dao, configuration);
+        for (Domain domain : List.of(first, second)) {
+            Mockito.when(dao.findAll(domain)).thenAnswer(invocation -> cursor(consumer -> {
+                consumer.accept(connection(domain, "c1", "a", "b", true));
+                consumer.accept(connection(domain, "c2", "b", "c", true));
+            }));
+        }
+        long bytes = manager.getTopology(first).estimatedBytes();
+        Assertions.assertNotNull(manager.getTopology(second));
+        configuration.setLiveTopologyMaxBytes(bytes + bytes / 2);
+
+        Assertions.assertNotNull(manager.rebuild(second));
+        Assertions.assertNull(manager.getVersion(first));
+        Assertions.assertEquals(1, ((List<?>) manager.dumpStats().get("domains")).size());
+        //
+        // Evento do domain descartado não recria a topologia
+        //
+        manager.onResourceConnectionUpdatedEvent(updated(connection(first, "c1", "a", "b", false)));
+        Assertions.assertNull(manager.getVersion(first));
+
+        Assertions.assertNotNull(manager.getTopology(first));
+        Assertions.assertNull(manager.getVersion(second));
+        Mockito.verify(dao, Mockito.times(2)).findAll(first);
+
+        configuration.setLiveTopologyMaxBytes(bytes / 2);
+        Assertions.assertNull(manager.rebuild(first));
+        Assertions.assertEquals(1, ((Map<?, ?>) manager.dumpStats().get("overBudget")).size());
+        Assertions.assertNull(manager.getTopology(first));
+        Assertions.assertEquals(2, manager.snapshot(first).edgeCount());
+    }
+
+    private static LiveTopology loaded() {
+        LiveTopology topology = new LiveTopology("test");
+        topology.beginLoad();
+        topology.load("c1", "a", "b", true, CIRCUIT);
+        topology.load("c2", "b", "c", true, CIRCUIT);
+        topology.finishLoad(0L);
+        return topology;
+    }
+
+    private static LiveTopologyManager manager(ResourceConnectionDao dao, InventoryConfiguration configuration) {
+        if (configuration == null) {
+            configuration = new InventoryConfiguration();
+            configuration.setLiveTopologyEnabled(true);
+        }
+        ConfigurationManager configurationManager = new ConfigurationManager();
+        ReflectionTestUtils.setField(configurationManager, "configuration", configuration);
+        LiveTopologyManager manager = new LiveTopologyManager();
+        ReflectionTestUtils.setField(manager, "resourceConnectionDao", dao);
+        ReflectionTestUtils.setField(manager, "configurationManager", configurationManager);
+        return manager;
+    }
+
+    /**
+     * Cursor do banco que entrega as conexões pela ação informada
+     */
+    @SuppressWarnings("unchecked")
+    private static GraphList<ResourceConnection> cursor(Consumer<Consumer<ResourceConnection>> reader) {
+        GraphList<ResourceConnection> cursor = Mockito.mock(GraphList.class);
+        Mockito.doAnswer(invocation -> {
+            reader.accept(invocation.getArgument(0));
+            return null;
+        }).when(cursor).forEach(ArgumentMatchers.any());
+        return cursor;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ResourceConnectionUpdatedEvent updated(ResourceConnection connection) {
+        DocumentUpdateEntity<ResourceConnection> entity = Mockito.mock(DocumentUpdateEntity.class);
+        Mockito.when(entity.getNew()).thenReturn(connection);
+        return new ResourceConnectionUpdatedEvent(entity);
+    }
+
+    private static Domain domain(String name) {
+        Domain domain = new Domain();
+        domain.setDomainName(name);
+        domain.setNodes(name + "_nodes");
+        return domain;
+    }
+
+    private static ManagedResource node(Domain domain, String id) {
+        ManagedResource node = new ManagedResource(domain);
+        node.setId(id);
+        node.setKey(id);
+        return node;
+    }
+
+    private static ResourceConnection connection(Domain domain, String id, String from, String to, boolean up) {
+        ResourceConnection connection = new ResourceConnection(domain);
+        connection.setId(id);
+        connection.setFrom(node(domain, from));
+        connection.setTo(node(domain, to));
+        connection.setOperationalStatus(up ? "UP" : "DOWN");
+        connection.setCircuits(new ArrayList<>(CIRCUIT));
+        return connection;
+    }
+
+    private static int edge(CsrGraph graph, String name) {
+        for (int edge = 0; edge < graph.edgeCount(); edge++) {
+            if (name.equals(graph.edgeName(edge))) {
+                return edge;
+            }
+        }
+        return -1;
+    }
+
+    private static List<String> unreachable(CsrGraph graph) {
+        BitSet reached = CsrAlgorithms.reachable(graph);
+        List<String> result = new ArrayList<>();
+        for (int node = reached.nextClearBit(0); node < graph.nodeCount(); node = reached.nextClearBit(node + 1)) {
+            result.add(graph.name(node));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.manager.tests;
+
+import com.osstelecom.db.inventory.topology.csr.CsrGraph;
+import com.osstelecom.db.inventory.topology.csr.MinCut;
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.Random;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Caminhos disjuntos e corte mínimo entre dois pontos
+ *
+ * @author Lucas Nishimura <lucas.nishimura@gmail.com>
+ * @created 19.10.2026
+ */
+public class MinCutTest {
+
+    @Test
+    @DisplayName("Three disjoint paths between A and Z")
+    public void disjointPathsTest() {
+        CsrGraph.Builder builder = CsrGraph.builder();
+        for (String middle : new String[]{"x", "y", "w"}) {
+            builder.addEdge("a", middle, true);
+            builder.addEdge(middle, "z", true);
+        }
+        builder.addEdge("a", "x", true);
+        CsrGraph graph = builder.build();
+        int a = graph.indexOf("a");
+        int z = graph.indexOf("z");
+        MinCut edges = MinCut.edges(graph, a, z);
+        Assertions.assertEquals(3, edges.size());
+        Assertions.assertEquals(3, edges.cutEdges().cardinality());
+        MinCut nodes = MinCut.nodes(graph, a, z);
+        Assertions.assertEquals(3, nodes.size());
+        Assertions.assertEquals(3, nodes.cutNodes().cardinality());
+        Assertions.assertTrue(nodes.cutEdges().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Shared node is the vertex cut, direct link is cut as a link")
+    public void sharedNodeTest() {
+        CsrGraph.Builder builder = CsrGraph.builder();
+        builder.addEdge("a", "x", true);
+        builder.addEdge("a", "x", true);
+        builder.addEdge("x", "z", true);
+        builder.addEdge("x", "z", true);
+        int direct = builder.addEdge("a", "z", true);
+        builder.addEdge("a", "y", false);
+        builder.addEdge("y", "z", true);
+        CsrGraph graph = builder.build();
+        int a = graph.indexOf("a");
+        int z = graph.indexOf("z");
+        Assertions.assertEquals(3, MinCut.edges(graph, a, z).size());
+        MinCut nodes = MinCut.nodes(graph, a, z);
+        Assertions.assertEquals(2, nodes.size());
+        Assertions.assertEquals(BitSet.valueOf(new long[]{1L << graph.indexOf("x")}), nodes.cutNodes());
+        Assertions.assertTrue(nodes.cutEdges().get(direct));
+        Assertions.assertEquals(0, MinCut.edges(graph, a, graph.indexOf("missing")).size());
+    }
+
+    @Test
+    @DisplayName("Cuts match a brute force search on random graphs")
+    public void bruteForceTest() {
+        Random random = new Random(7);
+        for (int round = 0; round < 40; round++) {
+            CsrGraph.Builder builder = CsrGraph.builder();
+            int n = 4 + random.nextInt(6);
+            for (int v = 0; v < n; v++) {
+                builder.addNode("n" + v, false, random.nextInt(10) > 0);
+            }
+            int m = n + random.nextInt(8);
+            for (int e = 0; e < m; e++) {
+                builder.addEdge(random.nextInt(n), random.nextInt(n), random.nextInt(8) > 0);
+            }
+            CsrGraph graph = builder.build();
+            int s = random.nextInt(n);
+            int t = (s + 1 + random.nextInt(n - 1)) % n;
+
+            MinCut edges = MinCut.edges(graph, s, t);
+            Assertions.assertEquals(edges.size(), edges.cutEdges().cardinality());
+            Assertions.assertFalse(connected(graph, s, t, new BitSet(), edges.cutEdges()));
+            Assertions.assertEquals(bruteEdgeCut(graph, s, t), edges.size(), "round " + round);
+
+            MinCut nodes = MinCut.nodes(graph, s, t);
+            Assertions.assertEquals(nodes.size(), nodes.cutNodes().cardinality() + nodes.cutEdges().cardinality());
+            Assertions.assertFalse(connected(graph, s, t, nodes.cutNodes(), nodes.cutEdges()));
+            Assertions.assertEquals(bruteNodeCut(graph, s, t), nodes.size(), "round " + round);
+        }
+    }
+
+    private static int bruteEdgeCut(CsrGraph graph, int s, int t) {
+        int best = Integer.MAX_VALUE;
+        for (long mask = 0; mask < (1L << graph.edgeCount()); mask++) {
+            BitSet down = BitSet.valueOf(new long[]{mask});
+            if (down.cardinality() < best && !connected(graph, s, t, new BitSet(), down)) {
+                best = down.cardinality();
+            }
+        }
+        return best;
+    }
+
+    private static int bruteNodeCut(CsrGraph graph, int s, int t) {
+        BitSet direct = new BitSet();
+        for (int e = 0; e < graph.edgeCount(); e++) {
+            int u = graph.edgeSource(e);
+            int v = graph.edgeTarget(e);
+            if ((u == s && v == t) || (u == t && v == s)) {
+                direct.set(e);
+            }
+        }
+        int best = Integer.MAX_VALUE;
+        for (long mask = 0; mask < (1L << graph.nodeCount()); mask++) {
+            BitSet down = BitSet.valueOf(new long[]{mask});
+            if (down.get(s) || down.get(t)) {
+                continue;
+            }
+            if (!connected(graph, s, t, down, direct)) {
+                int size = down.cardinality() + count(graph, direct, s, t);
+                best = Math.min(best, size);
+            }
+        }
+        return best;
+    }
+
+    private static int count(CsrGraph graph, BitSet direct, int s, int t) {
+        int count = 0;
+        for (int e = direct.nextSetBit(0); e >= 0; e = direct.nextSetBit(e + 1)) {
+            if (graph.isEdgeActive(e) && graph.isActive(s) && graph.isActive(t)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static boolean connected(CsrGraph graph, int s, int t, BitSet downNodes, BitSet downEdges) {
+        if (!graph.isActive(s) || !graph.isActive(t)) {
+            return false;
+        }
+        BitSet seen = new BitSet();
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        seen.set(s);
+        queue.add(s);
+        while (!queue.isEmpty()) {
+            int v = queue.poll();
+            if (v == t) {
+                return true;
+            }
+            for (int slot = graph.firstSlot(v); slot < graph.endSlot(v); slot++) {
+                int u = graph.target(slot);
+                int e = graph.edgeAt(slot);
+                if (!seen.get(u) && graph.isActive(u) && graph.isEdgeActive(e)
+                        && !downNodes.get(u) && !downEdges.get(e)) {
+                    seen.set(u);
+                    queue.add(u);
+                }
+            }
+        }
+        return false;
+    }
+}
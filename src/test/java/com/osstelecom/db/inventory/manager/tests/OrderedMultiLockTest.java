@@ -0,0 +1,212 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.manager.tests;
+
+import com.osstelecom.db.inventory.manager.configuration.ConfigurationManager;
+import com.osstelecom.db.inventory.manager.exception.LockWaitTimeOutException;
+import com.osstelecom.db.inventory.manager.operation.LockProfiler;
+import com.osstelecom.db.inventory.manager.operation.OrderedMultiLock;
+import com.osstelecom.db.inventory.manager.operation.OrderedMultiLock.LockSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Stress do lock de circuit path: circuitos sobrepostos criados em paralelo,
+ * com as conexões pedidas em ordens diferentes
+ *
+ * @author Lucas Nishimura <lucas.nishimura@gmail.com>
+ * @created 19.10.2026
+ */
+public class OrderedMultiLockTest {
+
+    private static final int CONNECTIONS = 64;
+    private static final int THREADS = 32;
+    private static final int CIRCUITS_PER_THREAD = 500;
+
+    @Test
+    @DisplayName("Overlapping circuit paths in parallel, no deadlock and no lost update")
+    public void overlappingCircuitPathsTest() throws Exception {
+        //
+        // Poucas stripes para forçar colisão entre conexões distintas
+        //
+        OrderedMultiLock multiLock = new OrderedMultiLock(16);
+        int[] circuitsPerConnection = new int[CONNECTIONS];
+        AtomicInteger expected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            final long seed = t;
+            futures.add(executor.submit(() -> {
+                Random random = new Random(seed);
+                start.await();
+                for (int c = 0; c < CIRCUITS_PER_THREAD; c++) {
+                    List<String> path = randomPath(random);
+                    try (LockSet ignored = multiLock.lockAll(path, 30, TimeUnit.SECONDS)) {
+                        for (String connection : path) {
+                            int index = Integer.parseInt(connection.substring(connection.indexOf('/') + 1));
+                            //
+                            // read-modify-write sem sincronização própria
+                            //
+                            int current = circuitsPerConnection[index];
+                            Thread.yield();
+                            circuitsPerConnection[index] = current + 1;
+                        }
+                    }
+                    expected.addAndGet(path.size());
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(120, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        int total = 0;
+        for (int count : circuitsPerConnection) {
+            total += count;
+        }
+        Assertions.assertEquals(expected.get(), total);
+    }
+
+    @Test
+    @DisplayName("Timeout releases every lock already taken")
+    public void timeoutReleasesAllTest() throws Exception {
+        OrderedMultiLock multiLock = new OrderedMultiLock(1024);
+        List<String> path = List.of("ResourceConnection/1", "ResourceConnection/2", "ResourceConnection/3");
+        String blocked = "ResourceConnection/3";
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        Thread holder = new Thread(() -> {
+            try (LockSet ignored = multiLock.lockAll(List.of(blocked), 5, TimeUnit.SECONDS)) {
+                held.countDown();
+                done.await();
+            } catch (Exception ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+        holder.start();
+        held.await();
+        Assertions.assertThrows(LockWaitTimeOutException.class, () -> multiLock.lockAll(path, 300, TimeUnit.MILLISECONDS));
+        //
+        // As demais conexões do path não podem ter ficado travadas
+        //
+        ExecutorService other = Executors.newSingleThreadExecutor();
+        Future<Integer> free = other.submit(() -> {
+            try (LockSet locks = multiLock.lockAll(List.of("ResourceConnection/1", "ResourceConnection/2"), 1, TimeUnit.SECONDS)) {
+                return locks.size();
+            }
+        });
+        Assertions.assertTrue(free.get(5, TimeUnit.SECONDS) > 0);
+        done.countDown();
+        holder.join();
+        other.shutdown();
+    }
+
+    @Test
+    @DisplayName("Keys on the same stripe take a single lock")
+    public void sameStripeDedupTest() throws Exception {
+        OrderedMultiLock multiLock = new OrderedMultiLock(1);
+        try (LockSet locks = multiLock.lockAll(List.of("a", "b", "c", "a"), 1, TimeUnit.SECONDS)) {
+            Assertions.assertEquals(1, locks.size());
+        }
+    }
+
+    @Test
+    @DisplayName("Contention that ends before the deadline is not a timeout")
+    public void contentionIsNotTimeoutTest() throws Exception {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        LockProfiler lockProfiler = new LockProfiler();
+        ReflectionTestUtils.setField(lockProfiler, "meterRegistry", registry);
+        ReflectionTestUtils.setField(lockProfiler, "configurationManager", new ConfigurationManager());
+        OrderedMultiLock multiLock = new OrderedMultiLock(1, "circuitPath", lockProfiler);
+        CountDownLatch held = new CountDownLatch(1);
+        Thread holder = new Thread(() -> {
+            try (LockSet ignored = multiLock.lockAll(List.of("a"), 1, TimeUnit.SECONDS)) {
+                held.countDown();
+                //
+                // Segura por mais de uma fatia de espera
+                //
+                Thread.sleep(1200);
+            } catch (Exception ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+        holder.start();
+        held.await();
+        try (LockSet locks = multiLock.lockAll(List.of("b"), 10, TimeUnit.SECONDS)) {
+            Assertions.assertEquals(1, locks.size());
+        }
+        holder.join();
+        Assertions.assertEquals(0.0, registry.find("netcompass.lock.timeouts").counters().stream()
+                .mapToDouble(c -> c.count()).sum());
+        //
+        // Estourando o prazo conta exatamente um timeout
+        //
+        CountDownLatch heldAgain = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        Thread blocker = new Thread(() -> {
+            try (LockSet ignored = multiLock.lockAll(List.of("a"), 1, TimeUnit.SECONDS)) {
+                heldAgain.countDown();
+                done.await();
+            } catch (Exception ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+        blocker.start();
+        heldAgain.await();
+        Assertions.assertThrows(LockWaitTimeOutException.class, () -> multiLock.lockAll(List.of("b"), 700, TimeUnit.MILLISECONDS));
+        done.countDown();
+        blocker.join();
+        Assertions.assertEquals(1.0, registry.find("netcompass.lock.timeouts").counters().stream()
+                .mapToDouble(c -> c.count()).sum());
+    }
+
+    private static List<String> randomPath(Random random) {
+        int size = 2 + random.nextInt(8);
+        List<String> path = new ArrayList<>();
+        int first = random.nextInt(CONNECTIONS);
+        for (int i = 0; i < size; i++) {
+            path.add("ResourceConnection/" + ((first + i) % CONNECTIONS));
+        }
+        //
+        // Mesma sequência de conexões mas em ordens diferentes entre requests
+        //
+        if (random.nextBoolean()) {
+            Collections.reverse(path);
+        } else {
+            Collections.shuffle(path, random);
+        }
+        return path;
+    }
+}
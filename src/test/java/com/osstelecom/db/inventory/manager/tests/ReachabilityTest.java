@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.manager.tests;
+
+import com.osstelecom.db.inventory.topology.csr.CsrGraph;
+import com.osstelecom.db.inventory.topology.csr.Reachability;
+import java.util.BitSet;
+import java.util.Random;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Busca por nível com fronteira em bits, comparada com uma BFS simples
+ *
+ * @author Lucas Nishimura <lucas.nishimura@gmail.com>
+ * @created 19.10.2026
+ */
+public class ReachabilityTest {
+
+    @Test
+    @DisplayName("Small random graphs match a plain BFS")
+    public void smallGraphTest() {
+        Random random = new Random(11);
+        for (int round = 0; round < 50; round++) {
+            CsrGraph graph = randomGraph(random, 10 + random.nextInt(200), 2);
+            BitSet sources = randomSet(random, graph.nodeCount(), 3);
+            BitSet downNodes = randomSet(random, graph.nodeCount(), 5);
+            BitSet downEdges = randomSet(random, graph.edgeCount(), 5);
+            Assertions.assertEquals(bfs(graph, sources, null, null), Reachability.from(graph, sources));
+            Assertions.assertEquals(bfs(graph, sources, downNodes, downEdges),
+                    Reachability.from(graph, sources, downNodes, downEdges));
+        }
+    }
+
+    @Test
+    @DisplayName("Large graph runs in parallel and switches to bottom-up")
+    public void largeGraphTest() {
+        Random random = new Random(5);
+        CsrGraph graph = randomGraph(random, 200000, 4);
+        BitSet sources = new BitSet();
+        sources.set(0);
+        sources.set(12345);
+        BitSet downEdges = randomSet(random, graph.edgeCount(), 3);
+        Assertions.assertEquals(bfs(graph, sources, null, downEdges), Reachability.from(graph, sources, null, downEdges));
+    }
+
+    @Test
+    @DisplayName("Failure scenarios in one pass match one search per scenario")
+    public void scenariosTest() {
+        Random random = new Random(3);
+        CsrGraph graph = randomGraph(random, 500, 1);
+        BitSet sources = randomSet(random, graph.nodeCount(), 50);
+        BitSet[] downNodes = new BitSet[70];
+        BitSet[] downEdges = new BitSet[100];
+        for (int i = 0; i < downNodes.length; i++) {
+            downNodes[i] = randomSet(random, graph.nodeCount(), 20);
+        }
+        for (int i = 0; i < downEdges.length; i++) {
+            downEdges[i] = i % 7 == 0 ? null : randomSet(random, graph.edgeCount(), 20);
+        }
+        BitSet[] result = Reachability.underFailures(graph, sources, downNodes, downEdges);
+        Assertions.assertEquals(100, result.length);
+        for (int i = 0; i < result.length; i++) {
+            BitSet nodes = i < downNodes.length ? downNodes[i] : null;
+            Assertions.assertEquals(bfs(graph, sources, nodes, downEdges[i]), result[i], "scenario " + i);
+        }
+    }
+
+    private static CsrGraph randomGraph(Random random, int n, int degree) {
+        CsrGraph.Builder builder = CsrGraph.builder();
+        for (int v = 0; v < n; v++) {
+            builder.addNode("n" + v, false, random.nextInt(50) > 0);
+        }
+        for (int e = 0; e < n * degree / 2 + n / 2; e++) {
+            builder.addEdge(random.nextInt(n), random.nextInt(n), random.nextInt(30) > 0);
+        }
+        return builder.build();
+    }
+
+    private static BitSet randomSet(Random random, int size, int percent) {
+        BitSet result = new BitSet(size);
+        for (int i = 0; i < size; i++) {
+            if (random.nextInt(100) < percent) {
+                result.set(i);
+            }
+        }
+        return result;
+    }
+
+    private static BitSet bfs(CsrGraph graph, BitSet sources, BitSet downNodes, BitSet downEdges) {
+        BitSet reached = new BitSet();
+        int[] queue = new int[graph.nodeCount()];
+        int tail = 0;
+        for (int v = sources.nextSetBit(0); v >= 0; v = sources.nextSetBit(v + 1)) {
+            if (graph.isActive(v) && (downNodes == null || !downNodes.get(v))) {
+                reached.set(v);
+                queue[tail++] = v;
+            }
+        }
+        for (int head = 0; head < tail; head++) {
+            int v = queue[head];
+            for (int slot = graph.firstSlot(v); slot < graph.endSlot(v); slot++) {
+                int u = graph.target(slot);
+                int e = graph.edgeAt(slot);
+                if (!reached.get(u) && graph.isActive(u) && graph.isEdgeActive(e)
+                        && (downNodes == null || !downNodes.get(u)) && (downEdges == null || !downEdges.get(e))) {
+                    reached.set(u);
+                    queue[tail++] = u;
+                }
+            }
+        }
+        return reached;
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.manager.tests;
+
+import com.osstelecom.db.inventory.manager.configuration.ConfigurationManager;
+import com.osstelecom.db.inventory.manager.configuration.InventoryConfiguration;
+import com.osstelecom.db.inventory.manager.operation.ManagedExecutorService;
+import com.osstelecom.db.inventory.manager.resources.BasicResource;
+import com.osstelecom.db.inventory.manager.resources.ManagedResource;
+import com.osstelecom.db.inventory.manager.rules.RuleEngine;
+import com.osstelecom.db.inventory.manager.rules.RuleEvaluationResult;
+import com.osstelecom.db.inventory.manager.rules.RuleGovernor;
+import com.osstelecom.db.inventory.manager.session.DynamicRuleSession;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Avaliação de regras em lote pelo DynamicRuleSession
+ *
+ * @author Lucas Nishimura <lucas.nishimura@gmail.com>
+ * @created 19.10.2026
+ */
+public class RuleBatchEvaluationTest {
+
+    @TempDir
+    Path rulesDir;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    private DynamicRuleSession dynamicRuleSession;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() throws IOException {
+        write("location/City.groovy", "if (resource.name == 'bad') { throw new IllegalArgumentException('bad city') }\n"
+                + "resource.description = oper + ':' + resource.name");
+        write("location/Broken.groovy", "this is not groovy {");
+        InventoryConfiguration configuration = new InventoryConfiguration();
+        configuration.setRulesDir(this.rulesDir.toString());
+        configuration.setDynamicRulesEnabled(true);
+        ConfigurationManager configurationManager = new ConfigurationManager();
+        ReflectionTestUtils.setField(configurationManager, "configuration", configuration);
+        RuleGovernor ruleGovernor = new RuleGovernor();
+        ReflectionTestUtils.setField(ruleGovernor, "configurationManager", configurationManager);
+        ReflectionTestUtils.setField(ruleGovernor, "meterRegistry", new SimpleMeterRegistry());
+        RuleEngine ruleEngine = new RuleEngine();
+        ReflectionTestUtils.setField(ruleEngine, "configurationManager", configurationManager);
+        ReflectionTestUtils.setField(ruleEngine, "ruleGovernor", ruleGovernor);
+        ReflectionTestUtils.invokeMethod(ruleEngine, "initEngine");
+        ManagedExecutorService managedExecutorService = Mockito.mock(ManagedExecutorService.class);
+        Mockito.when(managedExecutorService.getPoolSize(ManagedExecutorService.Pool.RULES)).thenReturn(4);
+        Mockito.when(managedExecutorService.submit(ArgumentMatchers.eq(ManagedExecutorService.Pool.RULES), ArgumentMatchers.any(Callable.class)))
+                .thenAnswer(invocation -> this.executor.submit((Callable<Object>) invocation.getArgument(1)));
+        this.dynamicRuleSession = new DynamicRuleSession();
+        ReflectionTestUtils.setField(this.dynamicRuleSession, "configurationManager", configurationManager);
+        ReflectionTestUtils.setField(this.dynamicRuleSession, "ruleEngine", ruleEngine);
+        ReflectionTestUtils.setField(this.dynamicRuleSession, "managedExecutorService", managedExecutorService);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Batch results keep the input order and report each item")
+    public void sequentialTest() {
+        List<BasicResource> resources = new ArrayList<>();
+        resources.add(resource("location.City", "sp"));
+        resources.add(resource("location.Broken", "x"));
+        resources.add(resource("location.City", "bad"));
+        resources.add(resource("location.State", "rj"));
+        resources.add(resource("location.City", "rio"));
+        List<RuleEvaluationResult> results = this.dynamicRuleSession.evalResources(resources, "I", null, false);
+        Assertions.assertEquals(5, results.size());
+        Assertions.assertEquals(RuleEvaluationResult.Status.OK, results.get(0).getStatus());
+        Assertions.assertEquals(RuleEvaluationResult.Status.FAILED, results.get(1).getStatus());
+        Assertions.assertEquals(RuleEvaluationResult.Status.FAILED, results.get(2).getStatus());
+        Assertions.assertEquals(RuleEvaluationResult.Status.NO_RULE, results.get(3).getStatus());
+        Assertions.assertEquals(RuleEvaluationResult.Status.OK, results.get(4).getStatus());
+        Assertions.assertEquals("I:rio", resources.get(4).getDescription());
+        Assertions.assertEquals(4, results.get(4).getIndex());
+    }
+
+    @Test
+    @DisplayName("Parallel batch evaluates every item once")
+    public void parallelTest() {
+        List<BasicResource> resources = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            resources.add(resource("location.City", "city-" + i));
+        }
+        List<RuleEvaluationResult> results = this.dynamicRuleSession.evalResources(resources, "U", null, true);
+        Assertions.assertTrue(results.stream().noneMatch(RuleEvaluationResult::isFailed));
+        Assertions.assertEquals(resources.stream().map(r -> "U:" + r.getName()).collect(Collectors.toList()),
+                resources.stream().map(BasicResource::getDescription).collect(Collectors.toList()));
+    }
+
+    @Test
+    @DisplayName("Interrupted batch reports the chunks that did not run as failed")
+    @SuppressWarnings("unchecked")
+    public void interruptedTest() {
+        ManagedExecutorService stalled = Mockito.mock(ManagedExecutorService.class);
+        Mockito.when(stalled.getPoolSize(ManagedExecutorService.Pool.RULES)).thenReturn(4);
+        Mockito.when(stalled.submit(ArgumentMatchers.eq(ManagedExecutorService.Pool.RULES), ArgumentMatchers.any(Callable.class)))
+                .thenAnswer(invocation -> new CompletableFuture<>());
+        ReflectionTestUtils.setField(this.dynamicRuleSession, "managedExecutorService", stalled);
+        List<BasicResource> resources = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            resources.add(resource("location.City", "city-" + i));
+        }
+        Thread.currentThread().interrupt();
+        List<RuleEvaluationResult> results = this.dynamicRuleSession.evalResources(resources, "U", null, true);
+        Assertions.assertTrue(Thread.interrupted());
+        Assertions.assertTrue(results.stream().allMatch(r -> r.isFailed() && "interrupted".equals(r.getError())));
+    }
+
+    @Test
+    @DisplayName("A chunk that fails outside the rule reports its items as failed")
+    @SuppressWarnings("unchecked")
+    public void failedChunkTest() {
+        ManagedExecutorService failing = Mockito.mock(ManagedExecutorService.class);
+        Mockito.when(failing.getPoolSize(ManagedExecutorService.Pool.RULES)).thenReturn(4);
+        Mockito.when(failing.submit(ArgumentMatchers.eq(ManagedExecutorService.Pool.RULES), ArgumentMatchers.any(Callable.class)))
+                .thenAnswer(invocation -> CompletableFuture.failedFuture(new StackOverflowError()));
+        ReflectionTestUtils.setField(this.dynamicRuleSession, "managedExecutorService", failing);
+        List<BasicResource> resources = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            resources.add(resource("location.City", "city-" + i));
+        }
+        List<RuleEvaluationResult> results = this.dynamicRuleSession.evalResources(resources, "U", null, true);
+        Assertions.assertTrue(results.stream().allMatch(r -> r.isFailed() && r.getError().contains("StackOverflowError")));
+    }
+
+    private static BasicResource resource(String className, String name) {
+        ManagedResource resource = new ManagedResource();
+        resource.setClassName(className);
+        resource.setName(name);
+        resource.setKey(name);
+        return resource;
+    }
+
+    private void write(String path, String source) throws IOException {
+        Path file = this.rulesDir.resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.write(file, source.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.manager.tests;
+
+import com.osstelecom.db.inventory.manager.configuration.ConfigurationManager;
+import com.osstelecom.db.inventory.manager.configuration.InventoryConfiguration;
+import com.osstelecom.db.inventory.manager.exception.ScriptRuleException;
+import com.osstelecom.db.inventory.manager.rules.CompiledRule;
+import com.osstelecom.db.inventory.manager.rules.RuleEngine;
+import com.osstelecom.db.inventory.manager.rules.RuleGovernor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Compilação, cache e execução concorrente das regras groovy
+ *
+ * @author Lucas Nishimura <lucas.nishimura@gmail.com>
+ * @created 19.10.2026
+ */
+public class RuleEngineTest {
+
+    @TempDir
+    Path rulesDir;
+
+    private RuleEngine ruleEngine;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        InventoryConfiguration configuration = new InventoryConfiguration();
+        configuration.setRulesDir(this.rulesDir.toString());
+        configuration.setRuleRecheckInterval(0L);
+        ConfigurationManager configurationManager = new ConfigurationManager();
+        ReflectionTestUtils.setField(configurationManager, "configuration", configuration);
+        RuleGovernor ruleGovernor = new RuleGovernor();
+        ReflectionTestUtils.setField(ruleGovernor, "configurationManager", configurationManager);
+        ReflectionTestUtils.setField(ruleGovernor, "meterRegistry", new SimpleMeterRegistry());
+        this.ruleEngine = new RuleEngine();
+        ReflectionTestUtils.setField(this.ruleEngine, "configurationManager", configurationManager);
+        ReflectionTestUtils.setField(this.ruleEngine, "ruleGovernor", ruleGovernor);
+        ReflectionTestUtils.invokeMethod(this.ruleEngine, "initEngine");
+    }
+
+    @Test
+    @DisplayName("Literal includes are compiled with the rule and run in the same context")
+    public void includeTest() throws Exception {
+        write("location/City.groovy", "context.seen = [resource]\ncontext.include = 'location/Default.groovy'");
+        write("location/Default.groovy", "context.seen << 'default'\nresource.add(context.seen.size())");
+        CompiledRule rule = this.ruleEngine.resolve(RuleEngine.scriptPathOf("location.City"));
+        Assertions.assertEquals(Collections.singletonList("location/Default.groovy"), rule.getIncludes());
+        Assertions.assertSame(this.ruleEngine.resolve("location/Default.groovy").getScriptClass(),
+                this.ruleEngine.resolve("location/Default.groovy").getScriptClass());
+        List<Object> resource = new ArrayList<>();
+        this.ruleEngine.run(rule, variables(resource));
+        Assertions.assertEquals(Collections.singletonList(2), resource);
+    }
+
+    @Test
+    @DisplayName("Missing rules are cached and a changed file is recompiled")
+    public void recompileTest() throws Exception {
+        Assertions.assertFalse(this.ruleEngine.resolve("Default.groovy").exists());
+        Path file = write("Default.groovy", "resource.add('v1')");
+        CompiledRule first = this.ruleEngine.resolve("Default.groovy");
+        Assertions.assertSame(first, this.ruleEngine.resolve("Default.groovy"));
+        write("Default.groovy", "resource.add('v2')");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(first.getLastModified() + 1000L));
+        List<Object> resource = new ArrayList<>();
+        this.ruleEngine.run(this.ruleEngine.resolve("Default.groovy"), variables(resource));
+        Assertions.assertEquals(Collections.singletonList("v2"), resource);
+    }
+
+    @Test
+    @DisplayName("Concurrent runs of the same rule do not share variables")
+    public void concurrentTest() throws Exception {
+        write("Default.groovy", "context.mine = resource\nThread.sleep(1)\nassert context.mine.is(resource)\nresource.add(oper)");
+        CompiledRule rule = this.ruleEngine.resolve("Default.groovy");
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<List<Object>>> results = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                String oper = "op" + i;
+                results.add(executor.submit(() -> {
+                    List<Object> resource = new ArrayList<>();
+                    Map<String, Object> variables = variables(resource);
+                    variables.put("oper", oper);
+                    this.ruleEngine.run(rule, variables);
+                    return resource;
+                }));
+            }
+            for (int i = 0; i < results.size(); i++) {
+                Assertions.assertEquals(Collections.singletonList("op" + i), results.get(i).get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Include loops are stopped")
+    public void includeLoopTest() throws Exception {
+        write("Default.groovy", "context.include = 'Default.groovy'");
+        Assertions.assertThrows(ScriptRuleException.class,
+                () -> this.ruleEngine.run(this.ruleEngine.resolve("Default.groovy"), variables(new ArrayList<>())));
+    }
+
+    private static Map<String, Object> variables(List<Object> resource) {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("resource", resource);
+        variables.put("oper", "I");
+        return variables;
+    }
+
+    private Path write(String path, String source) throws IOException {
+        Path file = this.rulesDir.resolve(path);
+        Files.createDirectories(file.getParent());
+        return Files.write(file, source.getBytes(StandardCharsets.UTF_8));
+    }
+}
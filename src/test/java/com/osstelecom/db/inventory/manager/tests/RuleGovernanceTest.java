@@ -0,0 +1,195 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.manager.tests;
+
+import com.osstelecom.db.inventory.manager.configuration.ConfigurationManager;
+import com.osstelecom.db.inventory.manager.configuration.InventoryConfiguration;
+import com.osstelecom.db.inventory.manager.configuration.RulePolicyConfiguration;
+import com.osstelecom.db.inventory.manager.exception.RuleBudgetException;
+import com.osstelecom.db.inventory.manager.exception.ScriptRuleException;
+import com.osstelecom.db.inventory.manager.rules.RuleEngine;
+import com.osstelecom.db.inventory.manager.rules.RuleGovernor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Timeouts, limites de iterações, métricas e circuit breaker das regras
+ *
+ * @author Lucas Nishimura <lucas.nishimura@gmail.com>
+ * @created 19.10.2026
+ */
+public class RuleGovernanceTest {
+
+    @TempDir
+    Path rulesDir;
+
+    private RuleEngine ruleEngine;
+
+    private RuleGovernor ruleGovernor;
+
+    private RulePolicyConfiguration policy;
+
+    @BeforeEach
+    public void setUp() {
+        this.policy = new RulePolicyConfiguration(200L, 2, 60000L, "REJECT");
+        InventoryConfiguration configuration = new InventoryConfiguration();
+        configuration.setRulesDir(this.rulesDir.toString());
+        configuration.setRuleRecheckInterval(0L);
+        configuration.getRulePolicies().put("Slow.groovy", this.policy);
+        ConfigurationManager configurationManager = new ConfigurationManager();
+        ReflectionTestUtils.setField(configurationManager, "configuration", configuration);
+        this.ruleGovernor = new RuleGovernor();
+        ReflectionTestUtils.setField(this.ruleGovernor, "configurationManager", configurationManager);
+        ReflectionTestUtils.setField(this.ruleGovernor, "meterRegistry", new SimpleMeterRegistry());
+        this.ruleEngine = new RuleEngine();
+        ReflectionTestUtils.setField(this.ruleEngine, "configurationManager", configurationManager);
+        ReflectionTestUtils.setField(this.ruleEngine, "ruleGovernor", this.ruleGovernor);
+        ReflectionTestUtils.invokeMethod(this.ruleEngine, "initEngine");
+    }
+
+    @Test
+    @DisplayName("An endless loop is interrupted by the policy timeout")
+    public void timeoutTest() throws Exception {
+        write("Slow.groovy", "while (true) { resource.size() }");
+        long start = System.currentTimeMillis();
+        ScriptRuleException ex = Assertions.assertThrows(ScriptRuleException.class, () -> this.run("Slow.groovy"));
+        Assertions.assertTrue(ex.getMessage().contains("Timed Out"));
+        Assertions.assertTrue(System.currentTimeMillis() - start < 5000L);
+        Assertions.assertEquals(1L, this.stats("Slow.groovy").get("invocations"));
+    }
+
+    @Test
+    @DisplayName("Loop guard stops loops and closures over the iteration budget")
+    public void loopGuardTest() throws Exception {
+        this.policy.setTimeout(0L);
+        this.policy.setMaxLoopIterations(100L);
+        write("Slow.groovy", "(1..50).each { resource.add(it) }\nfor (int i = 0; i < 10; i++) { resource.add(i) }");
+        List<Object> resource = new ArrayList<>();
+        this.ruleEngine.run(this.ruleEngine.resolve("Slow.groovy"), variables(resource));
+        Assertions.assertEquals(60, resource.size());
+        write("Slow.groovy", "(1..101).each { resource.add(it) }");
+        touch("Slow.groovy");
+        Assertions.assertThrows(RuleBudgetException.class, () -> this.run("Slow.groovy"));
+    }
+
+    @Test
+    @DisplayName("Rule rejections keep the circuit closed, unexpected errors open it and the rule is rejected")
+    public void circuitBreakerTest() throws Exception {
+        //
+        // Uma carga de recursos inválidos não pode desligar a validação
+        //
+        write("Slow.groovy", "throw new " + ScriptRuleException.class.getName() + "('Invalid Resource')");
+        for (int i = 0; i < 5; i++) {
+            ScriptRuleException ex = Assertions.assertThrows(ScriptRuleException.class, () -> this.run("Slow.groovy"));
+            Assertions.assertEquals("Invalid Resource", ex.getMessage());
+        }
+        Assertions.assertEquals("CLOSED", this.stats("Slow.groovy").get("circuit"));
+        Assertions.assertEquals(0.0D, this.stats("Slow.groovy").get("errorRate"));
+
+        write("Slow.groovy", "resource.add(1)\nthrow new IllegalStateException('broken')");
+        touch("Slow.groovy");
+        Assertions.assertThrows(ScriptRuleException.class, () -> this.run("Slow.groovy"));
+        Assertions.assertThrows(ScriptRuleException.class, () -> this.run("Slow.groovy"));
+        Assertions.assertEquals("OPEN", this.stats("Slow.groovy").get("circuit"));
+
+        //
+        // REJECT é o default: com o breaker aberto a transação falha
+        //
+        List<Object> resource = new ArrayList<>();
+        ScriptRuleException ex = Assertions.assertThrows(ScriptRuleException.class,
+                () -> this.ruleEngine.run(this.ruleEngine.resolve("Slow.groovy"), variables(resource)));
+        Assertions.assertTrue(ex.getMessage().contains("Circuit Breaker"));
+        Assertions.assertTrue(resource.isEmpty());
+        Assertions.assertEquals(1L, this.stats("Slow.groovy").get("rejected"));
+
+        this.policy.setWhenOpen("SKIP");
+        this.ruleEngine.run(this.ruleEngine.resolve("Slow.groovy"), variables(resource));
+        Assertions.assertTrue(resource.isEmpty());
+        Assertions.assertEquals(2L, this.stats("Slow.groovy").get("rejected"));
+
+        this.ruleGovernor.reset("Slow.groovy");
+        Assertions.assertEquals("CLOSED", this.stats("Slow.groovy").get("circuit"));
+        Assertions.assertEquals(2D / 7D, (Double) this.stats("Slow.groovy").get("errorRate"), 1e-9);
+    }
+
+    @Test
+    @DisplayName("An Error thrown by the rule is a failure and resolves the half open trial")
+    public void errorTrialTest() throws Exception {
+        //
+        // openInterval zero: toda chamada com o breaker aberto é uma execução
+        // de teste
+        //
+        this.policy.setOpenInterval(0L);
+        write("Slow.groovy", "assert resource.size() > 0");
+        for (int i = 0; i < 2; i++) {
+            ScriptRuleException ex = Assertions.assertThrows(ScriptRuleException.class, () -> this.run("Slow.groovy"));
+            Assertions.assertTrue(ex.getCause() instanceof AssertionError);
+        }
+        Assertions.assertEquals("OPEN", this.stats("Slow.groovy").get("circuit"));
+        for (int i = 0; i < 2; i++) {
+            ScriptRuleException ex = Assertions.assertThrows(ScriptRuleException.class, () -> this.run("Slow.groovy"));
+            Assertions.assertFalse(ex.getMessage().contains("Circuit Breaker"));
+        }
+        List<Object> resource = new ArrayList<>();
+        resource.add(1);
+        this.ruleEngine.run(this.ruleEngine.resolve("Slow.groovy"), variables(resource));
+        Assertions.assertEquals("CLOSED", this.stats("Slow.groovy").get("circuit"));
+        Assertions.assertEquals(0L, this.stats("Slow.groovy").get("rejected"));
+    }
+
+    private void run(String scriptPath) throws ScriptRuleException {
+        this.ruleEngine.run(this.ruleEngine.resolve(scriptPath), variables(new ArrayList<>()));
+    }
+
+    private Map<String, Object> stats(String scriptPath) {
+        return this.ruleGovernor.dumpStats().stream()
+                .filter(s -> scriptPath.equals(s.get("rule")))
+                .findFirst()
+                .orElseThrow(IllegalStateException::new);
+    }
+
+    private static Map<String, Object> variables(List<Object> resource) {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("resource", resource);
+        variables.put("oper", "I");
+        return variables;
+    }
+
+    private void write(String path, String source) throws IOException {
+        Files.write(this.rulesDir.resolve(path), source.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void touch(String path) throws IOException {
+        Path file = this.rulesDir.resolve(path);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 1000L));
+    }
+}
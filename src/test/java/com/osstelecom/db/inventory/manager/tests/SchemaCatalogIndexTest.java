@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.manager.tests;
+
+import com.osstelecom.db.inventory.manager.resources.model.ResourceSchemaModel;
+import com.osstelecom.db.inventory.manager.schema.SchemaCatalogIndex;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+
+/**
+ * Trie, herança e listagem paginada do catálogo de schemas
+ *
+ * @author Lucas Nishimura <lucas.nishimura@gmail.com>
+ * @created 19.10.2026
+ */
+public class SchemaCatalogIndexTest {
+
+    private SchemaCatalogIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        Map<String, ResourceSchemaModel> schemas = new HashMap<>();
+        add(schemas, "default", ".", null);
+        add(schemas, "resource.default", "default", "bob");
+        add(schemas, "resource.router", "resource.default", "alice");
+        add(schemas, "resource.router.edge", "resource/router", "carol");
+        add(schemas, "resource.switch", "resource.default", null);
+        add(schemas, "location.default", "default", "alice");
+        add(schemas, "location.site", "location.default", "bob");
+        this.index = SchemaCatalogIndex.of(schemas, 1L);
+    }
+
+    @Test
+    @DisplayName("Prefix lookup returns sorted listable names only")
+    public void prefixTest() {
+        Assertions.assertEquals(Arrays.asList("location.default", "location.site", "resource.default",
+                "resource.router", "resource.router.edge", "resource.switch"), this.index.names());
+        Assertions.assertEquals(Arrays.asList("resource.router", "resource.router.edge"),
+                this.index.namesStartingWith("resource.ro"));
+        Assertions.assertEquals(Collections.singletonList("resource.router.edge"),
+                this.index.namesStartingWith("resource.router."));
+        Assertions.assertTrue(this.index.namesStartingWith("resource.x").isEmpty());
+        Assertions.assertTrue(this.index.namesStartingWith("default").isEmpty());
+        Assertions.assertEquals(Arrays.asList("resource.default", "resource.router"), this.index.autocomplete("res", 2));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> this.index.names().add("x"));
+    }
+
+    @Test
+    @DisplayName("Children, ancestors and descendants follow fromSchema")
+    public void inheritanceTest() {
+        Assertions.assertEquals(Arrays.asList("resource.router", "resource.switch"), this.index.children("resource.default"));
+        Assertions.assertEquals(Arrays.asList("resource.router", "resource.default", "default"),
+                this.index.ancestors("resource.router.edge"));
+        Assertions.assertTrue(this.index.ancestors("default").isEmpty());
+        Assertions.assertEquals(Arrays.asList("location.default", "resource.default", "location.site",
+                "resource.router", "resource.switch", "resource.router.edge"), this.index.descendants("default"));
+    }
+
+    @Test
+    @DisplayName("Listing pages over presorted views with filters and direction")
+    public void listTest() {
+        Page<ResourceSchemaModel> page = this.index.list(null, "*", "author", "asc", 0, 3);
+        Assertions.assertEquals(6, page.getTotalElements());
+        Assertions.assertEquals(Arrays.asList("resource.switch", "location.default", "resource.router"), names(page));
+
+        page = this.index.list(null, null, "unknown", "desc", 1, 4);
+        Assertions.assertEquals(Arrays.asList("location.site", "location.default"), names(page));
+
+        page = this.index.list("resource", "ro", "schemaName", "desc", 0, 10);
+        Assertions.assertEquals(Arrays.asList("resource.router.edge", "resource.router"), names(page));
+        Assertions.assertEquals(2, page.getTotalElements());
+        Assertions.assertEquals(new Date(0), page.getContent().get(0).getCreationDate());
+    }
+
+    private static List<String> names(Page<ResourceSchemaModel> page) {
+        return page.getContent().stream().map(ResourceSchemaModel::getSchemaName).collect(Collectors.toList());
+    }
+
+    private static void add(Map<String, ResourceSchemaModel> schemas, String name, String fromSchema, String author) {
+        ResourceSchemaModel model = new ResourceSchemaModel();
+        model.setSchemaName(name);
+        model.setFromSchema(fromSchema);
+        model.setAuthor(author);
+        schemas.put(name, model);
+    }
+}
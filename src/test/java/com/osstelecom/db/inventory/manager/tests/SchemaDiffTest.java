@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.manager.tests;
+
+import com.osstelecom.db.inventory.manager.configuration.ConfigurationManager;
+import com.osstelecom.db.inventory.manager.resources.model.ResourceAttributeModel;
+import com.osstelecom.db.inventory.manager.resources.model.ResourceSchemaModel;
+import com.osstelecom.db.inventory.manager.schema.SchemaDiff;
+import com.osstelecom.db.inventory.manager.schema.SchemaMigrationPlan;
+import com.osstelecom.db.inventory.manager.schema.SchemaRevision;
+import com.osstelecom.db.inventory.manager.schema.SchemaValidatorCompiler;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Diff entre revisões de schema e a migração mínima resultante
+ *
+ * @author Lucas Nishimura <lucas.nishimura@gmail.com>
+ * @created 19.10.2026
+ */
+public class SchemaDiffTest {
+
+    private final SchemaValidatorCompiler compiler = new SchemaValidatorCompiler();
+
+    @BeforeEach
+    public void setUp() {
+        ReflectionTestUtils.setField(this.compiler, "configurationManager", new ConfigurationManager());
+    }
+
+    @Test
+    @DisplayName("Description only change is a no-op")
+    public void descriptionChangeTest() {
+        ResourceSchemaModel before = schema(attribute("hostname", "String", false, null));
+        ResourceSchemaModel after = schema(attribute("hostname", "String", false, null));
+        after.getAttributes().get("hostname").setDescription("Nome do equipamento");
+        Assertions.assertTrue(this.diff(before, after).isNoop());
+    }
+
+    @Test
+    @DisplayName("New attribute with default is filled on the server, without default it is ignored")
+    public void addedAttributeTest() {
+        ResourceSchemaModel before = schema(attribute("hostname", "String", false, null));
+        ResourceSchemaModel after = schema(attribute("hostname", "String", false, null),
+                attribute("vendor", "String", false, "Huawei"),
+                attribute("serial", "String", false, null));
+        SchemaMigrationPlan plan = this.diff(before, after);
+        Assertions.assertEquals(Collections.singletonMap("vendor", "Huawei"), plan.getDefaults());
+        Assertions.assertFalse(plan.needsRevalidation());
+    }
+
+    @Test
+    @DisplayName("New required attribute without default revalidates documents missing it")
+    public void addedRequiredAttributeTest() {
+        ResourceSchemaModel before = schema(attribute("hostname", "String", false, null));
+        ResourceSchemaModel after = schema(attribute("hostname", "String", false, null),
+                attribute("site", "String", true, null));
+        SchemaMigrationPlan plan = this.diff(before, after);
+        Assertions.assertEquals(Collections.singletonList("site"), plan.getRevalidateMissing());
+        Assertions.assertTrue(plan.getDefaults().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Removed attribute is removed, type change revalidates documents having it")
+    public void removedAndChangedAttributeTest() {
+        ResourceSchemaModel before = schema(attribute("hostname", "String", false, null),
+                attribute("slots", "String", false, null));
+        ResourceSchemaModel after = schema(attribute("slots", "Number", false, null));
+        SchemaMigrationPlan plan = this.diff(before, after);
+        Assertions.assertEquals(Collections.singletonList("hostname"), plan.getRemoved());
+        Assertions.assertEquals(Collections.singletonList("slots"), plan.getRevalidatePresent());
+        Assertions.assertTrue(plan.getRevalidateMissing().isEmpty());
+        Assertions.assertFalse(plan.getFull());
+    }
+
+    @Test
+    @DisplayName("Unknown previous revision or allowAll change revalidates everything")
+    public void fullRevalidationTest() {
+        ResourceSchemaModel after = schema(attribute("hostname", "String", false, null));
+        Assertions.assertTrue(this.diff(null, after).getFull());
+        ResourceSchemaModel before = schema(attribute("hostname", "String", false, null));
+        before.setAllowAll(true);
+        Assertions.assertTrue(this.diff(before, after).getFull());
+    }
+
+    @Test
+    @DisplayName("Values with the same String.hashCode are still a change")
+    public void hashCollisionTest() {
+        //
+        // "Aa" e "BB" têm o mesmo hashCode
+        //
+        ResourceSchemaModel before = schema(attribute("vendor", "String", false, "Aa"));
+        ResourceSchemaModel after = schema(attribute("vendor", "String", false, "BB"));
+        Assertions.assertEquals(Collections.singletonMap("vendor", "BB"), this.diff(before, after).getDefaults());
+        Assertions.assertFalse(SchemaRevision.sameSchema(before, after));
+        Assertions.assertNotEquals(SchemaRevision.of(before), SchemaRevision.of(after));
+        Assertions.assertNotSame(this.compiler.compile(before), this.compiler.compile(after));
+
+        before.getAttributes().get("vendor").setAllowedValues(Collections.singletonList("Aa"));
+        after.getAttributes().get("vendor").setDefaultValue("Aa");
+        after.getAttributes().get("vendor").setAllowedValues(Collections.singletonList("BB"));
+        Assertions.assertNotEquals(SchemaRevision.of(before), SchemaRevision.of(after));
+        Assertions.assertFalse(this.diff(before, after).isNoop());
+    }
+
+    private SchemaMigrationPlan diff(ResourceSchemaModel before, ResourceSchemaModel after) {
+        return SchemaDiff.between(before, after, this.compiler.compile(after));
+    }
+
+    private static ResourceSchemaModel schema(ResourceAttributeModel... attributes) {
+        ResourceSchemaModel model = new ResourceSchemaModel();
+        model.setSchemaName("resource.test");
+        model.setAllowAll(false);
+        HashMap<String, ResourceAttributeModel> map = new HashMap<>();
+        Arrays.stream(attributes).forEach(attribute -> map.put(attribute.getName(), attribute));
+        model.setAttributes(map);
+        return model;
+    }
+
+    private static ResourceAttributeModel attribute(String name, String type, boolean required, String defaultValue) {
+        ResourceAttributeModel attribute = new ResourceAttributeModel();
+        attribute.setName(name);
+        attribute.setVariableType(type);
+        attribute.setRequired(required);
+        attribute.setDefaultValue(defaultValue);
+        attribute.setValidate(false);
+        return attribute;
+    }
+}
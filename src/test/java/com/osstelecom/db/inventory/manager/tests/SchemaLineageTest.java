@@ -0,0 +1,165 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.manager.tests;
+
+import com.osstelecom.db.inventory.manager.configuration.ConfigurationManager;
+import com.osstelecom.db.inventory.manager.resources.model.ResourceSchemaModel;
+import com.osstelecom.db.inventory.manager.schema.CompiledSchemaValidator;
+import com.osstelecom.db.inventory.manager.schema.SchemaLineage;
+import com.osstelecom.db.inventory.manager.schema.SchemaReferenceCodec;
+import com.osstelecom.db.inventory.manager.schema.SchemaRegistry;
+import com.osstelecom.db.inventory.manager.schema.SchemaValidatorCompiler;
+import com.osstelecom.db.inventory.manager.session.UtilSession;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Herança achatada do SchemaRegistry e a origem de cada atributo
+ *
+ * @author Lucas Nishimura <lucas.nishimura@gmail.com>
+ * @created 19.10.2026
+ */
+public class SchemaLineageTest {
+
+    @TempDir
+    Path schemaDir;
+
+    private SchemaRegistry registry;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        write("default", ".", "name", "description");
+        write("resource.default", "default", "description", "vendor");
+        write("resource.router", "resource/default", "model");
+        write("resource.router.edge", "resource.router", "vendor", "uplinks");
+        this.registry = new SchemaRegistry();
+        ReflectionTestUtils.setField(this.registry, "utilSession", new UtilSession());
+        ReflectionTestUtils.setField(this.registry, "schemaDir", this.schemaDir);
+        SchemaValidatorCompiler compiler = new SchemaValidatorCompiler();
+        ReflectionTestUtils.setField(compiler, "configurationManager", new ConfigurationManager());
+        ReflectionTestUtils.setField(this.registry, "schemaValidatorCompiler", compiler);
+        this.registry.reloadAll();
+    }
+
+    @Test
+    @DisplayName("Flattened schema has every ancestor attribute and the nearest definition wins")
+    public void flattenTest() throws Exception {
+        ResourceSchemaModel edge = this.registry.get("resource.router.edge");
+        Assertions.assertEquals(Arrays.asList("description", "model", "name", "uplinks", "vendor"),
+                edge.getAttributes().keySet().stream().sorted().collect(Collectors.toList()));
+        Assertions.assertEquals("resource.router.model", edge.getAttributes().get("model").getId());
+        Assertions.assertEquals("resource.default.description", edge.getAttributes().get("description").getId());
+        Assertions.assertEquals("edge vendor", edge.getAttributes().get("vendor").getDescription());
+        Assertions.assertNotSame(this.registry.get("resource.router").getAttributes().get("model"),
+                edge.getAttributes().get("model"));
+        Assertions.assertEquals(Collections.singletonList("resource.router.edge"),
+                this.registry.get("resource.router").getChildrenSchemas());
+    }
+
+    @Test
+    @DisplayName("Lineage records who defined and who overrode each attribute")
+    public void provenanceTest() throws Exception {
+        SchemaLineage lineage = this.registry.getLineage("resource/router/edge");
+        Assertions.assertEquals(Arrays.asList("resource.router", "resource.default", "default"), lineage.getAncestors());
+        Assertions.assertEquals(Arrays.asList("resource.router.edge", "resource.default"), lineage.getAttributes().get("vendor"));
+        Assertions.assertEquals(Arrays.asList("resource.default", "default"), lineage.getAttributes().get("description"));
+        Assertions.assertEquals("default", lineage.definedBy("name"));
+        Assertions.assertTrue(lineage.isOverridden("description"));
+        Assertions.assertFalse(lineage.isOverridden("model"));
+    }
+
+    @Test
+    @DisplayName("Changing a parent rebuilds its subtree only")
+    public void subtreeReloadTest() throws Exception {
+        ResourceSchemaModel location = writeAndLoad("location.default", "default", "site");
+        ResourceSchemaModel router = this.registry.get("resource.router");
+        write("resource.default", "default", "description", "vendor", "serial");
+        this.registry.reload(Collections.singletonList("resource.default"));
+        Assertions.assertEquals("resource.default", this.registry.getLineage("resource.router.edge").definedBy("serial"));
+        Assertions.assertTrue(this.registry.get("resource.router").getAttributes().containsKey("serial"));
+        Assertions.assertNotSame(router, this.registry.get("resource.router"));
+        Assertions.assertSame(location, this.registry.get("location.default"));
+    }
+
+    @Test
+    @DisplayName("childrenSchemas lists direct children and follows deletes and re-parenting")
+    public void childrenTest() throws Exception {
+        Assertions.assertEquals(Collections.singletonList("resource.router"),
+                this.registry.get("resource.default").getChildrenSchemas());
+        writeAndLoad("resource.switch", "resource.router", "ports");
+        Assertions.assertEquals(Arrays.asList("resource.router.edge", "resource.switch"),
+                this.registry.get("resource.router").getChildrenSchemas());
+        writeAndLoad("resource.switch", "resource.default", "ports");
+        Assertions.assertEquals(Collections.singletonList("resource.router.edge"),
+                this.registry.get("resource.router").getChildrenSchemas());
+        Assertions.assertEquals(Arrays.asList("resource.router", "resource.switch"),
+                this.registry.get("resource.default").getChildrenSchemas());
+        Files.delete(this.schemaDir.resolve("resource/router/edge.json"));
+        this.registry.reload(Collections.singletonList("resource.router.edge"));
+        Assertions.assertTrue(this.registry.get("resource.router").getChildrenSchemas().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Copies of a registered schema use the snapshot validator, changed copies do not")
+    public void validatorLookupTest() throws Exception {
+        ResourceSchemaModel router = this.registry.get("resource.router");
+        CompiledSchemaValidator validator = this.registry.getValidator(router);
+        Assertions.assertSame(validator, this.registry.getValidator(SchemaReferenceCodec.sharedCopy(router)));
+        Assertions.assertSame(validator, this.registry.getValidator(this.registry.getCopy("resource/router")));
+        ResourceSchemaModel changed = this.registry.getCopy("resource.router");
+        changed.getAttributes().get("model").setRequired(true);
+        Assertions.assertNotSame(validator, this.registry.getValidator(changed));
+        writeAndLoad("resource.router", "resource/default", "model", "serial");
+        Assertions.assertNotSame(validator, this.registry.getValidator(this.registry.get("resource.router")));
+        //
+        // Uma cópia da revisão antiga continua validando com ela
+        //
+        Assertions.assertSame(validator, this.registry.getValidator(SchemaReferenceCodec.sharedCopy(router)));
+    }
+
+    private ResourceSchemaModel writeAndLoad(String name, String fromSchema, String... attributes) throws Exception {
+        write(name, fromSchema, attributes);
+        this.registry.reload(Collections.singletonList(name));
+        return this.registry.get(name);
+    }
+
+    private void write(String name, String fromSchema, String... attributes) throws IOException {
+        StringBuilder json = new StringBuilder("{\"schemaName\":\"" + name + "\",\"fromSchema\":\"" + fromSchema + "\",\"attributes\":{");
+        for (int i = 0; i < attributes.length; i++) {
+            String attribute = attributes[i];
+            String description = name.endsWith("edge") ? "edge " + attribute : attribute;
+            json.append(i > 0 ? "," : "").append("\"").append(attribute).append("\":{\"name\":\"").append(attribute)
+                    .append("\",\"variableType\":\"String\",\"description\":\"").append(description).append("\"}");
+        }
+        json.append("}}");
+        Path file = this.schemaDir.resolve(name.replace(".", "/") + ".json");
+        Files.createDirectories(file.getParent());
+        Files.write(file, json.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
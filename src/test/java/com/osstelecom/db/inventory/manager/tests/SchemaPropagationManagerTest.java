@@ -0,0 +1,253 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.manager.tests;
+
+import com.osstelecom.db.inventory.manager.configuration.ConfigurationManager;
+import com.osstelecom.db.inventory.manager.configuration.InventoryConfiguration;
+import com.osstelecom.db.inventory.manager.dao.DocumentBatchDao;
+import com.osstelecom.db.inventory.manager.dao.SchemaPropagationCheckpointDao;
+import com.osstelecom.db.inventory.manager.jobs.DBJobInstance;
+import com.osstelecom.db.inventory.manager.jobs.SchemaPropagationCheckpoint;
+import com.osstelecom.db.inventory.manager.operation.DbJobManager;
+import com.osstelecom.db.inventory.manager.operation.DomainManager;
+import com.osstelecom.db.inventory.manager.operation.ManagedExecutorService;
+import com.osstelecom.db.inventory.manager.operation.ManagedExecutorService.Pool;
+import com.osstelecom.db.inventory.manager.operation.SchemaPropagationManager;
+import com.osstelecom.db.inventory.manager.resources.Domain;
+import com.osstelecom.db.inventory.manager.resources.model.ResourceAttributeModel;
+import com.osstelecom.db.inventory.manager.resources.model.ResourceSchemaModel;
+import com.osstelecom.db.inventory.manager.schema.SchemaMigrationPlan;
+import com.osstelecom.db.inventory.manager.schema.SchemaRegistry;
+import com.osstelecom.db.inventory.manager.schema.SchemaValidatorCompiler;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Retomada, troca de revisão e cancelamento no SchemaPropagationManager, com
+ * os DAOs mockados
+ *
+ * @author Lucas Nishimura <lucas.nishimura@gmail.com>
+ * @created 19.10.2026
+ */
+public class SchemaPropagationManagerTest {
+
+    private static final String SCHEMA = "resource.test";
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    private final SchemaPropagationManager manager = new SchemaPropagationManager();
+
+    private final DocumentBatchDao documentBatchDao = Mockito.mock(DocumentBatchDao.class);
+
+    private final SchemaPropagationCheckpointDao checkpointDao = Mockito.mock(SchemaPropagationCheckpointDao.class);
+
+    private final SchemaRegistry schemaRegistry = Mockito.mock(SchemaRegistry.class);
+
+    private volatile ResourceSchemaModel model;
+
+    private volatile String revision;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() throws Exception {
+        InventoryConfiguration configuration = new InventoryConfiguration();
+        configuration.setSchemaPropagationBatchSize(100);
+        ConfigurationManager configurationManager = new ConfigurationManager();
+        ReflectionTestUtils.setField(configurationManager, "configuration", configuration);
+        SchemaValidatorCompiler compiler = new SchemaValidatorCompiler();
+        ReflectionTestUtils.setField(compiler, "configurationManager", configurationManager);
+        Domain domain = new Domain();
+        domain.setNodes("nodes");
+        domain.setConnections("connections");
+        domain.setCircuits("circuits");
+        domain.setServices("services");
+        DomainManager domainManager = Mockito.mock(DomainManager.class);
+        Mockito.when(domainManager.getAllDomains()).thenReturn(Collections.singletonList(domain));
+        ManagedExecutorService managedExecutorService = Mockito.mock(ManagedExecutorService.class);
+        Mockito.when(managedExecutorService.getPoolSize(Pool.PROPAGATION)).thenReturn(2);
+        Mockito.doAnswer(invocation -> this.executor.submit((Runnable) invocation.getArgument(1)))
+                .when(managedExecutorService).execute(ArgumentMatchers.eq(Pool.MAINTENANCE), ArgumentMatchers.any(Runnable.class));
+        Mockito.when(managedExecutorService.submit(ArgumentMatchers.eq(Pool.PROPAGATION), ArgumentMatchers.any(Callable.class)))
+                .thenAnswer(invocation -> this.executor.submit((Callable<Object>) invocation.getArgument(1)));
+        Mockito.when(this.documentBatchDao.collectionExists(ArgumentMatchers.anyString())).thenReturn(true);
+        Mockito.when(this.documentBatchDao.mergeAttributesAfter(ArgumentMatchers.anyString(), ArgumentMatchers.anyString(),
+                ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.anyInt()))
+                .thenReturn(new ArrayList<>());
+        Mockito.when(this.documentBatchDao.findBySchemaAfter(ArgumentMatchers.anyString(), ArgumentMatchers.anyString(),
+                ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.anyInt(), ArgumentMatchers.any()))
+                .thenReturn(new ArrayList<>());
+        Mockito.when(this.schemaRegistry.get(SCHEMA)).thenAnswer(invocation -> this.model);
+        Mockito.when(this.schemaRegistry.getRevision(ArgumentMatchers.any())).thenAnswer(invocation -> this.revision);
+        this.model = schema(attribute("hostname"));
+        this.revision = "r1";
+        ReflectionTestUtils.setField(this.manager, "domainManager", domainManager);
+        ReflectionTestUtils.setField(this.manager, "documentBatchDao", this.documentBatchDao);
+        ReflectionTestUtils.setField(this.manager, "checkpointDao", this.checkpointDao);
+        ReflectionTestUtils.setField(this.manager, "schemaRegistry", this.schemaRegistry);
+        ReflectionTestUtils.setField(this.manager, "schemaValidatorCompiler", compiler);
+        ReflectionTestUtils.setField(this.manager, "dbJobManager", new DbJobManager());
+        ReflectionTestUtils.setField(this.manager, "managedExecutorService", managedExecutorService);
+        ReflectionTestUtils.setField(this.manager, "configurationManager", configurationManager);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("A pending propagation resumes after the last key of each phase and skips completed collections")
+    public void resumeTest() throws Exception {
+        SchemaPropagationCheckpoint checkpoint = this.pending("r1");
+        Mockito.when(this.checkpointDao.findPending()).thenReturn(Collections.singletonList(checkpoint));
+        ReflectionTestUtils.invokeMethod(this.manager, "resumePending");
+        Assertions.assertSame(checkpoint, this.completed("r1"));
+        Mockito.verify(this.documentBatchDao).mergeAttributesAfter(ArgumentMatchers.eq("nodes"), ArgumentMatchers.eq(SCHEMA),
+                ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.eq("k7"), ArgumentMatchers.eq(100));
+        Mockito.verify(this.documentBatchDao).findBySchemaAfter(ArgumentMatchers.eq("nodes"), ArgumentMatchers.eq(SCHEMA),
+                ArgumentMatchers.any(), ArgumentMatchers.eq("k5"), ArgumentMatchers.eq(100), ArgumentMatchers.any());
+        Mockito.verify(this.documentBatchDao).findBySchemaAfter(ArgumentMatchers.eq("circuits"), ArgumentMatchers.eq(SCHEMA),
+                ArgumentMatchers.any(), ArgumentMatchers.isNull(), ArgumentMatchers.eq(100), ArgumentMatchers.any());
+        Mockito.verify(this.documentBatchDao, Mockito.never()).findBySchemaAfter(ArgumentMatchers.eq("connections"),
+                ArgumentMatchers.anyString(), ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.anyInt(), ArgumentMatchers.any());
+        Assertions.assertTrue(checkpoint.getCompleted());
+        Assertions.assertTrue(checkpoint.getLastKeys().isEmpty());
+        Assertions.assertNull(checkpoint.getPlan());
+    }
+
+    @Test
+    @DisplayName("A pending propagation of an older revision restarts as a full revalidation")
+    public void revisionChangedTest() throws Exception {
+        SchemaPropagationCheckpoint checkpoint = this.pending("r1");
+        Mockito.when(this.checkpointDao.findPending()).thenReturn(Collections.singletonList(checkpoint));
+        this.revision = "r2";
+        ReflectionTestUtils.invokeMethod(this.manager, "resumePending");
+        SchemaPropagationCheckpoint saved = this.completed("r2");
+        Mockito.verify(this.documentBatchDao, Mockito.never()).mergeAttributesAfter(ArgumentMatchers.anyString(), ArgumentMatchers.anyString(),
+                ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.anyInt());
+        for (String collection : Arrays.asList("nodes", "connections", "circuits", "services")) {
+            Mockito.verify(this.documentBatchDao).findBySchemaAfter(ArgumentMatchers.eq(collection), ArgumentMatchers.eq(SCHEMA),
+                    ArgumentMatchers.isNull(), ArgumentMatchers.isNull(), ArgumentMatchers.eq(100), ArgumentMatchers.any());
+        }
+        Assertions.assertFalse(checkpoint.getCompleted());
+        Assertions.assertNotSame(checkpoint, saved);
+    }
+
+    @Test
+    @DisplayName("A new revision cancels the running propagation and the new one runs in full after it stops")
+    public void supersedeTest() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Mockito.when(this.schemaRegistry.getPrevious(SCHEMA)).thenReturn(schema(attribute("hostname"), attribute("old")));
+        Mockito.when(this.documentBatchDao.mergeAttributesAfter(ArgumentMatchers.anyString(), ArgumentMatchers.anyString(),
+                ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.anyInt()))
+                .thenAnswer(invocation -> {
+                    entered.countDown();
+                    release.await(5, TimeUnit.SECONDS);
+                    return new ArrayList<>();
+                });
+        DBJobInstance first = this.manager.propagate(SCHEMA, false);
+        Assertions.assertNotNull(first);
+        Assertions.assertTrue(entered.await(5, TimeUnit.SECONDS));
+        Assertions.assertSame(first, this.manager.propagate(SCHEMA, false));
+
+        this.model = schema(attribute("hostname"), attribute("vendor"));
+        this.revision = "r2";
+        DBJobInstance second = this.manager.propagate(SCHEMA, false);
+        Assertions.assertNotSame(first, second);
+        Assertions.assertSame(second, this.manager.propagate(SCHEMA, false));
+        release.countDown();
+
+        SchemaPropagationCheckpoint saved = this.completed("r2");
+        Mockito.verify(this.schemaRegistry).propagationCompleted(SCHEMA, "r2");
+        Mockito.verify(this.schemaRegistry, Mockito.never()).propagationCompleted(SCHEMA, "r1");
+        Mockito.verify(this.documentBatchDao, Mockito.atMost(2)).mergeAttributesAfter(ArgumentMatchers.anyString(),
+                ArgumentMatchers.anyString(), ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(),
+                ArgumentMatchers.any(), ArgumentMatchers.anyInt());
+        for (String collection : Arrays.asList("nodes", "connections", "circuits", "services")) {
+            Mockito.verify(this.documentBatchDao).findBySchemaAfter(ArgumentMatchers.eq(collection), ArgumentMatchers.eq(SCHEMA),
+                    ArgumentMatchers.isNull(), ArgumentMatchers.isNull(), ArgumentMatchers.eq(100), ArgumentMatchers.any());
+        }
+        Assertions.assertEquals(SCHEMA, saved.getSchemaName());
+    }
+
+    /**
+     * Checkpoint da revisão com defaults/remoções e revalidação pela metade:
+     * merge parou em k7 e a revalidação em k5 na collection de nós, a de
+     * conexões já terminou
+     */
+    private SchemaPropagationCheckpoint pending(String checkpointRevision) {
+        SchemaMigrationPlan plan = new SchemaMigrationPlan();
+        plan.getRemoved().add("old");
+        plan.getRevalidatePresent().add("hostname");
+        SchemaPropagationCheckpoint checkpoint = new SchemaPropagationCheckpoint(SCHEMA, checkpointRevision);
+        checkpoint.setPlan(plan);
+        checkpoint.getLastKeys().put("merge:nodes", "k7");
+        checkpoint.getLastKeys().put("nodes", "k5");
+        checkpoint.getCompletedCollections().put("connections", true);
+        return checkpoint;
+    }
+
+    /**
+     * Espera o checkpoint da revisão ser gravado como concluído
+     */
+    private SchemaPropagationCheckpoint completed(String completedRevision) throws Exception {
+        ArgumentCaptor<SchemaPropagationCheckpoint> saved = ArgumentCaptor.forClass(SchemaPropagationCheckpoint.class);
+        Mockito.verify(this.checkpointDao, Mockito.timeout(5000).atLeastOnce()).save(ArgumentMatchers.argThat(checkpoint
+                -> Boolean.TRUE.equals(checkpoint.getCompleted()) && completedRevision.equals(checkpoint.getRevision())));
+        Mockito.verify(this.checkpointDao, Mockito.atLeastOnce()).save(saved.capture());
+        List<SchemaPropagationCheckpoint> values = saved.getAllValues();
+        return values.get(values.size() - 1);
+    }
+
+    private static ResourceSchemaModel schema(ResourceAttributeModel... attributes) {
+        ResourceSchemaModel model = new ResourceSchemaModel();
+        model.setSchemaName(SCHEMA);
+        model.setAllowAll(false);
+        HashMap<String, ResourceAttributeModel> map = new HashMap<>();
+        Arrays.stream(attributes).forEach(attribute -> map.put(attribute.getName(), attribute));
+        model.setAttributes(map);
+        return model;
+    }
+
+    private static ResourceAttributeModel attribute(String name) {
+        ResourceAttributeModel attribute = new ResourceAttributeModel();
+        attribute.setName(name);
+        attribute.setVariableType("String");
+        attribute.setRequired(false);
+        attribute.setValidate(false);
+        return attribute;
+    }
+}
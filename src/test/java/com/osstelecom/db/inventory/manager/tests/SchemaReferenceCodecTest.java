@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.manager.tests;
+
+import com.arangodb.internal.velocypack.VPackDriverModule;
+import com.arangodb.velocypack.VPack;
+import com.arangodb.velocypack.VPackSlice;
+import com.osstelecom.db.inventory.manager.configuration.ConfigurationManager;
+import com.osstelecom.db.inventory.manager.resources.ManagedResource;
+import com.osstelecom.db.inventory.manager.resources.model.ResourceSchemaModel;
+import com.osstelecom.db.inventory.manager.schema.SchemaReferenceCodec;
+import com.osstelecom.db.inventory.manager.schema.SchemaRegistry;
+import com.osstelecom.db.inventory.manager.schema.SchemaValidatorCompiler;
+import com.osstelecom.db.inventory.manager.session.UtilSession;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Referência do schemaModel gravada no modo REFERENCE e a revisão com que o
+ * documento foi validado
+ *
+ * @author Lucas Nishimura <lucas.nishimura@gmail.com>
+ * @created 19.10.2026
+ */
+public class SchemaReferenceCodecTest {
+
+    @TempDir
+    Path schemaDir;
+
+    private SchemaRegistry registry;
+
+    private VPack vpack;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        write("{\"schemaName\":\"resource.default\",\"fromSchema\":\".\",\"attributes\":{"
+                + "\"vendor\":{\"name\":\"vendor\",\"variableType\":\"String\"}}}");
+        this.registry = new SchemaRegistry();
+        SchemaValidatorCompiler compiler = new SchemaValidatorCompiler();
+        ReflectionTestUtils.setField(compiler, "configurationManager", new ConfigurationManager());
+        ReflectionTestUtils.setField(this.registry, "utilSession", new UtilSession());
+        ReflectionTestUtils.setField(this.registry, "schemaDir", this.schemaDir);
+        ReflectionTestUtils.setField(this.registry, "schemaValidatorCompiler", compiler);
+        this.registry.reloadAll();
+        SchemaReferenceCodec codec = new SchemaReferenceCodec(this.registry);
+        this.vpack = new VPack.Builder()
+                .registerModule(new VPackDriverModule())
+                .registerSerializer(ResourceSchemaModel.class, codec.referenceSerializer())
+                .registerDeserializer(ResourceSchemaModel.class, codec.deserializer())
+                .build();
+    }
+
+    @Test
+    @DisplayName("The stored revision is the validated one and survives a read and write without validation")
+    public void revisionTest() throws Exception {
+        ManagedResource resource = new ManagedResource();
+        resource.setSchemaModel(SchemaReferenceCodec.sharedCopy(this.registry.get("resource.default")));
+        resource.setAttributes(new HashMap<>());
+        this.registry.getValidator(resource.getSchemaModel()).validate(resource);
+        String validated = resource.getSchemaModel().getRevision();
+        Assertions.assertEquals(this.registry.getRevision(this.registry.get("resource.default")), validated);
+        VPackSlice stored = this.vpack.serialize(resource.getSchemaModel());
+        Assertions.assertEquals(validated, stored.get("revision").getAsString());
+
+        write("{\"schemaName\":\"resource.default\",\"fromSchema\":\".\",\"attributes\":{"
+                + "\"vendor\":{\"name\":\"vendor\",\"variableType\":\"String\",\"required\":true}}}");
+        this.registry.reload(Collections.singletonList("resource.default"));
+        ResourceSchemaModel read = this.read(stored);
+        Assertions.assertEquals(validated, read.getRevision());
+        Assertions.assertTrue(read.getIsValid());
+        Assertions.assertNull(read.getRevalidationPending());
+        //
+        // Regravado sem validar continua com a revisão antiga
+        //
+        Assertions.assertEquals(validated, this.vpack.serialize(read).get("revision").getAsString());
+    }
+
+    @Test
+    @DisplayName("Documents on an older revision are flagged while the schema propagation runs")
+    public void pendingTest() throws Exception {
+        ResourceSchemaModel model = SchemaReferenceCodec.sharedCopy(this.registry.get("resource.default"));
+        VPackSlice stored = this.vpack.serialize(model);
+        String before = stored.get("revision").getAsString();
+        write("{\"schemaName\":\"resource.default\",\"fromSchema\":\".\",\"attributes\":{"
+                + "\"vendor\":{\"name\":\"vendor\",\"variableType\":\"String\",\"required\":true}}}");
+        this.registry.reload(Collections.singletonList("resource.default"));
+        String after = this.registry.getRevision(this.registry.get("resource.default"));
+        Assertions.assertNotEquals(before, after);
+
+        this.registry.propagationStarted("resource.default", after);
+        Assertions.assertEquals(Boolean.TRUE, this.read(stored).getRevalidationPending());
+        VPackSlice current = this.vpack.serialize(SchemaReferenceCodec.sharedCopy(this.registry.get("resource.default")));
+        Assertions.assertNull(this.read(current).getRevalidationPending());
+
+        this.registry.propagationCompleted("resource.default", after);
+        Assertions.assertNull(this.read(stored).getRevalidationPending());
+    }
+
+    private ResourceSchemaModel read(VPackSlice stored) {
+        return this.vpack.deserialize(stored, ResourceSchemaModel.class);
+    }
+
+    private void write(String json) throws IOException {
+        Path file = this.schemaDir.resolve("resource/default.json");
+        Files.createDirectories(file.getParent());
+        Files.write(file, json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.manager.tests;
+
+import com.osstelecom.db.inventory.manager.configuration.ConfigurationManager;
+import com.osstelecom.db.inventory.manager.resources.ManagedResource;
+import com.osstelecom.db.inventory.manager.resources.exception.AttributeConstraintViolationException;
+import com.osstelecom.db.inventory.manager.resources.model.ResourceAttributeModel;
+import com.osstelecom.db.inventory.manager.resources.model.ResourceSchemaModel;
+import com.osstelecom.db.inventory.manager.schema.SchemaValidatorCompiler;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Defaults e valores null na validação compilada
+ *
+ * @author Lucas Nishimura <lucas.nishimura@gmail.com>
+ * @created 19.10.2026
+ */
+public class SchemaValidatorTest {
+
+    private final SchemaValidatorCompiler compiler = new SchemaValidatorCompiler();
+
+    @BeforeEach
+    public void setUp() {
+        ReflectionTestUtils.setField(this.compiler, "configurationManager", new ConfigurationManager());
+    }
+
+    @Test
+    @DisplayName("Missing keys take the default")
+    public void missingKeyTest() throws AttributeConstraintViolationException {
+        ManagedResource resource = this.validate(new HashMap<>());
+        Assertions.assertEquals("Huawei", resource.getAttributes().get("vendor"));
+        Assertions.assertEquals("rack", resource.getAttributes().get("site"));
+    }
+
+    @Test
+    @DisplayName("A key present with null is kept, required or not")
+    public void nullValueTest() throws AttributeConstraintViolationException {
+        Map<String, Object> values = new HashMap<>();
+        values.put("vendor", null);
+        values.put("site", null);
+        ManagedResource resource = this.validate(values);
+        Assertions.assertTrue(resource.getAttributes().containsKey("vendor"));
+        Assertions.assertNull(resource.getAttributes().get("vendor"));
+        Assertions.assertTrue(resource.getAttributes().containsKey("site"));
+        Assertions.assertNull(resource.getAttributes().get("site"));
+        Assertions.assertTrue(resource.getSchemaModel().getIsValid());
+    }
+
+    @Test
+    @DisplayName("A required key without default is still rejected when absent")
+    public void missingRequiredTest() {
+        ResourceSchemaModel schema = schema();
+        schema.getAttributes().get("site").setDefaultValue(null);
+        ManagedResource resource = new ManagedResource();
+        resource.setSchemaModel(schema);
+        resource.setAttributes(new HashMap<>());
+        Assertions.assertThrows(AttributeConstraintViolationException.class,
+                () -> this.compiler.compile(schema).validate(resource));
+    }
+
+    private ManagedResource validate(Map<String, Object> values) throws AttributeConstraintViolationException {
+        ManagedResource resource = new ManagedResource();
+        resource.setSchemaModel(schema());
+        resource.setAttributes(values);
+        this.compiler.compile(resource.getSchemaModel()).validate(resource);
+        return resource;
+    }
+
+    private static ResourceSchemaModel schema() {
+        ResourceSchemaModel model = new ResourceSchemaModel();
+        model.setSchemaName("resource.test");
+        model.setAllowAll(false);
+        HashMap<String, ResourceAttributeModel> attributes = new HashMap<>();
+        attributes.put("vendor", attribute("vendor", false, "Huawei"));
+        attributes.put("site", attribute("site", true, "rack"));
+        model.setAttributes(attributes);
+        return model;
+    }
+
+    private static ResourceAttributeModel attribute(String name, boolean required, String defaultValue) {
+        ResourceAttributeModel attribute = new ResourceAttributeModel();
+        attribute.setName(name);
+        attribute.setVariableType("String");
+        attribute.setRequired(required);
+        attribute.setDefaultValue(defaultValue);
+        attribute.setValidate(false);
+        return attribute;
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.manager.tests;
+
+import com.osstelecom.db.inventory.manager.configuration.ConfigurationManager;
+import com.osstelecom.db.inventory.manager.configuration.InventoryConfiguration;
+import com.osstelecom.db.inventory.manager.dto.TopologyJobDTO;
+import com.osstelecom.db.inventory.manager.dto.TransientTopologyDTO;
+import com.osstelecom.db.inventory.manager.exception.InvalidRequestException;
+import com.osstelecom.db.inventory.manager.exception.ResourceNotFoundException;
+import com.osstelecom.db.inventory.manager.operation.ManagedExecutorService;
+import com.osstelecom.db.inventory.manager.request.ComputeTransientTopologyRequest;
+import com.osstelecom.db.inventory.topology.TopologyProgress;
+import com.osstelecom.db.inventory.topology.csr.CsrGraph;
+import com.osstelecom.db.inventory.topology.csr.Reachability;
+import com.osstelecom.db.inventory.topology.session.TopologyJobSession;
+import com.osstelecom.db.inventory.topology.session.TransientTopologySession;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.FutureTask;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Jobs de topologia: reaproveitamento pela impressão digital, paginação do
+ * resultado, cancelamento e a expiração do cache de jobs
+ *
+ * @author Lucas Nishimura <lucas.nishimura@gmail.com>
+ * @created 19.10.2026
+ */
+public class TopologyJobTest {
+
+    private static final String TOPOLOGY = "graph { a -- b; b -- c; c -- a; c -- d; d -- e; e -- f; f -- d; d -- g; x -- y }";
+    private static final String SHUFFLED = "graph { x -- y; d -- g; f -- d; e -- f; d -- e; c -- d; c -- a; b -- c; a -- b }";
+
+    @Test
+    @DisplayName("Same input returns the same job, the result is paginated")
+    public void fingerprintTest() throws Exception {
+        TopologyJobSession session = session(true);
+        TopologyJobDTO first = session.submitTransient(request(TOPOLOGY)).getPayLoad();
+        TopologyJobDTO second = session.submitTransient(request(SHUFFLED)).getPayLoad();
+        Assertions.assertFalse(first.getCacheHit());
+        Assertions.assertTrue(second.getCacheHit());
+        Assertions.assertEquals(first.getJobId(), second.getJobId());
+        Assertions.assertEquals("DONE", session.getJob(first.getJobId()).getPayLoad().getStatus());
+
+        TopologyJobDTO page = session.getJobResult(first.getJobId(), 2, 3).getPayLoad();
+        Assertions.assertEquals(7, page.getResultSize());
+        Assertions.assertEquals(3, page.getItems().size());
+        Assertions.assertEquals("articulationPoint", page.getItems().get(0).getKind());
+        Assertions.assertEquals("c", page.getItems().get(0).getName());
+        Assertions.assertEquals("bridge", page.getItems().get(2).getKind());
+        Assertions.assertEquals(2, session.getJobResult(first.getJobId(), 5, 3).getPayLoad().getItems().size());
+        Assertions.assertThrows(InvalidRequestException.class, () -> session.cancelJob(first.getJobId()));
+    }
+
+    @Test
+    @DisplayName("A queued job cancelled is never run and is not reused")
+    public void queuedCancelTest() throws Exception {
+        TopologyJobSession session = session(false);
+        TopologyJobDTO queued = session.submitTransient(request(TOPOLOGY)).getPayLoad();
+        Assertions.assertEquals("QUEUED", queued.getStatus());
+        Assertions.assertEquals("CANCELLED", session.cancelJob(queued.getJobId()).getPayLoad().getStatus());
+        Assertions.assertThrows(InvalidRequestException.class, () -> session.getJobResult(queued.getJobId(), 0, 10));
+
+        TopologyJobDTO again = session.submitTransient(request(TOPOLOGY)).getPayLoad();
+        Assertions.assertNotEquals(queued.getJobId(), again.getJobId());
+        Assertions.assertFalse(again.getCacheHit());
+    }
+
+    @Test
+    @DisplayName("Past the cache size jobs are evicted by access and fingerprints by write")
+    public void evictionTest() throws Exception {
+        InventoryConfiguration configuration = new InventoryConfiguration();
+        configuration.setTopologyJobCacheSize(2);
+        TopologyJobSession session = session(true, configuration);
+        TopologyJobDTO first = session.submitTransient(request("graph { a -- b }")).getPayLoad();
+        TopologyJobDTO second = session.submitTransient(request("graph { a -- c }")).getPayLoad();
+        session.getJob(first.getJobId());
+        TopologyJobDTO third = session.submitTransient(request("graph { a -- d }")).getPayLoad();
+
+        Assertions.assertThrows(ResourceNotFoundException.class, () -> session.getJob(second.getJobId()));
+        Assertions.assertEquals("DONE", session.getJob(first.getJobId()).getPayLoad().getStatus());
+        Assertions.assertEquals("DONE", session.getJob(third.getJobId()).getPayLoad().getStatus());
+        //
+        // A impressão digital da segunda ainda existe, a job volta para o
+        // cache com o mesmo id
+        //
+        TopologyJobDTO reused = session.submitTransient(request("graph { a -- c }")).getPayLoad();
+        Assertions.assertTrue(reused.getCacheHit());
+        Assertions.assertEquals(second.getJobId(), reused.getJobId());
+        Assertions.assertEquals("DONE", session.getJob(second.getJobId()).getPayLoad().getStatus());
+        //
+        // A da primeira foi a mais antiga gravada, a entrada roda de novo
+        //
+        TopologyJobDTO again = session.submitTransient(request("graph { a -- b }")).getPayLoad();
+        Assertions.assertFalse(again.getCacheHit());
+        Assertions.assertNotEquals(first.getJobId(), again.getJobId());
+        Assertions.assertEquals(2, session.getJobResult(again.getJobId(), 0, 10).getPayLoad().getResultSize());
+    }
+
+    @Test
+    @DisplayName("The fingerprint expires after write, the job only after its last access")
+    public void ttlTest() throws Exception {
+        InventoryConfiguration configuration = new InventoryConfiguration();
+        configuration.setTopologyJobCacheTTL(1L);
+        TopologyJobSession session = session(true, configuration);
+        TopologyJobDTO first = session.submitTransient(request(TOPOLOGY)).getPayLoad();
+        Assertions.assertTrue(session.submitTransient(request(SHUFFLED)).getPayLoad().getCacheHit());
+
+        Thread.sleep(600L);
+        session.getJob(first.getJobId());
+        Thread.sleep(600L);
+        TopologyJobDTO again = session.submitTransient(request(TOPOLOGY)).getPayLoad();
+        Assertions.assertFalse(again.getCacheHit());
+        Assertions.assertNotEquals(first.getJobId(), again.getJobId());
+        Assertions.assertEquals("DONE", session.getJob(first.getJobId()).getPayLoad().getStatus());
+
+        Thread.sleep(1100L);
+        Assertions.assertThrows(ResourceNotFoundException.class, () -> session.getJob(first.getJobId()));
+        Assertions.assertThrows(ResourceNotFoundException.class, () -> session.getJob(again.getJobId()));
+    }
+
+    @Test
+    @DisplayName("A cancelled progress stops the searches")
+    public void cancelledSearchTest() {
+        CsrGraph.Builder builder = CsrGraph.builder();
+        for (int v = 0; v < 1000; v++) {
+            builder.addEdge("n" + v, "n" + (v + 1), true);
+        }
+        CsrGraph graph = builder.build();
+        BitSet sources = new BitSet();
+        sources.set(0);
+        Assertions.assertEquals(1001, Reachability.from(graph, sources).cardinality());
+
+        TopologyProgress progress = new TopologyProgress();
+        progress.cancel();
+        TopologyProgress.bind(progress);
+        try {
+            Assertions.assertThrows(CancellationException.class, () -> Reachability.from(graph, sources));
+            Assertions.assertThrows(CancellationException.class,
+                    () -> Reachability.underFailures(graph, sources, new BitSet[]{new BitSet(), new BitSet()}, null));
+        } finally {
+            TopologyProgress.unbind();
+        }
+    }
+
+    /**
+     * @param run false deixa as jobs na fila
+     */
+    private static TopologyJobSession session(boolean run) {
+        return session(run, new InventoryConfiguration());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static TopologyJobSession session(boolean run, InventoryConfiguration configuration) {
+        ManagedExecutorService managedExecutorService = Mockito.mock(ManagedExecutorService.class);
+        Mockito.when(managedExecutorService.submit(ArgumentMatchers.eq(ManagedExecutorService.Pool.TOPOLOGY), ArgumentMatchers.any(Callable.class)))
+                .thenAnswer(invocation -> {
+                    if (!run) {
+                        return new CompletableFuture<>();
+                    }
+                    FutureTask<Object> task = new FutureTask<>(invocation.getArgument(1, Callable.class));
+                    task.run();
+                    return task;
+                });
+        TopologyJobSession session = new TopologyJobSession();
+        ReflectionTestUtils.setField(session, "transientTopologySession", new TransientTopologySession());
+        ReflectionTestUtils.setField(session, "managedExecutorService", managedExecutorService);
+        ConfigurationManager configurationManager = new ConfigurationManager();
+        ReflectionTestUtils.setField(configurationManager, "configuration", configuration);
+        ReflectionTestUtils.setField(session, "configurationManager", configurationManager);
+        ReflectionTestUtils.invokeMethod(session, "createCaches");
+        return session;
+    }
+
+    private static ComputeTransientTopologyRequest request(String dot) {
+        TransientTopologyDTO payLoad = new TransientTopologyDTO();
+        payLoad.setDotTopology(dot);
+        payLoad.setComputeWeakNodes(true);
+        payLoad.setMinConnections(1);
+        payLoad.setEndPoints(new ArrayList<>(Arrays.asList("a", "g")));
+        ComputeTransientTopologyRequest request = new ComputeTransientTopologyRequest();
+        request.setPayLoad(payLoad);
+        return request;
+    }
+}
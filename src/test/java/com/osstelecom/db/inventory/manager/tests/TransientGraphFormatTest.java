@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.manager.tests;
+
+import com.osstelecom.db.inventory.manager.dto.TransientTopologyDTO;
+import com.osstelecom.db.inventory.manager.request.ComputeTransientTopologyRequest;
+import com.osstelecom.db.inventory.topology.session.TransientGraph;
+import com.osstelecom.db.inventory.topology.session.TransientTopologySession;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Entrada da topologia transiente em DOT, lista de conexões e binário
+ *
+ * @author Lucas Nishimura <lucas.nishimura@gmail.com>
+ * @created 19.10.2026
+ */
+public class TransientGraphFormatTest {
+
+    private static final String TOPOLOGY = "graph { a -- b; b -- c; c -- a; c -- d; d -- e; e -- f; f -- d; d -- g; x -- y }";
+
+    @Test
+    @DisplayName("DOT, edge list and binary give the same result and the same fingerprint")
+    public void sameResultTest() throws Exception {
+        TransientTopologySession session = new TransientTopologySession();
+        TransientTopologyDTO dot = dto();
+        dot.setDotTopology(TOPOLOGY);
+        TransientTopologyDTO edges = dto();
+        edges.setEdges(edgeList());
+        TransientTopologyDTO binary = dto();
+        binary.setBinaryTopology(binary(false));
+        TransientTopologyDTO gzip = dto();
+        gzip.setBinaryTopology(binary(true));
+
+        TransientTopologyDTO expected = session.computeTransientTopologyRequest(request(dot)).getPayLoad();
+        Assertions.assertEquals(Arrays.asList("x", "y"), expected.getUnreacheableNodes());
+        for (TransientTopologyDTO other : Arrays.asList(edges, binary, gzip)) {
+            Assertions.assertEquals(session.fingerprint(dot), session.fingerprint(other));
+            TransientTopologyDTO actual = session.computeTransientTopologyRequest(request(other)).getPayLoad();
+            Assertions.assertTrue(actual.getCacheHit());
+            Assertions.assertEquals(expected.getUnreacheableNodes(), actual.getUnreacheableNodes());
+            Assertions.assertEquals(expected.getWeakNodes(), actual.getWeakNodes());
+            Assertions.assertEquals(expected.getArticulationPoints(), actual.getArticulationPoints());
+            Assertions.assertEquals(expected.getBridges(), actual.getBridges());
+        }
+    }
+
+    @Test
+    @DisplayName("Binary round trip keeps names, isolated nodes and edges")
+    public void roundTripTest() throws Exception {
+        TransientGraph graph = TransientGraph.fromEdgeList(Arrays.asList("isolated"), edgeList());
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        graph.writeBinary(output, true);
+        TransientGraph read = TransientGraph.fromBinary(new ByteArrayInputStream(output.toByteArray()));
+        Assertions.assertEquals(graph.nodeCount(), read.nodeCount());
+        Assertions.assertEquals(graph.edgeCount(), read.edgeCount());
+        for (int v = 0; v < graph.nodeCount(); v++) {
+            Assertions.assertEquals(graph.name(v), read.name(v));
+        }
+        for (int e = 0; e < graph.edgeCount(); e++) {
+            Assertions.assertEquals(graph.source(e), read.source(e));
+            Assertions.assertEquals(graph.target(e), read.target(e));
+        }
+    }
+
+    @Test
+    @DisplayName("Invalid input is rejected")
+    public void invalidInputTest() throws Exception {
+        Assertions.assertThrows(IOException.class, () -> TransientGraph.fromEdgeList(null, Arrays.asList(Arrays.asList("a"))));
+        Assertions.assertThrows(IOException.class, () -> TransientGraph.fromBinary(new ByteArrayInputStream(new byte[]{1, 2, 3, 4, 5})));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(output);
+        data.writeInt(TransientGraph.MAGIC);
+        data.writeByte(TransientGraph.VERSION);
+        data.writeInt(1);
+        data.writeUTF("a");
+        data.writeInt(1);
+        data.writeInt(0);
+        data.writeInt(7);
+        Assertions.assertThrows(IOException.class, () -> TransientGraph.fromBinary(new ByteArrayInputStream(output.toByteArray())));
+        //
+        // Cabeçalho anunciando 2^31-1 nós e conexões: termina em EOF sem
+        // alocar pela contagem
+        //
+        for (int nodes : new int[]{Integer.MAX_VALUE, 1}) {
+            ByteArrayOutputStream huge = new ByteArrayOutputStream();
+            DataOutputStream header = new DataOutputStream(huge);
+            header.writeInt(TransientGraph.MAGIC);
+            header.writeByte(TransientGraph.VERSION);
+            header.writeInt(nodes);
+            header.writeUTF("a");
+            header.writeInt(Integer.MAX_VALUE);
+            Assertions.assertThrows(IOException.class, () -> TransientGraph.fromBinary(new ByteArrayInputStream(huge.toByteArray())));
+        }
+        TransientTopologyDTO empty = dto();
+        Assertions.assertThrows(IOException.class, () -> new TransientTopologySession().computeTransientTopologyRequest(request(empty)));
+        TransientTopologyDTO notBase64 = dto();
+        notBase64.setBinaryTopology("***");
+        Assertions.assertThrows(IOException.class, () -> new TransientTopologySession().computeTransientTopologyRequest(request(notBase64)));
+    }
+
+    private static List<List<String>> edgeList() {
+        List<List<String>> edges = new ArrayList<>();
+        for (String edge : TOPOLOGY.substring(8, TOPOLOGY.length() - 2).split("; ")) {
+            edges.add(Arrays.asList(edge.split(" -- ")));
+        }
+        return edges;
+    }
+
+    private static String binary(boolean gzip) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        TransientGraph.fromEdgeList(null, edgeList()).writeBinary(output, gzip);
+        return Base64.getEncoder().encodeToString(output.toByteArray());
+    }
+
+    private static TransientTopologyDTO dto() {
+        TransientTopologyDTO payLoad = new TransientTopologyDTO();
+        payLoad.setComputeWeakNodes(true);
+        payLoad.setMinConnections(1);
+        payLoad.setEndPoints(new ArrayList<>(Arrays.asList("a", "g")));
+        return payLoad;
+    }
+
+    private static ComputeTransientTopologyRequest request(TransientTopologyDTO payLoad) {
+        ComputeTransientTopologyRequest request = new ComputeTransientTopologyRequest();
+        request.setPayLoad(payLoad);
+        return request;
+    }
+}
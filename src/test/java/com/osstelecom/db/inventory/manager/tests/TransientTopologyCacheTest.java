@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package com.osstelecom.db.inventory.manager.tests;
+
+import com.osstelecom.db.inventory.manager.dto.TransientTopologyDTO;
+import com.osstelecom.db.inventory.manager.request.ComputeTransientTopologyRequest;
+import com.osstelecom.db.inventory.topology.session.TransientTopologySession;
+import com.google.common.cache.Cache;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Memoização determinística da topologia transiente
+ *
+ * @author Lucas Nishimura <lucas.nishimura@gmail.com>
+ * @created 19.10.2026
+ */
+public class TransientTopologyCacheTest {
+
+    private static final String TOPOLOGY = "graph { a -- b; b -- c; c -- a; c -- d; d -- e; e -- f; f -- d; d -- g; x -- y }";
+    private static final String SHUFFLED = "graph { x -- y; d -- g; f -- d; e -- f; d -- e; c -- d; c -- a; b -- c; a -- b }";
+
+    @Test
+    @DisplayName("Same topology in any order gives the same result, the second time from cache")
+    public void canonicalOrderTest() throws Exception {
+        TransientTopologySession session = new TransientTopologySession();
+        TransientTopologyDTO first = session.computeTransientTopologyRequest(request(TOPOLOGY, 4, "e")).getPayLoad();
+        TransientTopologyDTO second = session.computeTransientTopologyRequest(request(SHUFFLED, 16, "e")).getPayLoad();
+        Assertions.assertFalse(first.getCacheHit());
+        Assertions.assertTrue(second.getCacheHit());
+        assertSameResult(first, second);
+        Assertions.assertEquals(Arrays.asList("e", "x", "y"), first.getUnreacheableNodes());
+        Assertions.assertEquals(Arrays.asList("c", "d"), first.getArticulationPoints());
+        Assertions.assertEquals(Arrays.asList("c.d", "d.g", "f.d", "x.y"), first.getBridges());
+    }
+
+    @Test
+    @DisplayName("A different failed set is a new entry, unknown names do not change the key")
+    public void failedSetTest() throws Exception {
+        TransientTopologySession session = new TransientTopologySession();
+        TransientTopologyDTO intact = session.computeTransientTopologyRequest(request(TOPOLOGY, 4)).getPayLoad();
+        TransientTopologyDTO failed = session.computeTransientTopologyRequest(request(TOPOLOGY, 4, "d")).getPayLoad();
+        TransientTopologyDTO unknown = session.computeTransientTopologyRequest(request(TOPOLOGY, 4, "missing")).getPayLoad();
+        Assertions.assertFalse(failed.getCacheHit());
+        Assertions.assertTrue(unknown.getCacheHit());
+        assertSameResult(intact, unknown);
+        Assertions.assertEquals(Arrays.asList("d", "e", "f", "x", "y"), failed.getUnreacheableNodes());
+        Assertions.assertEquals(Arrays.asList("x", "y"), intact.getUnreacheableNodes());
+    }
+
+    @Test
+    @DisplayName("An entry stored under another topology's key is never served")
+    public void collisionTest() throws Exception {
+        TransientTopologySession session = new TransientTopologySession();
+        String other = "graph { a -- b; b -- g }";
+        String key = session.fingerprint(request(other, 4).getPayLoad());
+        Assertions.assertEquals(64, key.length());
+        Assertions.assertNotEquals(key, session.fingerprint(request(TOPOLOGY, 4).getPayLoad()));
+        TransientTopologyDTO expected = new TransientTopologySession().computeTransientTopologyRequest(request(other, 4)).getPayLoad();
+        //
+        // Planta a entrada da topologia grande na chave da pequena, como numa
+        // colisão
+        //
+        session.computeTransientTopologyRequest(request(TOPOLOGY, 4));
+        Cache<String, Object> results = (Cache<String, Object>) ReflectionTestUtils.getField(session, "results");
+        results.put(key, results.asMap().values().iterator().next());
+        TransientTopologyDTO collided = session.computeTransientTopologyRequest(request(other, 4)).getPayLoad();
+        Assertions.assertFalse(collided.getCacheHit());
+        assertSameResult(expected, collided);
+        Assertions.assertEquals(Arrays.asList("b"), collided.getArticulationPoints());
+    }
+
+    @Test
+    @DisplayName("Concurrent requests with any thread count match a sequential run")
+    public void concurrentTest() throws Exception {
+        String[][] scenarios = {{}, {"c.d"}, {"d"}, {"e", "f.d"}, {"a.b", "c"}};
+        List<TransientTopologyDTO> expected = new ArrayList<>();
+        for (String[] disabled : scenarios) {
+            expected.add(new TransientTopologySession().computeTransientTopologyRequest(request(TOPOLOGY, 1, disabled)).getPayLoad());
+        }
+        TransientTopologySession session = new TransientTopologySession();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<TransientTopologyDTO>> jobs = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                int scenario = i % scenarios.length;
+                String dot = i % 2 == 0 ? TOPOLOGY : SHUFFLED;
+                int threads = 1 + i % 16;
+                jobs.add(executor.submit(() -> session.computeTransientTopologyRequest(request(dot, threads, scenarios[scenario])).getPayLoad()));
+            }
+            for (int i = 0; i < jobs.size(); i++) {
+                assertSameResult(expected.get(i % scenarios.length), jobs.get(i).get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void assertSameResult(TransientTopologyDTO expected, TransientTopologyDTO actual) {
+        Assertions.assertEquals(expected.getUnreacheableNodes(), actual.getUnreacheableNodes());
+        Assertions.assertEquals(expected.getWeakNodes(), actual.getWeakNodes());
+        Assertions.assertEquals(expected.getArticulationPoints(), actual.getArticulationPoints());
+        Assertions.assertEquals(expected.getBridges(), actual.getBridges());
+    }
+
+    private static ComputeTransientTopologyRequest request(String dot, int threadCount, String... disabled) {
+        TransientTopologyDTO payLoad = new TransientTopologyDTO();
+        payLoad.setDotTopology(dot);
+        payLoad.setComputeWeakNodes(true);
+        payLoad.setThreadCount(threadCount);
+        payLoad.setMinConnections(1);
+        payLoad.setEndPoints(new ArrayList<>(Arrays.asList("a", "g")));
+        payLoad.setDisabledObjects(new ArrayList<>(Arrays.asList(disabled)));
+        ComputeTransientTopologyRequest request = new ComputeTransientTopologyRequest();
+        request.setPayLoad(payLoad);
+        return request;
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package uc;
+
+import com.osstelecom.db.inventory.topology.csr.Centrality;
+import com.osstelecom.db.inventory.topology.csr.CsrGraph;
+import java.util.Random;
+
+/**
+ * Centralidade por amostragem num domain de 500 mil nós montado como uma rede
+ * de operadora: núcleo em malha, agregação com dupla abordagem no núcleo e
+ * anéis de acesso de 10 nós fechados em dois agregadores. Mede o tempo por
+ * quantidade de origens e a concordância do top 16 e do top 50 da
+ * betweenness entre duas sementes diferentes.
+ *
+ * @author Lucas Nishimura
+ * @created 19.10.2026
+ */
+public class CentralityBenchmark {
+
+    private static final int NODES = 500000;
+    private static final int CORE = 16;
+    private static final int AGGREGATION = 2000;
+    private static final int RING = 10;
+    private static final int[] SAMPLES = {256, 1024};
+    private static final int[] TOP = {CORE, 50};
+
+    public static void main(String[] args) {
+        Random random = new Random(1);
+        CsrGraph.Builder builder = CsrGraph.builder();
+        for (int v = 0; v < NODES; v++) {
+            builder.addNode("n" + v, false, true);
+        }
+        for (int c = 0; c < CORE; c++) {
+            builder.addEdge(c, (c + 1) % CORE, true);
+            builder.addEdge(c, (c + 3) % CORE, true);
+        }
+        for (int a = CORE; a < CORE + AGGREGATION; a++) {
+            int first = random.nextInt(CORE);
+            builder.addEdge(a, first, true);
+            builder.addEdge(a, (first + 1 + random.nextInt(CORE - 1)) % CORE, true);
+        }
+        for (int start = CORE + AGGREGATION; start < NODES; start += RING) {
+            int end = Math.min(start + RING, NODES) - 1;
+            for (int v = start; v < end; v++) {
+                builder.addEdge(v, v + 1, true);
+            }
+            builder.addEdge(start, CORE + random.nextInt(AGGREGATION), true);
+            builder.addEdge(end, CORE + random.nextInt(AGGREGATION), true);
+        }
+        CsrGraph graph = builder.build();
+        System.out.println("Nodes: " + graph.nodeCount() + " Edges: " + graph.edgeCount()
+                + " CPUs: " + Runtime.getRuntime().availableProcessors());
+
+        for (int samples : SAMPLES) {
+            long start = System.nanoTime();
+            Centrality first = Centrality.of(graph, samples, 1L);
+            long elapsed = System.nanoTime() - start;
+            Centrality second = Centrality.of(graph, samples, 2L);
+            StringBuilder overlap = new StringBuilder();
+            for (int top : TOP) {
+                int[] a = first.topBetweenness(top);
+                int[] b = second.topBetweenness(top);
+                int common = 0;
+                for (int x : a) {
+                    for (int y : b) {
+                        if (x == y) {
+                            common++;
+                            break;
+                        }
+                    }
+                }
+                overlap.append(String.format(" Top %d: %d", top, common));
+            }
+            System.out.println(String.format("Samples: %5d %8d ms (%6.2f ms/source) Overlap Between Seeds%s",
+                    samples, elapsed / 1000000, elapsed / 1e6 / samples, overlap));
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package uc;
+
+import com.osstelecom.db.inventory.topology.DefaultTopology;
+import com.osstelecom.db.inventory.topology.connection.INetworkConnection;
+import com.osstelecom.db.inventory.topology.csr.CsrAlgorithms;
+import com.osstelecom.db.inventory.topology.csr.CsrGraph;
+import com.osstelecom.db.inventory.topology.csr.TopologyGraph;
+import com.osstelecom.db.inventory.topology.impact.DefaultImpactManagerImpl;
+import com.osstelecom.db.inventory.topology.node.DefaultNode;
+import com.osstelecom.db.inventory.topology.node.INetworkNode;
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Compara memória e tempo de varredura do grafo de objetos (NetworkNode com
+ * mapas e locks por nó) contra o CSR, numa grade de SIDE x SIDE nós com uma
+ * saída num canto.
+ *
+ * @author Lucas Nishimura
+ * @created 19.10.2026
+ */
+public class CsrGraphBenchmark {
+
+    private static final int SIDE = 400;
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("Nodes: " + SIDE * SIDE + " Edges: " + 2 * SIDE * (SIDE - 1));
+
+        long before = usedMemory();
+        DefaultTopology topology = newTopology();
+        long objects = usedMemory() - before;
+
+        before = usedMemory();
+        CsrGraph graph = newGraph();
+        long csr = usedMemory() - before;
+        System.out.println(String.format("Memory Objects: %6d MB CSR: %6d MB (arrays: %d MB)",
+                objects >> 20, csr >> 20, graph.sizeInBytes() >> 20));
+
+        for (int round = 0; round < 5; round++) {
+            Long start = System.currentTimeMillis();
+            int walked = walkObjects(topology);
+            Long legacy = System.currentTimeMillis() - start;
+
+            start = System.currentTimeMillis();
+            int reached = CsrAlgorithms.reachable(graph).cardinality();
+            Long compact = System.currentTimeMillis() - start;
+
+            start = System.currentTimeMillis();
+            TopologyGraph.of(topology);
+            Long snapshot = System.currentTimeMillis() - start;
+            System.out.println(String.format("Round %d Objects BFS: %5d ms (%d) CSR BFS: %5d ms (%d) Snapshot: %5d ms",
+                    round, legacy, walked, compact, reached, snapshot));
+        }
+
+        //
+        // Contagem de conexões que levam à saída para a grade inteira
+        //
+        BitSet sources = new BitSet();
+        sources.set(0, graph.nodeCount());
+        for (int round = 0; round < 3; round++) {
+            Long start = System.currentTimeMillis();
+            int slots = CsrAlgorithms.endpointSlots(graph, sources, null).cardinality();
+            System.out.println(String.format("Endpoint Slots of %d Nodes: %6d ms (%d slots)",
+                    sources.cardinality(), System.currentTimeMillis() - start, slots));
+        }
+        //
+        // Mantém os dois grafos vivos até o fim da medição
+        //
+        System.out.println("Done: " + (topology.getNodes().size() + graph.nodeCount()) + " Nodes Kept Alive");
+    }
+
+    private static DefaultTopology newTopology() {
+        DefaultTopology topology = new DefaultTopology(new DefaultImpactManagerImpl());
+        INetworkNode[] nodes = new INetworkNode[SIDE * SIDE];
+        for (int x = 0; x < nodes.length; x++) {
+            nodes[x] = new DefaultNode("n" + x, x, topology);
+        }
+        nodes[0].setEndPoint(true);
+        for (int row = 0; row < SIDE; row++) {
+            for (int col = 0; col < SIDE; col++) {
+                int node = row * SIDE + col;
+                if (col + 1 < SIDE) {
+                    topology.addConnection(nodes[node], nodes[node + 1], "h" + node);
+                }
+                if (row + 1 < SIDE) {
+                    topology.addConnection(nodes[node], nodes[node + SIDE], "v" + node);
+                }
+            }
+        }
+        return topology;
+    }
+
+    private static CsrGraph newGraph() {
+        CsrGraph.Builder builder = CsrGraph.builder();
+        for (int x = 0; x < SIDE * SIDE; x++) {
+            builder.addNode("n" + x, x == 0, true);
+        }
+        for (int row = 0; row < SIDE; row++) {
+            for (int col = 0; col < SIDE; col++) {
+                int node = row * SIDE + col;
+                if (col + 1 < SIDE) {
+                    builder.addEdge(node, node + 1, true);
+                }
+                if (row + 1 < SIDE) {
+                    builder.addEdge(node, node + SIDE, true);
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Busca em largura pelos objetos, como seria sem o CSR
+     *
+     * @param topology
+     * @return
+     */
+    private static int walkObjects(DefaultTopology topology) {
+        Set<INetworkNode> reached = new HashSet<>();
+        ArrayDeque<INetworkNode> queue = new ArrayDeque<>(topology.getEndPoints());
+        reached.addAll(queue);
+        while (!queue.isEmpty()) {
+            INetworkNode node = queue.poll();
+            for (INetworkConnection connection : node.getConnections()) {
+                INetworkNode other = node.getOtherSide(connection);
+                if (connection.getActive() && other.getActive() && reached.add(other)) {
+                    queue.add(other);
+                }
+            }
+        }
+        return reached.size();
+    }
+
+    private static long usedMemory() throws InterruptedException {
+        for (int x = 0; x < 3; x++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
+    }
+}
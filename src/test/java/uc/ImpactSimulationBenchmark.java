@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package uc;
+
+import com.osstelecom.db.inventory.topology.csr.CsrGraph;
+import com.osstelecom.db.inventory.topology.simulation.ImpactModel;
+import com.osstelecom.db.inventory.topology.simulation.ImpactSimulation;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Mede a montagem do modelo de impacto e o lote de cenários contra os mesmos
+ * cenários executados um a um, numa rede em anel com circuitos de poucos
+ * saltos e serviços em cadeia.
+ *
+ * @author Lucas Nishimura
+ * @created 19.10.2026
+ */
+public class ImpactSimulationBenchmark {
+
+    private static final int NODES = 200000;
+    private static final int CIRCUITS = 100000;
+    private static final int SERVICES = 20000;
+    private static final int SCENARIOS = 1000;
+
+    public static void main(String[] args) {
+        Random random = new Random(1);
+        CsrGraph.Builder builder = CsrGraph.builder();
+        for (int v = 0; v < NODES; v++) {
+            builder.addNode("n" + v, false, true);
+        }
+        for (int v = 0; v < NODES; v++) {
+            builder.addEdge(v, (v + 1) % NODES, true, "r" + v);
+            if (v % 10 == 0) {
+                builder.addEdge(v, (v + 10) % NODES, true, "s" + v);
+            }
+        }
+        CsrGraph graph = builder.build();
+
+        long start = System.nanoTime();
+        ImpactModel.Builder model = ImpactModel.builder(graph);
+        for (int c = 0; c < CIRCUITS; c++) {
+            int a = random.nextInt(NODES);
+            int hops = 1 + random.nextInt(6);
+            List<String> path = new ArrayList<>();
+            for (int h = 0; h < hops; h++) {
+                path.add("r" + (a + h) % NODES);
+            }
+            model.circuit("c" + c, "n" + a, "n" + (a + hops) % NODES, path);
+        }
+        for (int s = 0; s < SERVICES; s++) {
+            List<String> circuits = new ArrayList<>();
+            int count = 1 + random.nextInt(3);
+            for (int i = 0; i < count; i++) {
+                circuits.add("c" + random.nextInt(CIRCUITS));
+            }
+            List<String> dependencies = s > 0 && s % 4 == 0 ? List.of("sv" + random.nextInt(s)) : null;
+            model.service("sv" + s, circuits, dependencies);
+        }
+        ImpactModel impact = model.build();
+        long build = System.nanoTime() - start;
+        System.out.println(String.format("Model: %d ms, ~%d MB", build / 1000000, impact.estimatedBytes() / 1024 / 1024));
+
+        List<ImpactSimulation.Scenario> scenarios = new ArrayList<>();
+        for (int i = 0; i < SCENARIOS; i++) {
+            List<String> links = new ArrayList<>();
+            for (int k = 0; k < 1 + i % 3; k++) {
+                links.add("r" + random.nextInt(NODES));
+            }
+            scenarios.add(new ImpactSimulation.Scenario("scenario-" + i, i % 5 == 0 ? List.of("n" + random.nextInt(NODES)) : null, links));
+        }
+        for (int round = 0; round < 3; round++) {
+            start = System.nanoTime();
+            long affected = 0;
+            for (ImpactSimulation.Scenario scenario : scenarios) {
+                ImpactSimulation.Impact result = ImpactSimulation.run(impact, List.of(scenario)).get(0);
+                affected += result.getCircuitsBroken().size() + result.getCircuitsDegraded().size();
+            }
+            long oneByOne = System.nanoTime() - start;
+            start = System.nanoTime();
+            long batchAffected = 0;
+            for (ImpactSimulation.Impact result : ImpactSimulation.run(impact, scenarios)) {
+                batchAffected += result.getCircuitsBroken().size() + result.getCircuitsDegraded().size();
+            }
+            long batched = System.nanoTime() - start;
+            if (affected != batchAffected) {
+                throw new IllegalStateException("Unexpected Failure");
+            }
+            System.out.println(String.format("Round %d Scenarios: %d One by one: %5d ms Batched: %5d ms Circuits affected: %d",
+                    round, SCENARIOS, oneByOne / 1000000, batched / 1000000, affected));
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package uc;
+
+import com.osstelecom.db.inventory.topology.csr.CsrGraph;
+import com.osstelecom.db.inventory.topology.csr.Reachability;
+import java.util.BitSet;
+import java.util.Random;
+
+/**
+ * Compara a BFS com fila contra a busca por nível com fronteira em bits num
+ * grafo aleatório grande, e os cenários de falha um a um contra 64 por
+ * passada.
+ *
+ * @author Lucas Nishimura
+ * @created 19.10.2026
+ */
+public class ReachabilityBenchmark {
+
+    private static final int NODES = 2000000;
+    private static final int EDGES = 8000000;
+    private static final int SCENARIOS = 256;
+
+    public static void main(String[] args) {
+        Random random = new Random(1);
+        CsrGraph.Builder builder = CsrGraph.builder();
+        for (int v = 0; v < NODES; v++) {
+            builder.addNode("n" + v, v % 1000 == 0, true);
+        }
+        for (int e = 0; e < EDGES; e++) {
+            builder.addEdge(random.nextInt(NODES), random.nextInt(NODES), true);
+        }
+        CsrGraph graph = builder.build();
+        BitSet sources = graph.activeEndPoints();
+        System.out.println("Nodes: " + graph.nodeCount() + " Edges: " + graph.edgeCount() + " Sources: " + sources.cardinality());
+
+        for (int round = 0; round < 5; round++) {
+            long start = System.nanoTime();
+            BitSet queue = bfs(graph, sources, null);
+            long legacy = System.nanoTime() - start;
+            start = System.nanoTime();
+            BitSet bits = Reachability.from(graph, sources);
+            long levels = System.nanoTime() - start;
+            if (!queue.equals(bits)) {
+                throw new IllegalStateException("Unexpected Failure");
+            }
+            System.out.println(String.format("Round %d Queue BFS: %5d ms Bitset BFS: %5d ms Reached: %d",
+                    round, legacy / 1000000, levels / 1000000, bits.cardinality()));
+        }
+
+        CsrGraph.Builder small = CsrGraph.builder();
+        for (int v = 0; v < NODES / 20; v++) {
+            small.addNode("n" + v, v % 1000 == 0, true);
+        }
+        for (int e = 0; e < NODES / 20 + NODES / 40; e++) {
+            small.addEdge(random.nextInt(NODES / 20), random.nextInt(NODES / 20), true);
+        }
+        CsrGraph sparse = small.build();
+        BitSet[] down = new BitSet[SCENARIOS];
+        for (int i = 0; i < SCENARIOS; i++) {
+            down[i] = new BitSet();
+            down[i].set(random.nextInt(sparse.nodeCount()));
+        }
+        BitSet endPoints = sparse.activeEndPoints();
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            for (BitSet scenario : down) {
+                bfs(sparse, endPoints, scenario);
+            }
+            long oneByOne = System.nanoTime() - start;
+            start = System.nanoTime();
+            Reachability.underFailures(sparse, endPoints, down, null);
+            long batched = System.nanoTime() - start;
+            System.out.println(String.format("Round %d Scenarios: %d One by one: %5d ms Batched: %5d ms",
+                    round, SCENARIOS, oneByOne / 1000000, batched / 1000000));
+        }
+    }
+
+    private static BitSet bfs(CsrGraph graph, BitSet sources, BitSet downNodes) {
+        BitSet reached = new BitSet(graph.nodeCount());
+        int[] queue = new int[graph.nodeCount()];
+        int tail = 0;
+        for (int v = sources.nextSetBit(0); v >= 0; v = sources.nextSetBit(v + 1)) {
+            if (downNodes == null || !downNodes.get(v)) {
+                reached.set(v);
+                queue[tail++] = v;
+            }
+        }
+        for (int head = 0; head < tail; head++) {
+            int v = queue[head];
+            for (int slot = graph.firstSlot(v); slot < graph.endSlot(v); slot++) {
+                int u = graph.target(slot);
+                if (!reached.get(u) && graph.isActive(u) && graph.isEdgeActive(graph.edgeAt(slot))
+                        && (downNodes == null || !downNodes.get(u))) {
+                    reached.set(u);
+                    queue[tail++] = u;
+                }
+            }
+        }
+        return reached;
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package uc;
+
+import com.osstelecom.db.inventory.manager.configuration.ConfigurationManager;
+import com.osstelecom.db.inventory.manager.resources.ManagedResource;
+import com.osstelecom.db.inventory.manager.resources.model.ResourceAttributeModel;
+import com.osstelecom.db.inventory.manager.resources.model.ResourceSchemaModel;
+import com.osstelecom.db.inventory.manager.schema.CompiledSchemaValidator;
+import com.osstelecom.db.inventory.manager.schema.SchemaValidatorCompiler;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Compara a validação de recursos buscando o validador no compilador a cada
+ * recurso, o que recalcula a revisão do schema, contra o validador guardado
+ * uma vez, como faz o snapshot do SchemaRegistry.
+ *
+ * @author Lucas Nishimura
+ * @created 19.10.2026
+ */
+public class SchemaValidationBenchmark {
+
+    private static final int RESOURCES = 50000;
+    private static final int ATTRIBUTES = 20;
+
+    public static void main(String[] args) throws Exception {
+        ConfigurationManager configurationManager = new ConfigurationManager();
+        SchemaValidatorCompiler compiler = new SchemaValidatorCompiler();
+        ReflectionTestUtils.setField(compiler, "configurationManager", configurationManager);
+
+        ResourceSchemaModel schema = newSchema();
+        System.out.println("Resources: " + RESOURCES + " Attributes: " + ATTRIBUTES);
+
+        for (int round = 0; round < 5; round++) {
+            //
+            // Os recursos são criados fora da medição
+            //
+            ManagedResource[] resources = new ManagedResource[RESOURCES];
+            for (int x = 0; x < RESOURCES; x++) {
+                resources[x] = newResource(schema, x);
+            }
+            Long start = System.currentTimeMillis();
+            for (ManagedResource resource : resources) {
+                compiler.compile(schema).validate(resource);
+            }
+            Long perResource = System.currentTimeMillis() - start;
+
+            for (int x = 0; x < RESOURCES; x++) {
+                resources[x] = newResource(schema, x);
+            }
+            start = System.currentTimeMillis();
+            CompiledSchemaValidator validator = compiler.compile(schema);
+            for (ManagedResource resource : resources) {
+                validator.validate(resource);
+            }
+            Long cached = System.currentTimeMillis() - start;
+            System.out.println(String.format("Round %d Per Resource: %6d ms (%8.0f res/s) Cached: %6d ms (%8.0f res/s)",
+                    round, perResource, RESOURCES * 1000.0 / Math.max(1, perResource), cached, RESOURCES * 1000.0 / Math.max(1, cached)));
+        }
+    }
+
+    private static ResourceSchemaModel newSchema() {
+        ResourceSchemaModel schema = new ResourceSchemaModel();
+        schema.setSchemaName("resource.bench");
+        schema.setAllowAll(false);
+        HashMap<String, ResourceAttributeModel> attributes = new HashMap<>();
+        for (int i = 0; i < ATTRIBUTES; i++) {
+            ResourceAttributeModel attribute = new ResourceAttributeModel();
+            attribute.setName("attr" + i);
+            attribute.setRequired(i % 2 == 0);
+            attribute.setValidate(true);
+            attribute.setIsList(false);
+            if (i % 3 == 0) {
+                attribute.setVariableType("Number");
+                attribute.setValidationRegex("[0-9]+");
+            } else {
+                attribute.setVariableType("String");
+                attribute.setValidationRegex("[a-z]+-[0-9]+");
+            }
+            attributes.put(attribute.getName(), attribute);
+        }
+        schema.setAttributes(attributes);
+        return schema;
+    }
+
+    private static ManagedResource newResource(ResourceSchemaModel schema, int index) {
+        ManagedResource resource = new ManagedResource();
+        resource.setSchemaModel(schema);
+        Map<String, Object> values = new ConcurrentHashMap<>();
+        schema.getAttributes().values().forEach(attribute -> values.put(attribute.getName(),
+                attribute.getVariableType().equals("Number") ? String.valueOf(index) : "value-" + index));
+        resource.setAttributes(values);
+        return resource;
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package uc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.osstelecom.db.inventory.manager.dto.TransientTopologyDTO;
+import com.osstelecom.db.inventory.topology.session.TransientGraph;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Tempo e memória alocada para ler a mesma topologia em DOT, em lista de
+ * conexões JSON (incluindo a desserialização do Jackson) e no binário
+ * colunar, com e sem gzip. O parser do graphviz-java não escala (com 10 mil
+ * conexões passa de minutos, com 100 mil estoura a pilha), então o DOT roda
+ * só até DOT_LIMIT conexões.
+ *
+ * @author Lucas Nishimura
+ * @created 19.10.2026
+ */
+public class TransientTopologyParseBenchmark {
+
+    private static final int[] EDGES = {2000, 100000, 1000000};
+    private static final int DOT_LIMIT = 2000;
+
+    private interface Parse {
+
+        TransientGraph run() throws Exception;
+    }
+
+    public static void main(String[] args) throws Exception {
+        for (int edges : EDGES) {
+            run(edges / 5, edges);
+        }
+    }
+
+    private static void run(int nodes, int edgeCount) throws Exception {
+        Random random = new Random(42);
+        TransientGraph graph = new TransientGraph();
+        StringBuilder dot = new StringBuilder("graph {\n");
+        List<List<String>> edges = new ArrayList<>();
+        for (int v = 0; v < nodes; v++) {
+            graph.node("node-" + v);
+        }
+        for (int e = 0; e < edgeCount; e++) {
+            int from = random.nextInt(nodes);
+            int to = random.nextInt(nodes);
+            graph.edge(from, to);
+            dot.append("\"node-").append(from).append("\" -- \"node-").append(to).append("\";\n");
+            edges.add(Arrays.asList("node-" + from, "node-" + to));
+        }
+        dot.append("}");
+        ObjectMapper mapper = new ObjectMapper();
+        TransientTopologyDTO payLoad = new TransientTopologyDTO();
+        payLoad.setEdges(edges);
+        byte[] json = mapper.writeValueAsBytes(payLoad);
+        ByteArrayOutputStream plain = new ByteArrayOutputStream();
+        graph.writeBinary(plain, false);
+        ByteArrayOutputStream gzip = new ByteArrayOutputStream();
+        graph.writeBinary(gzip, true);
+        String plainBase64 = Base64.getEncoder().encodeToString(plain.toByteArray());
+        String gzipBase64 = Base64.getEncoder().encodeToString(gzip.toByteArray());
+        String dotTopology = dot.toString();
+
+        System.out.println("Nodes: " + nodes + " Edges: " + edgeCount);
+        System.out.println(String.format("Payload DOT: %d bytes JSON: %d bytes Binary: %d bytes Gzip: %d bytes",
+                dotTopology.length(), json.length, plain.size(), gzip.size()));
+        boolean dotFailed = edgeCount > DOT_LIMIT;
+        for (int round = 0; round < 3; round++) {
+            System.out.println("Round " + round);
+            if (!dotFailed) {
+                try {
+                    measure("DOT", () -> TransientGraph.fromDot(dotTopology));
+                } catch (StackOverflowError ex) {
+                    System.out.println("  DOT    StackOverflowError");
+                    dotFailed = true;
+                }
+            }
+            measure("JSON", () -> {
+                TransientTopologyDTO read = mapper.readValue(json, TransientTopologyDTO.class);
+                return TransientGraph.fromEdgeList(read.getNodes(), read.getEdges());
+            });
+            measure("Binary", () -> TransientGraph.fromBinary(Base64.getDecoder().wrap(new ByteArrayInputStream(plainBase64.getBytes()))));
+            measure("Gzip", () -> TransientGraph.fromBinary(Base64.getDecoder().wrap(new ByteArrayInputStream(gzipBase64.getBytes()))));
+        }
+    }
+
+    private static void measure(String format, Parse parse) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        long allocated = threads.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        TransientGraph graph = parse.run();
+        long elapsed = System.nanoTime() - start;
+        allocated = threads.getThreadAllocatedBytes(thread) - allocated;
+        System.out.println(String.format("  %-6s %8.1f ms %8.1f MB allocated Nodes: %d Edges: %d",
+                format, elapsed / 1e6, allocated / 1048576.0, graph.nodeCount(), graph.edgeCount()));
+    }
+}
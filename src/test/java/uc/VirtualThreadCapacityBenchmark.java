@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2026 Lucas Nishimura <lucas.nishimura@gmail.com>
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU General Public License
+ * as published by the Free Software Foundation; either version 2
+ * of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 59 Temple Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package uc;
+
+import com.osstelecom.db.inventory.manager.configuration.VirtualThreadConfiguration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compara a capacidade de requisições concorrentes entre o pool de workers do
+ * Undertow (256 threads de plataforma, como no application-dev) e o modo
+ * virtual thread. Cada "requisição" simula uma chamada bloqueante ao Arango.
+ *
+ * Rodar com Java 21+ para ter o resultado do modo virtual.
+ *
+ * @author Lucas Nishimura
+ * @created 19.10.2026
+ */
+public class VirtualThreadCapacityBenchmark {
+
+    private static final int REQUESTS = 20000;
+    private static final int PLATFORM_WORKERS = 256;
+    private static final long DB_CALL_MS = 50;
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("Requests: " + REQUESTS + " Blocking DB Call: " + DB_CALL_MS + " ms");
+        run("platform(" + PLATFORM_WORKERS + ")", Executors.newFixedThreadPool(PLATFORM_WORKERS));
+        if (VirtualThreadConfiguration.isSupported()) {
+            run("virtual", VirtualThreadConfiguration.newExecutor("bench-vt-"));
+        } else {
+            System.out.println("Virtual Threads not supported in: " + Runtime.version());
+        }
+    }
+
+    private static void run(String name, ExecutorService executor) throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(REQUESTS);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        Long start = System.currentTimeMillis();
+        for (int x = 0; x < REQUESTS; x++) {
+            executor.execute(() -> {
+                int current = inFlight.incrementAndGet();
+                maxInFlight.accumulateAndGet(current, Math::max);
+                try {
+                    Thread.sleep(DB_CALL_MS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    inFlight.decrementAndGet();
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        Long took = System.currentTimeMillis() - start;
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+        System.out.println(String.format("[%-14s] Took: %6d ms Throughput: %8.0f req/s Max Concurrent: %d",
+                name, took, REQUESTS * 1000.0 / took, maxInFlight.get()));
+    }
+}